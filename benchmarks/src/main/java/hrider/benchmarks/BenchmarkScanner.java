@@ -0,0 +1,65 @@
+package hrider.benchmarks;
+
+import hrider.data.*;
+import hrider.hbase.Scanner;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.client.Result;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a scanner without a connection to the cluster. It materializes the provided rows into a page exactly the way
+ *          the rows returned by the hbase scanner are materialized by {@link Scanner}.
+ */
+public class BenchmarkScanner extends Scanner {
+
+    //region Constructor
+    public BenchmarkScanner() {
+        super(null, "benchmark");
+        setColumnTypes(new HashMap<String, ColumnType>());
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Materializes the rows into a new page.
+     *
+     * @param results The rows as returned by the hbase scanner.
+     * @param table   The descriptor of the table.
+     * @param rows    The materialized rows. This is the output parameter.
+     * @return The page holding the cells of the rows.
+     */
+    public DataPage load(List<Result> results, HTableDescriptor table, Collection<DataRow> rows) {
+        DataPage page = new DataPage(new ColumnDictionary());
+        Collection<ColumnQualifier> columns = new ArrayList<ColumnQualifier>();
+
+        for (Result result : results) {
+            rows.add(loadRow(result, table, page, columns, null));
+        }
+
+        page.trim();
+        return page;
+    }
+    //endregion
+}
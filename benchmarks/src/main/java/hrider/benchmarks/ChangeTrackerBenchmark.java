@@ -0,0 +1,84 @@
+package hrider.benchmarks;
+
+import hrider.data.*;
+import hrider.ui.ChangeTracker;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class benchmarks recording the edited cells. The cells are spread over many rows and some of them are edited repeatedly,
+ *          the way a long editing session or a paste of a large selection does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ChangeTrackerBenchmark {
+
+    //region Variables
+    @Param({"100", "1000"})
+    private int rows;
+    @Param({"10"})
+    private int columns;
+    @Param({"2"})
+    private int edits;
+
+    private List<DataCell> cells;
+    private List<byte[]>   originals;
+    //endregion
+
+    //region Public Methods
+    @Setup
+    public void setup() {
+        ColumnFamily family = new ColumnFamily(Bytes.toString(SyntheticData.FAMILY));
+        byte[][] qualifiers = SyntheticData.createQualifiers(this.columns);
+
+        this.cells = new ArrayList<DataCell>(this.rows * this.columns * this.edits);
+        this.originals = new ArrayList<byte[]>(this.rows * this.columns * this.edits);
+
+        for (int edit = 0 ; edit < this.edits ; edit++) {
+            for (int i = 0 ; i < this.rows ; i++) {
+                DataRow row = new DataRow(new ConvertibleObject(ColumnType.String, SyntheticData.createKey(i)));
+
+                for (byte[] qualifier : qualifiers) {
+                    ColumnQualifier column = new ColumnQualifier(qualifier, family, ColumnType.String.getConverter());
+                    this.cells.add(new DataCell(row, column, new ConvertibleObject(ColumnType.String, Bytes.toBytes("value" + edit))));
+                    this.originals.add(Bytes.toBytes(edit > 0 ? "value" + (edit - 1) : "original"));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public ChangeTracker addChanges() {
+        ChangeTracker tracker = new ChangeTracker();
+        for (int i = 0 ; i < this.cells.size() ; i++) {
+            tracker.addChange(this.cells.get(i), this.originals.get(i));
+        }
+        return tracker;
+    }
+    //endregion
+}
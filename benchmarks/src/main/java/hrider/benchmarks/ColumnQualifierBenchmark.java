@@ -0,0 +1,105 @@
+package hrider.benchmarks;
+
+import hrider.data.ColumnDictionary;
+import hrider.data.ColumnFamily;
+import hrider.data.ColumnQualifier;
+import hrider.data.ColumnType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class benchmarks the lookups of the columns. The columns are the keys of the cells of the rows and of the column types, so
+ *          their hash codes are computed for every cell. The lookup by the family and qualifier bytes used by the pages is measured as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ColumnQualifierBenchmark {
+
+    //region Variables
+    @Param({"200"})
+    private int columns;
+
+    private byte[][]                         qualifiers;
+    private ColumnQualifier[]                keys;
+    private ColumnQualifier[]                lookups;
+    private Map<ColumnQualifier, ColumnType> types;
+    private ColumnDictionary                 dictionary;
+    //endregion
+
+    //region Public Methods
+    @Setup
+    public void setup() {
+        this.qualifiers = SyntheticData.createQualifiers(this.columns);
+        this.keys = new ColumnQualifier[this.columns];
+        this.lookups = new ColumnQualifier[this.columns];
+        this.types = new HashMap<ColumnQualifier, ColumnType>();
+        this.dictionary = new ColumnDictionary();
+
+        ColumnFamily family = new ColumnFamily("f");
+
+        for (int i = 0 ; i < this.columns ; i++) {
+            this.keys[i] = new ColumnQualifier(this.qualifiers[i], family, ColumnType.String.getConverter());
+            // Distinct instances so the lookups do not succeed on the identity check.
+            this.lookups[i] = new ColumnQualifier(this.qualifiers[i], family, ColumnType.String.getConverter());
+
+            this.types.put(this.keys[i], ColumnType.String);
+            this.dictionary.add(this.keys[i], ColumnType.String);
+        }
+    }
+
+    @Benchmark
+    public int hashCodes() {
+        int hash = 0;
+        for (ColumnQualifier column : this.lookups) {
+            hash += column.hashCode();
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public int mapLookups() {
+        int found = 0;
+        for (ColumnQualifier column : this.lookups) {
+            if (this.types.get(column) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int dictionaryLookups() {
+        int found = 0;
+        for (byte[] qualifier : this.qualifiers) {
+            if (this.dictionary.indexOf(SyntheticData.FAMILY, 0, SyntheticData.FAMILY.length, qualifier, 0, qualifier.length) != -1) {
+                found++;
+            }
+        }
+        return found;
+    }
+    //endregion
+}
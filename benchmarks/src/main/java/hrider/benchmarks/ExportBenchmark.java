@@ -0,0 +1,135 @@
+package hrider.benchmarks;
+
+import hrider.data.*;
+import hrider.export.DelimitedExporter;
+import hrider.export.ExportSchema;
+import hrider.export.FileExporter;
+import hrider.export.OutputBuffer;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class benchmarks writing the rows to a character delimited stream, through {@link FileExporter} for the loaded rows and
+ *          through {@link DelimitedExporter} for the rows exported straight from the hbase scanner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ExportBenchmark {
+
+    //region Constants
+    private static final char DELIMITER   = ',';
+    private static final int  BUFFER_SIZE = 1024 * 1024;
+    //endregion
+
+    //region Variables
+    @Param({"1000"})
+    private int rows;
+    @Param({"20", "200"})
+    private int columns;
+    @Param({"16"})
+    private int valueSize;
+
+    private List<Result>          results;
+    private List<DataRow>         dataRows;
+    private List<ColumnQualifier> header;
+    private HTableDescriptor      table;
+    //endregion
+
+    //region Public Methods
+    @Setup
+    public void setup() {
+        this.results = SyntheticData.createRows(this.rows, this.columns, this.valueSize);
+        this.table = SyntheticData.createTable("benchmark");
+
+        ColumnFamily family = new ColumnFamily(Bytes.toString(SyntheticData.FAMILY));
+
+        this.header = new ArrayList<ColumnQualifier>();
+        this.header.add(ColumnQualifier.KEY);
+        for (byte[] qualifier : SyntheticData.createQualifiers(this.columns)) {
+            this.header.add(new ColumnQualifier(qualifier, family, ColumnType.String.getConverter()));
+        }
+
+        this.dataRows = new ArrayList<DataRow>(this.rows);
+        for (Result result : this.results) {
+            DataRow row = new DataRow(new ConvertibleObject(ColumnType.String, result.getRow()));
+            row.addCell(new DataCell(row, ColumnQualifier.KEY, row.getKey()));
+
+            Cell[] cells = result.rawCells();
+            for (int i = 0 ; i < cells.length ; i++) {
+                row.addCell(new DataCell(row, this.header.get(i + 1), new ConvertibleObject(ColumnType.String, cellValue(cells[i]))));
+            }
+
+            this.dataRows.add(row);
+        }
+    }
+
+    @Benchmark
+    public long fileExporter() throws IOException {
+        NullOutputStream stream = new NullOutputStream();
+
+        FileExporter exporter = new FileExporter(stream, DELIMITER);
+        for (DataRow row : this.dataRows) {
+            exporter.write(row, this.header);
+        }
+        return stream.getCount();
+    }
+
+    @Benchmark
+    public long delimitedExporter() throws IOException {
+        NullOutputStream stream = new NullOutputStream();
+        OutputBuffer output = new OutputBuffer(stream, Charset.defaultCharset(), BUFFER_SIZE);
+
+        ExportSchema schema = new ExportSchema(this.table, ColumnType.String.getConverter(), new HashMap<String, ColumnType>());
+
+        DelimitedExporter exporter = new DelimitedExporter(output, DELIMITER);
+        for (Result row : this.results) {
+            if (schema.getHeader() == null) {
+                schema.setHeaderFrom(Arrays.asList(row.rawCells()));
+                exporter.writeHeader(schema);
+            }
+            exporter.write(row, schema);
+        }
+
+        output.flush();
+        return stream.getCount();
+    }
+    //endregion
+
+    //region Private Methods
+    private static byte[] cellValue(Cell cell) {
+        return Bytes.copy(cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+    }
+    //endregion
+}
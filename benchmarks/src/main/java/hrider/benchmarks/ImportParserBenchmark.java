@@ -0,0 +1,74 @@
+package hrider.benchmarks;
+
+import hrider.format.DelimitedParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class benchmarks splitting the lines of a character delimited file into values, which is done by the import for every line
+ *          of the file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ImportParserBenchmark {
+
+    //region Constants
+    private static final char DELIMITER = ',';
+    //endregion
+
+    //region Variables
+    @Param({"1000"})
+    private int rows;
+    @Param({"20", "200"})
+    private int columns;
+    @Param({"16"})
+    private int valueSize;
+
+    private List<String>    lines;
+    private DelimitedParser parser;
+    private List<String>    values;
+    //endregion
+
+    //region Public Methods
+    @Setup
+    public void setup() {
+        this.lines = SyntheticData.createLines(this.rows, this.columns, this.valueSize, DELIMITER);
+        this.parser = new DelimitedParser(DELIMITER);
+        this.values = new ArrayList<String>(this.columns + 1);
+    }
+
+    @Benchmark
+    public int parse() {
+        int count = 0;
+        for (String line : this.lines) {
+            this.values.clear();
+            count += this.parser.parse(line, 0, line.length(), this.values);
+        }
+        return count;
+    }
+    //endregion
+}
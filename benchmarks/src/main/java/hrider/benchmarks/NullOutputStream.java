@@ -0,0 +1,49 @@
+package hrider.benchmarks;
+
+import java.io.OutputStream;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a stream discarding everything written to it. It counts the bytes so the written data cannot be eliminated
+ *          by the compiler.
+ */
+public class NullOutputStream extends OutputStream {
+
+    //region Variables
+    private long count;
+    //endregion
+
+    //region Public Properties
+    public long getCount() {
+        return this.count;
+    }
+    //endregion
+
+    //region Public Methods
+    @Override
+    public void write(int b) {
+        this.count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        this.count += len;
+    }
+    //endregion
+}
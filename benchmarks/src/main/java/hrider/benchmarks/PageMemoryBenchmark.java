@@ -0,0 +1,108 @@
+package hrider.benchmarks;
+
+import hrider.data.*;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.client.Result;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class compares the memory taken by a loaded page of rows in the compact page model with the model holding a
+ *          {@link DataCell}, a {@link ConvertibleObject} and a {@link ColumnQualifier} per cell. Each benchmark builds the whole page and keeps
+ *          it, so the gc.alloc.rate.norm metric of the gc profiler, which the runner always enables, is the footprint of the page in bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PageMemoryBenchmark {
+
+    //region Variables
+    @Param({"10000"})
+    private int rows;
+    @Param({"200"})
+    private int columns;
+    @Param({"16"})
+    private int valueSize;
+
+    private List<Result>     results;
+    private HTableDescriptor table;
+    private BenchmarkScanner scanner;
+    /**
+     * Keeps the last built page reachable until the next one is built.
+     */
+    private Object           page;
+    //endregion
+
+    //region Public Methods
+    @Setup
+    public void setup() {
+        this.results = SyntheticData.createRows(this.rows, this.columns, this.valueSize);
+        this.table = SyntheticData.createTable("benchmark");
+        this.scanner = new BenchmarkScanner();
+    }
+
+    @TearDown(Level.Iteration)
+    public void release() {
+        this.page = null;
+    }
+
+    @Benchmark
+    public Object dataPage() {
+        List<DataRow> rows = new ArrayList<DataRow>(this.rows);
+        this.scanner.load(this.results, this.table, rows);
+
+        this.page = rows;
+        return rows;
+    }
+
+    @Benchmark
+    public Object dataRows() {
+        List<DataRow> rows = new ArrayList<DataRow>(this.rows);
+
+        for (Result result : this.results) {
+            ConvertibleObject key = new ConvertibleObject(ColumnType.BinaryString, result.getRow());
+
+            DataRow row = new DataRow(key);
+            row.addCell(new DataCell(row, ColumnQualifier.KEY, key));
+
+            for (Cell cell : result.rawCells()) {
+                ColumnQualifier qualifier = new ColumnQualifier(
+                    CellUtil.cloneQualifier(cell), new ColumnFamily(this.table.getFamily(CellUtil.cloneFamily(cell))),
+                    ColumnType.String.getConverter());
+
+                row.addCell(new DataCell(row, qualifier, new ConvertibleObject(ColumnType.String, CellUtil.cloneValue(cell))));
+            }
+
+            rows.add(row);
+        }
+
+        this.page = rows;
+        return rows;
+    }
+    //endregion
+}
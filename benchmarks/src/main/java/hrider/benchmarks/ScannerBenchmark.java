@@ -0,0 +1,69 @@
+package hrider.benchmarks;
+
+import hrider.data.DataPage;
+import hrider.data.DataRow;
+import hrider.hbase.Scanner;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.client.Result;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class benchmarks the materialization of the rows returned by the hbase scanner into a page, which is what
+ *          {@link Scanner} does for every loaded row. The rows are synthetic, no cluster is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ScannerBenchmark {
+
+    //region Variables
+    @Param({"1000"})
+    private int rows;
+    @Param({"20", "200"})
+    private int columns;
+    @Param({"16"})
+    private int valueSize;
+
+    private List<Result>     results;
+    private HTableDescriptor table;
+    private BenchmarkScanner scanner;
+    //endregion
+
+    //region Public Methods
+    @Setup
+    public void setup() {
+        this.results = SyntheticData.createRows(this.rows, this.columns, this.valueSize);
+        this.table = SyntheticData.createTable("benchmark");
+        this.scanner = new BenchmarkScanner();
+    }
+
+    @Benchmark
+    public DataPage loadRows() {
+        return this.scanner.load(this.results, this.table, new ArrayList<DataRow>(this.rows));
+    }
+    //endregion
+}
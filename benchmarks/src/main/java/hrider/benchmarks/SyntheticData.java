@@ -0,0 +1,159 @@
+package hrider.benchmarks;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class generates the synthetic tables, rows and lines used by the benchmarks in place of a running cluster. The data is
+ *          generated from a fixed seed so every run of the benchmarks works on the same data.
+ */
+public class SyntheticData {
+
+    //region Constants
+    public static final byte[] FAMILY    = Bytes.toBytes("f");
+    public static final long   TIMESTAMP = 1400000000000L;
+
+    private static final long   SEED    = 42;
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    //endregion
+
+    //region Constructor
+    private SyntheticData() {
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Creates the descriptor of a table with a single column family.
+     *
+     * @param name The name of the table.
+     * @return A table descriptor.
+     */
+    public static HTableDescriptor createTable(String name) {
+        HTableDescriptor table = new HTableDescriptor(TableName.valueOf(name));
+        table.addFamily(new HColumnDescriptor(FAMILY));
+        return table;
+    }
+
+    /**
+     * Creates the qualifiers of the columns sorted the same way as in hbase.
+     *
+     * @param columns The number of columns.
+     * @return An array of qualifiers.
+     */
+    public static byte[][] createQualifiers(int columns) {
+        byte[][] qualifiers = new byte[columns][];
+        for (int i = 0 ; i < columns ; i++) {
+            qualifiers[i] = Bytes.toBytes(String.format("column%04d", i));
+        }
+        return qualifiers;
+    }
+
+    /**
+     * Gets the key of the row.
+     *
+     * @param row The number of the row.
+     * @return The key of the row.
+     */
+    public static byte[] createKey(int row) {
+        return Bytes.toBytes(String.format("row%08d", row));
+    }
+
+    /**
+     * Creates the rows as they are returned by the hbase scanner.
+     *
+     * @param rows      The number of rows.
+     * @param columns   The number of columns of each row.
+     * @param valueSize The number of characters of each value.
+     * @return A list of rows.
+     */
+    public static List<Result> createRows(int rows, int columns, int valueSize) {
+        Random random = new Random(SEED);
+        byte[][] qualifiers = createQualifiers(columns);
+
+        List<Result> results = new ArrayList<Result>(rows);
+        for (int i = 0 ; i < rows ; i++) {
+            byte[] key = createKey(i);
+
+            List<Cell> cells = new ArrayList<Cell>(columns);
+            for (byte[] qualifier : qualifiers) {
+                cells.add(new KeyValue(key, FAMILY, qualifier, TIMESTAMP, Bytes.toBytes(createValue(random, valueSize))));
+            }
+
+            results.add(Result.create(cells));
+        }
+        return results;
+    }
+
+    /**
+     * Creates the lines of a character delimited file. Every tenth value is quoted and contains the delimiter.
+     *
+     * @param rows      The number of lines.
+     * @param columns   The number of values of each line.
+     * @param valueSize The number of characters of each value.
+     * @param delimiter The character delimiting the values.
+     * @return A list of lines without the line separators.
+     */
+    public static List<String> createLines(int rows, int columns, int valueSize, char delimiter) {
+        Random random = new Random(SEED);
+
+        List<String> lines = new ArrayList<String>(rows);
+        for (int i = 0 ; i < rows ; i++) {
+            StringBuilder line = new StringBuilder();
+            line.append(Bytes.toString(createKey(i)));
+
+            for (int j = 0 ; j < columns ; j++) {
+                line.append(delimiter);
+
+                String value = createValue(random, valueSize);
+                if (j % 10 == 0) {
+                    line.append('"').append(value).append(delimiter).append(value).append('"');
+                }
+                else {
+                    line.append(value);
+                }
+            }
+
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+    //endregion
+
+    //region Private Methods
+    private static String createValue(Random random, int size) {
+        char[] value = new char[size];
+        for (int i = 0 ; i < size ; i++) {
+            value[i] = LETTERS.charAt(random.nextInt(LETTERS.length()));
+        }
+        return new String(value);
+    }
+    //endregion
+}
@@ -0,0 +1,127 @@
+package hrider.benchmarks;
+
+import hrider.data.ColumnType;
+import hrider.format.DateUtils;
+import org.apache.hadoop.hbase.HRegionInfo;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class benchmarks the conversion of the values of every built-in column type from bytes to text and back, which happens for
+ *          every rendered, edited, exported and imported cell.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TypeConverterBenchmark {
+
+    //region Variables
+    @Param({
+        "String", "BinaryString", "Boolean", "Byte", "Integer", "Long", "Short", "Double", "Float", "DateAsLong", "DateAsString", "Json",
+        "Xml", "RegionInfo"})
+    private String type;
+
+    private ColumnType columnType;
+    private byte[]     bytes;
+    private String     text;
+    //endregion
+
+    //region Public Methods
+    @Setup
+    public void setup() {
+        this.columnType = ColumnType.fromName(this.type);
+        if (this.columnType == null) {
+            throw new IllegalStateException(String.format("The column type '%s' is not registered.", this.type));
+        }
+
+        this.bytes = createValue(this.type);
+        this.text = this.columnType.toString(this.bytes);
+    }
+
+    @Benchmark
+    public String convertToString() {
+        return this.columnType.toString(this.bytes);
+    }
+
+    @Benchmark
+    public byte[] convertToBytes() {
+        return this.columnType.toBytes(this.text);
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Creates a typical value of the column type as it is stored in hbase.
+     *
+     * @param type The name of the column type.
+     * @return The value.
+     */
+    private static byte[] createValue(String type) {
+        if ("Boolean".equals(type)) {
+            return Bytes.toBytes(true);
+        }
+        if ("Byte".equals(type)) {
+            return new byte[]{(byte)0xc8};
+        }
+        if ("Integer".equals(type)) {
+            return Bytes.toBytes(123456789);
+        }
+        if ("Long".equals(type)) {
+            return Bytes.toBytes(1234567890123L);
+        }
+        if ("Short".equals(type)) {
+            return Bytes.toBytes((short)12345);
+        }
+        if ("Double".equals(type)) {
+            return Bytes.toBytes(12345.6789d);
+        }
+        if ("Float".equals(type)) {
+            return Bytes.toBytes(123.456f);
+        }
+        if ("DateAsLong".equals(type)) {
+            return Bytes.toBytes(SyntheticData.TIMESTAMP);
+        }
+        if ("DateAsString".equals(type)) {
+            return Bytes.toBytes(DateUtils.format(new Date(SyntheticData.TIMESTAMP)));
+        }
+        if ("BinaryString".equals(type)) {
+            return new byte[]{0, 1, 2, 3, 'k', 'e', 'y', (byte)0xff, (byte)0xfe};
+        }
+        if ("Json".equals(type)) {
+            return Bytes.toBytes("{\"name\":\"value\",\"number\":12345,\"array\":[1,2,3],\"nested\":{\"flag\":true}}");
+        }
+        if ("Xml".equals(type)) {
+            return Bytes.toBytes("<root><name>value</name><number>12345</number><nested flag=\"true\"/></root>");
+        }
+        if ("RegionInfo".equals(type)) {
+            return new HRegionInfo(TableName.valueOf("benchmark"), Bytes.toBytes("a"), Bytes.toBytes("z")).toByteArray();
+        }
+        return Bytes.toBytes("The quick brown fox jumps over the lazy dog");
+    }
+    //endregion
+}
@@ -0,0 +1,65 @@
+package hrider.actions;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class contains the helper methods used to get the results of the tasks executed in the background.
+ */
+public class FutureUtils {
+
+    //region Constructor
+    private FutureUtils() {
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Gets the result of the task waiting for it to complete if necessary. The I/O and the runtime errors of the task are thrown as they
+     * are, the other errors are wrapped with an {@link IOException}.
+     *
+     * @param future The future representing the task.
+     * @param <T>    The type of the result.
+     * @return The result of the task.
+     * @throws IOException          The task has failed.
+     * @throws InterruptedException The current thread has been interrupted while waiting.
+     */
+    public static <T> T getResult(Future<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+    //endregion
+}
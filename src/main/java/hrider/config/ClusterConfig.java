@@ -142,6 +142,71 @@ public class ClusterConfig extends PropertiesConfig {
         set(String.format("table.%s.%s.%s", table, column, key), value);
     }
 
+    /**
+     * Gets the definition of the schema of the row keys of the specified table.
+     *
+     * @param table The name of the table.
+     * @return The definition of the schema or null if the keys of the table do not have a schema.
+     */
+    public String getRowKeySchema(String table) {
+        return get(String.class, String.format("table.%s.key.schema", table));
+    }
+
+    /**
+     * Saves the definition of the schema of the row keys of the specified table.
+     *
+     * @param table  The name of the table.
+     * @param schema The definition of the schema or null to remove the schema.
+     */
+    public void setRowKeySchema(String table, String schema) {
+        if (schema != null) {
+            set(String.format("table.%s.key.schema", table), schema);
+        }
+        else {
+            remove(String.format("table.%s.key.schema", table));
+        }
+    }
+
+    /**
+     * Gets the number of the buckets the row keys of the specified table are salted with.
+     *
+     * @param table The name of the table.
+     * @return The number of the buckets or 0 if the keys of the table are not salted.
+     */
+    public int getKeySaltBuckets(String table) {
+        Integer buckets = get(Integer.class, String.format("table.%s.key.salt.buckets", table));
+        return buckets != null ? buckets : 0;
+    }
+
+    /**
+     * Gets the number of the leading bytes of the row keys of the specified table holding the bucket.
+     *
+     * @param table The name of the table.
+     * @return The number of bytes.
+     */
+    public int getKeySaltWidth(String table) {
+        Integer width = get(Integer.class, String.format("table.%s.key.salt.width", table));
+        return width != null ? width : 1;
+    }
+
+    /**
+     * Saves the salting of the row keys of the specified table.
+     *
+     * @param table   The name of the table.
+     * @param buckets The number of the buckets or 0 to remove the salting.
+     * @param width   The number of the leading bytes of the keys holding the bucket.
+     */
+    public void setKeySalt(String table, int buckets, int width) {
+        if (buckets > 1) {
+            set(String.format("table.%s.key.salt.buckets", table), String.valueOf(buckets));
+            set(String.format("table.%s.key.salt.width", table), String.valueOf(width));
+        }
+        else {
+            remove(String.format("table.%s.key.salt.buckets", table));
+            remove(String.format("table.%s.key.salt.width", table));
+        }
+    }
+
     /**
      * Gets a list of table filters.
      *
@@ -33,6 +33,31 @@ public class GlobalConfig extends PropertiesConfig {
     private static final String KEY_BATCH_WRITE_SIZE               = "global.batch.writeSize";
     private static final String KEY_CONNECTION_CHECK_TIMEOUT       = "global.connection.check.timeout";
     private static final String KEY_ROW_COUNT_OPERATION_TIMEOUT    = "global.operation.timeout.rowCount";
+    private static final String KEY_ROW_COUNT_OPERATION_THREADS    = "global.operation.threads.rowCount";
+    private static final String KEY_SCAN_OPERATION_THREADS         = "global.operation.threads.scan";
+    private static final String KEY_COPY_OPERATION_THREADS         = "global.operation.threads.copy";
+    private static final String KEY_COPY_QUEUE_SIZE                = "global.copy.queueSize";
+    private static final String KEY_COPY_MAX_ROWS_PER_SECOND       = "global.copy.maxRowsPerSecond";
+    private static final String KEY_COPY_MAX_BYTES_PER_SECOND      = "global.copy.maxBytesPerSecond";
+    private static final String KEY_IMPORT_PARSER_THREADS          = "global.operation.threads.importParser";
+    private static final String KEY_IMPORT_WRITER_THREADS          = "global.operation.threads.importWriter";
+    private static final String KEY_IMPORT_QUEUE_SIZE              = "global.import.queueSize";
+    private static final String KEY_IMPORT_CHUNK_SIZE              = "global.import.chunkSize";
+    private static final String KEY_IMPORT_MAP_THRESHOLD           = "global.import.mapThreshold";
+    private static final String KEY_EXPORT_OPERATION_THREADS       = "global.operation.threads.export";
+    private static final String KEY_EXPORT_QUEUE_SIZE              = "global.export.queueSize";
+    private static final String KEY_EXPORT_BUFFER_SIZE             = "global.export.bufferSize";
+    private static final String KEY_PROGRESS_INTERVAL              = "global.operation.progressInterval";
+    private static final String KEY_JOB_CHECKPOINT_INTERVAL        = "global.job.checkpointInterval";
+    private static final String KEY_SCANNER_KEEP_ALIVE             = "global.scanner.keepAlive";
+    private static final String KEY_SCANNER_PARALLEL               = "global.scanner.parallel";
+    private static final String KEY_SCANNER_LEASE_TIMEOUT          = "global.scanner.leaseTimeout";
+    private static final String KEY_SCANNER_INDEX_INTERVAL         = "global.scanner.indexInterval";
+    private static final String KEY_ROWS_CACHE_SIZE                = "global.rows.cacheSize";
+    private static final String KEY_METADATA_REFRESH_INTERVAL      = "global.metadata.refreshInterval";
+    private static final String KEY_MUTATION_FLUSH_INTERVAL        = "global.mutation.flushInterval";
+    private static final String KEY_MUTATION_MAX_IN_FLIGHT         = "global.mutation.maxInFlight";
+    private static final String KEY_MUTATION_RETRIES               = "global.mutation.retries";
     private static final String KEY_CONVERTERS_CLASSES_FOLDER      = "global.converters.classes.folder";
     private static final String KEY_CONVERTERS_CODE_FOLDER         = "global.converters.code.folder";
 
@@ -44,6 +69,31 @@ public class GlobalConfig extends PropertiesConfig {
     private static final String DEFAULT_BATCH_WRITE_SIZE               = "100";
     private static final String DEFAULT_CONNECTION_CHECK_TIMEOUT       = "5000";
     private static final String DEFAULT_ROW_COUNT_OPERATION_TIMEOUT    = "30000";
+    private static final String DEFAULT_ROW_COUNT_OPERATION_THREADS    = "8";
+    private static final String DEFAULT_SCAN_OPERATION_THREADS         = "8";
+    private static final String DEFAULT_COPY_OPERATION_THREADS         = "4";
+    private static final String DEFAULT_COPY_QUEUE_SIZE                = "4";
+    private static final String DEFAULT_COPY_MAX_ROWS_PER_SECOND       = "0";
+    private static final String DEFAULT_COPY_MAX_BYTES_PER_SECOND      = "0";
+    private static final String DEFAULT_IMPORT_PARSER_THREADS          = "4";
+    private static final String DEFAULT_IMPORT_WRITER_THREADS          = "2";
+    private static final String DEFAULT_IMPORT_QUEUE_SIZE              = "8";
+    private static final String DEFAULT_IMPORT_CHUNK_SIZE              = "4194304";
+    private static final String DEFAULT_IMPORT_MAP_THRESHOLD           = "67108864";
+    private static final String DEFAULT_EXPORT_OPERATION_THREADS       = "4";
+    private static final String DEFAULT_EXPORT_QUEUE_SIZE              = "4";
+    private static final String DEFAULT_EXPORT_BUFFER_SIZE             = "1048576";
+    private static final String DEFAULT_PROGRESS_INTERVAL              = "1000";
+    private static final String DEFAULT_JOB_CHECKPOINT_INTERVAL        = "5000";
+    private static final String DEFAULT_SCANNER_KEEP_ALIVE             = "true";
+    private static final String DEFAULT_SCANNER_PARALLEL               = "true";
+    private static final String DEFAULT_SCANNER_LEASE_TIMEOUT          = "50000";
+    private static final String DEFAULT_SCANNER_INDEX_INTERVAL         = "1000";
+    private static final String DEFAULT_ROWS_CACHE_SIZE                = "10000";
+    private static final String DEFAULT_METADATA_REFRESH_INTERVAL      = "60000";
+    private static final String DEFAULT_MUTATION_FLUSH_INTERVAL        = "1000";
+    private static final String DEFAULT_MUTATION_MAX_IN_FLIGHT         = "4";
+    private static final String DEFAULT_MUTATION_RETRIES               = "3";
     private static final String DEFAULT_CONVERTERS_CLASSES_FOLDER      = "converters/classes";
     private static final String DEFAULT_CONVERTERS_CODE_FOLDER         = "converters/code";
     //endregion
@@ -143,6 +193,233 @@ public class GlobalConfig extends PropertiesConfig {
         return get(Long.class, KEY_ROW_COUNT_OPERATION_TIMEOUT, DEFAULT_ROW_COUNT_OPERATION_TIMEOUT);
     }
 
+    /**
+     * Gets a maximum number of regions to be counted concurrently during row count operation.
+     *
+     * @return A number of threads.
+     */
+    public int getRowCountThreads() {
+        return get(Integer.class, KEY_ROW_COUNT_OPERATION_THREADS, DEFAULT_ROW_COUNT_OPERATION_THREADS);
+    }
+
+    /**
+     * Gets a maximum number of scans executed concurrently to load the rows of a single page, for example the scans of the buckets of a salted table.
+     *
+     * @return A number of threads.
+     */
+    public int getScanThreads() {
+        return get(Integer.class, KEY_SCAN_OPERATION_THREADS, DEFAULT_SCAN_OPERATION_THREADS);
+    }
+
+    /**
+     * Gets a maximum number of regions to be copied concurrently during copy table operation.
+     *
+     * @return A number of threads.
+     */
+    public int getCopyThreads() {
+        return get(Integer.class, KEY_COPY_OPERATION_THREADS, DEFAULT_COPY_OPERATION_THREADS);
+    }
+
+    /**
+     * Gets a maximum number of batches read from a region that can wait to be written to the target table.
+     *
+     * @return A number of batches.
+     */
+    public int getCopyQueueSize() {
+        return get(Integer.class, KEY_COPY_QUEUE_SIZE, DEFAULT_COPY_QUEUE_SIZE);
+    }
+
+    /**
+     * Gets a maximum number of rows per second written to the target table during copy table operation.
+     *
+     * @return A number of rows per second or zero if the rate is not limited.
+     */
+    public long getCopyMaxRowsPerSecond() {
+        return get(Long.class, KEY_COPY_MAX_ROWS_PER_SECOND, DEFAULT_COPY_MAX_ROWS_PER_SECOND);
+    }
+
+    /**
+     * Gets a maximum number of bytes per second written to the target table during copy table operation.
+     *
+     * @return A number of bytes per second or zero if the rate is not limited.
+     */
+    public long getCopyMaxBytesPerSecond() {
+        return get(Long.class, KEY_COPY_MAX_BYTES_PER_SECOND, DEFAULT_COPY_MAX_BYTES_PER_SECOND);
+    }
+
+    /**
+     * Gets a number of threads parsing the lines of a file during import operation.
+     *
+     * @return A number of threads.
+     */
+    public int getImportParserThreads() {
+        return get(Integer.class, KEY_IMPORT_PARSER_THREADS, DEFAULT_IMPORT_PARSER_THREADS);
+    }
+
+    /**
+     * Gets a number of threads writing the parsed rows to the table during import operation.
+     *
+     * @return A number of threads.
+     */
+    public int getImportWriterThreads() {
+        return get(Integer.class, KEY_IMPORT_WRITER_THREADS, DEFAULT_IMPORT_WRITER_THREADS);
+    }
+
+    /**
+     * Gets a maximum number of parsed batches that can wait to be written to the table during import operation.
+     *
+     * @return A number of batches.
+     */
+    public int getImportQueueSize() {
+        return get(Integer.class, KEY_IMPORT_QUEUE_SIZE, DEFAULT_IMPORT_QUEUE_SIZE);
+    }
+
+    /**
+     * Gets a size of the chunks the imported file is read in.
+     *
+     * @return A number of bytes.
+     */
+    public int getImportChunkSize() {
+        return get(Integer.class, KEY_IMPORT_CHUNK_SIZE, DEFAULT_IMPORT_CHUNK_SIZE);
+    }
+
+    /**
+     * Gets a minimal size of the imported file to be mapped to memory instead of being read.
+     *
+     * @return A number of bytes.
+     */
+    public long getImportMapThreshold() {
+        return get(Long.class, KEY_IMPORT_MAP_THRESHOLD, DEFAULT_IMPORT_MAP_THRESHOLD);
+    }
+
+    /**
+     * Gets a maximum number of regions to be exported concurrently during parallel export operation.
+     *
+     * @return A number of threads.
+     */
+    public int getExportThreads() {
+        return get(Integer.class, KEY_EXPORT_OPERATION_THREADS, DEFAULT_EXPORT_OPERATION_THREADS);
+    }
+
+    /**
+     * Gets a maximum number of batches read from the table that can wait to be written to the file during export operation.
+     *
+     * @return A number of batches.
+     */
+    public int getExportQueueSize() {
+        return get(Integer.class, KEY_EXPORT_QUEUE_SIZE, DEFAULT_EXPORT_QUEUE_SIZE);
+    }
+
+    /**
+     * Gets a size of the buffer the exported rows are encoded into before they are written to the file.
+     *
+     * @return A number of bytes.
+     */
+    public int getExportBufferSize() {
+        return get(Integer.class, KEY_EXPORT_BUFFER_SIZE, DEFAULT_EXPORT_BUFFER_SIZE);
+    }
+
+    /**
+     * Gets an interval between two progress notifications of a long running operation.
+     *
+     * @return An interval in milliseconds.
+     */
+    public long getProgressInterval() {
+        return get(Long.class, KEY_PROGRESS_INTERVAL, DEFAULT_PROGRESS_INTERVAL);
+    }
+
+    /**
+     * Gets a minimal interval between two writes of the journal of a running job.
+     *
+     * @return An interval in milliseconds.
+     */
+    public long getJobCheckpointInterval() {
+        return get(Long.class, KEY_JOB_CHECKPOINT_INTERVAL, DEFAULT_JOB_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Gets a value indicating whether the scanner should be kept open between the pages instead of being re-opened for each page.
+     *
+     * @return True if the scanner should be kept open or False otherwise.
+     */
+    public boolean getScannerKeepAlive() {
+        return get(Boolean.class, KEY_SCANNER_KEEP_ALIVE, DEFAULT_SCANNER_KEEP_ALIVE);
+    }
+
+    /**
+     * Gets a value indicating whether the regions of a filtered scan should be scanned concurrently. The number of the regions scanned at a
+     * time is limited by the {@link #getScanThreads()}.
+     *
+     * @return True if the regions should be scanned concurrently or False otherwise.
+     */
+    public boolean getScannerParallel() {
+        return get(Boolean.class, KEY_SCANNER_PARALLEL, DEFAULT_SCANNER_PARALLEL);
+    }
+
+    /**
+     * Gets an amount of time an idle scanner is kept open. The value should be lower than the scanner lease period configured on the region servers.
+     *
+     * @return An amount of time in milliseconds.
+     */
+    public long getScannerLeaseTimeout() {
+        return get(Long.class, KEY_SCANNER_LEASE_TIMEOUT, DEFAULT_SCANNER_LEASE_TIMEOUT);
+    }
+
+    /**
+     * Gets a distance in rows between two row keys recorded by the scanner to speed up the jumps to an arbitrary row.
+     *
+     * @return The number of rows.
+     */
+    public int getScannerIndexInterval() {
+        return get(Integer.class, KEY_SCANNER_INDEX_INTERVAL, DEFAULT_SCANNER_INDEX_INTERVAL);
+    }
+
+    /**
+     * Gets a maximum number of rows kept in memory by the rows table. The rows scrolled out of the view are released and loaded again when needed.
+     *
+     * @return The number of rows.
+     */
+    public int getRowsCacheSize() {
+        return get(Integer.class, KEY_ROWS_CACHE_SIZE, DEFAULT_ROWS_CACHE_SIZE);
+    }
+
+    /**
+     * Gets an interval between two refreshes of the cached metadata of the tables. Zero disables the periodic refresh, the metadata is
+     * then loaded once and reloaded only when the tables are modified or refreshed explicitly.
+     *
+     * @return An interval in milliseconds.
+     */
+    public long getMetadataRefreshInterval() {
+        return get(Long.class, KEY_METADATA_REFRESH_INTERVAL, DEFAULT_METADATA_REFRESH_INTERVAL);
+    }
+
+    /**
+     * Gets a maximum amount of time a buffered mutation waits before it is written to the table.
+     *
+     * @return An interval in milliseconds.
+     */
+    public long getMutationFlushInterval() {
+        return get(Long.class, KEY_MUTATION_FLUSH_INTERVAL, DEFAULT_MUTATION_FLUSH_INTERVAL);
+    }
+
+    /**
+     * Gets a maximum number of batches of buffered mutations written to a table concurrently.
+     *
+     * @return The number of batches.
+     */
+    public int getMutationMaxInFlight() {
+        return get(Integer.class, KEY_MUTATION_MAX_IN_FLIGHT, DEFAULT_MUTATION_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Gets a number of times the failed mutations of a batch are retried before they are reported as failed.
+     *
+     * @return The number of retries.
+     */
+    public int getMutationRetries() {
+        return get(Integer.class, KEY_MUTATION_RETRIES, DEFAULT_MUTATION_RETRIES);
+    }
+
     /**
      * Gets a folder where the compiled classes of the custom converters should be located.
      *
@@ -166,6 +443,31 @@ public class GlobalConfig extends PropertiesConfig {
     @Override
     protected void onFileCreated() {
         set(KEY_ROW_COUNT_OPERATION_TIMEOUT, DEFAULT_ROW_COUNT_OPERATION_TIMEOUT);
+        set(KEY_ROW_COUNT_OPERATION_THREADS, DEFAULT_ROW_COUNT_OPERATION_THREADS);
+        set(KEY_SCAN_OPERATION_THREADS, DEFAULT_SCAN_OPERATION_THREADS);
+        set(KEY_COPY_OPERATION_THREADS, DEFAULT_COPY_OPERATION_THREADS);
+        set(KEY_COPY_QUEUE_SIZE, DEFAULT_COPY_QUEUE_SIZE);
+        set(KEY_COPY_MAX_ROWS_PER_SECOND, DEFAULT_COPY_MAX_ROWS_PER_SECOND);
+        set(KEY_COPY_MAX_BYTES_PER_SECOND, DEFAULT_COPY_MAX_BYTES_PER_SECOND);
+        set(KEY_IMPORT_PARSER_THREADS, DEFAULT_IMPORT_PARSER_THREADS);
+        set(KEY_IMPORT_WRITER_THREADS, DEFAULT_IMPORT_WRITER_THREADS);
+        set(KEY_IMPORT_QUEUE_SIZE, DEFAULT_IMPORT_QUEUE_SIZE);
+        set(KEY_IMPORT_CHUNK_SIZE, DEFAULT_IMPORT_CHUNK_SIZE);
+        set(KEY_IMPORT_MAP_THRESHOLD, DEFAULT_IMPORT_MAP_THRESHOLD);
+        set(KEY_EXPORT_OPERATION_THREADS, DEFAULT_EXPORT_OPERATION_THREADS);
+        set(KEY_EXPORT_QUEUE_SIZE, DEFAULT_EXPORT_QUEUE_SIZE);
+        set(KEY_EXPORT_BUFFER_SIZE, DEFAULT_EXPORT_BUFFER_SIZE);
+        set(KEY_PROGRESS_INTERVAL, DEFAULT_PROGRESS_INTERVAL);
+        set(KEY_JOB_CHECKPOINT_INTERVAL, DEFAULT_JOB_CHECKPOINT_INTERVAL);
+        set(KEY_SCANNER_KEEP_ALIVE, DEFAULT_SCANNER_KEEP_ALIVE);
+        set(KEY_SCANNER_PARALLEL, DEFAULT_SCANNER_PARALLEL);
+        set(KEY_SCANNER_LEASE_TIMEOUT, DEFAULT_SCANNER_LEASE_TIMEOUT);
+        set(KEY_SCANNER_INDEX_INTERVAL, DEFAULT_SCANNER_INDEX_INTERVAL);
+        set(KEY_ROWS_CACHE_SIZE, DEFAULT_ROWS_CACHE_SIZE);
+        set(KEY_METADATA_REFRESH_INTERVAL, DEFAULT_METADATA_REFRESH_INTERVAL);
+        set(KEY_MUTATION_FLUSH_INTERVAL, DEFAULT_MUTATION_FLUSH_INTERVAL);
+        set(KEY_MUTATION_MAX_IN_FLIGHT, DEFAULT_MUTATION_MAX_IN_FLIGHT);
+        set(KEY_MUTATION_RETRIES, DEFAULT_MUTATION_RETRIES);
         set(KEY_BATCH_READ_SIZE, DEFAULT_BATCH_READ_SIZE);
         set(KEY_BATCH_WRITE_SIZE, DEFAULT_BATCH_WRITE_SIZE);
         set(KEY_CONNECTION_CHECK_TIMEOUT, DEFAULT_CONNECTION_CHECK_TIMEOUT);
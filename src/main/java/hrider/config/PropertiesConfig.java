@@ -52,7 +52,7 @@ public abstract class PropertiesConfig {
         try {
             this.file = loadFile(name);
             if (!this.file.exists()) {
-                File folder = new File("config/");
+                File folder = this.file.getParentFile();
                 if (!folder.exists()) {
                     folder.mkdirs();
                 }
@@ -158,13 +158,25 @@ public abstract class PropertiesConfig {
     }
 
     /**
-     * Saves all configuration properties to the file.
+     * Saves all configuration properties to the file. The properties are written to a temporary file first which then replaces the
+     * original one, so the file is never left partially written.
      */
     public void save() {
+        File temporary = new File(this.file.getPath() + ".tmp");
+
         FileOutputStream stream = null;
         try {
-            stream = new FileOutputStream(this.file);
+            stream = new FileOutputStream(temporary);
             this.properties.store(stream, null);
+            stream.getFD().sync();
+            stream.close();
+            stream = null;
+
+            if (!temporary.renameTo(this.file)) {
+                // The rename does not replace an existing file on some platforms.
+                this.file.delete();
+                temporary.renameTo(this.file);
+            }
         }
         catch (Exception ignore) {
         }
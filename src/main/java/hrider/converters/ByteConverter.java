@@ -0,0 +1,58 @@
+package hrider.converters;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class is responsible for converting data from byte[] to a single unsigned byte and vice versa. The values are shown as the
+ *          numbers from 0 to 255 so they are ordered the same way as the bytes are ordered by hbase, for example the salt of the row keys.
+ */
+public class ByteConverter extends TypeConverter {
+
+    private static final long serialVersionUID = 3187561093345219841L;
+
+    @Override
+    public String toString(byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        return Integer.toString(value[0] & 0xFF);
+    }
+
+    @Override
+    public boolean canConvert(byte[] value) {
+        return value != null && value.length == 1;
+    }
+
+    @Override
+    public boolean supportsFormatting() {
+        return false;
+    }
+
+    @Override
+    public byte[] toBytes(String value) {
+        if (value == null) {
+            return EMPTY_BYTES_ARRAY;
+        }
+
+        int number = Integer.parseInt(value);
+        if (number < 0 || number > 0xFF) {
+            throw new NumberFormatException(String.format("The value '%s' is out of the range of a byte.", value));
+        }
+        return new byte[]{(byte)number};
+    }
+}
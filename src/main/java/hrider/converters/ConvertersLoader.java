@@ -10,6 +10,7 @@ import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Copyright (C) 2012 NICE Systems ltd.
@@ -37,12 +38,14 @@ public class ConvertersLoader {
     //region Variables
     private static final Log logger = Log.getLogger(ConvertersLoader.class);
     private static final List<ConvertersLoaderHandler> handlers;
-    private static       Map<String, TypeConverter>    converters;
+    private static final AtomicInteger                 version;
+    private static volatile Map<String, TypeConverter> converters;
     //endregion
 
     //region Constructor
     static {
         handlers = new ArrayList<ConvertersLoaderHandler>();
+        version = new AtomicInteger();
         converters = load();
     }
 
@@ -70,6 +73,15 @@ public class ConvertersLoader {
         handlers.remove(handler);
     }
 
+    /**
+     * Gets the version of the loaded converters. The version is incremented each time the converters are reloaded.
+     *
+     * @return The version of the converters.
+     */
+    public static int getVersion() {
+        return version.get();
+    }
+
     /**
      * Checks whether the specified converter exists.
      *
@@ -152,6 +164,7 @@ public class ConvertersLoader {
      */
     public static void reload() {
         converters = load();
+        version.incrementAndGet();
 
         for (ConvertersLoaderHandler handler : handlers) {
             handler.onLoad();
@@ -152,6 +152,10 @@ public abstract class TypeConverter implements Comparable<TypeConverter>, Serial
 
     @Override
     public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
         if (obj == null) {
             return false;
         }
@@ -0,0 +1,241 @@
+package hrider.data;
+
+import hrider.converters.TypeConverter;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a dictionary of the columns shared by all rows of a {@link DataPage}. Each distinct column is stored once
+ *          and referenced by its index. The columns can be looked up directly by the family and qualifier bytes of an hbase cell
+ *          without allocating a {@link ColumnQualifier} per cell.
+ */
+public class ColumnDictionary implements Serializable {
+
+    //region Constants
+    private static final long serialVersionUID = -3307839946263405785L;
+    //endregion
+
+    //region Variables
+    /**
+     * The columns of the dictionary.
+     */
+    private List<ColumnQualifier> columns;
+    /**
+     * The types of the columns.
+     */
+    private List<ColumnType>      types;
+    /**
+     * The family names of the columns as byte arrays.
+     */
+    private List<byte[]>          families;
+    /**
+     * An open addressing hash table of the column indexes. Each slot holds the column index plus one or zero if the slot is empty.
+     */
+    private int[]                 slots;
+    /**
+     * Maps the full names of the columns to their indexes.
+     */
+    private Map<String, Integer>  names;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link ColumnDictionary} class.
+     */
+    public ColumnDictionary() {
+        this.columns = new ArrayList<ColumnQualifier>();
+        this.types = new ArrayList<ColumnType>();
+        this.families = new ArrayList<byte[]>();
+        this.slots = new int[16];
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the number of columns in the dictionary.
+     *
+     * @return The number of columns.
+     */
+    public int size() {
+        return this.columns.size();
+    }
+
+    /**
+     * Gets the column by its index.
+     *
+     * @param index The index of the column.
+     * @return A column qualifier.
+     */
+    public ColumnQualifier getColumn(int index) {
+        return this.columns.get(index);
+    }
+
+    /**
+     * Gets the type of the column by its index.
+     *
+     * @param index The index of the column.
+     * @return A column type.
+     */
+    public ColumnType getType(int index) {
+        return this.types.get(index);
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Looks up the column by the family and qualifier bytes.
+     *
+     * @param family          The array holding the family name.
+     * @param familyOffset    The offset of the family name within the array.
+     * @param familyLength    The length of the family name.
+     * @param qualifier       The array holding the qualifier name.
+     * @param qualifierOffset The offset of the qualifier name within the array.
+     * @param qualifierLength The length of the qualifier name.
+     * @return The index of the column or -1 if the column is not in the dictionary.
+     */
+    public int indexOf(byte[] family, int familyOffset, int familyLength, byte[] qualifier, int qualifierOffset, int qualifierLength) {
+        int hash = hash(family, familyOffset, familyLength, qualifier, qualifierOffset, qualifierLength);
+        int mask = this.slots.length - 1;
+
+        for (int slot = hash & mask ; this.slots[slot] != 0 ; slot = (slot + 1) & mask) {
+            int index = this.slots[slot] - 1;
+
+            byte[] columnFamily = this.families.get(index);
+            byte[] columnQualifier = this.columns.get(index).getNameAsByteArray();
+
+            if (Bytes.equals(columnQualifier, 0, columnQualifier.length, qualifier, qualifierOffset, qualifierLength) &&
+                Bytes.equals(columnFamily, 0, columnFamily.length, family, familyOffset, familyLength)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Looks up the column by its full name.
+     *
+     * @param columnName The full name of the column.
+     * @return The index of the column or -1 if the column is not in the dictionary.
+     */
+    public int indexOf(String columnName) {
+        if (this.names == null) {
+            Map<String, Integer> map = new HashMap<String, Integer>();
+            for (int i = 0 ; i < this.columns.size() ; i++) {
+                map.put(this.columns.get(i).getFullName(), i);
+            }
+            this.names = map;
+        }
+
+        Integer index = this.names.get(columnName);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Adds a new column to the dictionary.
+     *
+     * @param column The column to add. The column must belong to a family.
+     * @param type   The type of the values held by the column.
+     * @return The index of the added column.
+     */
+    public int add(ColumnQualifier column, ColumnType type) {
+        int index = this.columns.size();
+
+        this.columns.add(column);
+        this.types.add(type);
+        this.families.add(Bytes.toBytes(column.getFamily()));
+        this.names = null;
+
+        if ((index + 1) * 2 > this.slots.length) {
+            this.slots = new int[this.slots.length * 2];
+            for (int i = 0 ; i < index ; i++) {
+                insert(i);
+            }
+        }
+
+        insert(index);
+        return index;
+    }
+
+    /**
+     * Updates the type of the column.
+     *
+     * @param columnName The full name of the column.
+     * @param type       The new column type.
+     */
+    public void setType(String columnName, ColumnType type) {
+        int index = indexOf(columnName);
+        if (index != -1) {
+            this.types.set(index, type);
+        }
+    }
+
+    /**
+     * Updates the converter used to represent the column names.
+     *
+     * @param converter The new column name converter.
+     */
+    public void setNameConverter(TypeConverter converter) {
+        for (ColumnQualifier column : this.columns) {
+            column.setNameConverter(converter);
+        }
+
+        // The full names of the columns depend on the converter.
+        this.names = null;
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Inserts the column into the hash table.
+     *
+     * @param index The index of the column.
+     */
+    private void insert(int index) {
+        byte[] family = this.families.get(index);
+        byte[] qualifier = this.columns.get(index).getNameAsByteArray();
+
+        int mask = this.slots.length - 1;
+        int slot = hash(family, 0, family.length, qualifier, 0, qualifier.length) & mask;
+
+        while (this.slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+
+        this.slots[slot] = index + 1;
+    }
+
+    /**
+     * Calculates the hash of the column.
+     */
+    private static int hash(byte[] family, int familyOffset, int familyLength, byte[] qualifier, int qualifierOffset, int qualifierLength) {
+        int hash = 31 * Bytes.hashCode(family, familyOffset, familyLength) + Bytes.hashCode(qualifier, qualifierOffset, qualifierLength);
+        return hash ^ (hash >>> 16);
+    }
+    //endregion
+}
@@ -39,6 +39,15 @@ public class ColumnQualifier implements Serializable {
     private byte[]        name;
     private ColumnFamily  columnFamily;
     private TypeConverter nameConverter;
+
+    /**
+     * The cached full name of the column. The full name depends on the name converter and is reset when the converter is replaced.
+     */
+    private transient String fullName;
+    /**
+     * The cached hash code of the full name.
+     */
+    private transient int    hash;
     //endregion
 
     //region Constructor
@@ -73,10 +82,17 @@ public class ColumnQualifier implements Serializable {
     }
 
     public String getFullName() {
-        if (this.columnFamily != null) {
-            return String.format("%s:%s", this.columnFamily, getName());
+        String value = this.fullName;
+        if (value == null) {
+            if (this.columnFamily != null) {
+                value = this.columnFamily.getName() + ':' + getName();
+            }
+            else {
+                value = getName();
+            }
+            this.fullName = value;
         }
-        return getName();
+        return value;
     }
 
     public String getFamily() {
@@ -96,6 +112,8 @@ public class ColumnQualifier implements Serializable {
 
     public void setNameConverter(TypeConverter nameConverter) {
         this.nameConverter = nameConverter;
+        this.fullName = null;
+        this.hash = 0;
     }
     //endregion
 
@@ -115,15 +133,25 @@ public class ColumnQualifier implements Serializable {
 
     @Override
     public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
         if (obj instanceof ColumnQualifier) {
-            return this.toString().equals(obj.toString());
+            ColumnQualifier qualifier = (ColumnQualifier)obj;
+            return qualifier.hashCode() == hashCode() && qualifier.getFullName().equals(getFullName());
         }
         return false;
     }
 
     @Override
     public int hashCode() {
-        return this.toString().hashCode();
+        int value = this.hash;
+        if (value == 0) {
+            value = getFullName().hashCode();
+            this.hash = value;
+        }
+        return value;
     }
     //endregion
 }
@@ -0,0 +1,144 @@
+package hrider.data;
+
+import hrider.converters.TypeConverter;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a registry of the columns of a single table. Each column is created once and then shared by all rows
+ *          loaded from the table. The registry is bound to a column name converter and is cleared when the converter is replaced.
+ */
+public class ColumnQualifierRegistry {
+
+    //region Variables
+    /**
+     * The registered columns indexed by the family and qualifier bytes. The column types held by the dictionary are not used.
+     */
+    private ColumnDictionary          columns;
+    /**
+     * The registered column families.
+     */
+    private Map<String, ColumnFamily> families;
+    /**
+     * The converter used to represent the column names.
+     */
+    private TypeConverter             nameConverter;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link ColumnQualifierRegistry} class.
+     *
+     * @param nameConverter The converter used to represent the column names.
+     */
+    public ColumnQualifierRegistry(TypeConverter nameConverter) {
+        this.nameConverter = nameConverter;
+        this.columns = new ColumnDictionary();
+        this.families = new HashMap<String, ColumnFamily>();
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the converter used to represent the column names.
+     *
+     * @return A type converter.
+     */
+    public TypeConverter getNameConverter() {
+        return this.nameConverter;
+    }
+
+    /**
+     * Sets a new converter for the column names. The registered columns are released if the converter has changed.
+     *
+     * @param nameConverter The new converter.
+     */
+    public synchronized void setNameConverter(TypeConverter nameConverter) {
+        if (this.nameConverter != nameConverter) {
+            this.nameConverter = nameConverter;
+            clear();
+        }
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Gets a registered column or registers a new one.
+     *
+     * @param table           The descriptor of the table the column belongs to. Used to describe the family of a new column.
+     * @param family          The array holding the family name.
+     * @param familyOffset    The offset of the family name within the array.
+     * @param familyLength    The length of the family name.
+     * @param qualifier       The array holding the qualifier name.
+     * @param qualifierOffset The offset of the qualifier name within the array.
+     * @param qualifierLength The length of the qualifier name.
+     * @return A column qualifier.
+     */
+    public synchronized ColumnQualifier get(
+        HTableDescriptor table, byte[] family, int familyOffset, int familyLength, byte[] qualifier, int qualifierOffset, int qualifierLength) {
+
+        int index = this.columns.indexOf(family, familyOffset, familyLength, qualifier, qualifierOffset, qualifierLength);
+        if (index != -1) {
+            return this.columns.getColumn(index);
+        }
+
+        HColumnDescriptor descriptor = table.getFamily(Arrays.copyOfRange(family, familyOffset, familyOffset + familyLength));
+
+        ColumnFamily columnFamily = this.families.get(descriptor.getNameAsString());
+        if (columnFamily == null) {
+            columnFamily = new ColumnFamily(descriptor);
+            this.families.put(columnFamily.getName(), columnFamily);
+        }
+
+        ColumnQualifier column = new ColumnQualifier(
+            Arrays.copyOfRange(qualifier, qualifierOffset, qualifierOffset + qualifierLength), columnFamily, this.nameConverter);
+
+        this.columns.add(column, null);
+        return column;
+    }
+
+    /**
+     * Gets a registered column or registers a new one.
+     *
+     * @param table     The descriptor of the table the column belongs to. Used to describe the family of a new column.
+     * @param family    The family name.
+     * @param qualifier The qualifier name.
+     * @return A column qualifier.
+     */
+    public ColumnQualifier get(HTableDescriptor table, byte[] family, byte[] qualifier) {
+        return get(table, family, 0, family.length, qualifier, 0, qualifier.length);
+    }
+
+    /**
+     * Releases all registered columns. Should be called when the table structure has changed.
+     */
+    public synchronized void clear() {
+        this.columns = new ColumnDictionary();
+        this.families.clear();
+    }
+    //endregion
+}
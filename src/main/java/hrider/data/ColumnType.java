@@ -4,8 +4,7 @@ import hrider.converters.ConvertersLoader;
 import hrider.converters.TypeConverter;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.*;
 
 /**
  * Copyright (C) 2012 NICE Systems ltd.
@@ -48,6 +47,11 @@ public class ColumnType implements Serializable {
     //endregion
 
     //region Variables
+    /**
+     * The shared instances of the column types. The registry is replaced as a whole when the converters are reloaded.
+     */
+    private static volatile Registry registry;
+
     private TypeConverter converter;
     //endregion
 
@@ -67,30 +71,25 @@ public class ColumnType implements Serializable {
     //region Public Methods
 
     /**
-     * Creates an instance of {@link ColumnType} from the name.
+     * Gets an instance of {@link ColumnType} by the name.
      *
-     * @param name The name of the type to be created.
-     * @return A newly created {@link ColumnType}.
+     * @param name The name of the type.
+     * @return A shared instance of {@link ColumnType} if found or null otherwise.
      */
     public static ColumnType fromName(String name) {
-        if (ConvertersLoader.exists(name)) {
-            return new ColumnType(name);
-        }
-        return null;
+        return getRegistry().types.get(name);
     }
 
     /**
-     * Creates an instance of {@link ColumnType} from the name. If there is no column type matching the name the default type is returned.
+     * Gets an instance of {@link ColumnType} by the name. If there is no column type matching the name the default type is returned.
      *
-     * @param name        The name of the type to be created.
+     * @param name        The name of the type.
      * @param defaultType The default type to be returned if the requested one does not exist.
-     * @return A newly created {@link ColumnType} if found or user provided default type otherwise.
+     * @return A shared instance of {@link ColumnType} if found or user provided default type otherwise.
      */
     public static ColumnType fromNameOrDefault(String name, ColumnType defaultType) {
-        if (ConvertersLoader.exists(name)) {
-            return new ColumnType(name);
-        }
-        return defaultType;
+        ColumnType type = fromName(name);
+        return type != null ? type : defaultType;
     }
 
     /**
@@ -99,11 +98,7 @@ public class ColumnType implements Serializable {
      * @return A list of supported column types.
      */
     public static Collection<ColumnType> getTypes() {
-        Collection<ColumnType> types = new ArrayList<ColumnType>();
-        for (TypeConverter converter : ConvertersLoader.getConverters()) {
-            types.add(new ColumnType(converter));
-        }
-        return types;
+        return getRegistry().types.values();
     }
 
     /**
@@ -112,11 +107,7 @@ public class ColumnType implements Serializable {
      * @return A list of column types.
      */
     public static Collection<ColumnType> getNameTypes() {
-        Collection<ColumnType> types = new ArrayList<ColumnType>();
-        for (TypeConverter converter : ConvertersLoader.getNameConverters()) {
-            types.add(new ColumnType(converter));
-        }
-        return types;
+        return getRegistry().nameTypes;
     }
 
     /**
@@ -187,6 +178,10 @@ public class ColumnType implements Serializable {
 
     @Override
     public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
         if (obj instanceof ColumnType) {
             return this.converter.equals(((ColumnType)obj).converter);
         }
@@ -203,4 +198,85 @@ public class ColumnType implements Serializable {
         return this.converter.toString();
     }
     //endregion
+
+    //region Private Methods
+
+    /**
+     * Gets the registry of the shared column types. The registry is rebuilt if the converters have been reloaded since it was built.
+     *
+     * @return A registry of the column types.
+     */
+    private static Registry getRegistry() {
+        Registry current = registry;
+
+        int version = ConvertersLoader.getVersion();
+        if (current == null || current.version != version) {
+            current = new Registry(version, current);
+            registry = current;
+        }
+        return current;
+    }
+
+    /**
+     * Replaces the deserialized instance with the shared one.
+     *
+     * @return A shared instance of the column type if exists or this instance otherwise.
+     */
+    private Object readResolve() {
+        ColumnType type = fromName(getName());
+        return type != null ? type : this;
+    }
+    //endregion
+
+    /**
+     * Holds the shared instances of the column types built from a single version of the loaded converters.
+     */
+    private static class Registry {
+
+        //region Variables
+        private final int                     version;
+        private final Map<String, ColumnType> types;
+        private final Collection<ColumnType>  nameTypes;
+        //endregion
+
+        //region Constructor
+        private Registry(int version, Registry previous) {
+            Map<String, ColumnType> map = new LinkedHashMap<String, ColumnType>();
+            Collection<ColumnType> list = new ArrayList<ColumnType>();
+
+            Map<String, ColumnType> existing = previous != null ? previous.types : builtIn();
+
+            for (TypeConverter converter : ConvertersLoader.getConverters()) {
+                ColumnType type = existing.get(converter.getName());
+
+                // Keep the existing instance if the converter has not been changed by the reload.
+                if (type == null || type.converter.getClass() != converter.getClass()) {
+                    type = new ColumnType(converter);
+                }
+
+                map.put(type.getName(), type);
+
+                if (converter.isValidForNameConversion()) {
+                    list.add(type);
+                }
+            }
+
+            this.version = version;
+            this.types = Collections.unmodifiableMap(map);
+            this.nameTypes = Collections.unmodifiableCollection(list);
+        }
+        //endregion
+
+        //region Private Methods
+        private static Map<String, ColumnType> builtIn() {
+            Map<String, ColumnType> map = new HashMap<String, ColumnType>();
+            for (ColumnType type : new ColumnType[]{
+                String, BinaryString, Boolean, Integer, DateAsLong, DateAsString, Double, Float, Long, Short, Json, Xml, RegionInfo
+            }) {
+                map.put(type.getName(), type);
+            }
+            return map;
+        }
+        //endregion
+    }
 }
@@ -0,0 +1,232 @@
+package hrider.data;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a compact page of rows. The values of all cells are copied into a single backing array and each cell is
+ *          described by the index of its column in the shared {@link ColumnDictionary} and the offset and length of its value. The
+ *          {@link DataCell} objects are only created for the cells that are actually accessed.
+ */
+public class DataPage implements Serializable {
+
+    //region Constants
+    private static final long serialVersionUID = 6164713302436120562L;
+    //endregion
+
+    //region Variables
+    /**
+     * The dictionary of the columns referenced by the cells.
+     */
+    private ColumnDictionary dictionary;
+    /**
+     * The backing array holding the values of all cells.
+     */
+    private byte[]           data;
+    /**
+     * The number of used bytes in the backing array.
+     */
+    private int              dataLength;
+    /**
+     * The column index of each cell.
+     */
+    private int[]            cellColumns;
+    /**
+     * The offset of each cell value in the backing array.
+     */
+    private int[]            cellOffsets;
+    /**
+     * The length of each cell value.
+     */
+    private int[]            cellLengths;
+    /**
+     * The number of cells in the page.
+     */
+    private int              cellsCount;
+    /**
+     * The index of the first cell of each row. The cells of the row i are located between rowStarts[i] and rowStarts[i + 1].
+     */
+    private int[]            rowStarts;
+    /**
+     * The number of rows in the page.
+     */
+    private int              rowsCount;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link DataPage} class.
+     *
+     * @param dictionary The dictionary of the columns.
+     */
+    public DataPage(ColumnDictionary dictionary) {
+        this.dictionary = dictionary;
+        this.data = new byte[4096];
+        this.cellColumns = new int[256];
+        this.cellOffsets = new int[256];
+        this.cellLengths = new int[256];
+        this.rowStarts = new int[65];
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the dictionary of the columns.
+     *
+     * @return A column dictionary.
+     */
+    public ColumnDictionary getDictionary() {
+        return this.dictionary;
+    }
+
+    /**
+     * Gets the number of rows in the page.
+     *
+     * @return The number of rows.
+     */
+    public int getRowsCount() {
+        return this.rowsCount;
+    }
+
+    /**
+     * Gets the number of cells in the row.
+     *
+     * @param row The index of the row.
+     * @return The number of cells.
+     */
+    public int getCellsCount(int row) {
+        return this.rowStarts[row + 1] - this.rowStarts[row];
+    }
+
+    /**
+     * Gets the number of bytes held by the page.
+     *
+     * @return The number of bytes.
+     */
+    public long getSize() {
+        return this.data.length + 4L * (this.cellColumns.length + this.cellOffsets.length + this.cellLengths.length + this.rowStarts.length);
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Starts a new row. The cells added afterwards belong to this row until the next row is started.
+     *
+     * @return The index of the new row.
+     */
+    public int addRow() {
+        if (this.rowsCount + 2 > this.rowStarts.length) {
+            this.rowStarts = Arrays.copyOf(this.rowStarts, this.rowStarts.length * 2);
+        }
+
+        this.rowsCount++;
+        this.rowStarts[this.rowsCount] = this.cellsCount;
+
+        return this.rowsCount - 1;
+    }
+
+    /**
+     * Adds a cell to the last started row. The value is copied into the backing array of the page.
+     *
+     * @param column The index of the column in the dictionary.
+     * @param value  The array holding the value.
+     * @param offset The offset of the value within the array.
+     * @param length The length of the value.
+     */
+    public void addCell(int column, byte[] value, int offset, int length) {
+        if (this.cellsCount == this.cellColumns.length) {
+            int capacity = this.cellColumns.length * 2;
+
+            this.cellColumns = Arrays.copyOf(this.cellColumns, capacity);
+            this.cellOffsets = Arrays.copyOf(this.cellOffsets, capacity);
+            this.cellLengths = Arrays.copyOf(this.cellLengths, capacity);
+        }
+
+        if (this.dataLength + length > this.data.length) {
+            this.data = Arrays.copyOf(this.data, Math.max(this.data.length * 2, this.dataLength + length));
+        }
+
+        System.arraycopy(value, offset, this.data, this.dataLength, length);
+
+        this.cellColumns[this.cellsCount] = column;
+        this.cellOffsets[this.cellsCount] = this.dataLength;
+        this.cellLengths[this.cellsCount] = length;
+
+        this.cellsCount++;
+        this.rowStarts[this.rowsCount] = this.cellsCount;
+        this.dataLength += length;
+    }
+
+    /**
+     * Releases the unused capacity of the page. Should be called once all rows have been added.
+     */
+    public void trim() {
+        this.data = Arrays.copyOf(this.data, this.dataLength);
+        this.cellColumns = Arrays.copyOf(this.cellColumns, this.cellsCount);
+        this.cellOffsets = Arrays.copyOf(this.cellOffsets, this.cellsCount);
+        this.cellLengths = Arrays.copyOf(this.cellLengths, this.cellsCount);
+        this.rowStarts = Arrays.copyOf(this.rowStarts, this.rowsCount + 1);
+    }
+
+    /**
+     * Finds the cell of the row located in the specified column.
+     *
+     * @param row    The index of the row.
+     * @param column The index of the column in the dictionary.
+     * @return The index of the cell or -1 if the row does not have a value in the column.
+     */
+    public int findCell(int row, int column) {
+        for (int cell = this.rowStarts[row] ; cell < this.rowStarts[row + 1] ; cell++) {
+            if (this.cellColumns[cell] == column) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the index of the first cell of the row.
+     *
+     * @param row The index of the row.
+     * @return The index of the cell.
+     */
+    public int getFirstCell(int row) {
+        return this.rowStarts[row];
+    }
+
+    /**
+     * Creates a {@link DataCell} representing the cell of the page.
+     *
+     * @param owner The row the cell belongs to.
+     * @param cell  The index of the cell.
+     * @return A new data cell holding a copy of the value.
+     */
+    public DataCell createCell(DataRow owner, int cell) {
+        int column = this.cellColumns[cell];
+        int offset = this.cellOffsets[cell];
+
+        byte[] value = Arrays.copyOfRange(this.data, offset, offset + this.cellLengths[cell]);
+        return new DataCell(owner, this.dictionary.getColumn(column), new ConvertibleObject(this.dictionary.getType(column), value));
+    }
+    //endregion
+}
@@ -2,6 +2,8 @@ package hrider.data;
 
 import hrider.converters.TypeConverter;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
@@ -41,6 +43,14 @@ public class DataRow implements Serializable {
      * The list of cells that belong to the row.
      */
     private Map<String, DataCell> cells;
+    /**
+     * The page holding the cells that have not been accessed yet. Can be null if all cells are held by the row.
+     */
+    private transient DataPage    page;
+    /**
+     * The index of the row within the page.
+     */
+    private transient int         pageRow;
     //endregion
 
     //region Constructor
@@ -61,6 +71,20 @@ public class DataRow implements Serializable {
         this();
         this.key = key;
     }
+
+    /**
+     * Initializes a new instance of the {@link DataRow} class which cells are held by a page. The cells are created from the page
+     * when they are accessed for the first time.
+     *
+     * @param key     The row key.
+     * @param page    The page holding the cells of the row.
+     * @param pageRow The index of the row within the page.
+     */
+    public DataRow(ConvertibleObject key, DataPage page, int pageRow) {
+        this(key);
+        this.page = page;
+        this.pageRow = pageRow;
+    }
     //endregion
 
     //region Public Properties
@@ -90,7 +114,11 @@ public class DataRow implements Serializable {
      * @return The instance of the {@link DataCell} if found or null otherwise.
      */
     public DataCell getCell(String columnName) {
-        return this.cells.get(columnName);
+        DataCell cell = this.cells.get(columnName);
+        if (cell == null && this.page != null) {
+            cell = loadCell(columnName);
+        }
+        return cell;
     }
 
     /**
@@ -100,7 +128,7 @@ public class DataRow implements Serializable {
      * @return The instance of the {@link DataCell} if found or null otherwise.
      */
     public DataCell getCell(ColumnQualifier columnQualifier) {
-        return this.cells.get(columnQualifier.getFullName());
+        return getCell(columnQualifier.getFullName());
     }
 
     /**
@@ -118,6 +146,7 @@ public class DataRow implements Serializable {
      * @param cell The cell to remove.
      */
     public void removeCell(DataCell cell) {
+        loadCells();
         this.cells.remove(cell.getColumn().getFullName());
     }
 
@@ -125,6 +154,7 @@ public class DataRow implements Serializable {
      * Clears all cells of the row.
      */
     public void clearCells() {
+        this.page = null;
         this.cells.clear();
     }
 
@@ -134,7 +164,7 @@ public class DataRow implements Serializable {
      * @return True if the row has cells or False otherwise.
      */
     public boolean hasCells() {
-        return !this.cells.isEmpty();
+        return !this.cells.isEmpty() || this.page != null && this.page.getCellsCount(this.pageRow) > 0;
     }
 
     /**
@@ -143,6 +173,7 @@ public class DataRow implements Serializable {
      * @return A list of cells if there are any or an empty list.
      */
     public Iterable<DataCell> getCells() {
+        loadCells();
         return this.cells.values();
     }
     //endregion
@@ -170,7 +201,11 @@ public class DataRow implements Serializable {
      * @param columnType The new column type.
      */
     public void updateColumnType(String columnName, ColumnType columnType) {
-        DataCell cell = getCell(columnName);
+        if (this.page != null) {
+            this.page.getDictionary().setType(columnName, columnType);
+        }
+
+        DataCell cell = this.cells.get(columnName);
         if (cell != null) {
             cell.setType(columnType);
         }
@@ -182,6 +217,10 @@ public class DataRow implements Serializable {
      * @param converter The new column name converter.
      */
     public void updateColumnNameConverter(TypeConverter converter) {
+        if (this.page != null) {
+            this.page.getDictionary().setNameConverter(converter);
+        }
+
         Map<String, DataCell> map = new HashMap<String, DataCell>();
         for (DataCell cell : this.cells.values()) {
             cell.setColumnNameConverter(converter);
@@ -197,6 +236,8 @@ public class DataRow implements Serializable {
      * @return A map containing a key/value mapping.
      */
     public Map<String, Object> toMap() {
+        loadCells();
+
         Map<String, Object> values = new HashMap<String, Object>();
         for (Map.Entry<String, DataCell> entry : this.cells.entrySet()) {
             values.put(entry.getKey(), entry.getValue().getValue());
@@ -220,6 +261,8 @@ public class DataRow implements Serializable {
 
     @Override
     public String toString() {
+        loadCells();
+
         StringBuilder sb = new StringBuilder("key: ");
         sb.append(this.key);
         sb.append("; values: ");
@@ -237,4 +280,51 @@ public class DataRow implements Serializable {
         return sb.toString();
     }
     //endregion
+
+    //region Private Methods
+
+    /**
+     * Creates the cell from the page.
+     *
+     * @param columnName The name of the column.
+     * @return A new cell or null if the row does not have a value in the column.
+     */
+    private DataCell loadCell(String columnName) {
+        int column = this.page.getDictionary().indexOf(columnName);
+        if (column != -1) {
+            int index = this.page.findCell(this.pageRow, column);
+            if (index != -1) {
+                DataCell cell = this.page.createCell(this, index);
+                this.cells.put(columnName, cell);
+
+                return cell;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates all cells that have not been accessed yet and releases the page.
+     */
+    private void loadCells() {
+        if (this.page != null) {
+            int first = this.page.getFirstCell(this.pageRow);
+            for (int index = first ; index < first + this.page.getCellsCount(this.pageRow) ; index++) {
+                DataCell cell = this.page.createCell(this, index);
+
+                String columnName = cell.getColumn().getFullName();
+                if (!this.cells.containsKey(columnName)) {
+                    this.cells.put(columnName, cell);
+                }
+            }
+
+            this.page = null;
+        }
+    }
+
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        loadCells();
+        stream.defaultWriteObject();
+    }
+    //endregion
 }
@@ -0,0 +1,146 @@
+package hrider.data;
+
+import java.io.Serializable;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a field of a composite row key. The fields of a fixed length are followed by the next field directly, only
+ *          the last field of the key can have a variable length.
+ */
+public class RowKeyField implements Serializable {
+
+    //region Constants
+    /**
+     * The length of the fields which take the rest of the key.
+     */
+    public static final int VARIABLE_LENGTH = -1;
+
+    private static final long serialVersionUID = 2840371625907215643L;
+    //endregion
+
+    //region Variables
+    /**
+     * The name of the field.
+     */
+    private final String     name;
+    /**
+     * The type of the field value.
+     */
+    private final ColumnType type;
+    /**
+     * The number of bytes the field takes or {@link #VARIABLE_LENGTH} if the field takes the rest of the key.
+     */
+    private final int        length;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link RowKeyField} class.
+     *
+     * @param name   The name of the field.
+     * @param type   The type of the field value.
+     * @param length The number of bytes the field takes or {@link #VARIABLE_LENGTH} if the field takes the rest of the key.
+     */
+    public RowKeyField(String name, ColumnType type, int length) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("The name of the key field cannot be empty.");
+        }
+
+        if (type == null) {
+            throw new IllegalArgumentException(String.format("The type of the key field '%s' cannot be null.", name));
+        }
+
+        if (length <= 0 && length != VARIABLE_LENGTH) {
+            throw new IllegalArgumentException(String.format("The length of the key field '%s' should be positive.", name));
+        }
+
+        this.name = name;
+        this.type = type;
+        this.length = length;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the name of the field.
+     *
+     * @return The name of the field.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets the type of the field value.
+     *
+     * @return The type of the field.
+     */
+    public ColumnType getType() {
+        return this.type;
+    }
+
+    /**
+     * Gets the number of bytes the field takes.
+     *
+     * @return The length of the field or {@link #VARIABLE_LENGTH} if the field takes the rest of the key.
+     */
+    public int getLength() {
+        return this.length;
+    }
+
+    /**
+     * Gets a value indicating whether the field has a fixed length.
+     *
+     * @return True if the field has a fixed length or False if it takes the rest of the key.
+     */
+    public boolean isFixed() {
+        return this.length != VARIABLE_LENGTH;
+    }
+    //endregion
+
+    //region Public Methods
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj instanceof RowKeyField) {
+            RowKeyField field = (RowKeyField)obj;
+            return this.name.equals(field.name) && this.type.equals(field.type) && this.length == field.length;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        if (isFixed()) {
+            return String.format("%s:%s:%d", this.name, this.type, this.length);
+        }
+        return String.format("%s:%s", this.name, this.type);
+    }
+    //endregion
+}
@@ -0,0 +1,461 @@
+package hrider.data;
+
+import hrider.converters.TypeConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents the layout of composite row keys, for example a salt followed by a tenant, a reversed timestamp and an
+ *          event id. The layout is defined by a list of fields separated by ';', each field is defined by its name, its type and its length in
+ *          bytes, for example:
+ *          <pre>
+ *          salt:Byte;tenantId:Long;reverseTs:Long:8;eventId:String
+ *          </pre>
+ *          The length can be omitted for the types of a fixed size. Only the last field can have a variable length. The keys are shown as the
+ *          list of the named field values, for example 'salt=3, tenantId=42, reverseTs=9223370679542775807, eventId=a1'.
+ */
+public class RowKeySchema implements Serializable {
+
+    //region Constants
+    /**
+     * The separator of the field definitions.
+     */
+    public static final String FIELD_SEPARATOR = ";";
+    /**
+     * The separator of the field values within the shown keys.
+     */
+    public static final String VALUE_SEPARATOR = ", ";
+    /**
+     * The name of the pseudo field showing the bytes of the key which are not described by the schema.
+     */
+    public static final String REST_FIELD      = "?";
+
+    private static final long serialVersionUID = -7126935512290163407L;
+
+    /**
+     * The lengths of the types which values have a fixed size.
+     */
+    private static final Map<String, Integer> TYPE_LENGTHS = new HashMap<String, Integer>() {{
+        put("Byte", 1);
+        put("Boolean", 1);
+        put("Short", 2);
+        put("Integer", 4);
+        put("Float", 4);
+        put("Long", 8);
+        put("Double", 8);
+        put("DateAsLong", 8);
+    }};
+    //endregion
+
+    //region Variables
+    /**
+     * The fields of the key in the order they appear within the key.
+     */
+    private final List<RowKeyField> fields;
+    /**
+     * The offsets of the fields within the key.
+     */
+    private final int[]             offsets;
+    /**
+     * The column type used to show the keys.
+     */
+    private final ColumnType        columnType;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link RowKeySchema} class.
+     *
+     * @param fields The fields of the key in the order they appear within the key.
+     */
+    public RowKeySchema(List<RowKeyField> fields) {
+        if (fields == null || fields.isEmpty()) {
+            throw new IllegalArgumentException("The row key schema should have at least one field.");
+        }
+
+        Set<String> names = new HashSet<String>();
+
+        this.fields = new ArrayList<RowKeyField>(fields);
+        this.offsets = new int[fields.size()];
+
+        int offset = 0;
+        for (int i = 0 ; i < fields.size() ; i++) {
+            RowKeyField field = fields.get(i);
+            if (!names.add(field.getName().toLowerCase(Locale.ENGLISH)) || REST_FIELD.equals(field.getName())) {
+                throw new IllegalArgumentException(String.format("The name of the key field '%s' is not unique.", field.getName()));
+            }
+
+            if (!field.isFixed() && i < fields.size() - 1) {
+                throw new IllegalArgumentException(String.format("Only the last key field can have a variable length, '%s' is not the last one.", field.getName()));
+            }
+
+            this.offsets[i] = offset;
+            offset += field.getLength();
+        }
+
+        this.columnType = new ColumnType(new RowKeyConverter(this));
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the fields of the key.
+     *
+     * @return A list of fields in the order they appear within the key.
+     */
+    public List<RowKeyField> getFields() {
+        return Collections.unmodifiableList(this.fields);
+    }
+
+    /**
+     * Gets the column type which shows the keys as the list of the named field values.
+     *
+     * @return A column type.
+     */
+    public ColumnType getColumnType() {
+        return this.columnType;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Parses the definition of the schema.
+     *
+     * @param definition The list of the fields separated by ';'. Each field is defined as 'name:type:length' or 'name:type'.
+     * @return A schema or null if the definition is empty.
+     * @throws IllegalArgumentException The definition is not valid.
+     */
+    public static RowKeySchema parse(String definition) {
+        if (definition == null || definition.trim().isEmpty()) {
+            return null;
+        }
+
+        List<RowKeyField> fields = new ArrayList<RowKeyField>();
+        for (String part : definition.split(FIELD_SEPARATOR)) {
+            if (part.trim().isEmpty()) {
+                continue;
+            }
+
+            String[] tokens = part.trim().split("\\s*:\\s*");
+            if (tokens.length < 2 || tokens.length > 3) {
+                throw new IllegalArgumentException(String.format("The key field '%s' should be defined as 'name:type' or 'name:type:length'.", part.trim()));
+            }
+
+            ColumnType type = ColumnType.fromName(tokens[1]);
+            if (type == null) {
+                throw new IllegalArgumentException(String.format("The type '%s' of the key field '%s' is not known.", tokens[1], tokens[0]));
+            }
+
+            int length = RowKeyField.VARIABLE_LENGTH;
+            if (tokens.length == 3) {
+                try {
+                    length = Integer.parseInt(tokens[2]);
+                }
+                catch (NumberFormatException ignore) {
+                    throw new IllegalArgumentException(String.format("The length '%s' of the key field '%s' is not a number.", tokens[2], tokens[0]));
+                }
+            }
+            else if (TYPE_LENGTHS.containsKey(type.getName())) {
+                length = TYPE_LENGTHS.get(type.getName());
+            }
+
+            fields.add(new RowKeyField(tokens[0], type, length));
+        }
+        return new RowKeySchema(fields);
+    }
+
+    /**
+     * Gets the schema the keys of the specified type are shown with.
+     *
+     * @param type The type of the keys.
+     * @return A schema or null if the type does not show the keys by a schema.
+     */
+    public static RowKeySchema fromColumnType(ColumnType type) {
+        if (type != null && type.getConverter() instanceof RowKeyConverter) {
+            return ((RowKeyConverter)type.getConverter()).schema;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the name of the column type which shows the keys by a schema.
+     *
+     * @return The name of the column type.
+     */
+    public static String getTypeName() {
+        return RowKeyConverter.NAME;
+    }
+
+    /**
+     * Gets the field by its name.
+     *
+     * @param name The name of the field. The name is not case sensitive.
+     * @return A field or null if the schema does not have a field with the specified name.
+     */
+    public RowKeyField getField(String name) {
+        for (RowKeyField field : this.fields) {
+            if (field.getName().equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the offset of the field within the key.
+     *
+     * @param field The field of the schema.
+     * @return The number of bytes preceding the field.
+     */
+    public int getOffset(RowKeyField field) {
+        int index = this.fields.indexOf(field);
+        if (index == -1) {
+            throw new IllegalArgumentException(String.format("The field '%s' does not belong to the schema.", field));
+        }
+        return this.offsets[index];
+    }
+
+    /**
+     * Converts the key to the list of the named field values.
+     *
+     * @param key The key to convert.
+     * @return A string representing the key.
+     */
+    public String toString(byte[] key) {
+        if (key == null) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+
+        int offset = 0;
+        for (RowKeyField field : this.fields) {
+            if (offset >= key.length) {
+                break;
+            }
+
+            int end = field.isFixed() ? Math.min(key.length, offset + field.getLength()) : key.length;
+            byte[] value = Arrays.copyOfRange(key, offset, end);
+
+            if (sb.length() > 0) {
+                sb.append(VALUE_SEPARATOR);
+            }
+
+            sb.append(field.getName());
+            sb.append('=');
+
+            if (!field.isFixed() || value.length == field.getLength()) {
+                sb.append(field.getType().toString(value));
+            }
+            else {
+                // The key is too short, the bytes cannot be converted to the type of the field.
+                sb.append(ColumnType.BinaryString.toString(value));
+            }
+
+            offset = end;
+        }
+
+        if (offset < key.length) {
+            if (sb.length() > 0) {
+                sb.append(VALUE_SEPARATOR);
+            }
+
+            sb.append(REST_FIELD);
+            sb.append('=');
+            sb.append(ColumnType.BinaryString.toString(Arrays.copyOfRange(key, offset, key.length)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Converts the list of the named field values to the key. The leading fields can be specified only, the key is a prefix of the keys in
+     * this case.
+     *
+     * @param value The string representing the key.
+     * @return A key.
+     * @throws IllegalArgumentException The string does not represent a key.
+     */
+    public byte[] toBytes(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        ByteArrayOutputStream key = new ByteArrayOutputStream();
+
+        int position = 0;
+        for (int i = 0 ; i <= this.fields.size() && position < value.length() ; i++) {
+            String name = i < this.fields.size() ? this.fields.get(i).getName() : REST_FIELD;
+            if (!value.startsWith(name + '=', position)) {
+                throw new IllegalArgumentException(String.format("Expected the key field '%s' at position %d of '%s'.", name, position + 1, value));
+            }
+
+            int start = position + name.length() + 1;
+            int end = value.length();
+
+            // The value ends where the next field starts. The last field takes the rest of the string.
+            for (int j = i + 1 ; j <= this.fields.size() ; j++) {
+                String next = j < this.fields.size() ? this.fields.get(j).getName() : REST_FIELD;
+
+                int index = value.indexOf(VALUE_SEPARATOR + next + '=', start);
+                if (index != -1) {
+                    end = index;
+                    break;
+                }
+            }
+
+            String text = value.substring(start, end);
+            if (i < this.fields.size()) {
+                RowKeyField field = this.fields.get(i);
+
+                byte[] bytes = field.getType().toBytes(text);
+                if (bytes == null || field.isFixed() && bytes.length != field.getLength()) {
+                    throw new IllegalArgumentException(
+                        String.format("The value '%s' of the key field '%s' should take %d bytes.", text, field.getName(), field.getLength()));
+                }
+                key.write(bytes, 0, bytes.length);
+            }
+            else {
+                byte[] bytes = ColumnType.BinaryString.toBytes(text);
+                key.write(bytes, 0, bytes.length);
+            }
+
+            position = end + VALUE_SEPARATOR.length();
+        }
+        return key.toByteArray();
+    }
+
+    /**
+     * Checks whether the key has all the fixed fields of the schema.
+     *
+     * @param key The key to check.
+     * @return True if the key is long enough to contain the fixed fields or False otherwise.
+     */
+    public boolean canConvert(byte[] key) {
+        int length = 0;
+        for (RowKeyField field : this.fields) {
+            if (field.isFixed()) {
+                length += field.getLength();
+            }
+        }
+        return key != null && key.length >= length;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (obj instanceof RowKeySchema) {
+            return this.fields.equals(((RowKeySchema)obj).fields);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.fields.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (RowKeyField field : this.fields) {
+            if (sb.length() > 0) {
+                sb.append(FIELD_SEPARATOR);
+            }
+            sb.append(field);
+        }
+        return sb.toString();
+    }
+    //endregion
+
+    /**
+     * Converts the keys to the list of the named field values and vice versa. The converter is not registered with the other converters as it
+     * belongs to the schema of a specific table.
+     */
+    private static class RowKeyConverter extends TypeConverter {
+
+        //region Constants
+        private static final String NAME = "RowKey";
+
+        private static final long serialVersionUID = 4418720963371534582L;
+        //endregion
+
+        //region Variables
+        private final RowKeySchema schema;
+        //endregion
+
+        //region Constructor
+        private RowKeyConverter(RowKeySchema schema) {
+            this.schema = schema;
+        }
+        //endregion
+
+        //region Public Methods
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public byte[] toBytes(String value) {
+            return this.schema.toBytes(value);
+        }
+
+        @Override
+        public String toString(byte[] value) {
+            return this.schema.toString(value);
+        }
+
+        @Override
+        public boolean canConvert(byte[] value) {
+            return this.schema.canConvert(value);
+        }
+
+        @Override
+        public boolean supportsFormatting() {
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (obj instanceof RowKeyConverter) {
+                return this.schema.equals(((RowKeyConverter)obj).schema);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.schema.hashCode();
+        }
+        //endregion
+    }
+}
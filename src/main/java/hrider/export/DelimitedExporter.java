@@ -0,0 +1,185 @@
+package hrider.export;
+
+import hrider.data.ColumnType;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Result;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents an exporter writing the rows as character delimited lines. The first line holds the names of the columns
+ *          of the header, the values of the other columns are not exported. The values containing the delimiter, quotes, line breaks or
+ *          surrounding whitespace are quoted so that they can be imported back.
+ */
+public class DelimitedExporter implements Exporter {
+
+    //region Constants
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+    private static final char   QUOTE          = '"';
+    //endregion
+
+    //region Variables
+    /**
+     * The buffer to write to.
+     */
+    private OutputBuffer output;
+    /**
+     * The character delimiting the values.
+     */
+    private char         delimiter;
+    /**
+     * The delimiter as a string, the delimiter is not necessarily an ASCII character.
+     */
+    private String       delimiterText;
+    /**
+     * The cells of the current row by their positions in the header. Reused between the rows.
+     */
+    private Cell[]       cells;
+    /**
+     * The column indexes of the cells of the current row by their positions in the header. Reused between the rows.
+     */
+    private int[]        indexes;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link DelimitedExporter} class.
+     *
+     * @param output    The buffer to write to.
+     * @param delimiter The character delimiting the values.
+     */
+    public DelimitedExporter(OutputBuffer output, char delimiter) {
+        this.output = output;
+        this.delimiter = delimiter;
+        this.delimiterText = Character.toString(delimiter);
+        this.cells = new Cell[0];
+        this.indexes = new int[0];
+    }
+    //endregion
+
+    //region Public Methods
+    @Override
+    public void writeHeader(ExportSchema schema) throws IOException {
+        List<String> header = schema.getHeader();
+        for (int i = 0 ; i < header.size() ; i++) {
+            if (i > 0) {
+                this.output.write(this.delimiterText);
+            }
+            writeValue(header.get(i));
+        }
+        this.output.write(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void write(Result row, ExportSchema schema) throws IOException {
+        int size = schema.getHeaderSize();
+        if (this.cells.length < size) {
+            this.cells = new Cell[size];
+            this.indexes = new int[size];
+        }
+        else {
+            Arrays.fill(this.cells, 0, size, null);
+        }
+
+        for (Cell cell : row.rawCells()) {
+            int index = schema.indexOf(cell);
+            int position = schema.getPosition(index);
+
+            // The versions of the cell are sorted from the latest one, only the latest version is exported.
+            if (position > 0 && this.cells[position] == null) {
+                this.cells[position] = cell;
+                this.indexes[position] = index;
+            }
+        }
+
+        writeValue(schema.getKeyType().toString(row.getRow()));
+
+        for (int i = 1 ; i < size ; i++) {
+            this.output.write(this.delimiterText);
+
+            Cell cell = this.cells[i];
+            if (cell != null) {
+                ColumnType type = schema.getType(this.indexes[i]);
+                writeValue(type.toString(CellUtil.cloneValue(cell)));
+            }
+        }
+
+        this.output.write(LINE_SEPARATOR);
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Writes the value quoting it if needed.
+     *
+     * @param value The value to write. Can be null.
+     * @throws IOException Error writing to the output.
+     */
+    private void writeValue(String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+
+        if (!needsQuotes(value)) {
+            this.output.write(value);
+            return;
+        }
+
+        this.output.write(QUOTE);
+
+        int start = 0;
+        for (int i = 0 ; i < value.length() ; i++) {
+            if (value.charAt(i) == QUOTE) {
+                // Doubles the quote.
+                this.output.write(value, start, i + 1);
+                start = i;
+            }
+        }
+
+        this.output.write(value, start, value.length());
+        this.output.write(QUOTE);
+    }
+
+    /**
+     * Checks whether the value should be quoted.
+     *
+     * @param value The value to check.
+     * @return True if the value should be quoted or False otherwise.
+     */
+    private boolean needsQuotes(String value) {
+        if (Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(value.length() - 1))) {
+            return true;
+        }
+
+        for (int i = 0 ; i < value.length() ; i++) {
+            char ch = value.charAt(i);
+            if (ch == this.delimiter || ch == QUOTE || ch == '\n' || ch == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+    //endregion
+}
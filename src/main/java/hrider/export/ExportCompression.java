@@ -0,0 +1,131 @@
+package hrider.export;
+
+import org.xerial.snappy.SnappyInputStream;
+import org.xerial.snappy.SnappyOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This enum represents the compression of the exported files. The compression is chosen by the extension of the file.
+ */
+public enum ExportCompression {
+
+    None(""),
+    Gzip(".gz"),
+    Snappy(".snappy");
+
+    //region Constants
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    //endregion
+
+    //region Variables
+    private final String extension;
+    //endregion
+
+    //region Constructor
+    ExportCompression(String extension) {
+        this.extension = extension;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the extension added to the files compressed this way.
+     *
+     * @return The file extension including the dot.
+     */
+    public String getExtension() {
+        return this.extension;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Gets the compression by the name of the file.
+     *
+     * @param fileName The name of the file.
+     * @return The compression matching the extension of the file.
+     */
+    public static ExportCompression fromFileName(String fileName) {
+        String name = fileName.toLowerCase();
+        for (ExportCompression compression : values()) {
+            if (compression != None && name.endsWith(compression.extension)) {
+                return compression;
+            }
+        }
+        return None;
+    }
+
+    /**
+     * Wraps the stream with the compressing stream.
+     *
+     * @param stream The stream to write the compressed data to.
+     * @return The stream compressing the data.
+     * @throws IOException Error writing to the stream.
+     */
+    public OutputStream wrap(OutputStream stream) throws IOException {
+        switch (this) {
+            case Gzip:
+                return new GZIPOutputStream(stream, GZIP_BUFFER_SIZE);
+            case Snappy:
+                return new SnappyOutputStream(stream);
+            default:
+                return stream;
+        }
+    }
+
+    /**
+     * Wraps the stream with the decompressing stream.
+     *
+     * @param stream The stream to read the compressed data from.
+     * @return The stream decompressing the data.
+     * @throws IOException Error reading from the stream.
+     */
+    public InputStream unwrap(InputStream stream) throws IOException {
+        switch (this) {
+            case Gzip:
+                return new GZIPInputStream(stream, GZIP_BUFFER_SIZE);
+            case Snappy:
+                return new SnappyInputStream(stream);
+            default:
+                return stream;
+        }
+    }
+
+    /**
+     * Gets the name of the file without the extension of the compression.
+     *
+     * @param fileName The name of the file.
+     * @return The name of the file before the compression.
+     */
+    public String stripExtension(String fileName) {
+        if (this != None && fileName.toLowerCase().endsWith(this.extension)) {
+            return fileName.substring(0, fileName.length() - this.extension.length());
+        }
+        return fileName;
+    }
+    //endregion
+}
@@ -0,0 +1,63 @@
+package hrider.export;
+
+import java.nio.charset.Charset;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This interface represents a format of the exported files. The formats are registered in {@link ExportFormats}.
+ */
+public interface ExportFormat {
+
+    /**
+     * Gets the name of the format shown to the user.
+     *
+     * @return The name of the format.
+     */
+    String getName();
+
+    /**
+     * Gets the extension of the files of the format.
+     *
+     * @return The file extension without the dot.
+     */
+    String getExtension();
+
+    /**
+     * Gets the charset the text of the format is encoded with.
+     *
+     * @return The charset.
+     */
+    Charset getCharset();
+
+    /**
+     * Indicates whether the delimiter chosen by the user is used by the format.
+     *
+     * @return True if the format uses the delimiter or False otherwise.
+     */
+    boolean isDelimited();
+
+    /**
+     * Creates an exporter writing the rows in this format.
+     *
+     * @param output    The buffer to write to.
+     * @param delimiter The character delimiting the values. Ignored by the formats which are not delimited.
+     * @return A new exporter.
+     */
+    Exporter create(OutputBuffer output, char delimiter);
+}
@@ -0,0 +1,172 @@
+package hrider.export;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class holds the formats the tables can be exported to. Additional formats can be registered at runtime.
+ */
+public class ExportFormats {
+
+    //region Constants
+    /**
+     * The values delimited by a character chosen by the user.
+     */
+    public static final ExportFormat DELIMITED     = new DelimitedFormat("Delimited", "csv", null);
+    /**
+     * The values delimited by tabs.
+     */
+    public static final ExportFormat TAB_SEPARATED = new DelimitedFormat("Tab separated", "tsv", '\t');
+    /**
+     * A json object per line.
+     */
+    public static final ExportFormat JSON_LINES    = new ExportFormat() {
+        @Override
+        public String getName() {
+            return "JSON Lines";
+        }
+
+        @Override
+        public String getExtension() {
+            return "jsonl";
+        }
+
+        @Override
+        public Charset getCharset() {
+            return Charset.forName("UTF-8");
+        }
+
+        @Override
+        public boolean isDelimited() {
+            return false;
+        }
+
+        @Override
+        public Exporter create(OutputBuffer output, char delimiter) {
+            return new JsonLinesExporter(output);
+        }
+    };
+    //endregion
+
+    //region Variables
+    private static final Map<String, ExportFormat> formats;
+    //endregion
+
+    //region Constructor
+    static {
+        formats = new LinkedHashMap<String, ExportFormat>();
+
+        register(DELIMITED);
+        register(TAB_SEPARATED);
+        register(JSON_LINES);
+    }
+
+    private ExportFormats() {
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Registers a format. A format with the same name is replaced.
+     *
+     * @param format The format to register.
+     */
+    public static void register(ExportFormat format) {
+        synchronized (formats) {
+            formats.put(format.getName(), format);
+        }
+    }
+
+    /**
+     * Gets the format by its name.
+     *
+     * @param name The name of the format.
+     * @return The format or null if there is no such format.
+     */
+    public static ExportFormat get(String name) {
+        synchronized (formats) {
+            return formats.get(name);
+        }
+    }
+
+    /**
+     * Gets all registered formats.
+     *
+     * @return A list of formats in the order of their registration.
+     */
+    public static Collection<ExportFormat> getFormats() {
+        synchronized (formats) {
+            return new ArrayList<ExportFormat>(formats.values());
+        }
+    }
+    //endregion
+
+    /**
+     * Represents the formats of the character delimited values.
+     */
+    private static class DelimitedFormat implements ExportFormat {
+
+        //region Variables
+        private String    name;
+        private String    extension;
+        private Character delimiter;
+        //endregion
+
+        //region Constructor
+        private DelimitedFormat(String name, String extension, Character delimiter) {
+            this.name = name;
+            this.extension = extension;
+            this.delimiter = delimiter;
+        }
+        //endregion
+
+        //region Public Methods
+        @Override
+        public String getName() {
+            return this.name;
+        }
+
+        @Override
+        public String getExtension() {
+            return this.extension;
+        }
+
+        @Override
+        public Charset getCharset() {
+            // The same charset is used by the import.
+            return Charset.defaultCharset();
+        }
+
+        @Override
+        public boolean isDelimited() {
+            return this.delimiter == null;
+        }
+
+        @Override
+        public Exporter create(OutputBuffer output, char delimiter) {
+            return new DelimitedExporter(output, this.delimiter != null ? this.delimiter : delimiter);
+        }
+        //endregion
+    }
+}
@@ -0,0 +1,254 @@
+package hrider.export;
+
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents the manifest of a table exported to several part files. The manifest lists the format and the header of the
+ *          files and for each part its file, its range of keys and the number of rows, so each part can be verified or imported on its own.
+ *          The keys are stored in the printable binary form of {@link Bytes#toStringBinary(byte[])}.
+ */
+public class ExportManifest {
+
+    //region Constants
+    private static final String KEY_FORMAT     = "format";
+    private static final String KEY_HEADER     = "header";
+    private static final String KEY_PARTS      = "parts";
+    private static final String KEY_ROWS       = "rows";
+    private static final String KEY_MERGED     = "merged";
+    private static final String FILE_EXTENSION = ".manifest";
+    //endregion
+
+    //region Variables
+    /**
+     * The name of the format of the files.
+     */
+    private String           format;
+    /**
+     * The full names of the columns in the header of the files.
+     */
+    private List<String>     header;
+    /**
+     * The parts sorted by their keys.
+     */
+    private List<ExportPart> parts;
+    /**
+     * The file the parts have been merged to or null if the parts have not been merged.
+     */
+    private File             merged;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link ExportManifest} class.
+     *
+     * @param format The name of the format of the files.
+     * @param header The full names of the columns in the header of the files.
+     * @param parts  The parts sorted by their keys.
+     */
+    public ExportManifest(String format, List<String> header, List<ExportPart> parts) {
+        this.format = format;
+        this.header = header;
+        this.parts = parts;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the name of the format of the files.
+     *
+     * @return The name of the format.
+     */
+    public String getFormat() {
+        return this.format;
+    }
+
+    /**
+     * Gets the full names of the columns in the header of the files.
+     *
+     * @return A list of column names.
+     */
+    public List<String> getHeader() {
+        return this.header;
+    }
+
+    /**
+     * Gets the parts sorted by their keys.
+     *
+     * @return A list of parts.
+     */
+    public List<ExportPart> getParts() {
+        return this.parts;
+    }
+
+    /**
+     * Gets the total number of rows in all parts.
+     *
+     * @return The number of rows.
+     */
+    public long getRows() {
+        long rows = 0;
+        for (ExportPart part : this.parts) {
+            rows += part.getRows();
+        }
+        return rows;
+    }
+
+    /**
+     * Gets the file the parts have been merged to.
+     *
+     * @return The merged file or null if the parts have not been merged.
+     */
+    public File getMerged() {
+        return this.merged;
+    }
+
+    /**
+     * Sets the file the parts have been merged to.
+     *
+     * @param merged The merged file.
+     */
+    public void setMerged(File merged) {
+        this.merged = merged;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Gets the manifest file of the exported file.
+     *
+     * @param file The exported file.
+     * @return The manifest file next to the exported file.
+     */
+    public static File getManifestFile(File file) {
+        return new File(file.getPath() + FILE_EXTENSION);
+    }
+
+    /**
+     * Saves the manifest. The files of the parts are stored relatively to the folder of the manifest.
+     *
+     * @param file The manifest file.
+     * @throws IOException Error writing the file.
+     */
+    public void save(File file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(KEY_FORMAT, this.format);
+        properties.setProperty(KEY_ROWS, Long.toString(getRows()));
+
+        properties.setProperty(KEY_HEADER, Integer.toString(this.header.size()));
+        for (int i = 0 ; i < this.header.size() ; i++) {
+            properties.setProperty(KEY_HEADER + '.' + i, this.header.get(i));
+        }
+
+        properties.setProperty(KEY_PARTS, Integer.toString(this.parts.size()));
+        for (int i = 0 ; i < this.parts.size() ; i++) {
+            ExportPart part = this.parts.get(i);
+
+            String prefix = KEY_PARTS + '.' + i;
+            properties.setProperty(prefix + ".file", part.getFile().getName());
+            properties.setProperty(prefix + ".start", Bytes.toStringBinary(part.getStartKey()));
+            properties.setProperty(prefix + ".stop", Bytes.toStringBinary(part.getStopKey()));
+            properties.setProperty(prefix + ".rows", Long.toString(part.getRows()));
+            properties.setProperty(prefix + ".headerLength", Long.toString(part.getHeaderLength()));
+
+            if (part.getLastKey() != null) {
+                properties.setProperty(prefix + ".lastKey", Bytes.toStringBinary(part.getLastKey()));
+            }
+        }
+
+        if (this.merged != null) {
+            properties.setProperty(KEY_MERGED, this.merged.getName());
+        }
+
+        OutputStream stream = new FileOutputStream(file);
+        try {
+            properties.store(stream, "h-rider export manifest");
+        }
+        finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Loads the manifest.
+     *
+     * @param file The manifest file.
+     * @return A loaded manifest.
+     * @throws IOException Error reading the file.
+     */
+    public static ExportManifest load(File file) throws IOException {
+        Properties properties = new Properties();
+
+        InputStream stream = new FileInputStream(file);
+        try {
+            properties.load(stream);
+        }
+        finally {
+            stream.close();
+        }
+
+        File folder = file.getAbsoluteFile().getParentFile();
+
+        List<String> header = new ArrayList<String>();
+
+        int count = Integer.parseInt(properties.getProperty(KEY_HEADER, "0"));
+        for (int i = 0 ; i < count ; i++) {
+            header.add(properties.getProperty(KEY_HEADER + '.' + i));
+        }
+
+        List<ExportPart> parts = new ArrayList<ExportPart>();
+
+        count = Integer.parseInt(properties.getProperty(KEY_PARTS, "0"));
+        for (int i = 0 ; i < count ; i++) {
+            String prefix = KEY_PARTS + '.' + i;
+
+            ExportPart part = new ExportPart(
+                i, new File(folder, properties.getProperty(prefix + ".file")), Bytes.toBytesBinary(properties.getProperty(prefix + ".start")),
+                Bytes.toBytesBinary(properties.getProperty(prefix + ".stop")));
+
+            part.setRows(Long.parseLong(properties.getProperty(prefix + ".rows")));
+            part.setHeaderLength(Long.parseLong(properties.getProperty(prefix + ".headerLength", "0")));
+
+            String lastKey = properties.getProperty(prefix + ".lastKey");
+            if (lastKey != null) {
+                part.setCheckpoint(part.getFile().length(), Bytes.toBytesBinary(lastKey));
+            }
+
+            parts.add(part);
+        }
+
+        ExportManifest manifest = new ExportManifest(properties.getProperty(KEY_FORMAT), Collections.unmodifiableList(header), parts);
+
+        String merged = properties.getProperty(KEY_MERGED);
+        if (merged != null) {
+            manifest.setMerged(new File(folder, merged));
+        }
+        return manifest;
+    }
+    //endregion
+}
@@ -0,0 +1,185 @@
+package hrider.export;
+
+import java.io.File;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a part of a table exported to its own file. The part covers a range of keys, the start key is inclusive
+ *          and the stop key is exclusive. The checkpoint of the part is the key of the last row written to the file together with the
+ *          length of the file at that point.
+ */
+public class ExportPart {
+
+    //region Variables
+    /**
+     * The number of the part.
+     */
+    private int             index;
+    /**
+     * The file of the part.
+     */
+    private File            file;
+    /**
+     * The first key of the range.
+     */
+    private byte[]          startKey;
+    /**
+     * The key to stop before.
+     */
+    private byte[]          stopKey;
+    /**
+     * The number of rows written to the file.
+     */
+    private volatile long   rows;
+    /**
+     * The length of the file at the checkpoint.
+     */
+    private volatile long   length;
+    /**
+     * The key of the last row written to the file or null if no row has been written yet.
+     */
+    private volatile byte[] lastKey;
+    /**
+     * The number of bytes taken by the header at the beginning of the file before the compression.
+     */
+    private volatile long   headerLength;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link ExportPart} class.
+     *
+     * @param index    The number of the part.
+     * @param file     The file of the part.
+     * @param startKey The first key of the range. An empty key means the beginning of the table.
+     * @param stopKey  The key to stop before. An empty key means the end of the table.
+     */
+    public ExportPart(int index, File file, byte[] startKey, byte[] stopKey) {
+        this.index = index;
+        this.file = file;
+        this.startKey = startKey;
+        this.stopKey = stopKey;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the number of the part.
+     *
+     * @return The number of the part.
+     */
+    public int getIndex() {
+        return this.index;
+    }
+
+    /**
+     * Gets the file of the part.
+     *
+     * @return The file.
+     */
+    public File getFile() {
+        return this.file;
+    }
+
+    /**
+     * Gets the first key of the range.
+     *
+     * @return The start key.
+     */
+    public byte[] getStartKey() {
+        return this.startKey;
+    }
+
+    /**
+     * Gets the key to stop before.
+     *
+     * @return The stop key.
+     */
+    public byte[] getStopKey() {
+        return this.stopKey;
+    }
+
+    /**
+     * Gets the number of rows written to the file.
+     *
+     * @return The number of rows.
+     */
+    public long getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Sets the number of rows written to the file.
+     *
+     * @param rows The number of rows.
+     */
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * Gets the length of the file at the checkpoint.
+     *
+     * @return The length of the file.
+     */
+    public long getLength() {
+        return this.length;
+    }
+
+    /**
+     * Gets the key of the last row written to the file.
+     *
+     * @return The key of the last row or null if no row has been written yet.
+     */
+    public byte[] getLastKey() {
+        return this.lastKey;
+    }
+
+    /**
+     * Sets the checkpoint of the part.
+     *
+     * @param length  The length of the file. All rows up to and including the last key are in the file before this length.
+     * @param lastKey The key of the last row written to the file or null to start the part over.
+     */
+    public void setCheckpoint(long length, byte[] lastKey) {
+        this.length = length;
+        this.lastKey = lastKey;
+    }
+
+    /**
+     * Gets the number of bytes taken by the header at the beginning of the file before the compression.
+     *
+     * @return The number of bytes.
+     */
+    public long getHeaderLength() {
+        return this.headerLength;
+    }
+
+    /**
+     * Sets the number of bytes taken by the header at the beginning of the file before the compression.
+     *
+     * @param headerLength The number of bytes.
+     */
+    public void setHeaderLength(long headerLength) {
+        this.headerLength = headerLength;
+    }
+    //endregion
+}
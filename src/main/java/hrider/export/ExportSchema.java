@@ -0,0 +1,242 @@
+package hrider.export;
+
+import hrider.converters.TypeConverter;
+import hrider.data.ColumnDictionary;
+import hrider.data.ColumnQualifier;
+import hrider.data.ColumnQualifierRegistry;
+import hrider.data.ColumnType;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.HTableDescriptor;
+
+import java.util.*;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class describes the columns of the exported rows. The cells are resolved to their columns and types through a dictionary
+ *          keyed by the family and qualifier bytes, so that nothing is allocated for the columns already seen. The header lists the full
+ *          names of the columns written by the exporters with a fixed layout, the first column of the header is always the key.
+ *          The instance is not thread safe.
+ */
+public class ExportSchema {
+
+    //region Variables
+    /**
+     * The descriptor of the exported table.
+     */
+    private HTableDescriptor        table;
+    /**
+     * The registry creating the columns.
+     */
+    private ColumnQualifierRegistry registry;
+    /**
+     * The types of the values of the columns.
+     */
+    private Map<String, ColumnType> columnTypes;
+    /**
+     * The columns seen so far.
+     */
+    private ColumnDictionary        dictionary;
+    /**
+     * The full names of the columns in the header.
+     */
+    private List<String>            header;
+    /**
+     * Maps the full names of the columns in the header to their positions.
+     */
+    private Map<String, Integer>    positions;
+    /**
+     * The positions of the columns of the dictionary in the header or -1 for the columns not in the header.
+     */
+    private int[]                   dictionaryPositions;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link ExportSchema} class.
+     *
+     * @param table         The descriptor of the exported table.
+     * @param nameConverter The converter of the column names.
+     * @param columnTypes   The types of the values of the columns. The values of the columns not in the map are exported as strings.
+     */
+    public ExportSchema(HTableDescriptor table, TypeConverter nameConverter, Map<String, ColumnType> columnTypes) {
+        this.table = table;
+        this.registry = new ColumnQualifierRegistry(nameConverter);
+        this.columnTypes = columnTypes != null ? columnTypes : new HashMap<String, ColumnType>();
+        this.dictionary = new ColumnDictionary();
+        this.dictionaryPositions = new int[16];
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the type of the key.
+     *
+     * @return The column type.
+     */
+    public ColumnType getKeyType() {
+        return getType(ColumnQualifier.KEY.getName());
+    }
+
+    /**
+     * Gets the full names of the columns in the header. The first name is the name of the key.
+     *
+     * @return A list of column names or null if the header has not been set.
+     */
+    public List<String> getHeader() {
+        return this.header;
+    }
+
+    /**
+     * Sets the full names of the columns in the header.
+     *
+     * @param header The column names. The key is added in front of the names if it is missing.
+     */
+    public void setHeader(List<String> header) {
+        List<String> names = new ArrayList<String>(header.size() + 1);
+        if (header.isEmpty() || !ColumnQualifier.isKey(header.get(0))) {
+            names.add(ColumnQualifier.KEY.getName());
+        }
+        names.addAll(header);
+
+        this.header = Collections.unmodifiableList(names);
+        this.positions = new HashMap<String, Integer>();
+
+        for (int i = 1 ; i < names.size() ; i++) {
+            this.positions.put(names.get(i), i);
+        }
+
+        for (int i = 0 ; i < this.dictionary.size() ; i++) {
+            this.dictionaryPositions[i] = getPosition(this.dictionary.getColumn(i).getFullName());
+        }
+    }
+
+    /**
+     * Gets the number of columns in the header including the key.
+     *
+     * @return The number of columns.
+     */
+    public int getHeaderSize() {
+        return this.header != null ? this.header.size() : 0;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Sets the header to the columns of the specified cells in the order they are first seen.
+     *
+     * @param cells The cells of the sample rows.
+     */
+    public void setHeaderFrom(Iterable<Cell> cells) {
+        Set<String> names = new LinkedHashSet<String>();
+        for (Cell cell : cells) {
+            names.add(getColumn(indexOf(cell)).getFullName());
+        }
+        setHeader(new ArrayList<String>(names));
+    }
+
+    /**
+     * Resolves the cell to the index of its column. New columns are added to the schema.
+     *
+     * @param cell The cell.
+     * @return The index of the column.
+     */
+    public int indexOf(Cell cell) {
+        int index = this.dictionary.indexOf(
+            cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength(), cell.getQualifierArray(), cell.getQualifierOffset(),
+            cell.getQualifierLength());
+
+        if (index == -1) {
+            ColumnQualifier column = this.registry.get(
+                this.table, cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength(), cell.getQualifierArray(), cell.getQualifierOffset(),
+                cell.getQualifierLength());
+
+            index = this.dictionary.add(column, getType(column.getFullName()));
+
+            if (index == this.dictionaryPositions.length) {
+                this.dictionaryPositions = Arrays.copyOf(this.dictionaryPositions, index * 2);
+            }
+            this.dictionaryPositions[index] = getPosition(column.getFullName());
+        }
+        return index;
+    }
+
+    /**
+     * Gets the column by its index.
+     *
+     * @param index The index of the column.
+     * @return A column qualifier.
+     */
+    public ColumnQualifier getColumn(int index) {
+        return this.dictionary.getColumn(index);
+    }
+
+    /**
+     * Gets the type of the column by its index.
+     *
+     * @param index The index of the column.
+     * @return A column type.
+     */
+    public ColumnType getType(int index) {
+        return this.dictionary.getType(index);
+    }
+
+    /**
+     * Gets the position of the column in the header.
+     *
+     * @param index The index of the column.
+     * @return The position of the column or -1 if the column is not in the header.
+     */
+    public int getPosition(int index) {
+        return this.dictionaryPositions[index];
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Gets the type of the column by its name.
+     *
+     * @param columnName The full name of the column.
+     * @return The configured column type or {@link ColumnType#String} if the type is not configured.
+     */
+    private ColumnType getType(String columnName) {
+        ColumnType type = this.columnTypes.get(columnName);
+        return type != null ? type : ColumnType.String;
+    }
+
+    /**
+     * Gets the position of the column in the header by its name.
+     *
+     * @param columnName The full name of the column.
+     * @return The position of the column or -1 if the column is not in the header.
+     */
+    private int getPosition(String columnName) {
+        if (this.positions != null) {
+            Integer position = this.positions.get(columnName);
+            if (position != null) {
+                return position;
+            }
+        }
+        return -1;
+    }
+    //endregion
+}
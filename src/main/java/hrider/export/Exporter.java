@@ -1,7 +1,6 @@
 package hrider.export;
 
-import hrider.data.ColumnQualifier;
-import hrider.data.DataRow;
+import org.apache.hadoop.hbase.client.Result;
 
 import java.io.IOException;
 
@@ -23,15 +22,25 @@ import java.io.IOException;
  * @author Igor Cher
  * @version %I%, %G%
  *          <p/>
- *          An exporter interface to be used to export data from the table.
+ *          An exporter interface to be used to export data from the table. An exporter encodes the rows in a specific format into the
+ *          output buffer; new formats are plugged in through {@link ExportFormats}.
  */
 public interface Exporter {
 
     /**
-     * Writes a list of rows into the output stream.
+     * Writes the header of the output. The method is not called when the output is appended to an existing file.
      *
-     * @param row A row to write.
-     * @param columns A list of columns in the specified order which values to be written.
+     * @param schema The schema of the exported rows.
+     * @throws IOException Error writing to the output.
      */
-    void write(DataRow row, Iterable<ColumnQualifier> columns) throws IOException;
+    void writeHeader(ExportSchema schema) throws IOException;
+
+    /**
+     * Writes the row.
+     *
+     * @param row    The row to write.
+     * @param schema The schema used to resolve the columns of the row.
+     * @throws IOException Error writing to the output.
+     */
+    void write(Result row, ExportSchema schema) throws IOException;
 }
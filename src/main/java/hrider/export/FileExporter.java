@@ -27,9 +27,10 @@ import java.io.OutputStream;
  * @author Igor Cher
  * @version %I%, %G%
  *          <p/>
- *          This class represents an exporter that saves the data into the file.
+ *          This class writes the loaded rows into a character delimited stream, for example to open them in an external viewer. The tables
+ *          are exported by {@link hrider.hbase.TableExporter}.
  */
-public class FileExporter implements Exporter {
+public class FileExporter {
 
     //region Constants
     private static final byte[] LINE_SEPARATOR = System.getProperty("line.separator").getBytes();
@@ -50,9 +51,20 @@ public class FileExporter implements Exporter {
      * @param delimiter A character to be used as a data delimiter.
      */
     public FileExporter(OutputStream stream, char delimiter) {
+        this(stream, delimiter, false);
+    }
+
+    /**
+     * Initializes a new instance of the {@link FileExporter} class.
+     *
+     * @param stream        An output stream to write to.
+     * @param delimiter     A character to be used as a data delimiter.
+     * @param headerWritten Indicates whether the stream already contains the header, for example when an export is resumed.
+     */
+    public FileExporter(OutputStream stream, char delimiter, boolean headerWritten) {
         this.stream = stream;
         this.delimiter = delimiter;
-        this.headerWritten = false;
+        this.headerWritten = headerWritten;
     }
     //endregion
 
@@ -64,7 +76,6 @@ public class FileExporter implements Exporter {
      * @param row A row to write.
      * @throws IOException
      */
-    @Override
     public void write(DataRow row, Iterable<ColumnQualifier> columns) throws IOException {
         if (!this.headerWritten) {
 
@@ -0,0 +1,202 @@
+package hrider.export;
+
+import hrider.data.ColumnType;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Result;
+
+import java.io.IOException;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents an exporter writing each row as a json object on a separate line. All columns of a row are exported
+ *          regardless of the header. The values of the numeric and boolean columns are written as json literals, the rest as strings.
+ */
+public class JsonLinesExporter implements Exporter {
+
+    //region Constants
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    //endregion
+
+    //region Variables
+    /**
+     * The buffer to write to.
+     */
+    private OutputBuffer output;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link JsonLinesExporter} class.
+     *
+     * @param output The buffer to write to.
+     */
+    public JsonLinesExporter(OutputBuffer output) {
+        this.output = output;
+    }
+    //endregion
+
+    //region Public Methods
+    @Override
+    public void writeHeader(ExportSchema schema) throws IOException {
+        // Each line describes itself.
+    }
+
+    @Override
+    public void write(Result row, ExportSchema schema) throws IOException {
+        this.output.write('{');
+        writeString("key");
+        this.output.write(':');
+        writeString(schema.getKeyType().toString(row.getRow()));
+
+        int previousIndex = -1;
+
+        for (Cell cell : row.rawCells()) {
+            int index = schema.indexOf(cell);
+
+            // The versions of the cell are sorted from the latest one, only the latest version is exported.
+            if (index != previousIndex) {
+                this.output.write(',');
+                writeString(schema.getColumn(index).getFullName());
+                this.output.write(':');
+                ColumnType type = schema.getType(index);
+                writeValue(type, type.toString(CellUtil.cloneValue(cell)));
+
+                previousIndex = index;
+            }
+        }
+
+        this.output.write('}');
+        this.output.write('\n');
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Writes the value as a literal if the type allows it or as a string otherwise.
+     *
+     * @param type  The type of the value.
+     * @param value The value to write. Can be null.
+     * @throws IOException Error writing to the output.
+     */
+    private void writeValue(ColumnType type, String value) throws IOException {
+        if (value == null) {
+            this.output.write("null");
+        }
+        else if (isLiteral(type, value)) {
+            this.output.write(value);
+        }
+        else {
+            writeString(value);
+        }
+    }
+
+    /**
+     * Writes the escaped string in quotes.
+     *
+     * @param value The string to write.
+     * @throws IOException Error writing to the output.
+     */
+    private void writeString(String value) throws IOException {
+        this.output.write('"');
+
+        int start = 0;
+        for (int i = 0 ; i < value.length() ; i++) {
+            char ch = value.charAt(i);
+            if (ch == '"' || ch == '\\' || ch < 0x20) {
+                this.output.write(value, start, i);
+                start = i + 1;
+
+                this.output.write('\\');
+                switch (ch) {
+                    case '"':
+                    case '\\':
+                        this.output.write(ch);
+                        break;
+                    case '\n':
+                        this.output.write('n');
+                        break;
+                    case '\r':
+                        this.output.write('r');
+                        break;
+                    case '\t':
+                        this.output.write('t');
+                        break;
+                    default:
+                        this.output.write('u');
+                        this.output.write('0');
+                        this.output.write('0');
+                        this.output.write(HEX[ch >> 4]);
+                        this.output.write(HEX[ch & 0xF]);
+                        break;
+                }
+            }
+        }
+
+        this.output.write(value, start, value.length());
+        this.output.write('"');
+    }
+
+    /**
+     * Checks whether the value can be written as a json literal.
+     *
+     * @param type  The type of the value.
+     * @param value The value to check.
+     * @return True if the value is a number or a boolean of the corresponding type or False otherwise.
+     */
+    private static boolean isLiteral(ColumnType type, String value) {
+        if (ColumnType.Boolean.equals(type)) {
+            return "true".equals(value) || "false".equals(value);
+        }
+
+        if (ColumnType.Integer.equals(type) || ColumnType.Long.equals(type) || ColumnType.Short.equals(type) || ColumnType.Double.equals(type) ||
+            ColumnType.Float.equals(type)) {
+            return isNumber(value);
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the value is a json number. The special values like NaN or Infinity are not numbers in json.
+     *
+     * @param value The value to check.
+     * @return True if the value is a number or False otherwise.
+     */
+    private static boolean isNumber(String value) {
+        int index = value.startsWith("-") ? 1 : 0;
+        if (index == value.length()) {
+            return false;
+        }
+
+        boolean digits = false;
+        for ( ; index < value.length() ; index++) {
+            char ch = value.charAt(index);
+            if (ch >= '0' && ch <= '9') {
+                digits = true;
+            }
+            else if (ch != '.' && ch != 'e' && ch != 'E' && ch != '+' && ch != '-') {
+                return false;
+            }
+        }
+        return digits && Character.isDigit(value.charAt(value.length() - 1));
+    }
+    //endregion
+}
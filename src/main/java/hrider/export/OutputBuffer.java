@@ -0,0 +1,269 @@
+package hrider.export;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class encodes text into a large reusable buffer which is written to the underlying stream only when it is full or flushed.
+ *          The ASCII characters are copied directly when the charset allows it, the rest of the text goes through a reusable encoder.
+ *          The instance is not thread safe.
+ */
+public class OutputBuffer implements Flushable {
+
+    //region Constants
+    private static final int MIN_BUFFER_SIZE = 1024;
+    //endregion
+
+    //region Variables
+    /**
+     * The stream to write the buffer to.
+     */
+    private OutputStream   stream;
+    /**
+     * The buffer.
+     */
+    private byte[]         buffer;
+    /**
+     * The number of bytes in the buffer.
+     */
+    private int            count;
+    /**
+     * The number of bytes written to the stream so far.
+     */
+    private long           written;
+    /**
+     * The encoder of the characters.
+     */
+    private CharsetEncoder encoder;
+    /**
+     * Indicates whether the ASCII characters are encoded as single bytes of the same value.
+     */
+    private boolean        asciiCompatible;
+    /**
+     * A view of the buffer used by the encoder.
+     */
+    private ByteBuffer     byteView;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link OutputBuffer} class.
+     *
+     * @param stream     The stream to write to.
+     * @param charset    The charset to encode the text with.
+     * @param bufferSize The size of the buffer.
+     */
+    public OutputBuffer(OutputStream stream, Charset charset, int bufferSize) {
+        this.stream = stream;
+        this.buffer = new byte[Math.max(MIN_BUFFER_SIZE, bufferSize)];
+        this.byteView = ByteBuffer.wrap(this.buffer);
+        this.encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.asciiCompatible = isAsciiCompatible(charset);
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the number of bytes written to the underlying stream so far, the buffered bytes are not counted.
+     *
+     * @return The number of bytes.
+     */
+    public long getWritten() {
+        return this.written;
+    }
+
+    /**
+     * Gets the number of bytes written to the buffer so far including the bytes not written to the underlying stream yet.
+     *
+     * @return The number of bytes.
+     */
+    public long getSize() {
+        return this.written + this.count;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Writes a single byte.
+     *
+     * @param value The byte to write.
+     * @throws IOException Error writing to the stream.
+     */
+    public void write(int value) throws IOException {
+        if (this.count == this.buffer.length) {
+            flushBuffer();
+        }
+        this.buffer[this.count++] = (byte)value;
+    }
+
+    /**
+     * Writes the bytes.
+     *
+     * @param value  The array holding the bytes.
+     * @param offset The offset of the first byte.
+     * @param length The number of bytes to write.
+     * @throws IOException Error writing to the stream.
+     */
+    public void write(byte[] value, int offset, int length) throws IOException {
+        if (length > this.buffer.length) {
+            flushBuffer();
+            this.stream.write(value, offset, length);
+            this.written += length;
+            return;
+        }
+
+        if (length > this.buffer.length - this.count) {
+            flushBuffer();
+        }
+
+        System.arraycopy(value, offset, this.buffer, this.count, length);
+        this.count += length;
+    }
+
+    /**
+     * Writes the text.
+     *
+     * @param text The text to write.
+     * @throws IOException Error writing to the stream.
+     */
+    public void write(CharSequence text) throws IOException {
+        write(text, 0, text.length());
+    }
+
+    /**
+     * Writes a part of the text.
+     *
+     * @param text  The text to write.
+     * @param start The index of the first character to write.
+     * @param end   The index following the last character to write.
+     * @throws IOException Error writing to the stream.
+     */
+    public void write(CharSequence text, int start, int end) throws IOException {
+        int index = start;
+
+        if (this.asciiCompatible) {
+            while (index < end) {
+                char ch = text.charAt(index);
+                if (ch >= 0x80) {
+                    break;
+                }
+
+                if (this.count == this.buffer.length) {
+                    flushBuffer();
+                }
+
+                this.buffer[this.count++] = (byte)ch;
+                index++;
+            }
+        }
+
+        if (index < end) {
+            encode(CharBuffer.wrap(text, index, end));
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the stream and flushes the stream.
+     *
+     * @throws IOException Error writing to the stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        this.stream.flush();
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Encodes the characters directly into the buffer.
+     *
+     * @param chars The characters to encode.
+     * @throws IOException Error writing to the stream.
+     */
+    private void encode(CharBuffer chars) throws IOException {
+        this.encoder.reset();
+
+        while (true) {
+            this.byteView.limit(this.buffer.length);
+            this.byteView.position(this.count);
+
+            CoderResult result = this.encoder.encode(chars, this.byteView, true);
+            this.count = this.byteView.position();
+
+            if (result.isOverflow()) {
+                flushBuffer();
+            }
+            else {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the stream.
+     *
+     * @throws IOException Error writing to the stream.
+     */
+    private void flushBuffer() throws IOException {
+        if (this.count > 0) {
+            this.stream.write(this.buffer, 0, this.count);
+            this.written += this.count;
+            this.count = 0;
+        }
+    }
+
+    /**
+     * Checks whether the charset encodes the ASCII characters as single bytes of the same value.
+     *
+     * @param charset The charset to check.
+     * @return True if the ASCII characters can be copied directly or False otherwise.
+     */
+    private static boolean isAsciiCompatible(Charset charset) {
+        char[] ascii = new char[0x80];
+        for (int i = 0 ; i < ascii.length ; i++) {
+            ascii[i] = (char)i;
+        }
+
+        byte[] encoded = new String(ascii).getBytes(charset);
+        if (encoded.length != ascii.length) {
+            return false;
+        }
+
+        for (int i = 0 ; i < encoded.length ; i++) {
+            if (encoded[i] != i) {
+                return false;
+            }
+        }
+        return true;
+    }
+    //endregion
+}
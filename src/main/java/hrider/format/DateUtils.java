@@ -46,12 +46,17 @@ public class DateUtils {
     }
 
     public static String format(Date date) {
-        return df.format(date);
+        // The format is not thread safe and the converters can be used concurrently (e.g. by the import).
+        synchronized (df) {
+            return df.format(date);
+        }
     }
 
     public static Date parse(String date) {
         try {
-            return df.parse(date);
+            synchronized (df) {
+                return df.parse(date);
+            }
         }
         catch (ParseException e) {
             logger.error(e, "Failed to convert Date from string '%s'.", date);
@@ -0,0 +1,214 @@
+package hrider.format;
+
+import java.util.List;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class splits a character delimited line into values without regular expressions. A value starting with a double quote
+ *          extends to the closing quote and can contain delimiters, a doubled quote inside it stands for a single quote. Other values are
+ *          taken as is and trimmed, so that the quotes found in the middle of a value (e.g. in a json document) are preserved.
+ */
+public class DelimitedParser {
+
+    //region Constants
+    private static final char QUOTE = '"';
+    //endregion
+
+    //region Variables
+    /**
+     * The character delimiting the values.
+     */
+    private char          delimiter;
+    /**
+     * The buffer used to unescape the quoted values.
+     */
+    private StringBuilder buffer;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link DelimitedParser} class. The instance is not thread safe.
+     *
+     * @param delimiter The character delimiting the values.
+     */
+    public DelimitedParser(char delimiter) {
+        this.delimiter = delimiter;
+        this.buffer = new StringBuilder();
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Splits the line into values.
+     *
+     * @param line   The characters holding the line.
+     * @param start  The index of the first character of the line.
+     * @param end    The index following the last character of the line. A trailing carriage return is ignored.
+     * @param values The list to add the values to.
+     * @return The number of values added to the list.
+     */
+    public int parse(CharSequence line, int start, int end, List<String> values) {
+        if (end > start && line.charAt(end - 1) == '\r') {
+            end--;
+        }
+
+        int count = 0;
+        int index = start;
+
+        while (index <= end) {
+            int valueStart = skipWhitespace(line, index, end);
+
+            if (valueStart < end && line.charAt(valueStart) == QUOTE) {
+                index = parseQuoted(line, valueStart + 1, end);
+                values.add(this.buffer.toString());
+            }
+            else {
+                int valueEnd = valueStart;
+                while (valueEnd < end && line.charAt(valueEnd) != this.delimiter) {
+                    valueEnd++;
+                }
+
+                values.add(trim(line, valueStart, valueEnd));
+                index = valueEnd;
+            }
+
+            count++;
+
+            // Step over the delimiter, the end of the line stops the loop.
+            index++;
+        }
+        return count;
+    }
+
+    /**
+     * Finds the end of the record starting at the specified index. A record ends with a new line which is not inside a quoted value, so
+     * the values exported with line breaks are read back as a single record.
+     *
+     * @param text  The characters holding the records.
+     * @param start The index of the first character of the record.
+     * @param end   The index following the last character to search.
+     * @return The index of the new line ending the record or -1 if the record does not end before the end index.
+     */
+    public int findRecordEnd(CharSequence text, int start, int end) {
+        boolean valueStart = true;
+        boolean quoted = false;
+
+        for (int index = start ; index < end ; index++) {
+            char ch = text.charAt(index);
+
+            if (quoted) {
+                if (ch == QUOTE) {
+                    // A doubled quote stands for a single quote, otherwise the quote closes the value.
+                    if (index + 1 < end && text.charAt(index + 1) == QUOTE) {
+                        index++;
+                    }
+                    else {
+                        quoted = false;
+                    }
+                }
+            }
+            else if (ch == '\n') {
+                return index;
+            }
+            else if (ch == this.delimiter) {
+                valueStart = true;
+            }
+            else if (valueStart && !Character.isWhitespace(ch)) {
+                // Only a quote at the beginning of a value starts a quoted value, the same way the values are parsed.
+                quoted = ch == QUOTE;
+                valueStart = false;
+            }
+        }
+        return -1;
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Parses the quoted value into the buffer.
+     *
+     * @param line  The characters holding the line.
+     * @param index The index following the opening quote.
+     * @param end   The index following the last character of the line.
+     * @return The index of the delimiter following the value or the end of the line.
+     */
+    private int parseQuoted(CharSequence line, int index, int end) {
+        this.buffer.setLength(0);
+
+        while (index < end) {
+            char ch = line.charAt(index++);
+            if (ch == QUOTE) {
+                if (index < end && line.charAt(index) == QUOTE) {
+                    this.buffer.append(QUOTE);
+                    index++;
+                }
+                else {
+                    break;
+                }
+            }
+            else {
+                this.buffer.append(ch);
+            }
+        }
+
+        // Whatever follows the closing quote up to the delimiter belongs to the value.
+        while (index < end && line.charAt(index) != this.delimiter) {
+            this.buffer.append(line.charAt(index++));
+        }
+        return index;
+    }
+
+    /**
+     * Skips the whitespace characters other than the delimiter.
+     *
+     * @param line  The characters holding the line.
+     * @param index The index to start from.
+     * @param end   The index following the last character of the line.
+     * @return The index of the first character which is not a whitespace.
+     */
+    private int skipWhitespace(CharSequence line, int index, int end) {
+        while (index < end) {
+            char ch = line.charAt(index);
+            if (ch == this.delimiter || !Character.isWhitespace(ch)) {
+                break;
+            }
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Gets the value without the trailing whitespace characters.
+     *
+     * @param line  The characters holding the line.
+     * @param start The index of the first character of the value.
+     * @param end   The index following the last character of the value.
+     * @return The trimmed value.
+     */
+    private static String trim(CharSequence line, int start, int end) {
+        while (end > start && Character.isWhitespace(line.charAt(end - 1))) {
+            end--;
+        }
+        return line.subSequence(start, end).toString();
+    }
+    //endregion
+}
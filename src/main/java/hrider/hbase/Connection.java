@@ -2,7 +2,9 @@ package hrider.hbase;
 
 import hrider.config.ConnectionDetails;
 import hrider.config.GlobalConfig;
+import hrider.converters.TypeConverter;
 import hrider.data.ColumnFamily;
+import hrider.data.ColumnType;
 import hrider.data.DataCell;
 import hrider.data.DataRow;
 import hrider.data.TableDescriptor;
@@ -22,6 +24,7 @@ import org.apache.hadoop.hbase.util.Bytes;
 
 import com.google.common.base.Splitter;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.*;
 
@@ -53,9 +56,9 @@ public class Connection {
      */
     private String                    serverName;
     /**
-     * A reference to the hbase administration class.
+     * A reference to the storage holding the tables.
      */
-    private HBaseAdmin                hbaseAdmin;
+    private StorageProvider           provider;
     /**
      * A reference to the tables factory class.
      */
@@ -68,6 +71,10 @@ public class Connection {
      * A list of listeners.
      */
     private List<HbaseActionListener> listeners;
+    /**
+     * The cached metadata of the tables.
+     */
+    private TableMetadataCache        metadataCache;
     //endregion
     Splitter spliter = Splitter.on(":").limit(2);
     //region Constructor
@@ -79,19 +86,24 @@ public class Connection {
      * @throws IOException Error connecting to hbase.
      */
     public Connection(ConnectionDetails connectionDetails) throws IOException {
+        this(connectionDetails, createProvider(connectionDetails));
+    }
+
+    /**
+     * Initializes a new instance of the {@link Connection} class over the specified storage, for example a {@link MemoryStorageProvider}
+     * to work without a live cluster.
+     *
+     * @param connectionDetails A configuration identifying the connection.
+     * @param provider          The storage holding the tables.
+     */
+    public Connection(ConnectionDetails connectionDetails, StorageProvider provider) {
         this.connectionDetails = connectionDetails;
         this.serverName = connectionDetails.getZookeeper().getHost();
         this.listeners = new ArrayList<HbaseActionListener>();
-
-        try {
-            Configuration config = connectionDetails.createConfig();
-
-            this.factory = new TableFactory(config);
-            this.hbaseAdmin = new HBaseAdmin(config);
-        }
-        catch (Exception e) {
-            throw new IOException("Failed to access hbase administration.", e);
-        }
+        this.provider = provider;
+        this.factory = new TableFactory(provider);
+        this.metadataCache = new TableMetadataCache(this.serverName + "-metadata", provider);
+        this.listeners.add(this.metadataCache);
     }
     //endregion
 
@@ -112,7 +124,16 @@ public class Connection {
      * @return A reference to the {@link Configuration} instance.
      */
     public Configuration getConfiguration() {
-        return this.hbaseAdmin.getConfiguration();
+        return this.provider.getConfiguration();
+    }
+
+    /**
+     * Gets a reference to the storage holding the tables.
+     *
+     * @return A reference to the {@link StorageProvider} instance.
+     */
+    public StorageProvider getStorageProvider() {
+        return this.provider;
     }
 
     /**
@@ -132,6 +153,15 @@ public class Connection {
     public String getServerName() {
         return this.serverName;
     }
+
+    /**
+     * Gets the cached metadata of the tables. The UI should read the tables and their state from the cache rather than from the cluster.
+     *
+     * @return A reference to the {@link TableMetadataCache} instance.
+     */
+    public TableMetadataCache getMetadataCache() {
+        return this.metadataCache;
+    }
     //endregion
 
     //region Public Methods
@@ -145,7 +175,31 @@ public class Connection {
      * @throws TableNotFoundException The specified table does not exist.
      */
     public TableDescriptor getTableDescriptor(String tableName) throws IOException, TableNotFoundException {
-        return new TableDescriptor(this.hbaseAdmin.getTableDescriptor(Bytes.toBytes(tableName)));
+        return new TableDescriptor(this.provider.getTableDescriptor(tableName));
+    }
+
+    /**
+     * Gets the cached schema of the specified table. The schema is kept by the metadata cache and is loaded again only after the table
+     * has been changed through this connection, refreshed by the metadata cache or reloaded explicitly, so the read and write paths do not
+     * call the cluster administration.
+     *
+     * @param tableName The name of the table.
+     * @return A reference to the {@link TableSchema}.
+     * @throws IOException            Error accessing hbase.
+     * @throws TableNotFoundException The specified table does not exist.
+     */
+    public TableSchema getSchema(String tableName) throws IOException, TableNotFoundException {
+        return this.metadataCache.getSchema(tableName);
+    }
+
+    /**
+     * Reloads the cached metadata of the specified table including its schema. The schema should be reloaded if the table has been
+     * modified outside of this connection.
+     *
+     * @param tableName The name of the table.
+     */
+    public void reloadSchema(String tableName) {
+        this.metadataCache.invalidate(tableName);
     }
 
     /**
@@ -171,6 +225,7 @@ public class Connection {
      */
     public void reset() {
         this.factory.clear();
+        this.metadataCache.clearSchemas();
     }
 
     /**
@@ -182,7 +237,7 @@ public class Connection {
      */
     @SuppressWarnings("BooleanMethodNameMustStartWithQuestion")
     public boolean tableExists(String tableName) throws IOException {
-        return tableName != null && this.hbaseAdmin.tableExists(tableName);
+        return tableName != null && this.provider.tableExists(tableName);
     }
 
     /**
@@ -193,7 +248,7 @@ public class Connection {
      * @throws IOException Error accessing hbase.
      */
     public boolean tableEnabled(String tableName) throws IOException {
-        return TableUtil.isMetaTable(tableName) || tableName != null && this.hbaseAdmin.isTableEnabled(tableName);
+        return TableUtil.isMetaTable(tableName) || tableName != null && this.provider.isTableEnabled(tableName);
     }
 
     /**
@@ -223,20 +278,20 @@ public class Connection {
      * @throws IOException Error accessing hbase.
      */
     public void createOrModifyTable(TableDescriptor tableDescriptor, byte[][] splitKeys) throws IOException, TableNotFoundException {
-        if (this.hbaseAdmin.tableExists(tableDescriptor.getName())) {
-            if (this.hbaseAdmin.isTableEnabled(tableDescriptor.getName())) {
-                this.hbaseAdmin.disableTable(tableDescriptor.getName());
+        if (this.provider.tableExists(tableDescriptor.getName())) {
+            if (this.provider.isTableEnabled(tableDescriptor.getName())) {
+                this.provider.disableTable(tableDescriptor.getName());
             }
 
-            this.hbaseAdmin.modifyTable(Bytes.toBytes(tableDescriptor.getName()), tableDescriptor.toDescriptor());
-            this.hbaseAdmin.enableTable(tableDescriptor.getName());
+            this.provider.modifyTable(tableDescriptor.getName(), tableDescriptor.toDescriptor());
+            this.provider.enableTable(tableDescriptor.getName());
 
             for (HbaseActionListener listener : this.listeners) {
                 listener.tableOperation(tableDescriptor.getName(), "modified");
             }
         }
         else {
-            this.hbaseAdmin.createTable(tableDescriptor.toDescriptor(), splitKeys);
+            this.provider.createTable(tableDescriptor.toDescriptor(), splitKeys);
 
             for (HbaseActionListener listener : this.listeners) {
                 listener.tableOperation(tableDescriptor.getName(), "created");
@@ -251,11 +306,11 @@ public class Connection {
      * @throws IOException Error accessing hbase.
      */
     public void deleteTable(String tableName) throws IOException {
-        if (this.hbaseAdmin.tableExists(tableName)) {
-            if (this.hbaseAdmin.isTableEnabled(tableName)) {
-                this.hbaseAdmin.disableTable(tableName);
+        if (this.provider.tableExists(tableName)) {
+            if (this.provider.isTableEnabled(tableName)) {
+                this.provider.disableTable(tableName);
             }
-            this.hbaseAdmin.deleteTable(tableName);
+            this.provider.deleteTable(tableName);
 
             for (HbaseActionListener listener : this.listeners) {
                 listener.tableOperation(tableName, "deleted");
@@ -270,9 +325,9 @@ public class Connection {
      * @throws IOException Error accessing hbase.
      */
     public void truncateTable(String tableName) throws IOException, TableNotFoundException {
-        HTableDescriptor td = this.hbaseAdmin.getTableDescriptor(Bytes.toBytes(tableName));
+        HTableDescriptor td = this.provider.getTableDescriptor(tableName);
 
-        HTable table = this.factory.get(tableName);
+        StorageTable table = this.factory.get(tableName);
 
         byte[][] startKeys = table.getStartKeys();
         byte[][] splitKeys = new byte[startKeys.length - 1][];
@@ -280,13 +335,13 @@ public class Connection {
         System.arraycopy(startKeys, 1, splitKeys, 0, startKeys.length - 1);
 
         // Delete your table
-        if (this.hbaseAdmin.isTableEnabled(tableName)) {
-            this.hbaseAdmin.disableTable(tableName);
+        if (this.provider.isTableEnabled(tableName)) {
+            this.provider.disableTable(tableName);
         }
-        this.hbaseAdmin.deleteTable(tableName);
+        this.provider.deleteTable(tableName);
 
         // Recreate your table
-        this.hbaseAdmin.createTable(td, splitKeys);
+        this.provider.createTable(td, splitKeys);
 
         for (HbaseActionListener listener : this.listeners) {
             listener.tableOperation(tableName, "truncated");
@@ -294,67 +349,113 @@ public class Connection {
     }
 
     /**
-     * Copies all the data from one table to another. The tables can be on different clusters.
+     * Copies all the data from one table to another. The tables can be on different clusters. The regions of the source table are copied
+     * concurrently and the listeners are notified about the progress periodically rather than for each row.
      *
      * @param targetTable   The name of the target table.
      * @param sourceTable   The name of the source table.
      * @param sourceCluster The source cluster where the source table is located.
      * @throws IOException Error accessing hbase on one of the clusters or on both clusters.
      */
-    public void copyTable(TableDescriptor targetTable, TableDescriptor sourceTable, Connection sourceCluster) throws IOException, TableNotFoundException {
-        HTable source = sourceCluster.factory.get(sourceTable.getName());
+    public void copyTable(
+        TableDescriptor targetTable, TableDescriptor sourceTable, Connection sourceCluster) throws IOException, TableNotFoundException {
+        createTableForCopy(targetTable, sourceTable.getName(), sourceCluster);
 
-        byte[][] startKeys = source.getStartKeys();
-        byte[][] splitKeys = new byte[startKeys.length - 1][];
+        StorageTable source = sourceCluster.factory.get(sourceTable.getName());
+        List<KeyRange> ranges = KeyRange.split(source, HConstants.EMPTY_START_ROW, HConstants.EMPTY_END_ROW);
 
-        System.arraycopy(startKeys, 1, splitKeys, 0, startKeys.length - 1);
-
-        createOrModifyTable(targetTable, splitKeys);
-
-        HTable target = this.factory.get(targetTable.getName());
-
-        Scan scan = new Scan();
-        scan.setCaching(GlobalConfig.instance().getBatchSizeForRead());
-
-        ResultScanner scanner = source.getScanner(scan);
-        try {
-            List<Put> puts = new ArrayList<Put>();
+        copyTable(targetTable.getName(), sourceTable.getName(), sourceCluster, ranges, null);
+    }
 
-            int batchSize = GlobalConfig.instance().getBatchSizeForWrite();
+    /**
+     * Copies the specified ranges of keys from one table to another. The target table must exist.
+     *
+     * @param targetTable        The name of the target table.
+     * @param sourceTable        The name of the source table.
+     * @param sourceCluster      The source cluster where the source table is located.
+     * @param ranges             The ranges of keys to copy.
+     * @param checkpointListener The listener to be notified about each batch written to the target table. Can be null.
+     * @throws IOException Error accessing hbase on one of the clusters or on both clusters.
+     */
+    public void copyTable(
+        final String targetTable, final String sourceTable, final Connection sourceCluster, List<KeyRange> ranges,
+        CopyCheckpointListener checkpointListener) throws IOException {
+
+        TableCopier copier = new TableCopier(sourceCluster, sourceTable, this, targetTable);
+        copier.copy(
+            ranges, new CopyProgressListener() {
+            @Override
+            public void onProgress(long rows, long bytes, Result lastResult) {
+                if (lastResult != null) {
+                    for (HbaseActionListener listener : listeners) {
+                        listener.copyOperation(sourceCluster.serverName, sourceTable, serverName, targetTable, lastResult);
+                    }
+                }
+            }
+        }, checkpointListener);
+    }
 
-            boolean isValid;
+    /**
+     * Creates a table to copy the data of another table to. The new table is pre-split by the regions of the source table.
+     *
+     * @param targetTable   The descriptor of the table to create.
+     * @param sourceTable   The name of the source table.
+     * @param sourceCluster The source cluster where the source table is located.
+     * @throws IOException Error accessing hbase on one of the clusters or on both clusters.
+     */
+    public void createTableForCopy(TableDescriptor targetTable, String sourceTable, Connection sourceCluster) throws IOException, TableNotFoundException {
+        StorageTable source = sourceCluster.factory.get(sourceTable);
 
-            do {
-                Result result = scanner.next();
+        byte[][] startKeys = source.getStartKeys();
+        byte[][] splitKeys = new byte[startKeys.length - 1][];
 
-                isValid = result != null;
-                if (isValid) {
-                    Put put = new Put(result.getRow());
-                    for (KeyValue kv : result.list()) {
-                        put.add(kv);
-                    }
+        System.arraycopy(startKeys, 1, splitKeys, 0, startKeys.length - 1);
 
-                    puts.add(put);
+        createOrModifyTable(targetTable, splitKeys);
+    }
 
-                    if (puts.size() == batchSize) {
-                        target.put(puts);
-                        puts.clear();
-                    }
+    /**
+     * Imports a character delimited file to an existing table. The first line of the file holds the names of the columns in the
+     * family:column format and one of the columns must be the key. The listeners are notified about the progress periodically rather
+     * than for each row.
+     *
+     * @param tableName          The name of the table to import to.
+     * @param file               The file to import.
+     * @param delimiter          The character delimiting the values in the file.
+     * @param columnTypes        The types of the values of the columns. The values of the columns not in the map are imported as strings.
+     * @param nameConverter      The converter used to convert the names of the columns to bytes.
+     * @param offset             The offset in the file to start from. Zero to import the whole file.
+     * @param progressListener   The listener to be notified about the progress. Can be null.
+     * @param checkpointListener The listener to be notified about the parts of the file written to the table. Can be null.
+     * @throws IOException Error accessing hbase or reading the file.
+     */
+    public void importFile(
+        String tableName, File file, char delimiter, Map<String, ColumnType> columnTypes, TypeConverter nameConverter, long offset,
+        ImportProgressListener progressListener, ImportCheckpointListener checkpointListener) throws IOException {
+
+        TableImporter importer = new TableImporter(this, tableName, file, delimiter, columnTypes, nameConverter);
+        importer.load(offset, progressListener, checkpointListener);
+    }
 
-                    for (HbaseActionListener listener : this.listeners) {
-                        listener.copyOperation(sourceCluster.serverName, sourceTable.getName(), this.serverName, targetTable.getName(), result);
-                    }
-                }
-            }
-            while (isValid);
+    /**
+     * Adds the column families which do not exist yet to the table.
+     *
+     * @param tableName The name of the table.
+     * @param families  The names of the column families the table should have.
+     * @throws IOException Error accessing hbase.
+     */
+    public void addMissingFamilies(String tableName, Iterable<String> families) throws IOException {
+        HTableDescriptor td = getSchema(tableName).getDescriptor();
 
-            // add the last puts to the table.
-            if (!puts.isEmpty()) {
-                target.put(puts);
+        Collection<ColumnFamily> familiesToCreate = new HashSet<ColumnFamily>();
+        for (String family : families) {
+            if (!td.hasFamily(Bytes.toBytesBinary(family))) {
+                familiesToCreate.add(new ColumnFamily(family));
             }
         }
-        finally {
-            scanner.close();
+
+        if (!familiesToCreate.isEmpty()) {
+            createFamilies(tableName, toDescriptors(familiesToCreate));
         }
     }
 
@@ -417,7 +518,7 @@ public class Connection {
      * @throws InterruptedException
      */
     public void flushTable(String tableName) throws IOException, InterruptedException {
-        this.hbaseAdmin.flush(tableName);
+        this.provider.flush(tableName);
     }
 
     /**
@@ -427,7 +528,11 @@ public class Connection {
      * @throws IOException Error accessing hbase.
      */
     public void enableTable(String tableName) throws IOException {
-        this.hbaseAdmin.enableTable(tableName);
+        this.provider.enableTable(tableName);
+
+        for (HbaseActionListener listener : this.listeners) {
+            listener.tableOperation(tableName, "enabled");
+        }
     }
 
     /**
@@ -441,7 +546,7 @@ public class Connection {
 //        FileSystem fs = FileSystem.getLocal(this.getConfiguration());
 //        HTable table = this.factory.get(tableName);
 //
-//        HTableDescriptor td = this.hbaseAdmin.getTableDescriptor(Bytes.toBytes(tableName));
+//        HTableDescriptor td = this.provider.getTableDescriptor(tableName);
 //
 //        Collection<ColumnFamily> families = new HashSet<ColumnFamily>();
 //        for (HColumnDescriptor column : td.getColumnFamilies()) {
@@ -532,57 +637,16 @@ public class Connection {
      * @throws IOException Error accessing hbase.
      */
     public void setRows(String tableName, Iterable<DataRow> rows) throws IOException, TableNotFoundException {
-        HTableDescriptor td = this.hbaseAdmin.getTableDescriptor(Bytes.toBytes(tableName));
-
-        Collection<ColumnFamily> families = new ArrayList<ColumnFamily>();
-        for (HColumnDescriptor column : td.getColumnFamilies()) {
-            families.add(new ColumnFamily(column));
-        }
-
-        Collection<ColumnFamily> familiesToCreate = new HashSet<ColumnFamily>();
-        List<Put> puts = new ArrayList<Put>();
+        List<Put> puts = toPuts(tableName, rows);
 
         for (DataRow row : rows) {
-            Put put = new Put(row.getKey().getValue());
-
-            for (DataCell cell : row.getCells()) {
-            	String sFamily = cell.getColumn().getFamily();
-            	String sColumn = cell.getColumn().getName();
-            	if(sFamily==null){
-            		List<String> columnQulifier = spliter.splitToList(cell.getColumn().getName());
-            		sFamily = columnQulifier.get(0);
-            		sColumn = columnQulifier.get(1);
-            	}
-                if (!cell.isKey()) {
-//                	if (!families.contains(cell.getColumn().getColumnFamily())) {
-                    if (!families.contains(new ColumnFamily(sFamily))) {
-//                        familiesToCreate.add(cell.getColumn().getColumnFamily());
-                        familiesToCreate.add(new ColumnFamily(sFamily));
-                    }
-
-//                    byte[] family = Bytes.toBytesBinary(cell.getColumn().getFamily());
-//                    byte[] column = Bytes.toBytesBinary(cell.getColumn().getName());
-                    byte[] family = Bytes.toBytesBinary(sFamily);
-                    byte[] column = Bytes.toBytesBinary(sColumn);
-                    byte[] value = cell.getValueAsByteArray();
-
-                    put.add(family, column, value);
-                }
-            }
-
-            puts.add(put);
-
             for (HbaseActionListener listener : this.listeners) {
                 listener.rowOperation(tableName, row, "added");
             }
         }
 
-        if (!familiesToCreate.isEmpty()) {
-            createFamilies(tableName, toDescriptors(familiesToCreate));
-        }
-
-        HTable table = this.factory.get(tableName);
-        HTableUtil.bucketRsPut(table, puts);
+        StorageTable table = this.factory.get(tableName);
+        table.put(puts);
     }
 
     /**
@@ -593,50 +657,62 @@ public class Connection {
      * @throws IOException Error accessing hbase.
      */
     public void setRow(String tableName, DataRow row) throws IOException, TableNotFoundException {
-        HTableDescriptor td = this.hbaseAdmin.getTableDescriptor(Bytes.toBytes(tableName));
+        List<Put> puts = toPuts(tableName, Collections.singletonList(row));
+
+        StorageTable table = this.factory.get(tableName);
+        table.put(puts.get(0));
+
+        for (HbaseActionListener listener : this.listeners) {
+            listener.rowOperation(tableName, row, "added");
+        }
+    }
 
-        Collection<ColumnFamily> families = new ArrayList<ColumnFamily>();
-        for (HColumnDescriptor column : td.getColumnFamilies()) {
-            families.add(new ColumnFamily(column));
+    /**
+     * Notifies the listeners about a row written to the table or deleted from the table without the connection, for example through a
+     * {@link MutationBuffer}.
+     *
+     * @param tableName The name of the table that contains the row.
+     * @param row       The row that has been written or deleted.
+     * @param operation The operation performed on the row, either 'added' or 'removed'.
+     */
+    public void notifyRowOperation(String tableName, DataRow row, String operation) {
+        for (HbaseActionListener listener : this.listeners) {
+            listener.rowOperation(tableName, row, operation);
         }
+    }
+
+    /**
+     * Converts the rows to puts. The column families the table does not have yet are added to the table, so the puts can be written to the
+     * table directly, for example through a {@link MutationBuffer}.
+     *
+     * @param tableName The name of the table the rows belong to.
+     * @param rows      A list of rows to convert.
+     * @return A list of puts in the order of the rows.
+     * @throws IOException Error accessing hbase.
+     */
+    public List<Put> toPuts(String tableName, Iterable<DataRow> rows) throws IOException, TableNotFoundException {
+        TableSchema schema = getSchema(tableName);
 
         Collection<ColumnFamily> familiesToCreate = new HashSet<ColumnFamily>();
+        List<Put> puts = new ArrayList<Put>();
 
-        Put put = new Put(row.getKey().getValue());
-        for (DataCell cell : row.getCells()) {
-            if (!cell.isKey()) {
-            	String sFamily = cell.getColumn().getFamily();
-            	String sColumn = cell.getColumn().getName();
-            	if(sFamily==null){
-            		List<String> columnQulifier = spliter.splitToList(cell.getColumn().getName());
-            		sFamily = columnQulifier.get(0);
-            		sColumn = columnQulifier.get(1);
-            	}
-//                if (!families.contains(cell.getColumn().getColumnFamily())) {
-                	if (!families.contains(new ColumnFamily(sFamily))) {
-//                		familiesToCreate.add(cell.getColumn().getColumnFamily());
-                    familiesToCreate.add(new ColumnFamily(sFamily));
-                }
-//                byte[] family = Bytes.toBytesBinary(cell.getColumn().getFamily());
-//                byte[] column = Bytes.toBytesBinary(cell.getColumn().getName());
-                byte[] family = Bytes.toBytesBinary(sFamily);
-                byte[] column = Bytes.toBytesBinary(sColumn);
-                byte[] value = cell.getValueAsByteArray();
+        for (DataRow row : rows) {
+            Put put = new Put(row.getKey().getValue());
 
-                put.add(family, column, value);
+            for (DataCell cell : row.getCells()) {
+                if (!cell.isKey()) {
+                    addCell(put, cell, schema, familiesToCreate);
+                }
             }
+
+            puts.add(put);
         }
 
         if (!familiesToCreate.isEmpty()) {
             createFamilies(tableName, toDescriptors(familiesToCreate));
         }
 
-        HTable table = this.factory.get(tableName);
-        table.put(put);
-
-        for (HbaseActionListener listener : this.listeners) {
-            listener.rowOperation(tableName, row, "added");
-        }
+        return puts;
     }
 
     /**
@@ -647,7 +723,7 @@ public class Connection {
      * @throws IOException Error accessing hbase.
      */
     public void deleteRow(String tableName, DataRow row) throws IOException {
-        HTable table = this.factory.get(tableName);
+        StorageTable table = this.factory.get(tableName);
         table.delete(new Delete(row.getKey().getValue()));
 
         for (HbaseActionListener listener : this.listeners) {
@@ -663,7 +739,7 @@ public class Connection {
      */
     public Collection<String> getTables() throws IOException {
         Collection<String> tables = new ArrayList<String>();
-        for (HTableDescriptor tableDescriptor : this.hbaseAdmin.listTables()) {
+        for (HTableDescriptor tableDescriptor : this.provider.listTables()) {
             tables.add(tableDescriptor.getNameAsString());
         }
         return tables;
@@ -677,14 +753,7 @@ public class Connection {
      * @throws IOException Error accessing hbase.
      */
     public Collection<ColumnFamily> getColumnFamilies(String tableName) throws IOException, TableNotFoundException {
-        Collection<ColumnFamily> columnFamilies = new ArrayList<ColumnFamily>();
-
-        HTableDescriptor td = this.hbaseAdmin.getTableDescriptor(Bytes.toBytes(tableName));
-        for (HColumnDescriptor column : td.getColumnFamilies()) {
-            columnFamilies.add(new ColumnFamily(column));
-        }
-
-        return columnFamilies;
+        return new ArrayList<ColumnFamily>(getSchema(tableName).getFamilies());
     }
 
     /**
@@ -711,6 +780,22 @@ public class Connection {
 
     //region Private Methods
 
+    /**
+     * Creates the storage of the hbase cluster the connection details point to.
+     *
+     * @param connectionDetails A configuration to be used to connect to the hbase administration.
+     * @return A new instance of the {@link HbaseStorageProvider}.
+     * @throws IOException Error connecting to hbase.
+     */
+    private static StorageProvider createProvider(ConnectionDetails connectionDetails) throws IOException {
+        try {
+            return new HbaseStorageProvider(connectionDetails.createConfig());
+        }
+        catch (Exception e) {
+            throw new IOException("Failed to access hbase administration.", e);
+        }
+    }
+
     /**
      * Adds column families to the specified table.
      *
@@ -719,19 +804,49 @@ public class Connection {
      * @throws IOException Error accessing hbase.
      */
     private void createFamilies(String tableName, Iterable<HColumnDescriptor> families) throws IOException {
-        if (this.hbaseAdmin.isTableEnabled(tableName)) {
-            this.hbaseAdmin.disableTable(tableName);
+        if (this.provider.isTableEnabled(tableName)) {
+            this.provider.disableTable(tableName);
         }
 
         for (HColumnDescriptor family : families) {
-            this.hbaseAdmin.addColumn(tableName, family);
+            this.provider.addColumn(tableName, family);
 
             for (HbaseActionListener listener : this.listeners) {
                 listener.columnOperation(tableName, family.getNameAsString(), "added");
             }
         }
 
-        this.hbaseAdmin.enableTable(tableName);
+        this.provider.enableTable(tableName);
+
+        reloadSchema(tableName);
+    }
+
+    /**
+     * Adds a cell to the put.
+     *
+     * @param put              The put to add the cell to.
+     * @param cell             The cell to add.
+     * @param schema           The schema of the table.
+     * @param familiesToCreate The column families the table does not have yet.
+     */
+    private void addCell(Put put, DataCell cell, TableSchema schema, Collection<ColumnFamily> familiesToCreate) {
+        String sFamily = cell.getColumn().getFamily();
+        String sColumn = cell.getColumn().getName();
+        if (sFamily == null) {
+            List<String> columnQulifier = spliter.splitToList(cell.getColumn().getName());
+            sFamily = columnQulifier.get(0);
+            sColumn = columnQulifier.get(1);
+        }
+
+        if (!schema.hasFamily(sFamily)) {
+            familiesToCreate.add(new ColumnFamily(sFamily));
+        }
+
+        byte[] family = Bytes.toBytesBinary(sFamily);
+        byte[] column = Bytes.toBytesBinary(sColumn);
+        byte[] value = cell.getValueAsByteArray();
+
+        put.add(family, column, value);
     }
 
     /**
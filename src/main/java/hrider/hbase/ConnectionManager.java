@@ -17,7 +17,7 @@ public class ConnectionManager {
         connections = new HashMap<ConnectionDetails, Connection>();
     }
 
-    public static Connection create(ConnectionDetails details) throws IOException {
+    public static synchronized Connection create(ConnectionDetails details) throws IOException {
         Connection connection = connections.get(details);
         if (connection == null) {
             connection = new Connection(details);
@@ -26,7 +26,19 @@ public class ConnectionManager {
         return connection;
     }
 
-    public static void release(ConnectionDetails details) {
-        connections.remove(details);
+    public static synchronized Connection create(ConnectionDetails details, StorageProvider provider) {
+        Connection connection = connections.get(details);
+        if (connection == null) {
+            connection = new Connection(details, provider);
+            connections.put(details, connection);
+        }
+        return connection;
+    }
+
+    public static synchronized void release(ConnectionDetails details) {
+        Connection connection = connections.remove(details);
+        if (connection != null) {
+            connection.getMetadataCache().stop();
+        }
     }
 }
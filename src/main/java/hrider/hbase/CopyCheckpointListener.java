@@ -0,0 +1,37 @@
+package hrider.hbase;
+
+import java.io.IOException;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This interface represents a listener for the batches committed by the copy table operation. It allows the caller to record the
+ *          progress of each region in order to resume an interrupted copy.
+ */
+public interface CopyCheckpointListener {
+
+    /**
+     * This method is called by the writer of a region each time a batch has been written to the target table.
+     *
+     * @param range   The range of keys being copied.
+     * @param lastKey The key of the last row of the batch. All rows of the range up to and including this key have been written.
+     * @param rows    The number of rows in the batch.
+     * @throws IOException The copy should be stopped.
+     */
+    void onBatchCommitted(KeyRange range, byte[] lastKey, int rows) throws IOException;
+}
@@ -0,0 +1,35 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.client.Result;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This interface represents a listener for the progress of the copy table operation.
+ */
+public interface CopyProgressListener {
+
+    /**
+     * This method is called periodically while the table is being copied and once when the copy is completed.
+     *
+     * @param rows       The number of rows written to the target table so far.
+     * @param bytes      The number of bytes written to the target table so far.
+     * @param lastResult The last row written to the target table. Can be null if nothing has been written yet.
+     */
+    void onProgress(long rows, long bytes, Result lastResult);
+}
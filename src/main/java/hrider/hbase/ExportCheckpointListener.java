@@ -0,0 +1,37 @@
+package hrider.hbase;
+
+import java.io.IOException;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This interface represents a listener for the parts of the table committed to the file by the export operation. It allows the
+ *          caller to record the progress in order to resume an interrupted export.
+ */
+public interface ExportCheckpointListener {
+
+    /**
+     * This method is called at a fixed rate after the buffered rows have been written to the file and once when the export is completed.
+     *
+     * @param length  The length of the file. All rows up to and including the last key are in the file before this length.
+     * @param lastKey The key of the last row written to the file.
+     * @param rows    The number of rows written since the previous notification.
+     * @throws IOException The export should be stopped.
+     */
+    void onCommitted(long length, byte[] lastKey, long rows) throws IOException;
+}
@@ -0,0 +1,39 @@
+package hrider.hbase;
+
+import hrider.export.ExportPart;
+
+import java.io.IOException;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This interface represents a listener for the rows committed to the files of the parts by the parallel export operation. It allows
+ *          the caller to record the checkpoints of the parts in order to resume an interrupted export.
+ */
+public interface ExportPartListener {
+
+    /**
+     * This method is called at a fixed rate by the thread exporting the part after the buffered rows have been written to the file of the
+     * part and once when the part is completed. The checkpoint of the part is updated before the call.
+     *
+     * @param part The part.
+     * @param rows The number of rows written since the previous notification.
+     * @throws IOException The export should be stopped.
+     */
+    void onCommitted(ExportPart part, long rows) throws IOException;
+}
@@ -0,0 +1,132 @@
+package hrider.hbase;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableNotFoundException;
+import org.apache.hadoop.hbase.client.HBaseAdmin;
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents the storage of a live hbase cluster. The administration is delegated to the {@link HBaseAdmin} and the
+ *          tables are opened as {@link HTable} instances.
+ */
+public class HbaseStorageProvider implements StorageProvider {
+
+    //region Variables
+    /**
+     * A configuration used to connect to hbase.
+     */
+    private Configuration config;
+    /**
+     * A reference to the hbase administration class.
+     */
+    private HBaseAdmin    hbaseAdmin;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link HbaseStorageProvider} class.
+     *
+     * @param config A configuration used to connect to hbase.
+     * @throws IOException Error connecting to hbase.
+     */
+    public HbaseStorageProvider(Configuration config) throws IOException {
+        this.config = config;
+        this.hbaseAdmin = new HBaseAdmin(config);
+    }
+    //endregion
+
+    //region Public Methods
+    @Override
+    public Configuration getConfiguration() {
+        return this.hbaseAdmin.getConfiguration();
+    }
+
+    @Override
+    public HTableDescriptor[] listTables() throws IOException {
+        return this.hbaseAdmin.listTables();
+    }
+
+    @Override
+    public boolean tableExists(String tableName) throws IOException {
+        return this.hbaseAdmin.tableExists(tableName);
+    }
+
+    @Override
+    public boolean isTableEnabled(String tableName) throws IOException {
+        return this.hbaseAdmin.isTableEnabled(tableName);
+    }
+
+    @Override
+    public void enableTable(String tableName) throws IOException {
+        this.hbaseAdmin.enableTable(tableName);
+    }
+
+    @Override
+    public void disableTable(String tableName) throws IOException {
+        this.hbaseAdmin.disableTable(tableName);
+    }
+
+    @Override
+    public HTableDescriptor getTableDescriptor(String tableName) throws IOException, TableNotFoundException {
+        return this.hbaseAdmin.getTableDescriptor(Bytes.toBytes(tableName));
+    }
+
+    @Override
+    public void createTable(HTableDescriptor tableDescriptor, byte[][] splitKeys) throws IOException {
+        this.hbaseAdmin.createTable(tableDescriptor, splitKeys);
+    }
+
+    @Override
+    public void modifyTable(String tableName, HTableDescriptor tableDescriptor) throws IOException {
+        this.hbaseAdmin.modifyTable(Bytes.toBytes(tableName), tableDescriptor);
+    }
+
+    @Override
+    public void addColumn(String tableName, HColumnDescriptor family) throws IOException {
+        this.hbaseAdmin.addColumn(tableName, family);
+    }
+
+    @Override
+    public void deleteTable(String tableName) throws IOException {
+        this.hbaseAdmin.deleteTable(tableName);
+    }
+
+    @Override
+    public void flush(String tableName) throws IOException, InterruptedException {
+        this.hbaseAdmin.flush(tableName);
+    }
+
+    @Override
+    public StorageTable openTable(String tableName) throws IOException {
+        return new HbaseStorageTable(new HTable(this.config, tableName));
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.hbaseAdmin.close();
+    }
+    //endregion
+}
@@ -0,0 +1,112 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.client.*;
+import org.apache.hadoop.hbase.util.Pair;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a table of the hbase cluster. The operations are delegated to the {@link HTable}.
+ */
+public class HbaseStorageTable implements StorageTable {
+
+    //region Variables
+    /**
+     * The hbase table.
+     */
+    private HTable table;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link HbaseStorageTable} class.
+     *
+     * @param table The hbase table.
+     */
+    public HbaseStorageTable(HTable table) {
+        this.table = table;
+    }
+    //endregion
+
+    //region Public Methods
+    @Override
+    public String getName() {
+        return this.table.getName().getNameAsString();
+    }
+
+    @Override
+    public HTableDescriptor getTableDescriptor() throws IOException {
+        return this.table.getTableDescriptor();
+    }
+
+    @Override
+    public Pair<byte[][], byte[][]> getStartEndKeys() throws IOException {
+        return this.table.getStartEndKeys();
+    }
+
+    @Override
+    public byte[][] getStartKeys() throws IOException {
+        return this.table.getStartKeys();
+    }
+
+    @Override
+    public ResultScanner getScanner(Scan scan) throws IOException {
+        return this.table.getScanner(scan);
+    }
+
+    @Override
+    public Result get(Get get) throws IOException {
+        return this.table.get(get);
+    }
+
+    @Override
+    public Result[] get(List<Get> gets) throws IOException {
+        return this.table.get(gets);
+    }
+
+    @Override
+    public void put(Put put) throws IOException {
+        this.table.put(put);
+    }
+
+    @Override
+    public void put(List<Put> puts) throws IOException {
+        this.table.put(puts);
+    }
+
+    @Override
+    public void delete(Delete delete) throws IOException {
+        this.table.delete(delete);
+    }
+
+    @Override
+    public void batch(List<? extends Row> actions, Object[] results) throws IOException, InterruptedException {
+        this.table.batch(actions, results);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.table.close();
+    }
+    //endregion
+}
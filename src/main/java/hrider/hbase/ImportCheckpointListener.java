@@ -0,0 +1,37 @@
+package hrider.hbase;
+
+import java.io.IOException;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This interface represents a listener for the parts of the file committed by the import operation. It allows the caller to record
+ *          the progress in order to resume an interrupted import.
+ */
+public interface ImportCheckpointListener {
+
+    /**
+     * This method is called each time the rows of the file up to a new offset have been written to the table. The offsets are reported
+     * in ascending order even though the parts of the file are written concurrently.
+     *
+     * @param offset The offset in the file. All lines before the offset have been written.
+     * @param rows   The number of rows written since the previous notification.
+     * @throws IOException The import should be stopped.
+     */
+    void onCommitted(long offset, long rows) throws IOException;
+}
@@ -0,0 +1,32 @@
+package hrider.hbase;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This interface represents a listener for the progress of the import operation.
+ */
+public interface ImportProgressListener {
+
+    /**
+     * This method is called at a fixed rate while the file is being imported and once when the import is completed.
+     *
+     * @param readRows    The number of rows read from the file so far.
+     * @param writtenRows The number of rows written to the table so far.
+     */
+    void onProgress(long readRows, long writtenRows);
+}
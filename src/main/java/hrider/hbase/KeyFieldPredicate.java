@@ -0,0 +1,141 @@
+package hrider.hbase;
+
+import hrider.data.RowKeyField;
+import hrider.data.RowKeySchema;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.Filter;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a comparison of a field of the composite row keys with a word. The comparisons of the fields which are required
+ *          by the whole query are planned together by the {@link QueryPlanner}, so the leading fields compared for equality narrow the key range
+ *          of the scan and the other fields are matched by the fuzzy row filter.
+ */
+public class KeyFieldPredicate extends Predicate {
+
+    //region Constants
+    private static final long serialVersionUID = -1830364629012374752L;
+    //endregion
+
+    //region Variables
+    /**
+     * The schema of the row keys.
+     */
+    private final RowKeySchema schema;
+    /**
+     * The compared field of the row keys.
+     */
+    private final RowKeyField  field;
+    /**
+     * The operator to compare with.
+     */
+    private final Operator     operator;
+    /**
+     * The word to compare with.
+     */
+    private final String       word;
+    /**
+     * The word converted to a byte array according to the type of the field.
+     */
+    private final byte[]       value;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link KeyFieldPredicate} class.
+     *
+     * @param schema   The schema of the row keys.
+     * @param field    The compared field of the row keys.
+     * @param operator The operator to compare with.
+     * @param word     The word to compare with.
+     * @param value    The word converted to a byte array according to the type of the field.
+     */
+    public KeyFieldPredicate(RowKeySchema schema, RowKeyField field, Operator operator, String word, byte[] value) {
+        this.schema = schema;
+        this.field = field;
+        this.operator = operator;
+        this.word = word;
+        this.value = value;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the schema of the row keys.
+     *
+     * @return A schema.
+     */
+    public RowKeySchema getSchema() {
+        return this.schema;
+    }
+
+    /**
+     * Gets the compared field of the row keys.
+     *
+     * @return A field of the schema.
+     */
+    public RowKeyField getField() {
+        return this.field;
+    }
+
+    /**
+     * Gets the operator to compare with.
+     *
+     * @return An operator.
+     */
+    public Operator getOperator() {
+        return this.operator;
+    }
+
+    /**
+     * Gets the word to compare with.
+     *
+     * @return A word.
+     */
+    public String getWord() {
+        return this.word;
+    }
+
+    /**
+     * Gets the word converted to a byte array according to the type of the field.
+     *
+     * @return A byte array.
+     */
+    public byte[] getValue() {
+        return this.value;
+    }
+    //endregion
+
+    //region Protected Methods
+    @Override
+    protected Filter toFilter(boolean negated, Scan scan, byte[] keyPrefix) throws IOException {
+        return QueryPlanner.createKeyFieldsFilter(Collections.singletonList(this), negated, scan, keyPrefix);
+    }
+
+    @Override
+    protected boolean comparesColumns() {
+        return false;
+    }
+    //endregion
+}
@@ -0,0 +1,172 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Pair;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a range of row keys. The start key is inclusive and the stop key is exclusive. An empty key means
+ *          the range is not bounded from that side.
+ */
+public class KeyRange {
+
+    //region Variables
+    /**
+     * The first key of the range (inclusive).
+     */
+    private byte[] startKey;
+    /**
+     * The last key of the range (exclusive).
+     */
+    private byte[] stopKey;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link KeyRange} class.
+     *
+     * @param startKey The first key of the range. Can be null or empty if the range starts from the beginning of the table.
+     * @param stopKey  The key to stop before. Can be null or empty if the range goes till the end of the table.
+     */
+    public KeyRange(byte[] startKey, byte[] stopKey) {
+        this.startKey = startKey != null ? startKey : HConstants.EMPTY_START_ROW;
+        this.stopKey = stopKey != null ? stopKey : HConstants.EMPTY_END_ROW;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the first key of the range.
+     *
+     * @return The start key or an empty array if the range is not bounded from the beginning.
+     */
+    public byte[] getStartKey() {
+        return this.startKey;
+    }
+
+    /**
+     * Gets the key the range stops before.
+     *
+     * @return The stop key or an empty array if the range is not bounded from the end.
+     */
+    public byte[] getStopKey() {
+        return this.stopKey;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Splits the key range along the region boundaries of the provided table. Only the parts that overlap the requested range are returned
+     * and they are sorted by the start key.
+     *
+     * @param table    The table which regions are used to split the range.
+     * @param startKey The first key of the range to split. Can be null or empty.
+     * @param stopKey  The key to stop before. Can be null or empty.
+     * @return A list of key ranges, one per region.
+     * @throws IOException Error accessing hbase.
+     */
+    public static List<KeyRange> split(StorageTable table, byte[] startKey, byte[] stopKey) throws IOException {
+        Pair<byte[][], byte[][]> keys = table.getStartEndKeys();
+        return split(keys.getFirst(), keys.getSecond(), startKey, stopKey);
+    }
+
+    /**
+     * Splits the key range along the provided region boundaries. Only the parts that overlap the requested range are returned.
+     *
+     * @param regionStartKeys The start keys of the regions.
+     * @param regionEndKeys   The end keys of the regions.
+     * @param startKey        The first key of the range to split. Can be null or empty.
+     * @param stopKey         The key to stop before. Can be null or empty.
+     * @return A list of key ranges, one per region.
+     */
+    public static List<KeyRange> split(byte[][] regionStartKeys, byte[][] regionEndKeys, byte[] startKey, byte[] stopKey) {
+        KeyRange range = new KeyRange(startKey, stopKey);
+
+        List<KeyRange> ranges = new ArrayList<KeyRange>();
+        for (int i = 0 ; i < regionStartKeys.length ; i++) {
+            KeyRange intersection = range.intersect(new KeyRange(regionStartKeys[i], regionEndKeys[i]));
+            if (intersection != null) {
+                ranges.add(intersection);
+            }
+        }
+
+        if (ranges.isEmpty() && regionStartKeys.length == 0) {
+            ranges.add(range);
+        }
+
+        return ranges;
+    }
+
+    /**
+     * Calculates the intersection of this range with the provided one.
+     *
+     * @param range The range to intersect with.
+     * @return A new range representing the intersection or null if the ranges do not overlap.
+     */
+    public KeyRange intersect(KeyRange range) {
+        byte[] start = Bytes.compareTo(this.startKey, range.startKey) >= 0 ? this.startKey : range.startKey;
+
+        byte[] stop;
+        if (isUnbounded(this.stopKey)) {
+            stop = range.stopKey;
+        }
+        else if (isUnbounded(range.stopKey)) {
+            stop = this.stopKey;
+        }
+        else {
+            stop = Bytes.compareTo(this.stopKey, range.stopKey) <= 0 ? this.stopKey : range.stopKey;
+        }
+
+        if (!isUnbounded(stop) && Bytes.compareTo(start, stop) >= 0) {
+            return null;
+        }
+
+        return new KeyRange(start, stop);
+    }
+
+    /**
+     * Checks whether the provided key falls into the range.
+     *
+     * @param key The key to check.
+     * @return True if the key belongs to the range or False otherwise.
+     */
+    public boolean contains(byte[] key) {
+        return Bytes.compareTo(key, this.startKey) >= 0 && (isUnbounded(this.stopKey) || Bytes.compareTo(key, this.stopKey) < 0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%s, %s)", Bytes.toStringBinary(this.startKey), Bytes.toStringBinary(this.stopKey));
+    }
+    //endregion
+
+    //region Private Methods
+    private static boolean isUnbounded(byte[] key) {
+        return key == null || key.length == 0;
+    }
+    //endregion
+}
@@ -0,0 +1,168 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterList;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a conjunction or a disjunction of predicates.
+ */
+public class LogicalPredicate extends Predicate {
+
+    //region Constants
+    private static final long serialVersionUID = 5734012983746521390L;
+    //endregion
+
+    //region Variables
+    /**
+     * Indicates whether all the predicates should match or any of them.
+     */
+    private final boolean         conjunction;
+    /**
+     * The combined predicates.
+     */
+    private final List<Predicate> predicates;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link LogicalPredicate} class.
+     *
+     * @param conjunction Indicates whether all the predicates should match or any of them.
+     * @param predicates  The predicates to combine.
+     */
+    public LogicalPredicate(boolean conjunction, List<Predicate> predicates) {
+        this.conjunction = conjunction;
+        this.predicates = new ArrayList<Predicate>(predicates);
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets a value indicating whether all the predicates should match or any of them.
+     *
+     * @return True if all the predicates should match or False if any of them should match.
+     */
+    public boolean isConjunction() {
+        return this.conjunction;
+    }
+
+    /**
+     * Gets the combined predicates.
+     *
+     * @return A list of predicates.
+     */
+    public List<Predicate> getPredicates() {
+        return Collections.unmodifiableList(this.predicates);
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Creates a conjunction of the predicates.
+     *
+     * @param predicates The predicates to combine.
+     * @return A new predicate.
+     */
+    public static LogicalPredicate and(Predicate... predicates) {
+        return new LogicalPredicate(true, Arrays.asList(predicates));
+    }
+
+    /**
+     * Creates a disjunction of the predicates.
+     *
+     * @param predicates The predicates to combine.
+     * @return A new predicate.
+     */
+    public static LogicalPredicate or(Predicate... predicates) {
+        return new LogicalPredicate(false, Arrays.asList(predicates));
+    }
+    //endregion
+
+    //region Protected Methods
+    @Override
+    protected Filter toFilter(boolean negated, Scan scan, byte[] keyPrefix) throws IOException {
+        // The negation of a conjunction is a disjunction of the negated predicates and vice versa.
+        boolean all = this.conjunction != negated;
+
+        List<Filter> columnFilters = new ArrayList<Filter>();
+        List<Filter> cellFilters = new ArrayList<Filter>();
+        List<KeyFieldPredicate> keyFields = new ArrayList<KeyFieldPredicate>();
+
+        for (Predicate predicate : this.predicates) {
+            // The comparisons of the key fields which should all match are planned together.
+            if (all && predicate instanceof KeyFieldPredicate) {
+                keyFields.add((KeyFieldPredicate)predicate);
+                continue;
+            }
+
+            // Only the predicates required by the whole predicate can narrow the time range of the scan.
+            Filter filter = predicate.toFilter(negated, all ? scan : null, keyPrefix);
+            if (filter != null) {
+                if (predicate.comparesColumns()) {
+                    columnFilters.add(filter);
+                }
+                else {
+                    cellFilters.add(filter);
+                }
+            }
+        }
+
+        if (!keyFields.isEmpty()) {
+            Filter filter = QueryPlanner.createKeyFieldsFilter(keyFields, negated, scan, keyPrefix);
+            if (filter != null) {
+                cellFilters.add(0, filter);
+            }
+        }
+
+        // The filters of the list which should all pass are evaluated until the first one skipping the cell.
+        columnFilters.addAll(cellFilters);
+
+        if (columnFilters.isEmpty()) {
+            return null;
+        }
+
+        if (columnFilters.size() == 1) {
+            return columnFilters.get(0);
+        }
+
+        return new FilterList(all ? FilterList.Operator.MUST_PASS_ALL : FilterList.Operator.MUST_PASS_ONE, columnFilters);
+    }
+
+    @Override
+    protected boolean comparesColumns() {
+        for (Predicate predicate : this.predicates) {
+            if (predicate.comparesColumns()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    //endregion
+}
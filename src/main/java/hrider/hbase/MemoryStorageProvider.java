@@ -0,0 +1,282 @@
+package hrider.hbase;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.*;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a storage kept entirely in memory. It behaves like a small hbase cluster so that the application can be
+ *          exercised and measured without a live cluster: the tables are split to regions by the keys they are created with, the scanners
+ *          fetch the rows in batches which never cross a region boundary and every call that would be a remote call to the cluster is
+ *          delayed by the configured latency. Only the latest version of each column is kept and the reversed scans are not supported.
+ */
+public class MemoryStorageProvider implements StorageProvider {
+
+    //region Variables
+    /**
+     * The configuration returned to the callers.
+     */
+    private Configuration                              config;
+    /**
+     * The simulated latency of a remote call in nanoseconds.
+     */
+    private volatile long                              latency;
+    /**
+     * The tables sorted by the name.
+     */
+    private ConcurrentNavigableMap<String, MemoryTable> tables;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link MemoryStorageProvider} class with no latency.
+     */
+    public MemoryStorageProvider() {
+        this(0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Initializes a new instance of the {@link MemoryStorageProvider} class.
+     *
+     * @param latency The simulated latency of a remote call.
+     * @param unit    The unit of the latency.
+     */
+    public MemoryStorageProvider(long latency, TimeUnit unit) {
+        this.config = HBaseConfiguration.create();
+        this.latency = unit.toNanos(latency);
+        this.tables = new ConcurrentSkipListMap<String, MemoryTable>();
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the simulated latency of a remote call.
+     *
+     * @param unit The unit to return the latency in.
+     * @return The latency.
+     */
+    public long getLatency(TimeUnit unit) {
+        return unit.convert(this.latency, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sets the simulated latency of a remote call.
+     *
+     * @param latency The latency.
+     * @param unit    The unit of the latency.
+     */
+    public void setLatency(long latency, TimeUnit unit) {
+        this.latency = unit.toNanos(latency);
+    }
+    //endregion
+
+    //region Public Methods
+    @Override
+    public Configuration getConfiguration() {
+        return this.config;
+    }
+
+    @Override
+    public HTableDescriptor[] listTables() throws IOException {
+        simulateCall();
+
+        List<HTableDescriptor> descriptors = new ArrayList<HTableDescriptor>();
+        for (MemoryTable table : this.tables.values()) {
+            descriptors.add(table.getDescriptor());
+        }
+        return descriptors.toArray(new HTableDescriptor[descriptors.size()]);
+    }
+
+    @Override
+    public boolean tableExists(String tableName) throws IOException {
+        simulateCall();
+        return this.tables.containsKey(tableName);
+    }
+
+    @Override
+    public boolean isTableEnabled(String tableName) throws IOException {
+        simulateCall();
+        return getTable(tableName).isEnabled();
+    }
+
+    @Override
+    public synchronized void enableTable(String tableName) throws IOException {
+        simulateCall();
+
+        MemoryTable table = getTable(tableName);
+        if (table.isEnabled()) {
+            throw new TableNotDisabledException(tableName);
+        }
+        table.setEnabled(true);
+    }
+
+    @Override
+    public synchronized void disableTable(String tableName) throws IOException {
+        simulateCall();
+
+        MemoryTable table = getTable(tableName);
+        if (!table.isEnabled()) {
+            throw new TableNotEnabledException(tableName);
+        }
+        table.setEnabled(false);
+    }
+
+    @Override
+    public HTableDescriptor getTableDescriptor(String tableName) throws IOException, TableNotFoundException {
+        simulateCall();
+        return new HTableDescriptor(getTable(tableName).getDescriptor());
+    }
+
+    @Override
+    public synchronized void createTable(HTableDescriptor tableDescriptor, byte[][] splitKeys) throws IOException {
+        simulateCall();
+
+        String tableName = tableDescriptor.getNameAsString();
+        if (this.tables.putIfAbsent(tableName, new MemoryTable(new HTableDescriptor(tableDescriptor), splitKeys)) != null) {
+            throw new TableExistsException(tableName);
+        }
+    }
+
+    @Override
+    public synchronized void modifyTable(String tableName, HTableDescriptor tableDescriptor) throws IOException {
+        simulateCall();
+
+        MemoryTable table = getDisabledTable(tableName);
+        table.setDescriptor(new HTableDescriptor(tableDescriptor));
+    }
+
+    @Override
+    public synchronized void addColumn(String tableName, HColumnDescriptor family) throws IOException {
+        simulateCall();
+
+        MemoryTable table = getDisabledTable(tableName);
+        if (table.getDescriptor().hasFamily(family.getName())) {
+            throw new InvalidFamilyOperationException(
+                String.format("Family '%s' already exists so cannot be added", family.getNameAsString()));
+        }
+
+        HTableDescriptor descriptor = new HTableDescriptor(table.getDescriptor());
+        descriptor.addFamily(family);
+
+        table.setDescriptor(descriptor);
+    }
+
+    @Override
+    public synchronized void deleteTable(String tableName) throws IOException {
+        simulateCall();
+
+        getDisabledTable(tableName);
+        this.tables.remove(tableName);
+    }
+
+    @Override
+    public void flush(String tableName) throws IOException, InterruptedException {
+        simulateCall();
+        getTable(tableName);
+    }
+
+    @Override
+    public StorageTable openTable(String tableName) throws IOException {
+        return new MemoryStorageTable(this, tableName);
+    }
+
+    @Override
+    public void close() throws IOException {
+    }
+    //endregion
+
+    //region Package Methods
+
+    /**
+     * Delays the current thread by the simulated latency of a remote call.
+     *
+     * @throws InterruptedIOException The thread has been interrupted.
+     */
+    void simulateCall() throws InterruptedIOException {
+        long nanos = this.latency;
+        if (nanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(nanos);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("The call has been interrupted.");
+            }
+        }
+    }
+
+    /**
+     * Gets the table by its name.
+     *
+     * @param tableName The name of the table.
+     * @return The table.
+     * @throws TableNotFoundException The table does not exist.
+     */
+    MemoryTable getTable(String tableName) throws TableNotFoundException {
+        MemoryTable table = this.tables.get(tableName);
+        if (table == null) {
+            throw new TableNotFoundException(tableName);
+        }
+        return table;
+    }
+
+    /**
+     * Gets the enabled table by its name. The data of the disabled tables cannot be accessed.
+     *
+     * @param tableName The name of the table.
+     * @return The table.
+     * @throws IOException The table does not exist or is disabled.
+     */
+    MemoryTable getEnabledTable(String tableName) throws IOException {
+        MemoryTable table = getTable(tableName);
+        if (!table.isEnabled()) {
+            throw new TableNotEnabledException(tableName);
+        }
+        return table;
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Gets the disabled table by its name. The schema of the enabled tables cannot be changed.
+     *
+     * @param tableName The name of the table.
+     * @return The table.
+     * @throws IOException The table does not exist or is enabled.
+     */
+    private MemoryTable getDisabledTable(String tableName) throws IOException {
+        MemoryTable table = getTable(tableName);
+        if (table.isEnabled()) {
+            throw new TableNotDisabledException(tableName);
+        }
+        return table;
+    }
+    //endregion
+}
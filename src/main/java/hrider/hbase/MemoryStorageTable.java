@@ -0,0 +1,322 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.*;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.protobuf.ProtobufUtil;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Pair;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a table of the {@link MemoryStorageProvider}. The table is resolved by its name on each call so that the
+ *          instance keeps working after the table has been recreated, the same way the {@link HTable} does. Each call and each batch fetched
+ *          by a scanner is delayed by the latency of the provider.
+ */
+public class MemoryStorageTable implements StorageTable {
+
+    //region Constants
+    /**
+     * The number of rows fetched by a scanner in a single call when the scan does not specify it.
+     */
+    private static final int DEFAULT_CACHING = 100;
+    //endregion
+
+    //region Variables
+    /**
+     * The provider holding the table.
+     */
+    private MemoryStorageProvider provider;
+    /**
+     * The name of the table.
+     */
+    private String                tableName;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link MemoryStorageTable} class.
+     *
+     * @param provider  The provider holding the table.
+     * @param tableName The name of the table.
+     */
+    public MemoryStorageTable(MemoryStorageProvider provider, String tableName) {
+        this.provider = provider;
+        this.tableName = tableName;
+    }
+    //endregion
+
+    //region Public Methods
+    @Override
+    public String getName() {
+        return this.tableName;
+    }
+
+    @Override
+    public HTableDescriptor getTableDescriptor() throws IOException {
+        this.provider.simulateCall();
+        return new HTableDescriptor(this.provider.getTable(this.tableName).getDescriptor());
+    }
+
+    @Override
+    public Pair<byte[][], byte[][]> getStartEndKeys() throws IOException {
+        this.provider.simulateCall();
+
+        MemoryTable table = this.provider.getTable(this.tableName);
+        return new Pair<byte[][], byte[][]>(table.getStartKeys(), table.getEndKeys());
+    }
+
+    @Override
+    public byte[][] getStartKeys() throws IOException {
+        this.provider.simulateCall();
+        return this.provider.getTable(this.tableName).getStartKeys();
+    }
+
+    @Override
+    public ResultScanner getScanner(Scan scan) throws IOException {
+        if (scan.isReversed()) {
+            throw new UnsupportedOperationException("The reversed scans are not supported.");
+        }
+
+        this.provider.getEnabledTable(this.tableName);
+
+        // The region servers deserialize their own copy of the filters, the scanners running concurrently cannot share their state.
+        Scan copy = ProtobufUtil.toScan(ProtobufUtil.toScan(scan));
+        copy.setCaching(scan.getCaching());
+        return new MemoryScanner(copy);
+    }
+
+    @Override
+    public Result get(Get get) throws IOException {
+        this.provider.simulateCall();
+        return read(this.provider.getEnabledTable(this.tableName), get);
+    }
+
+    @Override
+    public Result[] get(List<Get> gets) throws IOException {
+        this.provider.simulateCall();
+
+        MemoryTable table = this.provider.getEnabledTable(this.tableName);
+
+        Result[] results = new Result[gets.size()];
+        for (int i = 0 ; i < results.length ; i++) {
+            results[i] = read(table, gets.get(i));
+        }
+        return results;
+    }
+
+    @Override
+    public void put(Put put) throws IOException {
+        this.provider.simulateCall();
+        this.provider.getEnabledTable(this.tableName).put(put);
+    }
+
+    @Override
+    public void put(List<Put> puts) throws IOException {
+        this.provider.simulateCall();
+
+        MemoryTable table = this.provider.getEnabledTable(this.tableName);
+        for (Put put : puts) {
+            table.put(put);
+        }
+    }
+
+    @Override
+    public void delete(Delete delete) throws IOException {
+        this.provider.simulateCall();
+        this.provider.getEnabledTable(this.tableName).delete(delete);
+    }
+
+    @Override
+    public void batch(List<? extends Row> actions, Object[] results) throws IOException, InterruptedException {
+        this.provider.simulateCall();
+
+        MemoryTable table = this.provider.getEnabledTable(this.tableName);
+
+        int failed = 0;
+        for (int i = 0 ; i < results.length ; i++) {
+            Row action = actions.get(i);
+            try {
+                if (action instanceof Put) {
+                    table.put((Put)action);
+                }
+                else if (action instanceof Delete) {
+                    table.delete((Delete)action);
+                }
+                else {
+                    throw new UnsupportedOperationException("Only puts and deletes are supported: " + action.getClass().getName());
+                }
+                results[i] = Result.create(new Cell[0]);
+            }
+            catch (Exception e) {
+                results[i] = e;
+                failed++;
+            }
+        }
+
+        if (failed > 0) {
+            throw new IOException(String.format("%d of %d actions failed.", failed, results.length));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Reads a single row.
+     *
+     * @param table The table to read from.
+     * @param get   The get describing the row and the columns to read.
+     * @return The result. The result is empty if the row does not exist or has been filtered out.
+     * @throws IOException Error applying the filter.
+     */
+    private static Result read(MemoryTable table, Get get) throws IOException {
+        KeyValue[] cells = table.getRow(get.getRow());
+        if (cells != null) {
+            Scan scan = new Scan(get);
+
+            Result result = MemoryTable.read(get.getRow(), cells, scan, scan.getFilter());
+            if (result != null) {
+                return result;
+            }
+        }
+        return Result.create(new ArrayList<Cell>());
+    }
+    //endregion
+
+    /**
+     * Represents a scanner fetching the rows in batches of the scan caching size. A batch never crosses a region boundary, so scanning
+     * over several regions takes at least one call per region as it does on the cluster.
+     */
+    private class MemoryScanner extends AbstractClientScanner {
+
+        //region Variables
+        /**
+         * The scan.
+         */
+        private final Scan          scan;
+        /**
+         * The rows fetched by the last call and not returned yet.
+         */
+        private final Queue<Result> results;
+        /**
+         * The number of rows to fetch in a single call.
+         */
+        private final int           caching;
+        /**
+         * The key to continue the scan from.
+         */
+        private byte[]              position;
+        /**
+         * Indicates whether the row of the position key has not been read yet.
+         */
+        private boolean             inclusive;
+        /**
+         * Indicates whether there are no more rows to fetch.
+         */
+        private boolean             exhausted;
+        //endregion
+
+        //region Constructor
+        private MemoryScanner(Scan scan) {
+            this.scan = scan;
+            this.results = new ArrayDeque<Result>();
+            this.caching = scan.getCaching() > 0 ? scan.getCaching() : DEFAULT_CACHING;
+            this.position = scan.getStartRow();
+            this.inclusive = true;
+        }
+        //endregion
+
+        //region Public Methods
+        @Override
+        public Result next() throws IOException {
+            while (this.results.isEmpty() && !this.exhausted) {
+                fetch();
+            }
+            return this.results.poll();
+        }
+
+        @Override
+        public void close() {
+            this.exhausted = true;
+            this.results.clear();
+        }
+        //endregion
+
+        //region Private Methods
+
+        /**
+         * Fetches the next batch of rows from the region holding the position key.
+         *
+         * @throws IOException Error accessing the table.
+         */
+        private void fetch() throws IOException {
+            provider.simulateCall();
+
+            MemoryTable table = provider.getEnabledTable(tableName);
+            Filter filter = this.scan.getFilter();
+
+            byte[] stopRow = this.scan.getStopRow();
+            byte[] regionEnd = table.getRegionEnd(this.position);
+
+            while (this.results.size() < this.caching) {
+                if (filter != null && filter.filterAllRemaining()) {
+                    this.exhausted = true;
+                    return;
+                }
+
+                Map.Entry<byte[], KeyValue[]> row = table.nextRow(this.position, this.inclusive);
+                if (row == null || stopRow.length > 0 && Bytes.compareTo(row.getKey(), stopRow) >= 0) {
+                    this.exhausted = true;
+                    return;
+                }
+
+                if (regionEnd.length > 0 && Bytes.compareTo(row.getKey(), regionEnd) >= 0) {
+                    // the next call goes to the next region.
+                    this.position = regionEnd;
+                    this.inclusive = true;
+                    return;
+                }
+
+                this.position = row.getKey();
+                this.inclusive = false;
+
+                Result result = MemoryTable.read(row.getKey(), row.getValue(), this.scan, filter);
+                if (result != null) {
+                    this.results.add(result);
+                }
+            }
+        }
+        //endregion
+    }
+}
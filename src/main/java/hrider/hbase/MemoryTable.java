@@ -0,0 +1,410 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.regionserver.NoSuchColumnFamilyException;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class holds the data of a table kept by the {@link MemoryStorageProvider}. The rows are kept in a sorted concurrent map,
+ *          each row is an immutable array of cells sorted by the family and the qualifier which is replaced as a whole on each write. Only
+ *          the latest version of each column is kept. The regions are simulated by the split keys the table has been created with.
+ */
+class MemoryTable {
+
+    //region Constants
+    /**
+     * Sorts the cells of a row by the family and the qualifier.
+     */
+    private static final Comparator<Cell> COLUMN_COMPARATOR = new Comparator<Cell>() {
+        @Override
+        public int compare(Cell o1, Cell o2) {
+            int result = Bytes.compareTo(
+                o1.getFamilyArray(), o1.getFamilyOffset(), o1.getFamilyLength(), o2.getFamilyArray(), o2.getFamilyOffset(), o2.getFamilyLength());
+
+            if (result == 0) {
+                result = Bytes.compareTo(
+                    o1.getQualifierArray(), o1.getQualifierOffset(), o1.getQualifierLength(), o2.getQualifierArray(), o2.getQualifierOffset(),
+                    o2.getQualifierLength());
+            }
+            return result;
+        }
+    };
+    //endregion
+
+    //region Variables
+    /**
+     * The descriptor of the table.
+     */
+    private volatile HTableDescriptor                    descriptor;
+    /**
+     * Indicates whether the table is enabled.
+     */
+    private volatile boolean                             enabled;
+    /**
+     * The start keys of the regions sorted in ascending order. The first key is empty.
+     */
+    private byte[][]                                     startKeys;
+    /**
+     * The rows of the table.
+     */
+    private ConcurrentNavigableMap<byte[], KeyValue[]> rows;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link MemoryTable} class.
+     *
+     * @param descriptor The descriptor of the table.
+     * @param splitKeys  The keys the table is split by. Can be null or empty.
+     */
+    MemoryTable(HTableDescriptor descriptor, byte[][] splitKeys) {
+        SortedSet<byte[]> keys = new TreeSet<byte[]>(Bytes.BYTES_COMPARATOR);
+        keys.add(HConstants.EMPTY_START_ROW);
+
+        if (splitKeys != null) {
+            keys.addAll(Arrays.asList(splitKeys));
+        }
+
+        this.descriptor = descriptor;
+        this.enabled = true;
+        this.startKeys = keys.toArray(new byte[keys.size()][]);
+        this.rows = new ConcurrentSkipListMap<byte[], KeyValue[]>(Bytes.BYTES_COMPARATOR);
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the descriptor of the table.
+     *
+     * @return The table descriptor.
+     */
+    HTableDescriptor getDescriptor() {
+        return this.descriptor;
+    }
+
+    /**
+     * Sets the descriptor of the table.
+     *
+     * @param descriptor The table descriptor.
+     */
+    void setDescriptor(HTableDescriptor descriptor) {
+        this.descriptor = descriptor;
+    }
+
+    /**
+     * Gets the value indicating whether the table is enabled.
+     *
+     * @return True if the table is enabled or False otherwise.
+     */
+    boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Sets the value indicating whether the table is enabled.
+     *
+     * @param enabled True to enable the table or False to disable it.
+     */
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the start keys of the regions.
+     *
+     * @return An array of the start keys. The first key is empty.
+     */
+    byte[][] getStartKeys() {
+        return this.startKeys.clone();
+    }
+
+    /**
+     * Gets the end keys of the regions.
+     *
+     * @return An array of the end keys. The last key is empty.
+     */
+    byte[][] getEndKeys() {
+        byte[][] endKeys = new byte[this.startKeys.length][];
+
+        System.arraycopy(this.startKeys, 1, endKeys, 0, this.startKeys.length - 1);
+        endKeys[endKeys.length - 1] = HConstants.EMPTY_END_ROW;
+
+        return endKeys;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Gets the end key of the region holding the key.
+     *
+     * @param key The key.
+     * @return The end key of the region or an empty array if the key belongs to the last region.
+     */
+    byte[] getRegionEnd(byte[] key) {
+        int low = 1;
+        int high = this.startKeys.length - 1;
+
+        // looks for the first start key greater than the key.
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (Bytes.compareTo(this.startKeys[middle], key) <= 0) {
+                low = middle + 1;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+        return low < this.startKeys.length ? this.startKeys[low] : HConstants.EMPTY_END_ROW;
+    }
+
+    /**
+     * Gets the first row at or after the key.
+     *
+     * @param key       The key to start from.
+     * @param inclusive Indicates whether the row of the key itself can be returned.
+     * @return The row or null if there are no more rows.
+     */
+    Map.Entry<byte[], KeyValue[]> nextRow(byte[] key, boolean inclusive) {
+        return inclusive ? this.rows.ceilingEntry(key) : this.rows.higherEntry(key);
+    }
+
+    /**
+     * Gets the cells of the row.
+     *
+     * @param key The key of the row.
+     * @return The cells of the row or null if the row does not exist.
+     */
+    KeyValue[] getRow(byte[] key) {
+        return this.rows.get(key);
+    }
+
+    /**
+     * Writes the cells of the put. The cells replace the cells of the same columns unless they are older.
+     *
+     * @param put The put to write.
+     * @throws IOException The put refers to a column family the table does not have.
+     */
+    void put(Put put) throws IOException {
+        long now = System.currentTimeMillis();
+
+        List<KeyValue> cells = new ArrayList<KeyValue>();
+        for (Map.Entry<byte[], List<Cell>> entry : put.getFamilyCellMap().entrySet()) {
+            if (!this.descriptor.hasFamily(entry.getKey())) {
+                throw new NoSuchColumnFamilyException(
+                    String.format(
+                        "Column family %s does not exist in table %s", Bytes.toStringBinary(entry.getKey()), this.descriptor.getNameAsString()));
+            }
+
+            for (Cell cell : entry.getValue()) {
+                long timestamp = cell.getTimestamp() == HConstants.LATEST_TIMESTAMP ? now : cell.getTimestamp();
+                cells.add(new KeyValue(put.getRow(), CellUtil.cloneFamily(cell), CellUtil.cloneQualifier(cell), timestamp, CellUtil.cloneValue(cell)));
+            }
+        }
+
+        if (cells.isEmpty()) {
+            return;
+        }
+
+        byte[] key = put.getRow();
+        while (true) {
+            KeyValue[] current = this.rows.get(key);
+            if (current == null) {
+                if (this.rows.putIfAbsent(key, merge(new KeyValue[0], cells)) == null) {
+                    return;
+                }
+            }
+            else if (this.rows.replace(key, current, merge(current, cells))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Deletes the row or the columns of the delete.
+     *
+     * @param delete The delete to apply.
+     */
+    void delete(Delete delete) {
+        byte[] key = delete.getRow();
+
+        if (delete.getFamilyCellMap().isEmpty()) {
+            this.rows.remove(key);
+            return;
+        }
+
+        while (true) {
+            KeyValue[] current = this.rows.get(key);
+            if (current == null) {
+                return;
+            }
+
+            List<KeyValue> remaining = new ArrayList<KeyValue>(current.length);
+            for (KeyValue cell : current) {
+                if (!isDeleted(cell, delete)) {
+                    remaining.add(cell);
+                }
+            }
+
+            boolean done = remaining.isEmpty()
+                ? this.rows.remove(key, current)
+                : this.rows.replace(key, current, remaining.toArray(new KeyValue[remaining.size()]));
+
+            if (done) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads a row the way a region server does for a scan. The columns and the time range of the scan are applied first and the filter
+     * of the scan is applied to the remaining cells. The caller should check {@link Filter#filterAllRemaining()} after each row.
+     *
+     * @param key    The key of the row.
+     * @param cells  The cells of the row.
+     * @param scan   The scan.
+     * @param filter The filter of the scan. Can be null.
+     * @return The result or null if the row has been filtered out.
+     * @throws IOException Error applying the filter.
+     */
+    static Result read(byte[] key, KeyValue[] cells, Scan scan, Filter filter) throws IOException {
+        if (filter != null) {
+            filter.reset();
+
+            if (filter.filterAllRemaining() || filter.filterRowKey(key, 0, key.length)) {
+                return null;
+            }
+        }
+
+        Map<byte[], NavigableSet<byte[]>> familyMap = scan.getFamilyMap();
+
+        List<Cell> result = new ArrayList<Cell>(cells.length);
+        for (KeyValue cell : cells) {
+            if (!familyMap.isEmpty()) {
+                byte[] family = CellUtil.cloneFamily(cell);
+                if (!familyMap.containsKey(family)) {
+                    continue;
+                }
+
+                NavigableSet<byte[]> qualifiers = familyMap.get(family);
+                if (qualifiers != null && !qualifiers.isEmpty() && !qualifiers.contains(CellUtil.cloneQualifier(cell))) {
+                    continue;
+                }
+            }
+
+            if (!scan.getTimeRange().withinTimeRange(cell.getTimestamp())) {
+                continue;
+            }
+
+            if (filter != null) {
+                Filter.ReturnCode code = filter.filterKeyValue(cell);
+                if (code == Filter.ReturnCode.NEXT_ROW) {
+                    break;
+                }
+                if (code != Filter.ReturnCode.INCLUDE && code != Filter.ReturnCode.INCLUDE_AND_NEXT_COL) {
+                    continue;
+                }
+                result.add(filter.transformCell(cell));
+            }
+            else {
+                result.add(cell);
+            }
+        }
+
+        if (filter != null) {
+            filter.filterRowCells(result);
+
+            if (filter.hasFilterRow() && filter.filterRow()) {
+                return null;
+            }
+        }
+
+        return result.isEmpty() ? null : Result.create(result);
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Merges the new cells into the cells of a row.
+     *
+     * @param current The current cells of the row sorted by the column.
+     * @param cells   The new cells.
+     * @return A new array of the cells sorted by the column.
+     */
+    private static KeyValue[] merge(KeyValue[] current, Iterable<KeyValue> cells) {
+        SortedMap<Cell, KeyValue> merged = new TreeMap<Cell, KeyValue>(COLUMN_COMPARATOR);
+        for (KeyValue cell : current) {
+            merged.put(cell, cell);
+        }
+
+        for (KeyValue cell : cells) {
+            KeyValue existing = merged.get(cell);
+            if (existing == null || existing.getTimestamp() <= cell.getTimestamp()) {
+                merged.remove(cell);
+                merged.put(cell, cell);
+            }
+        }
+        return merged.values().toArray(new KeyValue[merged.size()]);
+    }
+
+    /**
+     * Checks whether the cell is deleted by the delete.
+     *
+     * @param cell   The cell to check.
+     * @param delete The delete.
+     * @return True if the cell is deleted or False otherwise.
+     */
+    private static boolean isDeleted(Cell cell, Delete delete) {
+        List<Cell> markers = delete.getFamilyCellMap().get(CellUtil.cloneFamily(cell));
+        if (markers == null) {
+            return false;
+        }
+
+        for (Cell marker : markers) {
+            KeyValue.Type type = KeyValue.Type.codeToType(marker.getTypeByte());
+            if (type == KeyValue.Type.DeleteFamily || type == KeyValue.Type.DeleteFamilyVersion) {
+                return true;
+            }
+
+            if (COLUMN_COMPARATOR.compare(cell, marker) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    //endregion
+}
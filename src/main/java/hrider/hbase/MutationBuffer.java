@@ -0,0 +1,493 @@
+package hrider.hbase;
+
+import hrider.actions.NamedThreadFactory;
+import hrider.config.GlobalConfig;
+import hrider.io.Log;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Row;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class buffers the puts and the deletes of a table and writes them in batches on background threads. A batch is written when
+ *          it is full or when its oldest mutation has waited for the flush interval. A limited number of batches is written concurrently, the
+ *          callers adding the mutations are blocked while all the writers are busy. The mutations of a batch which failed are retried and
+ *          the result of each mutation is reported to the listener by the row key.
+ *          <p/>
+ *          The mutations of the same row are written in the order they were added: a batch never holds two mutations of the same row and is
+ *          not written while another batch holding any of its rows is being written.
+ */
+public class MutationBuffer implements Closeable {
+
+    //region Constants
+    private static final Log  logger         = Log.getLogger(MutationBuffer.class);
+    private static final long IDLE_TIMEOUT   = 60;
+    private static final long RETRY_INTERVAL = 100;
+    //endregion
+
+    //region Variables
+    /**
+     * The connection to the cluster.
+     */
+    private Connection               connection;
+    /**
+     * The name of the table the mutations are written to.
+     */
+    private String                   tableName;
+    /**
+     * The listener for the results of the mutations.
+     */
+    private MutationListener         listener;
+    /**
+     * The maximum number of mutations in a batch.
+     */
+    private int                      batchSize;
+    /**
+     * The maximum amount of time in milliseconds a mutation waits in the buffer.
+     */
+    private long                     flushInterval;
+    /**
+     * The number of times a failed mutation is retried.
+     */
+    private int                      retries;
+    /**
+     * The maximum number of batches written concurrently.
+     */
+    private int                      maxInFlight;
+    /**
+     * The mutations waiting to be written.
+     */
+    private List<Row>                pending;
+    /**
+     * The keys of the rows of the pending mutations.
+     */
+    private Set<byte[]>              pendingRows;
+    /**
+     * The time the oldest pending mutation was added.
+     */
+    private long                     pendingSince;
+    /**
+     * The number of batches being written to each row. The instance is also a lock for the batches being written.
+     */
+    private Map<byte[], Integer>     inFlightRows;
+    /**
+     * Limits the number of batches written concurrently.
+     */
+    private Semaphore                inFlight;
+    /**
+     * The threads writing the batches.
+     */
+    private ExecutorService          writers;
+    /**
+     * The thread flushing the buffer on time.
+     */
+    private ScheduledExecutorService timer;
+    /**
+     * The table instances not used by any writer. {@link StorageTable} is not thread safe, so each writer takes its own instance.
+     */
+    private Queue<StorageTable>      tables;
+    /**
+     * Indicates whether the buffer has been closed.
+     */
+    private boolean                  closed;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link MutationBuffer} class.
+     *
+     * @param connection The connection to the cluster.
+     * @param tableName  The name of the table the mutations are written to.
+     * @param listener   The listener for the results of the mutations or null.
+     */
+    public MutationBuffer(Connection connection, String tableName, MutationListener listener) {
+        this.connection = connection;
+        this.tableName = tableName;
+        this.listener = listener;
+        this.batchSize = Math.max(1, GlobalConfig.instance().getBatchSizeForWrite());
+        this.flushInterval = Math.max(1, GlobalConfig.instance().getMutationFlushInterval());
+        this.retries = Math.max(0, GlobalConfig.instance().getMutationRetries());
+        this.maxInFlight = Math.max(1, GlobalConfig.instance().getMutationMaxInFlight());
+        this.pending = new ArrayList<Row>();
+        this.pendingRows = new TreeSet<byte[]>(Bytes.BYTES_COMPARATOR);
+        this.inFlightRows = new TreeMap<byte[], Integer>(Bytes.BYTES_COMPARATOR);
+        this.inFlight = new Semaphore(this.maxInFlight);
+        this.tables = new ConcurrentLinkedQueue<StorageTable>();
+
+        String name = String.format("%s-%s-writer", connection.getServerName(), tableName);
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            this.maxInFlight, this.maxInFlight, IDLE_TIMEOUT, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory(name));
+
+        // A buffer which is not closed should not keep its threads forever.
+        pool.allowCoreThreadTimeOut(true);
+
+        this.writers = pool;
+
+        this.timer = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory(name + "-timer"));
+        this.timer.scheduleWithFixedDelay(
+            new Runnable() {
+                @Override
+                public void run() {
+                    flushExpired();
+                }
+            }, this.flushInterval, this.flushInterval, TimeUnit.MILLISECONDS);
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the name of the table the mutations are written to.
+     *
+     * @return The name of the table.
+     */
+    public String getTableName() {
+        return this.tableName;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Adds a put to the buffer. The caller is blocked if the buffer is full and all the writers are busy.
+     *
+     * @param put The put to add.
+     */
+    public void put(Put put) {
+        add(put);
+    }
+
+    /**
+     * Adds a delete to the buffer. The caller is blocked if the buffer is full and all the writers are busy.
+     *
+     * @param delete The delete to add.
+     */
+    public void delete(Delete delete) {
+        add(delete);
+    }
+
+    /**
+     * Starts writing the buffered mutations without waiting for them to be written.
+     */
+    public synchronized void flush() {
+        if (!this.pending.isEmpty()) {
+            List<Row> batch = this.pending;
+
+            this.pending = new ArrayList<Row>();
+            this.pendingRows.clear();
+
+            submit(batch);
+        }
+    }
+
+    /**
+     * Writes the buffered mutations, waits until all the mutations are written and releases the writing threads. The results of all the
+     * mutations are reported to the listener before the method returns.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+
+            flush();
+            this.closed = true;
+        }
+
+        this.timer.shutdownNow();
+
+        // All the permits are available only when no batch is being written.
+        this.inFlight.acquireUninterruptibly(this.maxInFlight);
+        this.inFlight.release(this.maxInFlight);
+
+        this.writers.shutdown();
+
+        for (StorageTable table = this.tables.poll() ; table != null ; table = this.tables.poll()) {
+            try {
+                table.close();
+            }
+            catch (IOException e) {
+                logger.error(e, "Failed to close table '%s'.", this.tableName);
+            }
+        }
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Adds a mutation to the buffer and writes the buffer if it is full. A mutation of a row which is already buffered starts a new batch
+     * as the order of the mutations within a batch is not guaranteed.
+     *
+     * @param mutation The mutation to add.
+     */
+    private synchronized void add(Row mutation) {
+        if (this.closed) {
+            throw new IllegalStateException("The mutation buffer has been closed.");
+        }
+
+        if (this.pendingRows.contains(mutation.getRow())) {
+            flush();
+        }
+
+        if (this.pending.isEmpty()) {
+            this.pendingSince = System.currentTimeMillis();
+        }
+
+        this.pending.add(mutation);
+        this.pendingRows.add(mutation.getRow());
+
+        if (this.pending.size() >= this.batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the buffer if its oldest mutation has waited for the flush interval.
+     */
+    private synchronized void flushExpired() {
+        if (!this.pending.isEmpty() && System.currentTimeMillis() - this.pendingSince >= this.flushInterval) {
+            flush();
+        }
+    }
+
+    /**
+     * Submits a batch to the writers. The method waits for a free writer and for the batches writing any of the rows of the batch. The
+     * method is called while holding the lock of the buffer, so the batches are submitted in the order they were taken from the buffer.
+     *
+     * @param batch The batch to write.
+     */
+    private void submit(final List<Row> batch) {
+        this.inFlight.acquireUninterruptibly();
+
+        synchronized (this.inFlightRows) {
+            boolean interrupted = false;
+
+            while (isInFlight(batch)) {
+                try {
+                    this.inFlightRows.wait();
+                }
+                catch (InterruptedException ignore) {
+                    interrupted = true;
+                }
+            }
+
+            for (Row mutation : batch) {
+                Integer count = this.inFlightRows.get(mutation.getRow());
+                this.inFlightRows.put(mutation.getRow(), count == null ? 1 : count + 1);
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        try {
+            this.writers.execute(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            write(batch);
+                        }
+                        finally {
+                            release(batch);
+                        }
+                    }
+                });
+        }
+        catch (RejectedExecutionException e) {
+            release(batch);
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether any of the rows of the batch is being written.
+     *
+     * @param batch The batch to check.
+     * @return True if any of the rows is being written or False otherwise.
+     */
+    private boolean isInFlight(List<Row> batch) {
+        for (Row mutation : batch) {
+            if (this.inFlightRows.containsKey(mutation.getRow())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Releases the rows of a written batch and its writer.
+     *
+     * @param batch The written batch.
+     */
+    private void release(List<Row> batch) {
+        synchronized (this.inFlightRows) {
+            for (Row mutation : batch) {
+                Integer count = this.inFlightRows.get(mutation.getRow());
+                if (count == null || count <= 1) {
+                    this.inFlightRows.remove(mutation.getRow());
+                }
+                else {
+                    this.inFlightRows.put(mutation.getRow(), count - 1);
+                }
+            }
+            this.inFlightRows.notifyAll();
+        }
+
+        this.inFlight.release();
+    }
+
+    /**
+     * Writes a batch retrying the failed mutations and reports the result of each mutation.
+     *
+     * @param batch The batch to write.
+     */
+    private void write(List<Row> batch) {
+        List<Row> actions = batch;
+        Map<Row, Throwable> errors = new IdentityHashMap<Row, Throwable>();
+
+        StorageTable table = null;
+        try {
+            table = acquireTable();
+
+            for (int attempt = 0 ; attempt <= this.retries && !actions.isEmpty() ; attempt++) {
+                if (attempt > 0) {
+                    Thread.sleep(RETRY_INTERVAL * attempt);
+                }
+
+                Object[] results = new Object[actions.size()];
+                Exception batchError = null;
+
+                try {
+                    table.batch(actions, results);
+                }
+                catch (IOException e) {
+                    batchError = e;
+                }
+
+                List<Row> failed = new ArrayList<Row>();
+                for (int i = 0 ; i < results.length ; i++) {
+                    Row action = actions.get(i);
+
+                    if (results[i] == null || results[i] instanceof Throwable) {
+                        Throwable error = results[i] instanceof Throwable ? (Throwable)results[i] : batchError;
+                        if (error == null) {
+                            error = new IOException("The mutation has not been applied.");
+                        }
+
+                        failed.add(action);
+                        errors.put(action, error);
+                    }
+                    else {
+                        errors.remove(action);
+                        onWritten(action);
+                    }
+                }
+
+                if (!failed.isEmpty()) {
+                    logger.info("%d of %d mutations of table '%s' failed on attempt %d.", failed.size(), actions.size(), this.tableName, attempt + 1);
+                }
+
+                actions = failed;
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            for (Row action : actions) {
+                errors.put(action, e);
+            }
+        }
+        catch (Exception e) {
+            for (Row action : actions) {
+                errors.put(action, e);
+            }
+        }
+        finally {
+            if (table != null) {
+                this.tables.add(table);
+            }
+        }
+
+        for (Row action : actions) {
+            onFailed(action, errors.get(action));
+        }
+    }
+
+    /**
+     * Takes an idle table instance or creates a new one.
+     *
+     * @return A table instance used by a single writer.
+     * @throws IOException Error accessing hbase.
+     */
+    private StorageTable acquireTable() throws IOException {
+        StorageTable table = this.tables.poll();
+        if (table == null) {
+            table = this.connection.getTableFactory().create(this.tableName);
+        }
+        return table;
+    }
+
+    /**
+     * Reports a written mutation.
+     *
+     * @param mutation The mutation.
+     */
+    private void onWritten(Row mutation) {
+        if (this.listener != null) {
+            try {
+                this.listener.onRowWritten(mutation.getRow());
+            }
+            catch (Exception e) {
+                logger.error(e, "Mutation listener failed.");
+            }
+        }
+    }
+
+    /**
+     * Reports a failed mutation.
+     *
+     * @param mutation The mutation.
+     * @param error    The error of the last attempt.
+     */
+    private void onFailed(Row mutation, Throwable error) {
+        logger.error(error, "Failed to write row '%s' to table '%s'.", Bytes.toStringBinary(mutation.getRow()), this.tableName);
+
+        if (this.listener != null) {
+            try {
+                this.listener.onRowFailed(mutation.getRow(), error);
+            }
+            catch (Exception e) {
+                logger.error(e, "Mutation listener failed.");
+            }
+        }
+    }
+    //endregion
+}
@@ -0,0 +1,39 @@
+package hrider.hbase;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This interface represents a listener for the results of the mutations written by a {@link MutationBuffer}.
+ */
+public interface MutationListener {
+
+    /**
+     * This method is called when a mutation of the row has been written to the table. The method is called on a writing thread.
+     *
+     * @param row The key of the row.
+     */
+    void onRowWritten(byte[] row);
+
+    /**
+     * This method is called when a mutation of the row could not be written even after the retries. The method is called on a writing thread.
+     *
+     * @param row   The key of the row.
+     * @param error The error of the last attempt.
+     */
+    void onRowFailed(byte[] row, Throwable error);
+}
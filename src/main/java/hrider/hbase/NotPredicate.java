@@ -0,0 +1,76 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.Filter;
+
+import java.io.IOException;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a negation of a predicate.
+ */
+public class NotPredicate extends Predicate {
+
+    //region Constants
+    private static final long serialVersionUID = -8120466359142397318L;
+    //endregion
+
+    //region Variables
+    /**
+     * The negated predicate.
+     */
+    private final Predicate predicate;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link NotPredicate} class.
+     *
+     * @param predicate The predicate to negate.
+     */
+    public NotPredicate(Predicate predicate) {
+        this.predicate = predicate;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the negated predicate.
+     *
+     * @return A predicate.
+     */
+    public Predicate getPredicate() {
+        return this.predicate;
+    }
+    //endregion
+
+    //region Protected Methods
+    @Override
+    protected Filter toFilter(boolean negated, Scan scan, byte[] keyPrefix) throws IOException {
+        return this.predicate.toFilter(!negated, scan, keyPrefix);
+    }
+
+    @Override
+    protected boolean comparesColumns() {
+        return this.predicate.comparesColumns();
+    }
+    //endregion
+}
@@ -1,6 +1,9 @@
 package hrider.hbase;
 
-import org.apache.hadoop.hbase.filter.CompareFilter;
+import org.apache.hadoop.hbase.filter.*;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.regex.Pattern;
 
 /**
  * Copyright (C) 2012 NICE Systems ltd.
@@ -35,6 +38,10 @@ public enum Operator {
     IsNull,
     IsNotNull;
 
+    //region Constants
+    private static final byte[] EMPTY_BYTES_ARRAY = new byte[0];
+    //endregion
+
     //region Public Methods
 
     /**
@@ -76,5 +83,66 @@ public enum Operator {
                 throw new IllegalArgumentException(String.format("The specified operator type '%s' is not supported.", this));
         }
     }
+
+    /**
+     * Gets a filter according to the operator type.
+     *
+     * @param negated Indicates whether the filter should match the values the operator does not match.
+     * @return A filter to be used in query on hbase.
+     */
+    public CompareFilter.CompareOp toFilter(boolean negated) {
+        CompareFilter.CompareOp compareOp = toFilter();
+        if (!negated) {
+            return compareOp;
+        }
+
+        switch (compareOp) {
+            case LESS:
+                return CompareFilter.CompareOp.GREATER_OR_EQUAL;
+            case LESS_OR_EQUAL:
+                return CompareFilter.CompareOp.GREATER;
+            case EQUAL:
+                return CompareFilter.CompareOp.NOT_EQUAL;
+            case NOT_EQUAL:
+                return CompareFilter.CompareOp.EQUAL;
+            case GREATER_OR_EQUAL:
+                return CompareFilter.CompareOp.LESS;
+            case GREATER:
+                return CompareFilter.CompareOp.LESS_OR_EQUAL;
+            default:
+                throw new IllegalArgumentException(String.format("The specified operator type '%s' cannot be negated.", this));
+        }
+    }
+
+    /**
+     * Gets a comparator to compare the values with according to the operator type.
+     *
+     * @param word  The word to compare with.
+     * @param value The word converted to a byte array according to its type. Used by the operators comparing the bytes and the prefixes.
+     * @return A comparator to be used in query on hbase.
+     */
+    public ByteArrayComparable toComparator(String word, byte[] value) {
+        switch (this) {
+            case Contains:
+                return new SubstringComparator(word);
+            case StartsWith:
+                return new BinaryPrefixComparator(value != null ? value : Bytes.toBytes(word));
+            case EndsWith:
+                // There is no suffix comparator, the regular expression is the last resort. The word is quoted to be matched literally.
+                return new RegexStringComparator(Pattern.quote(word) + "\\z");
+            case Less:
+            case LessOrEqual:
+            case Equal:
+            case NotEqual:
+            case GreaterOrEqual:
+            case Greater:
+                return new BinaryComparator(value);
+            case IsNull:
+            case IsNotNull:
+                return new BinaryComparator(EMPTY_BYTES_ARRAY);
+            default:
+                throw new IllegalArgumentException(String.format("The specified operator type '%s' is not supported.", this));
+        }
+    }
     //endregion
 }
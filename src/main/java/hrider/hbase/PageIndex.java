@@ -0,0 +1,85 @@
+package hrider.hbase;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a sparse index of row positions. The key of every N-th row is recorded as the rows are read so that
+ *          a later jump to an arbitrary row can start scanning from the closest indexed key instead of the beginning of the table.
+ */
+public class PageIndex {
+
+    //region Variables
+    /**
+     * The distance in rows between two indexed keys.
+     */
+    private int                        interval;
+    /**
+     * The indexed keys. The key of the map is the zero based position of the row.
+     */
+    private NavigableMap<Long, byte[]> keys;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link PageIndex} class.
+     *
+     * @param interval The distance in rows between two indexed keys.
+     */
+    public PageIndex(int interval) {
+        this.interval = Math.max(1, interval);
+        this.keys = new TreeMap<Long, byte[]>();
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Records the key of the row if the row position falls on the index interval.
+     *
+     * @param position The zero based position of the row.
+     * @param key      The key of the row.
+     */
+    public void add(long position, byte[] key) {
+        if (position > 0 && position % this.interval == 0) {
+            this.keys.put(position, key);
+        }
+    }
+
+    /**
+     * Finds the closest indexed row at or before the provided position.
+     *
+     * @param position The zero based position of the row.
+     * @return An entry holding the position and the key of the indexed row or null if there is no such row.
+     */
+    public Map.Entry<Long, byte[]> floor(long position) {
+        return this.keys.floorEntry(position);
+    }
+
+    /**
+     * Removes all indexed keys.
+     */
+    public void clear() {
+        this.keys.clear();
+    }
+    //endregion
+}
@@ -0,0 +1,37 @@
+package hrider.hbase;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This exception is thrown by a {@link PageLoadListener} to stop loading a page which is not needed anymore. The rows loaded before
+ *          the cancellation are dropped.
+ */
+public class PageLoadCanceledException extends InterruptedIOException {
+
+    //region Constants
+    private static final long serialVersionUID = -2871465093387164412L;
+    //endregion
+
+    //region Constructor
+    public PageLoadCanceledException(String message) {
+        super(message);
+    }
+    //endregion
+}
@@ -0,0 +1,39 @@
+package hrider.hbase;
+
+import hrider.data.DataRow;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This interface represents a listener for the rows of a page loaded by the {@link Scanner}. The rows are reported in batches as
+ *          they arrive from the cluster, before the whole page has been loaded. The listener stops the load of a page which is not needed
+ *          anymore by throwing {@link PageLoadCanceledException}.
+ */
+public interface PageLoadListener {
+
+    /**
+     * This method is called each time a batch of rows has been loaded. The rows of the batch are not modified by the scanner afterwards.
+     *
+     * @param rows The loaded rows in the order of the page.
+     * @throws IOException The load of the page should be stopped.
+     */
+    void onRowsLoaded(List<DataRow> rows) throws IOException;
+}
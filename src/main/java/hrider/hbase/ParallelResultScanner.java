@@ -0,0 +1,393 @@
+package hrider.hbase;
+
+import hrider.actions.NamedThreadFactory;
+import hrider.config.GlobalConfig;
+import hrider.io.Log;
+import org.apache.hadoop.hbase.client.AbstractClientScanner;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents an hbase scanner which scans the regions of a filtered scan concurrently. A selective filter makes a region
+ *          server read through the whole region before it returns the few matching rows, so the regions are scanned in parallel and the
+ *          matching rows are buffered per region. The rows are returned in the order of the keys: the rows of a region are returned only after
+ *          all the preceding regions have been drained or found empty. Each region buffers a limited number of rows and a limited number of
+ *          regions is scanned at a time, so a filter matching many rows does not load the table into memory.
+ */
+public class ParallelResultScanner extends AbstractClientScanner {
+
+    //region Constants
+    private static final Log logger = Log.getLogger(ParallelResultScanner.class);
+    //endregion
+
+    //region Variables
+    /**
+     * The connection to the cluster.
+     */
+    private Connection      connection;
+    /**
+     * The name of the table to scan.
+     */
+    private String          tableName;
+    /**
+     * The regions of the scan sorted by their keys.
+     */
+    private List<Region>    regions;
+    /**
+     * The index of the region which rows are returned.
+     */
+    private int             current;
+    /**
+     * The number of the regions which scan has been started.
+     */
+    private int             started;
+    /**
+     * The maximum number of the regions scanned at a time.
+     */
+    private int             window;
+    /**
+     * The number of rows fetched from a region by a single call.
+     */
+    private int             caching;
+    /**
+     * The executor used to fetch the rows of the regions.
+     */
+    private ExecutorService executor;
+    /**
+     * Indicates whether the scanner has been closed.
+     */
+    private boolean         closed;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link ParallelResultScanner} class. The scans of the first regions are started immediately.
+     *
+     * @param connection The connection to the cluster.
+     * @param tableName  The name of the table to scan.
+     * @param scan       The scan to execute. The number of rows fetched from a region by a single call is taken from the caching of the scan.
+     * @param ranges     The key ranges of the regions overlapping the scan sorted by the start key.
+     * @param threads    The maximum number of the regions scanned at a time.
+     * @throws IOException Error accessing hbase.
+     */
+    public ParallelResultScanner(Connection connection, String tableName, Scan scan, List<KeyRange> ranges, int threads) throws IOException {
+        this.connection = connection;
+        this.tableName = tableName;
+        this.window = Math.max(1, threads);
+        this.caching = scan.getCaching() > 0 ? scan.getCaching() : GlobalConfig.instance().getBatchSizeForRead();
+        this.regions = new ArrayList<Region>(ranges.size());
+
+        for (KeyRange range : ranges) {
+            Scan regionScan = new Scan(scan);
+            regionScan.setStartRow(range.getStartKey());
+            regionScan.setStopRow(range.getStopKey());
+            regionScan.setCaching(this.caching);
+
+            this.regions.add(new Region(regionScan));
+        }
+
+        this.executor = Executors.newFixedThreadPool(Math.max(1, Math.min(this.window, ranges.size())), new NamedThreadFactory(tableName + "-parallel"));
+
+        startRegions();
+    }
+    //endregion
+
+    //region Public Methods
+    @Override
+    public synchronized Result next() throws IOException {
+        while (!this.closed && this.current < this.regions.size()) {
+            Region region = this.regions.get(this.current);
+
+            Result result = region.buffer.poll();
+            if (result != null) {
+                if (!region.fetching && !region.exhausted) {
+                    region.fetch();
+                }
+                return result;
+            }
+
+            if (region.error != null) {
+                throw region.error;
+            }
+
+            if (region.exhausted) {
+                // The region is drained, the rows of the next region can be returned.
+                this.current++;
+                startRegions();
+                continue;
+            }
+
+            if (!region.fetching) {
+                region.fetch();
+            }
+
+            try {
+                wait();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(String.format("Scan of the table '%s' has been interrupted.", this.tableName));
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            this.closed = true;
+
+            for (Region region : this.regions) {
+                region.buffer.clear();
+            }
+        }
+
+        this.executor.shutdown();
+
+        try {
+            // The scanners are used by the fetches, they can be closed only after the running fetches complete.
+            this.executor.awaitTermination(GlobalConfig.instance().getScannerLeaseTimeout(), TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            synchronized (this) {
+                for (Region region : this.regions) {
+                    region.close();
+                }
+            }
+        }
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Starts the scans of the regions following the current one up to the maximum number of the regions scanned at a time.
+     */
+    private void startRegions() {
+        while (this.started < this.regions.size() && this.started < this.current + this.window) {
+            this.regions.get(this.started).fetch();
+            this.started++;
+        }
+    }
+
+    /**
+     * Adds the fetched rows to the buffer of the region. The next batch is fetched right away unless the buffer is full.
+     *
+     * @param region The region the rows have been fetched from.
+     * @param rows   The fetched rows.
+     */
+    private synchronized void onFetched(Region region, Result[] rows) {
+        region.fetching = false;
+
+        if (rows.length == 0) {
+            region.exhausted = true;
+            region.close();
+        }
+        else if (!this.closed) {
+            Collections.addAll(region.buffer, rows);
+
+            if (region.buffer.size() < this.caching) {
+                region.fetch();
+            }
+        }
+
+        notifyAll();
+    }
+
+    /**
+     * Records the error of the region. The error is thrown when the rows of the region are requested.
+     *
+     * @param region The region which fetch has failed.
+     * @param error  The error.
+     */
+    private synchronized void onFailed(Region region, Throwable error) {
+        logger.error(error, "Failed to fetch the rows of the region %s of the table '%s'.", region.scan.getStartRow(), this.tableName);
+
+        region.fetching = false;
+        region.error = error instanceof IOException ? (IOException)error : new IOException(error);
+
+        notifyAll();
+    }
+    //endregion
+
+    /**
+     * Represents the scan of a single region.
+     */
+    private class Region {
+
+        //region Variables
+        /**
+         * The scan of the region.
+         */
+        private Scan          scan;
+        /**
+         * The rows fetched from the region but not yet returned.
+         */
+        private Queue<Result> buffer;
+        /**
+         * The table the region is scanned with. The table is created by the first fetch.
+         */
+        private StorageTable  table;
+        /**
+         * The hbase scanner of the region. The scanner is opened by the first fetch.
+         */
+        private ResultScanner scanner;
+        /**
+         * Indicates whether there is a fetch in progress.
+         */
+        private boolean       fetching;
+        /**
+         * Indicates whether all the rows of the region have been fetched.
+         */
+        private boolean       exhausted;
+        /**
+         * The error of the last fetch if any.
+         */
+        private IOException   error;
+        //endregion
+
+        //region Constructor
+
+        /**
+         * Initializes a new instance of the {@link Region} class.
+         *
+         * @param scan The scan of the region.
+         */
+        private Region(Scan scan) {
+            this.scan = scan;
+            this.buffer = new ArrayDeque<Result>();
+        }
+        //endregion
+
+        //region Public Methods
+
+        /**
+         * Starts fetching the next batch of rows in the background. Must be called while holding the lock of the scanner.
+         */
+        public void fetch() {
+            if (closed || this.error != null) {
+                return;
+            }
+
+            this.fetching = true;
+
+            executor.execute(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            onFetched(Region.this, read());
+                        }
+                        catch (Throwable e) {
+                            onFailed(Region.this, e);
+                        }
+                    }
+                });
+        }
+
+        /**
+         * Closes the hbase scanner and the table of the region if they have been opened. Must be called while holding the lock of the scanner.
+         */
+        public void close() {
+            try {
+                if (this.scanner != null) {
+                    this.scanner.close();
+                    this.scanner = null;
+                }
+            }
+            finally {
+                if (this.table != null) {
+                    try {
+                        this.table.close();
+                    }
+                    catch (IOException e) {
+                        logger.warn(e, "Failed to close the table '%s'.", tableName);
+                    }
+                    this.table = null;
+                }
+            }
+        }
+        //endregion
+
+        //region Private Methods
+
+        /**
+         * Reads the next batch of rows of the region.
+         *
+         * @return The rows or an empty array if the end of the region has been reached.
+         * @throws IOException Error accessing hbase.
+         */
+        private Result[] read() throws IOException {
+            ResultScanner regionScanner;
+            synchronized (ParallelResultScanner.this) {
+                if (closed) {
+                    return new Result[0];
+                }
+                regionScanner = this.scanner;
+            }
+
+            if (regionScanner == null) {
+                // Opening the scanner calls the cluster, so the lock is not held meanwhile and the other regions are not blocked. StorageTable
+                // is not thread safe, each region uses its own instance.
+                StorageTable regionTable = connection.getTableFactory().create(tableName);
+                try {
+                    regionScanner = regionTable.getScanner(this.scan);
+                }
+                finally {
+                    if (regionScanner == null) {
+                        try {
+                            regionTable.close();
+                        }
+                        catch (IOException e) {
+                            logger.warn(e, "Failed to close the table '%s'.", tableName);
+                        }
+                    }
+                }
+
+                synchronized (ParallelResultScanner.this) {
+                    this.table = regionTable;
+                    this.scanner = regionScanner;
+
+                    if (closed) {
+                        // The scanner has been closed while the region was being opened.
+                        close();
+                        return new Result[0];
+                    }
+                }
+            }
+
+            // Only one fetch of the region is in progress at a time, the scanner is not closed before the fetch completes.
+            return regionScanner.next(caching);
+        }
+        //endregion
+    }
+}
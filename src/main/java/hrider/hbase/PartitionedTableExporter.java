@@ -0,0 +1,347 @@
+package hrider.hbase;
+
+import hrider.actions.FutureUtils;
+import hrider.actions.NamedThreadFactory;
+import hrider.config.GlobalConfig;
+import hrider.export.ExportCompression;
+import hrider.export.ExportFormat;
+import hrider.export.ExportPart;
+import hrider.io.Log;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class exports the rows of a scanner to several files in parallel. The range of the scanner is split along the region
+ *          boundaries of the table and each range is exported by its own {@link TableExporter} into a numbered part file. All parts share
+ *          the same header so they can be concatenated in the order of the keys into a single file.
+ */
+public class PartitionedTableExporter {
+
+    //region Constants
+    private static final Log logger      = Log.getLogger(PartitionedTableExporter.class);
+    private static final int COPY_BUFFER = 64 * 1024;
+    //endregion
+
+    //region Variables
+    /**
+     * The scanner describing the exported rows.
+     */
+    private Scanner      scanner;
+    /**
+     * The format of the files.
+     */
+    private ExportFormat format;
+    /**
+     * The character delimiting the values if the format is delimited.
+     */
+    private char         delimiter;
+    /**
+     * The maximum number of parts exported concurrently.
+     */
+    private int          threads;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link PartitionedTableExporter} class. The settings are taken from the global configuration.
+     *
+     * @param scanner   The scanner describing the rows to export. The query, the column types and the column name converter of the scanner
+     *                  are used.
+     * @param format    The format of the files.
+     * @param delimiter The character delimiting the values if the format is delimited.
+     */
+    public PartitionedTableExporter(Scanner scanner, ExportFormat format, char delimiter) {
+        this.scanner = scanner;
+        this.format = format;
+        this.delimiter = delimiter;
+        this.threads = Math.max(1, GlobalConfig.instance().getExportThreads());
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Splits the range of the scanner along the region boundaries of the table. The range of each bucket is split separately if the row keys
+     * are salted, so the parts of a salted table are ordered by the buckets rather than by the unsalted keys.
+     *
+     * @return A list of key ranges sorted by the start key, one per region and bucket.
+     * @throws IOException Error accessing hbase.
+     */
+    public List<KeyRange> split() throws IOException {
+        StorageTable table = this.scanner.getConnection().getTableFactory().get(this.scanner.getTableName());
+
+        List<KeyRange> ranges = new ArrayList<KeyRange>();
+        for (Scan scan : this.scanner.getScans(null)) {
+            ranges.addAll(KeyRange.split(table, scan.getStartRow(), scan.getStopRow()));
+        }
+        return ranges;
+    }
+
+    /**
+     * Creates the parts of the file, one per range.
+     *
+     * @param file   The exported file. The files of the parts are created next to it.
+     * @param ranges The ranges of keys sorted by the start key.
+     * @return A list of parts.
+     */
+    public static List<ExportPart> createParts(File file, List<KeyRange> ranges) {
+        List<ExportPart> parts = new ArrayList<ExportPart>(ranges.size());
+        for (int i = 0 ; i < ranges.size() ; i++) {
+            parts.add(new ExportPart(i, getPartFile(file, i), ranges.get(i).getStartKey(), ranges.get(i).getStopKey()));
+        }
+        return parts;
+    }
+
+    /**
+     * Gets the file of the part. The number of the part is inserted before the extension of the file, so the part is compressed the same
+     * way as the file, for example table.csv.gz becomes table.part-00001.csv.gz.
+     *
+     * @param file  The exported file.
+     * @param index The number of the part.
+     * @return The file of the part.
+     */
+    public static File getPartFile(File file, int index) {
+        ExportCompression compression = ExportCompression.fromFileName(file.getName());
+
+        String name = compression.stripExtension(file.getName());
+        String extension = "";
+
+        int dot = name.lastIndexOf('.');
+        if (dot > 0) {
+            extension = name.substring(dot);
+            name = name.substring(0, dot);
+        }
+
+        return new File(file.getParentFile(), String.format("%s.part-%05d%s%s", name, index, extension, compression.getExtension()));
+    }
+
+    /**
+     * Gets the columns of the first batch of rows of the scanner. The columns are used as the header of all parts.
+     *
+     * @return A list of the full names of the columns. The first column is the key.
+     * @throws IOException Error accessing hbase.
+     */
+    public List<String> sampleHeader() throws IOException {
+        return new TableExporter(this.scanner, this.format, this.delimiter).sampleHeader();
+    }
+
+    /**
+     * Exports the parts. A part with a checkpoint is continued right after its last row if its file is not compressed, otherwise the part
+     * is exported again from the beginning.
+     *
+     * @param parts            The parts to export.
+     * @param header           The full names of the columns of the header shared by the parts.
+     * @param progressListener The listener to be notified about the total number of rows at a fixed rate. Can be null.
+     * @param partListener     The listener to be notified about the rows committed to the files of the parts. Can be null.
+     * @throws IOException Error accessing hbase or writing the files or the export has been stopped by the part listener.
+     */
+    public void export(List<ExportPart> parts, List<String> header, ExportProgressListener progressListener, ExportPartListener partListener)
+        throws IOException {
+
+        if (parts.isEmpty()) {
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+            Math.min(this.threads, parts.size()), new NamedThreadFactory(this.scanner.getTableName() + "-exportPart"));
+
+        CompletionService<Object> service = new ExecutorCompletionService<Object>(executor);
+        for (ExportPart part : parts) {
+            service.submit(new PartWriter(part, header, partListener));
+        }
+
+        long progressInterval = GlobalConfig.instance().getProgressInterval();
+        long nextProgress = System.currentTimeMillis() + progressInterval;
+
+        try {
+            for (int tasks = parts.size() ; tasks > 0 ; ) {
+                Future<Object> future = service.poll(Math.max(1, nextProgress - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                if (future != null) {
+                    FutureUtils.getResult(future);
+                    tasks--;
+                }
+
+                if (System.currentTimeMillis() >= nextProgress) {
+                    notifyProgress(parts, progressListener);
+                    nextProgress = System.currentTimeMillis() + progressInterval;
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("Export of the table '%s' has been interrupted.", this.scanner.getTableName()));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        notifyProgress(parts, progressListener);
+
+        logger.info("Exported %d parts of table '%s'.", parts.size(), this.scanner.getTableName());
+    }
+
+    /**
+     * Concatenates the files of the parts in the order of the keys into a single file. The header is taken from the first part only.
+     * Compressed parts are decompressed and the file is compressed according to its own extension.
+     *
+     * @param file  The file to merge the parts to. The file is overwritten.
+     * @param parts The parts sorted by their keys.
+     * @throws IOException Error reading or writing the files.
+     */
+    public static void merge(File file, List<ExportPart> parts) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER];
+
+        OutputStream output = ExportCompression.fromFileName(file.getName()).wrap(new FileOutputStream(file));
+        try {
+            for (int i = 0 ; i < parts.size() ; i++) {
+                ExportPart part = parts.get(i);
+
+                InputStream input = ExportCompression.fromFileName(part.getFile().getName()).unwrap(new FileInputStream(part.getFile()));
+                try {
+                    if (i > 0) {
+                        skipFully(input, part.getHeaderLength());
+                    }
+
+                    for (int read = input.read(buffer) ; read != -1 ; read = input.read(buffer)) {
+                        output.write(buffer, 0, read);
+                    }
+                }
+                finally {
+                    input.close();
+                }
+            }
+        }
+        finally {
+            output.close();
+        }
+
+        logger.info("Merged %d parts to file '%s'.", parts.size(), file.getName());
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Notifies the listener about the total number of rows written to the parts.
+     *
+     * @param parts    The parts.
+     * @param listener The listener to notify. Can be null.
+     */
+    private static void notifyProgress(List<ExportPart> parts, ExportProgressListener listener) {
+        if (listener != null) {
+            long rows = 0;
+            for (ExportPart part : parts) {
+                rows += part.getRows();
+            }
+            listener.onProgress(rows);
+        }
+    }
+
+    /**
+     * Skips the specified number of bytes of the stream.
+     *
+     * @param stream The stream.
+     * @param length The number of bytes to skip.
+     * @throws IOException Error reading from the stream or the stream is shorter than the number of bytes.
+     */
+    private static void skipFully(InputStream stream, long length) throws IOException {
+        for (long remaining = length ; remaining > 0 ; ) {
+            long skipped = stream.skip(remaining);
+            if (skipped <= 0) {
+                if (stream.read() == -1) {
+                    throw new EOFException("The file of the part is shorter than its header.");
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+    //endregion
+
+    /**
+     * Exports a single part.
+     */
+    private class PartWriter implements Callable<Object> {
+
+        //region Variables
+        private ExportPart         part;
+        private List<String>       header;
+        private ExportPartListener partListener;
+        //endregion
+
+        //region Constructor
+        private PartWriter(ExportPart part, List<String> header, ExportPartListener partListener) {
+            this.part = part;
+            this.header = header;
+            this.partListener = partListener;
+        }
+        //endregion
+
+        //region Public Methods
+        @Override
+        public Object call() throws Exception {
+            long length = 0;
+            byte[] startRow = this.part.getStartKey();
+
+            if (this.part.getLastKey() != null && ExportCompression.fromFileName(this.part.getFile().getName()) == ExportCompression.None) {
+                // Continue right after the last committed row.
+                length = this.part.getLength();
+                startRow = Bytes.add(this.part.getLastKey(), new byte[1]);
+            }
+            else {
+                this.part.setCheckpoint(0, null);
+                this.part.setRows(0);
+            }
+
+            final boolean newFile = length == 0;
+            final TableExporter exporter = new TableExporter(scanner, format, delimiter);
+
+            exporter.export(
+                this.part.getFile(), length, new KeyRange(startRow, this.part.getStopKey()), this.header, null, new ExportCheckpointListener() {
+                @Override
+                public void onCommitted(long length, byte[] lastKey, long rows) throws IOException {
+                    if (newFile) {
+                        part.setHeaderLength(exporter.getHeaderLength());
+                    }
+
+                    part.setCheckpoint(length, lastKey);
+                    part.setRows(part.getRows() + rows);
+
+                    if (partListener != null) {
+                        partListener.onCommitted(part, rows);
+                    }
+                }
+            });
+
+            if (newFile) {
+                // The listener is not notified about a part without rows.
+                this.part.setHeaderLength(exporter.getHeaderLength());
+            }
+            return null;
+        }
+        //endregion
+    }
+}
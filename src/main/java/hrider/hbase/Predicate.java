@@ -0,0 +1,89 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.Filter;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a condition of a query which is evaluated on the region servers. The conditions are combined into a tree with
+ *          the {@link LogicalPredicate} and the {@link NotPredicate} and the tree is compiled into the nested hbase filters.
+ */
+public abstract class Predicate implements Serializable {
+
+    //region Constants
+    private static final long serialVersionUID = -2461833617226396281L;
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Compiles the predicate into a filter. The comparisons of the timestamps which are required by the whole predicate narrow the time range
+     * of the scan instead of being compiled into a filter.
+     *
+     * @param scan The scan the filter is going to be used with.
+     * @return A filter or null if the predicate is expressed by the time range of the scan only.
+     * @throws IOException              Error setting the time range of the scan.
+     * @throws IllegalArgumentException The predicate cannot be evaluated on the region servers.
+     */
+    public Filter toFilter(Scan scan) throws IOException {
+        return toFilter(scan, null);
+    }
+
+    /**
+     * Compiles the predicate into a filter of the rows which keys start with the specified prefix, for example the rows of a single bucket of a
+     * salted table. The words compared with the row keys are prefixed with the prefix as well.
+     *
+     * @param scan      The scan the filter is going to be used with.
+     * @param keyPrefix The prefix of the row keys or null if the keys are compared as they are.
+     * @return A filter or null if the predicate is expressed by the time range of the scan only.
+     * @throws IOException              Error setting the time range of the scan.
+     * @throws IllegalArgumentException The predicate cannot be evaluated on the region servers.
+     */
+    public Filter toFilter(Scan scan, byte[] keyPrefix) throws IOException {
+        return toFilter(false, scan, keyPrefix);
+    }
+    //endregion
+
+    //region Protected Methods
+
+    /**
+     * Compiles the predicate or its negation into a filter. A negation is pushed down to the leaves of the tree as hbase does not have a filter
+     * negating another filter.
+     *
+     * @param negated   Indicates whether the negation of the predicate should be compiled.
+     * @param scan      The scan the time range of which can be narrowed by the predicate or null if the predicate is not required by the whole
+     *                  predicate and must be compiled into a filter.
+     * @param keyPrefix The prefix of the compared row keys or null if the keys are compared as they are.
+     * @return A filter or null if the predicate is expressed by the time range of the scan only.
+     * @throws IOException Error setting the time range of the scan.
+     */
+    protected abstract Filter toFilter(boolean negated, Scan scan, byte[] keyPrefix) throws IOException;
+
+    /**
+     * Indicates whether the predicate compares the values of the columns. The filters comparing the values of the columns should see all the cells
+     * of the row, so they are placed before the filters dropping the cells.
+     *
+     * @return True if the predicate compares the values of the columns or False otherwise.
+     */
+    protected abstract boolean comparesColumns();
+    //endregion
+}
@@ -0,0 +1,530 @@
+package hrider.hbase;
+
+import hrider.data.ColumnQualifier;
+import hrider.data.ColumnType;
+import hrider.data.RowKeyField;
+import hrider.data.RowKeySchema;
+import hrider.format.DateUtils;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class parses the textual representation of a {@link Predicate}. The comparisons are combined with 'and', 'or', 'not' and
+ *          parentheses, for example:
+ *          <pre>
+ *          f:name startswith 'a' and (key >= 100 or not f:age &lt; 30) and timestamp &lt; 1357000000000
+ *          </pre>
+ *          The left side of a comparison is a column name including the column family, 'key', 'qualifier' or 'timestamp'. If the keys are shown
+ *          by a {@link RowKeySchema} the fields of the keys are compared by their names following the 'key.' prefix, for example
+ *          'key.tenantId = 42'. The operator is one of the '=', '!=', '&lt;', '&lt;=', '&gt;', '&gt;=', 'contains', 'startswith', 'endswith',
+ *          'is null' and 'is not null'. The words are converted to bytes according to the types of the columns.
+ */
+public class PredicateParser {
+
+    //region Constants
+    /**
+     * The prefix of the names of the key fields.
+     */
+    private static final String KEY_FIELD_PREFIX = "key.";
+    //endregion
+
+    //region Variables
+    /**
+     * The map of column types. The key is the name of the column and the value is the type of the objects within the column.
+     */
+    private final Map<String, ColumnType> columnTypes;
+    /**
+     * The tokens of the parsed expression.
+     */
+    private List<Token>                   tokens;
+    /**
+     * The index of the next token.
+     */
+    private int                           index;
+    /**
+     * The length of the parsed expression.
+     */
+    private int                           length;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link PredicateParser} class.
+     *
+     * @param columnTypes The map of column types used to convert the words. The type of the row key is mapped to the name of the
+     *                    {@link ColumnQualifier#KEY} column.
+     */
+    public PredicateParser(Map<String, ColumnType> columnTypes) {
+        this.columnTypes = columnTypes;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Parses the expression.
+     *
+     * @param expression The expression to parse.
+     * @return A predicate or null if the expression is empty.
+     * @throws ParseException The expression is not valid.
+     */
+    public Predicate parse(String expression) throws ParseException {
+        if (expression == null || expression.trim().isEmpty()) {
+            return null;
+        }
+
+        this.tokens = tokenize(expression);
+        this.index = 0;
+        this.length = expression.length();
+
+        Predicate predicate = parseDisjunction();
+        if (this.index < this.tokens.size()) {
+            Token token = this.tokens.get(this.index);
+            throw new ParseException(String.format("Unexpected '%s' at position %d.", token.text, token.offset + 1), token.offset);
+        }
+        return predicate;
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Parses the predicates separated by 'or'.
+     *
+     * @return A predicate.
+     * @throws ParseException The expression is not valid.
+     */
+    private Predicate parseDisjunction() throws ParseException {
+        List<Predicate> predicates = new ArrayList<Predicate>();
+        predicates.add(parseConjunction());
+
+        while (acceptKeyword("or")) {
+            predicates.add(parseConjunction());
+        }
+        return predicates.size() == 1 ? predicates.get(0) : new LogicalPredicate(false, predicates);
+    }
+
+    /**
+     * Parses the predicates separated by 'and'.
+     *
+     * @return A predicate.
+     * @throws ParseException The expression is not valid.
+     */
+    private Predicate parseConjunction() throws ParseException {
+        List<Predicate> predicates = new ArrayList<Predicate>();
+        predicates.add(parseNegation());
+
+        while (acceptKeyword("and")) {
+            predicates.add(parseNegation());
+        }
+        return predicates.size() == 1 ? predicates.get(0) : new LogicalPredicate(true, predicates);
+    }
+
+    /**
+     * Parses a negated predicate, a predicate in parentheses or a comparison.
+     *
+     * @return A predicate.
+     * @throws ParseException The expression is not valid.
+     */
+    private Predicate parseNegation() throws ParseException {
+        if (acceptKeyword("not")) {
+            return new NotPredicate(parseNegation());
+        }
+
+        Token token = next("a comparison");
+        if (token.type == TokenType.Symbol && "(".equals(token.text)) {
+            Predicate predicate = parseDisjunction();
+
+            Token closing = next("')'");
+            if (closing.type != TokenType.Symbol || !")".equals(closing.text)) {
+                throw unexpected(closing, "')'");
+            }
+            return predicate;
+        }
+
+        this.index--;
+        return parseComparison();
+    }
+
+    /**
+     * Parses a comparison.
+     *
+     * @return A predicate.
+     * @throws ParseException The expression is not valid.
+     */
+    private Predicate parseComparison() throws ParseException {
+        Token subject = next("a column name");
+        if (subject.type == TokenType.Symbol) {
+            throw unexpected(subject, "a column name");
+        }
+
+        if (subject.type == TokenType.Word && subject.text.regionMatches(true, 0, KEY_FIELD_PREFIX, 0, KEY_FIELD_PREFIX.length())) {
+            return parseKeyFieldComparison(subject);
+        }
+
+        ValuePredicate.Target target = ValuePredicate.Target.Column;
+        if (subject.type == TokenType.Word) {
+            if ("key".equalsIgnoreCase(subject.text)) {
+                target = ValuePredicate.Target.Key;
+            }
+            else if ("qualifier".equalsIgnoreCase(subject.text)) {
+                target = ValuePredicate.Target.Qualifier;
+            }
+            else if ("timestamp".equalsIgnoreCase(subject.text)) {
+                target = ValuePredicate.Target.Timestamp;
+            }
+        }
+
+        byte[] family = null;
+        byte[] column = null;
+        ColumnType type;
+
+        switch (target) {
+            case Column:
+                int separator = subject.text.indexOf(':');
+                if (separator <= 0) {
+                    throw new ParseException(
+                        String.format("The column '%s' at position %d should include the column family.", subject.text, subject.offset + 1), subject.offset);
+                }
+
+                family = Bytes.toBytesBinary(subject.text.substring(0, separator));
+                column = Bytes.toBytesBinary(subject.text.substring(separator + 1));
+
+                type = this.columnTypes.get(subject.text);
+                if (type == null) {
+                    type = ColumnType.fromColumn(subject.text);
+                }
+                break;
+            case Key:
+                type = this.columnTypes.get(ColumnQualifier.KEY.getName());
+                if (type == null) {
+                    type = ColumnType.BinaryString;
+                }
+                break;
+            default:
+                type = ColumnType.BinaryString;
+                break;
+        }
+
+        Operator operator = parseOperator();
+        if (operator.isUnary()) {
+            if (target == ValuePredicate.Target.Timestamp) {
+                throw new ParseException(String.format("The timestamp at position %d cannot be compared with '%s'.", subject.offset + 1, operator), subject.offset);
+            }
+            return new ValuePredicate(target, family, column, operator, null, null);
+        }
+
+        Token word = next("a word");
+        if (word.type == TokenType.Symbol) {
+            throw unexpected(word, "a word");
+        }
+
+        byte[] value;
+        if (target == ValuePredicate.Target.Timestamp) {
+            if (operator == Operator.Contains || operator == Operator.StartsWith || operator == Operator.EndsWith) {
+                throw new ParseException(String.format("The timestamp at position %d cannot be compared with '%s'.", subject.offset + 1, operator), subject.offset);
+            }
+            value = Bytes.toBytes(parseTimestamp(word));
+        }
+        else {
+            value = convert(word, type);
+        }
+
+        return new ValuePredicate(target, family, column, operator, word.text, value);
+    }
+
+    /**
+     * Parses a comparison of a field of the row keys.
+     *
+     * @param subject The name of the field including the 'key.' prefix.
+     * @return A predicate.
+     * @throws ParseException The expression is not valid.
+     */
+    private Predicate parseKeyFieldComparison(Token subject) throws ParseException {
+        RowKeySchema schema = RowKeySchema.fromColumnType(this.columnTypes.get(ColumnQualifier.KEY.getName()));
+        if (schema == null) {
+            throw new ParseException(
+                String.format("The key field '%s' at position %d cannot be compared as the keys are not shown by a schema.", subject.text, subject.offset + 1),
+                subject.offset);
+        }
+
+        RowKeyField field = schema.getField(subject.text.substring(KEY_FIELD_PREFIX.length()));
+        if (field == null) {
+            throw new ParseException(
+                String.format("The key field '%s' at position %d is not defined by the schema '%s'.", subject.text, subject.offset + 1, schema), subject.offset);
+        }
+
+        Operator operator = parseOperator();
+        if (operator.isUnary() || operator == Operator.Contains || operator == Operator.EndsWith) {
+            throw new ParseException(
+                String.format("The key field '%s' at position %d cannot be compared with '%s'.", field.getName(), subject.offset + 1, operator), subject.offset);
+        }
+
+        Token word = next("a word");
+        if (word.type == TokenType.Symbol) {
+            throw unexpected(word, "a word");
+        }
+
+        byte[] value = convert(word, field.getType());
+        if (operator != Operator.StartsWith && field.isFixed() && value.length != field.getLength()) {
+            throw new ParseException(
+                String.format("The word '%s' at position %d should take %d bytes as the key field '%s'.", word.text, word.offset + 1, field.getLength(), field.getName()),
+                word.offset);
+        }
+
+        return new KeyFieldPredicate(schema, field, operator, word.text, value);
+    }
+
+    /**
+     * Parses an operator.
+     *
+     * @return An operator.
+     * @throws ParseException The expression is not valid.
+     */
+    private Operator parseOperator() throws ParseException {
+        Token token = next("an operator");
+
+        if (token.type == TokenType.Symbol) {
+            if ("=".equals(token.text) || "==".equals(token.text)) {
+                return Operator.Equal;
+            }
+            if ("!=".equals(token.text) || "<>".equals(token.text)) {
+                return Operator.NotEqual;
+            }
+            if ("<".equals(token.text)) {
+                return Operator.Less;
+            }
+            if ("<=".equals(token.text)) {
+                return Operator.LessOrEqual;
+            }
+            if (">".equals(token.text)) {
+                return Operator.Greater;
+            }
+            if (">=".equals(token.text)) {
+                return Operator.GreaterOrEqual;
+            }
+        }
+        else if (token.type == TokenType.Word) {
+            if ("is".equalsIgnoreCase(token.text)) {
+                boolean not = acceptKeyword("not");
+                if (!acceptKeyword("null")) {
+                    throw unexpected(next("'null'"), "'null'");
+                }
+                return not ? Operator.IsNotNull : Operator.IsNull;
+            }
+
+            for (Operator operator : Operator.values()) {
+                if (operator.name().equalsIgnoreCase(token.text)) {
+                    return operator;
+                }
+            }
+        }
+
+        throw unexpected(token, "an operator");
+    }
+
+    /**
+     * Converts the word to a byte array according to the type.
+     *
+     * @param word The word to convert.
+     * @param type The type of the word.
+     * @return A byte array.
+     * @throws ParseException The word cannot be converted.
+     */
+    private static byte[] convert(Token word, ColumnType type) throws ParseException {
+        byte[] value;
+        try {
+            value = type.toBytes(word.text);
+        }
+        catch (Exception ignore) {
+            value = null;
+        }
+
+        if (value == null) {
+            throw new ParseException(
+                String.format("The word '%s' at position %d cannot be converted to '%s'.", word.text, word.offset + 1, type), word.offset);
+        }
+        return value;
+    }
+
+    /**
+     * Parses a timestamp represented either by the number of milliseconds or by a date in the default format.
+     *
+     * @param word The word to parse.
+     * @return The number of milliseconds.
+     * @throws ParseException The word is not a timestamp.
+     */
+    private static long parseTimestamp(Token word) throws ParseException {
+        try {
+            return Long.parseLong(word.text);
+        }
+        catch (NumberFormatException ignore) {
+            Date date = DateUtils.parse(word.text);
+            if (date == null) {
+                throw new ParseException(String.format("The word '%s' at position %d is not a timestamp.", word.text, word.offset + 1), word.offset);
+            }
+            return date.getTime();
+        }
+    }
+
+    /**
+     * Moves to the next token if it is the specified keyword.
+     *
+     * @param keyword The keyword to accept.
+     * @return True if the next token is the keyword or False otherwise.
+     */
+    private boolean acceptKeyword(String keyword) {
+        if (this.index < this.tokens.size()) {
+            Token token = this.tokens.get(this.index);
+            if (token.type == TokenType.Word && keyword.equalsIgnoreCase(token.text)) {
+                this.index++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the next token.
+     *
+     * @param expected The description of the expected token used in the error message.
+     * @return The next token.
+     * @throws ParseException The end of the expression has been reached.
+     */
+    private Token next(String expected) throws ParseException {
+        if (this.index == this.tokens.size()) {
+            throw new ParseException(String.format("Expected %s at the end of the expression.", expected), this.length);
+        }
+        return this.tokens.get(this.index++);
+    }
+
+    /**
+     * Creates an error about an unexpected token.
+     *
+     * @param token    The unexpected token.
+     * @param expected The description of the expected token.
+     * @return A new exception.
+     */
+    private static ParseException unexpected(Token token, String expected) {
+        return new ParseException(String.format("Expected %s instead of '%s' at position %d.", expected, token.text, token.offset + 1), token.offset);
+    }
+
+    /**
+     * Splits the expression to tokens.
+     *
+     * @param expression The expression to split.
+     * @return A list of tokens.
+     * @throws ParseException The expression has an unterminated quote.
+     */
+    private static List<Token> tokenize(String expression) throws ParseException {
+        List<Token> tokens = new ArrayList<Token>();
+
+        int i = 0;
+        while (i < expression.length()) {
+            char ch = expression.charAt(i);
+
+            if (Character.isWhitespace(ch)) {
+                i++;
+            }
+            else if (ch == '(' || ch == ')') {
+                tokens.add(new Token(TokenType.Symbol, String.valueOf(ch), i));
+                i++;
+            }
+            else if (isOperatorChar(ch)) {
+                int start = i;
+                while (i < expression.length() && isOperatorChar(expression.charAt(i))) {
+                    i++;
+                }
+                tokens.add(new Token(TokenType.Symbol, expression.substring(start, i), start));
+            }
+            else if (ch == '\'' || ch == '"') {
+                int start = i++;
+
+                StringBuilder text = new StringBuilder();
+                while (i < expression.length() && expression.charAt(i) != ch) {
+                    // The backslash escapes the quote and itself.
+                    if (expression.charAt(i) == '\\' && i + 1 < expression.length()) {
+                        i++;
+                    }
+                    text.append(expression.charAt(i++));
+                }
+
+                if (i == expression.length()) {
+                    throw new ParseException(String.format("The quote at position %d is not closed.", start + 1), start);
+                }
+
+                tokens.add(new Token(TokenType.Quoted, text.toString(), start));
+                i++;
+            }
+            else {
+                int start = i;
+                while (i < expression.length() && isWordChar(expression.charAt(i))) {
+                    i++;
+                }
+                tokens.add(new Token(TokenType.Word, expression.substring(start, i), start));
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isOperatorChar(char ch) {
+        return ch == '=' || ch == '!' || ch == '<' || ch == '>';
+    }
+
+    private static boolean isWordChar(char ch) {
+        return !Character.isWhitespace(ch) && ch != '(' && ch != ')' && ch != '\'' && ch != '"' && !isOperatorChar(ch);
+    }
+    //endregion
+
+    /**
+     * Represents the type of a token.
+     */
+    private enum TokenType {
+        Word,
+        Quoted,
+        Symbol
+    }
+
+    /**
+     * Represents a token of the expression.
+     */
+    private static class Token {
+
+        //region Variables
+        private final TokenType type;
+        private final String    text;
+        private final int       offset;
+        //endregion
+
+        //region Constructor
+        private Token(TokenType type, String text, int offset) {
+            this.type = type;
+            this.text = text;
+            this.offset = offset;
+        }
+        //endregion
+    }
+}
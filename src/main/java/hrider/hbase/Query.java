@@ -2,6 +2,7 @@ package hrider.hbase;
 
 import hrider.data.ColumnType;
 
+import java.io.Serializable;
 import java.util.Date;
 
 /**
@@ -24,7 +25,11 @@ import java.util.Date;
  *          <p/>
  *          This class represents a query object containing all possible information that can be used to filter results on hbase.
  */
-public class Query {
+public class Query implements Serializable {
+
+    //region Constants
+    private static final long serialVersionUID = -6927350473120935108L;
+    //endregion
 
     //region Variables
     /**
@@ -76,6 +81,14 @@ public class Query {
      * The type of the word.
      */
     private ColumnType wordType;
+    /**
+     * The expression the predicate has been parsed from.
+     */
+    private String     filter;
+    /**
+     * The predicate evaluated on the region servers in addition to the comparison of the word.
+     */
+    private Predicate  predicate;
     //endregion
 
     //region Public Properties
@@ -349,5 +362,34 @@ public class Query {
     public void setWordType(ColumnType wordType) {
         this.wordType = wordType;
     }
+
+    /**
+     * Gets the expression the predicate has been parsed from.
+     *
+     * @return An expression or null if the query does not have a predicate.
+     */
+    public String getFilter() {
+        return this.filter;
+    }
+
+    /**
+     * Gets the predicate evaluated in addition to the comparison of the word.
+     *
+     * @return A predicate or null if the rows are filtered only by the word.
+     */
+    public Predicate getPredicate() {
+        return this.predicate;
+    }
+
+    /**
+     * Sets a new predicate.
+     *
+     * @param filter    The expression the predicate has been parsed from.
+     * @param predicate The predicate to set. Can be null.
+     */
+    public void setPredicate(String filter, Predicate predicate) {
+        this.filter = filter;
+        this.predicate = predicate;
+    }
     //endregion
 }
@@ -0,0 +1,836 @@
+package hrider.hbase;
+
+import hrider.data.RowKeyField;
+import hrider.data.RowKeySchema;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.*;
+import org.apache.hadoop.hbase.io.TimeRange;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.Pair;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class translates a {@link Query} to a {@link Scan}. For each condition the cheapest construct evaluated by hbase is chosen. The
+ *          conditions on the row key which are required by the whole query are turned to the start and the stop rows of the scan, so only the
+ *          regions holding the matching keys are scanned. The prefixes are compared by the prefix filters and comparators, the regular
+ *          expressions are used only for the suffixes.
+ */
+public class QueryPlanner {
+
+    //region Constants
+    /**
+     * The value of the fuzzy mask fixing the byte of the key.
+     */
+    private static final byte    FUZZY_FIXED_BYTE = 0;
+    /**
+     * The value of the fuzzy mask allowing any byte of the key.
+     */
+    private static final byte    FUZZY_ANY_BYTE   = 1;
+    /**
+     * The charset converting the bytes of the keys to the characters one to one.
+     */
+    private static final Charset KEY_CHARSET      = Charset.forName("ISO-8859-1");
+    //endregion
+
+    //region Constructor
+    private QueryPlanner() {
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Applies the query to the scan.
+     *
+     * @param query The query to apply.
+     * @param scan  The scan to update.
+     * @return The updated scan.
+     * @throws IOException Error setting the time range of the scan.
+     */
+    public static Scan plan(Query query, Scan scan) throws IOException {
+        return plan(query, scan, null);
+    }
+
+    /**
+     * Applies the query to the scan of the rows which keys start with the specified prefix, for example the rows of a single bucket of a salted
+     * table. The start and the end keys of the query and the words compared with the row keys do not include the prefix.
+     *
+     * @param query     The query to apply.
+     * @param scan      The scan to update.
+     * @param keyPrefix The prefix of the row keys or null if the keys of the query are compared with the row keys as they are.
+     * @return The updated scan.
+     * @throws IOException Error setting the time range of the scan.
+     */
+    public static Scan plan(Query query, Scan scan, byte[] keyPrefix) throws IOException {
+        byte[] prefix = keyPrefix != null ? keyPrefix : HConstants.EMPTY_START_ROW;
+
+        // The end key is inclusive, the rows which keys start with the end key are included as well.
+        byte[] stopRow = getPrefixStopRow(query.getEndKey() != null ? Bytes.add(prefix, query.getEndKey()) : prefix);
+        byte[] startRow = query.getStartKey() != null ? Bytes.add(prefix, query.getStartKey()) : prefix;
+
+        boolean isEmpty = !narrowKeyRange(scan, startRow, stopRow);
+
+        if (query.getStartDate() != null && query.getEndDate() != null) {
+            scan.setTimeRange(query.getStartDate().getTime(), query.getEndDate().getTime());
+        }
+
+        Filter filter = null;
+
+        if (query.getWord() != null || query.getOperator() != null && query.getOperator().isUnary()) {
+            byte[] value = query.getWord() != null && query.getWordType() != null ? query.getWordAsByteArray() : null;
+
+            filter = new SingleColumnValueFilter(
+                Bytes.toBytesBinary(query.getFamily()), Bytes.toBytesBinary(query.getColumn()), query.getOperator().toFilter(),
+                query.getOperator().toComparator(query.getWord(), value));
+        }
+
+        if (query.getPredicate() != null) {
+            Filter predicateFilter = query.getPredicate().toFilter(scan, keyPrefix);
+            if (predicateFilter != null) {
+                filter = filter != null ? new FilterList(FilterList.Operator.MUST_PASS_ALL, filter, predicateFilter) : predicateFilter;
+            }
+        }
+
+        if (isEmpty) {
+            filter = createEmptyFilter();
+        }
+
+        if (filter != null) {
+            scan.setFilter(filter);
+        }
+        return scan;
+    }
+
+    /**
+     * Creates a filter comparing the row keys. The comparisons required by the whole query narrow the key range of the scan instead.
+     *
+     * @param operator  The operator to compare with.
+     * @param negated   Indicates whether the filter should match the keys the operator does not match.
+     * @param word      The word to compare with.
+     * @param value     The word converted to a byte array according to the type of the key.
+     * @param scan      The scan which key range can be narrowed or null if the comparison must be evaluated by a filter.
+     * @param keyPrefix The prefix of the compared row keys which is not included in the word or null if the keys are compared as they are.
+     * @return A filter or null if the comparison is expressed by the key range of the scan.
+     */
+    public static Filter createKeyFilter(Operator operator, boolean negated, String word, byte[] value, Scan scan, byte[] keyPrefix) {
+        CompareFilter.CompareOp compareOp = operator.toFilter(negated);
+
+        if (keyPrefix != null && operator != Operator.Contains && operator != Operator.EndsWith && !operator.isUnary()) {
+            // All the keys compared by the filter start with the prefix, so the order of the keys is not changed by the prefix.
+            value = Bytes.add(keyPrefix, value != null ? value : Bytes.toBytes(word));
+        }
+
+        if (scan != null && value != null) {
+            byte[] startRow = HConstants.EMPTY_START_ROW;
+            byte[] stopRow = HConstants.EMPTY_END_ROW;
+            boolean isRange = true;
+
+            if (operator == Operator.StartsWith) {
+                isRange = compareOp == CompareFilter.CompareOp.EQUAL;
+                startRow = value;
+                stopRow = getPrefixStopRow(value);
+            }
+            else if (operator.isUnary() || operator == Operator.Contains || operator == Operator.EndsWith) {
+                isRange = false;
+            }
+            else {
+                switch (compareOp) {
+                    case LESS:
+                        stopRow = value;
+                        break;
+                    case LESS_OR_EQUAL:
+                        stopRow = getNextRow(value);
+                        break;
+                    case EQUAL:
+                        startRow = value;
+                        stopRow = getNextRow(value);
+                        break;
+                    case GREATER_OR_EQUAL:
+                        startRow = value;
+                        break;
+                    case GREATER:
+                        startRow = getNextRow(value);
+                        break;
+                    default:
+                        isRange = false;
+                        break;
+                }
+            }
+
+            if (isRange) {
+                return narrowKeyRange(scan, startRow, stopRow) ? null : createEmptyFilter();
+            }
+        }
+
+        if (operator == Operator.StartsWith && compareOp == CompareFilter.CompareOp.EQUAL && value != null) {
+            // Unlike the row filter the prefix filter stops the scan of the region once the keys are beyond the prefix.
+            return new PrefixFilter(value);
+        }
+
+        return new RowFilter(compareOp, operator.toComparator(word, value));
+    }
+
+    /**
+     * Creates a filter comparing the fields of the composite row keys. The fields compared for equality which lead the key and the range of the
+     * following field narrow the key range of the scan. The other fields compared for equality or for a prefix are matched by the fuzzy row
+     * filter which skips the regions of the keys not matching the fixed bytes. The remaining comparisons of the fields of a fixed length are
+     * matched by a regular expression over the bytes of the keys.
+     *
+     * @param predicates The comparisons of the fields required by the whole query if the scan is provided. All the comparisons use the same schema.
+     * @param negated    Indicates whether the filter should match the keys the comparisons do not match.
+     * @param scan       The scan which key range can be narrowed or null if the comparisons must be evaluated by a filter.
+     * @param keyPrefix  The prefix all the scanned keys start with or null if the prefix is not known. The prefix fixes the leading fields it covers.
+     * @return A filter or null if the comparisons are expressed by the key range of the scan.
+     * @throws IllegalArgumentException The comparison of a field cannot be evaluated on the region servers.
+     */
+    public static Filter createKeyFieldsFilter(List<KeyFieldPredicate> predicates, boolean negated, Scan scan, byte[] keyPrefix) {
+        RowKeySchema schema = predicates.get(0).getSchema();
+
+        // The comparisons which are not expressed by the key range of the scan.
+        List<KeyFieldPredicate> remaining = new ArrayList<KeyFieldPredicate>(predicates);
+
+        byte[] prefix = HConstants.EMPTY_START_ROW;
+        if (scan != null) {
+            byte[] startRow = null;
+            byte[] stopRow = null;
+
+            List<RowKeyField> fields = schema.getFields();
+
+            // The comparisons of the fields covered by the prefix are left to the fuzzy filter which fixes the bytes of the prefix.
+            int first = keyPrefix != null ? getFieldIndex(schema, keyPrefix.length) : -1;
+            if (first > 0) {
+                prefix = keyPrefix;
+            }
+            else {
+                first = 0;
+            }
+
+            for (RowKeyField field : fields.subList(first, fields.size())) {
+                byte[] equal = null;
+                for (KeyFieldPredicate predicate : predicates) {
+                    if (predicate.getField().equals(field) && isEquality(predicate, negated)) {
+                        if (equal != null && !Bytes.equals(equal, predicate.getValue())) {
+                            return createEmptyFilter();
+                        }
+
+                        equal = predicate.getValue();
+                        remaining.remove(predicate);
+                    }
+                }
+
+                if (equal != null) {
+                    prefix = Bytes.add(prefix, equal);
+                    if (field.isFixed()) {
+                        continue;
+                    }
+
+                    startRow = prefix;
+                    stopRow = getNextRow(prefix);
+                    break;
+                }
+
+                // The first field which is not compared for equality still bounds the key range.
+                startRow = prefix;
+                stopRow = getPrefixStopRow(prefix);
+
+                for (KeyFieldPredicate predicate : predicates) {
+                    if (predicate.getField().equals(field)) {
+                        byte[] value = Bytes.add(prefix, predicate.getValue());
+                        byte[] lowerRow = null;
+                        byte[] upperRow = null;
+
+                        CompareFilter.CompareOp compareOp = predicate.getOperator().toFilter(negated);
+                        if (predicate.getOperator() == Operator.StartsWith) {
+                            if (compareOp == CompareFilter.CompareOp.EQUAL) {
+                                lowerRow = value;
+                                upperRow = getPrefixStopRow(value);
+                            }
+                        }
+                        else {
+                            switch (compareOp) {
+                                case LESS:
+                                    upperRow = value;
+                                    break;
+                                case LESS_OR_EQUAL:
+                                    upperRow = field.isFixed() ? getPrefixStopRow(value) : getNextRow(value);
+                                    break;
+                                case GREATER_OR_EQUAL:
+                                    lowerRow = value;
+                                    break;
+                                case GREATER:
+                                    lowerRow = field.isFixed() ? getPrefixStopRow(value) : getNextRow(value);
+                                    if (lowerRow.length == 0) {
+                                        // There is no greater value of the field.
+                                        return createEmptyFilter();
+                                    }
+                                    break;
+                                default:
+                                    break;
+                            }
+                        }
+
+                        if (lowerRow != null || upperRow != null) {
+                            if (lowerRow != null && Bytes.compareTo(lowerRow, startRow) > 0) {
+                                startRow = lowerRow;
+                            }
+
+                            if (upperRow != null && upperRow.length > 0 && (stopRow.length == 0 || Bytes.compareTo(upperRow, stopRow) < 0)) {
+                                stopRow = upperRow;
+                            }
+                            remaining.remove(predicate);
+                        }
+                    }
+                }
+                break;
+            }
+
+            if (startRow == null) {
+                // All the fields are compared for equality.
+                startRow = prefix;
+                stopRow = getPrefixStopRow(prefix);
+            }
+
+            if (!narrowKeyRange(scan, startRow, stopRow)) {
+                return createEmptyFilter();
+            }
+        }
+
+        List<Filter> filters = new ArrayList<Filter>();
+
+        // The fuzzy key fixes the bytes of the prefix and of the fields compared for equality or for a prefix.
+        int fuzzyLength = prefix.length;
+        byte[] fuzzyKey = Arrays.copyOf(prefix, getMaxLength(schema, remaining, prefix.length));
+        byte[] fuzzyMask = new byte[fuzzyKey.length];
+        Arrays.fill(fuzzyMask, prefix.length, fuzzyMask.length, FUZZY_ANY_BYTE);
+
+        for (KeyFieldPredicate predicate : new ArrayList<KeyFieldPredicate>(remaining)) {
+            RowKeyField field = predicate.getField();
+
+            boolean isPrefix = predicate.getOperator() == Operator.StartsWith && predicate.getOperator().toFilter(negated) == CompareFilter.CompareOp.EQUAL;
+            if (isPrefix || field.isFixed() && isEquality(predicate, negated)) {
+                byte[] value = predicate.getValue();
+                if (field.isFixed() && value.length > field.getLength()) {
+                    // The field cannot start with a longer value.
+                    return createNoRowsFilter(scan);
+                }
+
+                int offset = schema.getOffset(field);
+                for (int i = 0 ; i < value.length ; i++) {
+                    if (fuzzyMask[offset + i] == FUZZY_FIXED_BYTE && fuzzyKey[offset + i] != value[i]) {
+                        return createNoRowsFilter(scan);
+                    }
+
+                    fuzzyKey[offset + i] = value[i];
+                    fuzzyMask[offset + i] = FUZZY_FIXED_BYTE;
+                }
+
+                fuzzyLength = Math.max(fuzzyLength, offset + value.length);
+                remaining.remove(predicate);
+            }
+        }
+
+        if (fuzzyLength > prefix.length) {
+            filters.add(
+                new FuzzyRowFilter(
+                    Collections.singletonList(new Pair<byte[], byte[]>(Arrays.copyOf(fuzzyKey, fuzzyLength), Arrays.copyOf(fuzzyMask, fuzzyLength)))));
+        }
+
+        for (KeyFieldPredicate predicate : remaining) {
+            Filter filter = createKeyFieldRegexFilter(schema, predicate, negated);
+            if (filter == null) {
+                return createNoRowsFilter(scan);
+            }
+            filters.add(filter);
+        }
+
+        if (filters.isEmpty()) {
+            return null;
+        }
+
+        if (filters.size() == 1) {
+            return filters.get(0);
+        }
+
+        return new FilterList(FilterList.Operator.MUST_PASS_ALL, filters);
+    }
+
+    /**
+     * Creates a filter comparing the column names. Only the cells of the matching columns are returned.
+     *
+     * @param operator The operator to compare with.
+     * @param negated  Indicates whether the filter should match the column names the operator does not match.
+     * @param word     The word to compare with.
+     * @param value    The word converted to a byte array.
+     * @return A filter.
+     */
+    public static Filter createQualifierFilter(Operator operator, boolean negated, String word, byte[] value) {
+        CompareFilter.CompareOp compareOp = operator.toFilter(negated);
+
+        if (operator == Operator.StartsWith && compareOp == CompareFilter.CompareOp.EQUAL && value != null) {
+            // Unlike the qualifier filter the column prefix filter seeks to the first matching column of the row.
+            return new ColumnPrefixFilter(value);
+        }
+
+        return new QualifierFilter(compareOp, operator.toComparator(word, value));
+    }
+
+    /**
+     * Creates a filter comparing the timestamps of the cells. The timestamps can be compared only for equality by a filter, the other
+     * comparisons narrow the time range of the scan and are possible only if the comparison is required by the whole query.
+     *
+     * @param operator  The operator to compare with.
+     * @param negated   Indicates whether the filter should match the timestamps the operator does not match.
+     * @param timestamp The timestamp to compare with.
+     * @param scan      The scan the time range of which can be narrowed or null if the comparison must be evaluated by a filter.
+     * @return A filter or null if the comparison is expressed by the time range of the scan.
+     * @throws IOException Error setting the time range of the scan.
+     */
+    public static Filter createTimestampFilter(Operator operator, boolean negated, long timestamp, Scan scan) throws IOException {
+        CompareFilter.CompareOp compareOp = operator.toFilter(negated);
+        if (scan == null) {
+            if (compareOp == CompareFilter.CompareOp.EQUAL) {
+                return new TimestampsFilter(Collections.singletonList(timestamp));
+            }
+
+            throw new IllegalArgumentException(
+                String.format("The timestamps can be compared with '%s' only if the comparison is required by the whole query.", compareOp));
+        }
+
+        TimeRange timeRange = scan.getTimeRange();
+
+        long min = timeRange.getMin();
+        long max = timeRange.getMax();
+
+        switch (compareOp) {
+            case LESS:
+                max = Math.min(max, timestamp);
+                break;
+            case LESS_OR_EQUAL:
+                max = Math.min(max, timestamp + 1);
+                break;
+            case EQUAL:
+                min = Math.max(min, timestamp);
+                max = Math.min(max, timestamp + 1);
+                break;
+            case GREATER_OR_EQUAL:
+                min = Math.max(min, timestamp);
+                break;
+            case GREATER:
+                min = Math.max(min, timestamp + 1);
+                break;
+            default:
+                throw new IllegalArgumentException(String.format("The timestamps cannot be compared with '%s'.", compareOp));
+        }
+
+        if (min >= max) {
+            // The time range cannot be empty.
+            return createEmptyFilter();
+        }
+
+        scan.setTimeRange(min, max);
+        return null;
+    }
+
+    /**
+     * Gets the smallest row key which does not start with the prefix.
+     *
+     * @param prefix The prefix of the keys.
+     * @return The stop row of the scan returning the keys starting with the prefix or an empty array if there is no such key.
+     */
+    public static byte[] getPrefixStopRow(byte[] prefix) {
+        for (int i = prefix.length - 1 ; i >= 0 ; i--) {
+            if (prefix[i] != (byte)0xFF) {
+                byte[] stopRow = Arrays.copyOf(prefix, i + 1);
+                stopRow[i]++;
+                return stopRow;
+            }
+        }
+        return HConstants.EMPTY_END_ROW;
+    }
+
+    /**
+     * Gets the smallest row key following the key.
+     *
+     * @param row The row key.
+     * @return The next row key.
+     */
+    public static byte[] getNextRow(byte[] row) {
+        // The trailing zero byte is added by the copy.
+        return Arrays.copyOf(row, row.length + 1);
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Narrows the key range of the scan to its intersection with the specified range.
+     *
+     * @param scan     The scan to update.
+     * @param startRow The inclusive start of the range or an empty array if the range is not bounded.
+     * @param stopRow  The exclusive end of the range or an empty array if the range is not bounded.
+     * @return True if the intersection is not empty or False otherwise. The scan is not updated if the intersection is empty.
+     */
+    private static boolean narrowKeyRange(Scan scan, byte[] startRow, byte[] stopRow) {
+        byte[] start = scan.getStartRow();
+        if (Bytes.compareTo(startRow, start) > 0) {
+            start = startRow;
+        }
+
+        byte[] stop = scan.getStopRow();
+        if (stop.length == 0 || stopRow.length > 0 && Bytes.compareTo(stopRow, stop) < 0) {
+            stop = stopRow;
+        }
+
+        if (stop.length > 0 && Bytes.compareTo(start, stop) >= 0) {
+            return false;
+        }
+
+        scan.setStartRow(start);
+        scan.setStopRow(stop);
+        return true;
+    }
+
+    /**
+     * Gets the index of the field starting at the specified offset of the keys. All the preceding fields must be of a fixed length.
+     *
+     * @param schema The schema of the keys.
+     * @param offset The offset of the field.
+     * @return The index of the field, the number of the fields if the offset is the end of the last field or -1 if no field starts at the offset.
+     */
+    private static int getFieldIndex(RowKeySchema schema, int offset) {
+        List<RowKeyField> fields = schema.getFields();
+        for (int i = 0, fieldOffset = 0 ; i <= fields.size() ; i++) {
+            if (fieldOffset == offset) {
+                return i;
+            }
+
+            if (i == fields.size() || !fields.get(i).isFixed() || fieldOffset > offset) {
+                break;
+            }
+            fieldOffset += fields.get(i).getLength();
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether the predicate compares the field for equality.
+     *
+     * @param predicate The predicate to check.
+     * @param negated   Indicates whether the predicate is negated.
+     * @return True if the predicate matches a single value of the field or False otherwise.
+     */
+    private static boolean isEquality(KeyFieldPredicate predicate, boolean negated) {
+        return predicate.getOperator() != Operator.StartsWith && predicate.getOperator().toFilter(negated) == CompareFilter.CompareOp.EQUAL;
+    }
+
+    /**
+     * Gets the length of the key part covered by the fields of a fixed length and the prefixes of the last field.
+     *
+     * @param schema     The schema of the keys.
+     * @param predicates The comparisons of the fields.
+     * @param minLength  The minimal length to return.
+     * @return The number of bytes.
+     */
+    private static int getMaxLength(RowKeySchema schema, List<KeyFieldPredicate> predicates, int minLength) {
+        int length = minLength;
+        for (KeyFieldPredicate predicate : predicates) {
+            length = Math.max(length, schema.getOffset(predicate.getField()) + predicate.getValue().length);
+        }
+        return length;
+    }
+
+    /**
+     * Creates a filter matching the keys by a regular expression over the bytes of the field. The bytes of the keys are converted to the
+     * characters one to one, so the ranges of the field values are expressed by the ranges of the characters.
+     *
+     * @param schema    The schema of the keys.
+     * @param predicate The comparison of the field.
+     * @param negated   Indicates whether the filter should match the keys the comparison does not match.
+     * @return A filter or null if no key can match the comparison.
+     */
+    private static Filter createKeyFieldRegexFilter(RowKeySchema schema, KeyFieldPredicate predicate, boolean negated) {
+        RowKeyField field = predicate.getField();
+        byte[] value = predicate.getValue();
+
+        StringBuilder regex = new StringBuilder("\\A");
+
+        int offset = schema.getOffset(field);
+        if (offset > 0) {
+            regex.append(".{").append(offset).append('}');
+        }
+
+        CompareFilter.CompareOp compareOp = predicate.getOperator().toFilter(negated);
+        CompareFilter.CompareOp matchOp = CompareFilter.CompareOp.EQUAL;
+
+        if (predicate.getOperator() == Operator.StartsWith) {
+            appendBytes(regex, value);
+            matchOp = compareOp;
+        }
+        else if (compareOp == CompareFilter.CompareOp.EQUAL || compareOp == CompareFilter.CompareOp.NOT_EQUAL) {
+            appendBytes(regex, value);
+            if (!field.isFixed()) {
+                regex.append("\\z");
+            }
+            matchOp = compareOp;
+        }
+        else {
+            if (!field.isFixed()) {
+                throw new IllegalArgumentException(
+                    String.format(
+                        "The key field '%s' can be compared with '%s' only if the preceding fields are compared for equality and the comparison is required by the whole query.",
+                        field.getName(), compareOp));
+            }
+
+            byte[] lower = new byte[value.length];
+            byte[] upper = new byte[value.length];
+            Arrays.fill(upper, (byte)0xFF);
+
+            switch (compareOp) {
+                case LESS:
+                    upper = decrement(value);
+                    break;
+                case LESS_OR_EQUAL:
+                    upper = value;
+                    break;
+                case GREATER_OR_EQUAL:
+                    lower = value;
+                    break;
+                case GREATER:
+                    lower = increment(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException(String.format("The key fields cannot be compared with '%s'.", compareOp));
+            }
+
+            if (lower == null || upper == null || Bytes.compareTo(lower, upper) > 0) {
+                return null;
+            }
+
+            appendRange(regex, lower, upper, 0);
+        }
+
+        RegexStringComparator comparator = new RegexStringComparator(regex.toString());
+        comparator.setCharset(KEY_CHARSET);
+
+        return new RowFilter(matchOp, comparator);
+    }
+
+    /**
+     * Appends a regular expression matching the byte arrays of the same length within the range.
+     *
+     * @param regex The regular expression to append to.
+     * @param lower The inclusive lower bound of the range.
+     * @param upper The inclusive upper bound of the range.
+     * @param index The index of the first byte to match.
+     */
+    private static void appendRange(StringBuilder regex, byte[] lower, byte[] upper, int index) {
+        if (index == lower.length) {
+            return;
+        }
+
+        if (lower[index] == upper[index]) {
+            appendByte(regex, lower[index] & 0xFF);
+            appendRange(regex, lower, upper, index + 1);
+            return;
+        }
+
+        if (isFilled(upper, index, (byte)0xFF)) {
+            appendLowerBound(regex, lower, index);
+            return;
+        }
+
+        if (isFilled(lower, index, (byte)0x00)) {
+            appendUpperBound(regex, upper, index);
+            return;
+        }
+
+        regex.append("(?:");
+        appendByte(regex, lower[index] & 0xFF);
+        appendLowerBound(regex, lower, index + 1);
+
+        if ((lower[index] & 0xFF) + 1 <= (upper[index] & 0xFF) - 1) {
+            regex.append('|');
+            appendByteRange(regex, (lower[index] & 0xFF) + 1, (upper[index] & 0xFF) - 1);
+            appendAnyBytes(regex, lower.length - index - 1);
+        }
+
+        regex.append('|');
+        appendByte(regex, upper[index] & 0xFF);
+        appendUpperBound(regex, upper, index + 1);
+        regex.append(')');
+    }
+
+    /**
+     * Appends a regular expression matching the byte arrays which are greater or equal to the lower bound.
+     *
+     * @param regex The regular expression to append to.
+     * @param lower The inclusive lower bound.
+     * @param index The index of the first byte to match.
+     */
+    private static void appendLowerBound(StringBuilder regex, byte[] lower, int index) {
+        if (isFilled(lower, index, (byte)0x00)) {
+            appendAnyBytes(regex, lower.length - index);
+            return;
+        }
+
+        regex.append("(?:");
+        appendByte(regex, lower[index] & 0xFF);
+        appendLowerBound(regex, lower, index + 1);
+
+        if ((lower[index] & 0xFF) < 0xFF) {
+            regex.append('|');
+            appendByteRange(regex, (lower[index] & 0xFF) + 1, 0xFF);
+            appendAnyBytes(regex, lower.length - index - 1);
+        }
+        regex.append(')');
+    }
+
+    /**
+     * Appends a regular expression matching the byte arrays which are less or equal to the upper bound.
+     *
+     * @param regex The regular expression to append to.
+     * @param upper The inclusive upper bound.
+     * @param index The index of the first byte to match.
+     */
+    private static void appendUpperBound(StringBuilder regex, byte[] upper, int index) {
+        if (isFilled(upper, index, (byte)0xFF)) {
+            appendAnyBytes(regex, upper.length - index);
+            return;
+        }
+
+        regex.append("(?:");
+        appendByte(regex, upper[index] & 0xFF);
+        appendUpperBound(regex, upper, index + 1);
+
+        if ((upper[index] & 0xFF) > 0) {
+            regex.append('|');
+            appendByteRange(regex, 0, (upper[index] & 0xFF) - 1);
+            appendAnyBytes(regex, upper.length - index - 1);
+        }
+        regex.append(')');
+    }
+
+    private static void appendBytes(StringBuilder regex, byte[] value) {
+        for (byte b : value) {
+            appendByte(regex, b & 0xFF);
+        }
+    }
+
+    private static void appendByte(StringBuilder regex, int value) {
+        regex.append(String.format("\\x%02x", value));
+    }
+
+    private static void appendByteRange(StringBuilder regex, int from, int to) {
+        if (from == to) {
+            appendByte(regex, from);
+        }
+        else {
+            regex.append('[');
+            appendByte(regex, from);
+            regex.append('-');
+            appendByte(regex, to);
+            regex.append(']');
+        }
+    }
+
+    private static void appendAnyBytes(StringBuilder regex, int count) {
+        if (count > 0) {
+            regex.append(".{").append(count).append('}');
+        }
+    }
+
+    private static boolean isFilled(byte[] value, int index, byte filler) {
+        for (int i = index ; i < value.length ; i++) {
+            if (value[i] != filler) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the next byte array of the same length.
+     *
+     * @param value The byte array to increment.
+     * @return The incremented byte array or null if all the bytes are 0xFF.
+     */
+    private static byte[] increment(byte[] value) {
+        byte[] result = Arrays.copyOf(value, value.length);
+        for (int i = result.length - 1 ; i >= 0 ; i--) {
+            if (result[i] != (byte)0xFF) {
+                result[i]++;
+                return result;
+            }
+            result[i] = 0x00;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the previous byte array of the same length.
+     *
+     * @param value The byte array to decrement.
+     * @return The decremented byte array or null if all the bytes are 0x00.
+     */
+    private static byte[] decrement(byte[] value) {
+        byte[] result = Arrays.copyOf(value, value.length);
+        for (int i = result.length - 1 ; i >= 0 ; i--) {
+            if (result[i] != 0x00) {
+                result[i]--;
+                return result;
+            }
+            result[i] = (byte)0xFF;
+        }
+        return null;
+    }
+
+    /**
+     * Creates a filter matching no rows. The filter ends the scan only if it is required by the whole query.
+     *
+     * @param scan The scan the filter is going to be used with or null if the filter is not required by the whole query.
+     * @return A filter.
+     */
+    private static Filter createNoRowsFilter(Scan scan) {
+        if (scan != null) {
+            return createEmptyFilter();
+        }
+
+        // The empty look ahead does not match any key.
+        return new RowFilter(CompareFilter.CompareOp.EQUAL, new RegexStringComparator("(?!)"));
+    }
+
+    /**
+     * Creates a filter matching no rows.
+     *
+     * @return A filter.
+     */
+    private static Filter createEmptyFilter() {
+        // The filter ends the scan before the first row.
+        return new PageFilter(0);
+    }
+    //endregion
+}
@@ -2,11 +2,11 @@ package hrider.hbase;
 
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.Scan;
-import org.apache.hadoop.hbase.filter.*;
 import org.apache.hadoop.hbase.util.Bytes;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.NavigableSet;
 
 /**
  * Copyright (C) 2012 NICE Systems ltd.
@@ -30,14 +30,6 @@ import java.nio.ByteBuffer;
  */
 public class QueryScanner extends Scanner {
 
-    //region Constants
-    /**
-     * A constant representing a size of the unicode character.
-     */
-    private static final int    UNICODE_CHAR_SIZE = 4;
-    private static final byte[] EMPTY_BYTES_ARRAY = new byte[0];
-    //endregion
-
     //region Variables
     /**
      * A query to be used with he scanner.
@@ -84,9 +76,6 @@ public class QueryScanner extends Scanner {
         }
         this.query = query;
     }
-    //endregion
-
-    //region Protected Methods
 
     /**
      * Gets an hbase scanner.
@@ -95,61 +84,31 @@ public class QueryScanner extends Scanner {
      * @throws IOException Error accessing hbase.
      */
     @Override
-    protected Scan getScanner() throws IOException {
+    public Scan getScanner() throws IOException {
         Scan scan = super.getScanner();
 
         if (this.query != null) {
-            if (this.query.getStartKey() != null) {
-                scan.setStartRow(this.query.getStartKey());
-            }
-
-            if (this.query.getEndKey() != null) {
-                scan.setStopRow(padWithMaxUnicode(this.query.getEndKey()));
-            }
-
-            if (this.query.getStartDate() != null && this.query.getEndDate() != null) {
-                scan.setTimeRange(this.query.getStartDate().getTime(), this.query.getEndDate().getTime());
-            }
-
-            if (this.query.getWord() != null || this.query.getOperator().isUnary()) {
-            	ByteArrayComparable comparator;
-
-                switch (this.query.getOperator()) {
-                    case Contains:
-                        comparator = new SubstringComparator(this.query.getWord());
-                        break;
-                    case StartsWith:
-                        comparator = new RegexStringComparator(String.format("^%s.*", this.query.getWord()));
-                        break;
-                    case EndsWith:
-                        comparator = new RegexStringComparator(String.format(".*%s$", this.query.getWord()));
-                        break;
-                    case Less:
-                    case LessOrEqual:
-                    case Equal:
-                    case NotEqual:
-                    case GreaterOrEqual:
-                    case Greater:
-                        comparator = new BinaryComparator(this.query.getWordAsByteArray());
-                        break;
-                    case IsNull:
-                    case IsNotNull:
-                        comparator = new BinaryComparator(EMPTY_BYTES_ARRAY);
-                        break;
-                    default:
-                        throw new IllegalArgumentException(String.format("The specified operator type '%s' is not supported.", this.query.getOperator()));
-                }
-
-                scan.setFilter(
-                    new SingleColumnValueFilter(
-                        Bytes.toBytesBinary(this.query.getFamily()), Bytes.toBytesBinary(this.query.getColumn()), this.query.getOperator().toFilter(),
-                        comparator));
-            }
+            QueryPlanner.plan(this.query, scan);
         }
-
         return scan;
     }
 
+    /**
+     * Gets an hbase scanner of the rows which keys start with the specified prefix. The start and the end keys of the query and the words
+     * compared with the row keys do not include the prefix.
+     *
+     * @param keyPrefix The prefix of the row keys.
+     * @return An hbase scanner.
+     * @throws IOException Error accessing hbase.
+     */
+    @Override
+    public Scan getScanner(byte[] keyPrefix) throws IOException {
+        if (this.query == null) {
+            return super.getScanner(keyPrefix);
+        }
+        return QueryPlanner.plan(this.query, new Scan(), keyPrefix);
+    }
+
     /**
      * Checks if the row is valid according to the query. If a query is done on a specific column and the row does not contain this column the row
      * is considered invalid.
@@ -158,7 +117,7 @@ public class QueryScanner extends Scanner {
      * @return True if the query doesn't have a specific column or a row contains the column used with the query or False otherwise.
      */
     @Override
-    protected boolean isValidRow(Result row) {
+    public boolean isValidRow(Result row) {
         Query localQuery = this.query;
         if (localQuery != null && localQuery.getWord() != null) {
             return row.containsColumn(Bytes.toBytesBinary(localQuery.getFamily()), Bytes.toBytesBinary(localQuery.getColumn()));
@@ -167,22 +126,19 @@ public class QueryScanner extends Scanner {
     }
     //endregion
 
-    //region Private Methods
+    //region Protected Methods
 
     /**
-     * Adds additional 4 bytes to the end key byte array. This prevents the scan go further than the end key.
+     * Adds the column used with the query. The column is required to validate the rows even if it is not projected.
      *
-     * @param endKey The end key to update.
-     * @return A new byte array containing extra bytes.
+     * @param columns The map of the column families to the column names to add the columns to.
      */
-    private static byte[] padWithMaxUnicode(byte[] endKey) {
-        ByteBuffer buffer = ByteBuffer.allocate(endKey.length + UNICODE_CHAR_SIZE);
-        buffer.put(endKey);
-        buffer.put(Byte.MAX_VALUE);
-        buffer.put(Byte.MAX_VALUE);
-        buffer.put(Byte.MAX_VALUE);
-        buffer.put(Byte.MAX_VALUE);
-        return buffer.array();
+    @Override
+    protected void addRequiredColumns(Map<byte[], NavigableSet<byte[]>> columns) {
+        Query localQuery = this.query;
+        if (localQuery != null && localQuery.getWord() != null) {
+            addColumn(columns, Bytes.toBytesBinary(localQuery.getFamily()), Bytes.toBytesBinary(localQuery.getColumn()));
+        }
     }
     //endregion
 }
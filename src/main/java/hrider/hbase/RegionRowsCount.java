@@ -0,0 +1,128 @@
+package hrider.hbase;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents the number of rows counted in a single region of the table.
+ */
+public class RegionRowsCount {
+
+    //region Variables
+    /**
+     * The key range of the region that was counted.
+     */
+    private final KeyRange range;
+    /**
+     * The number of rows counted so far.
+     */
+    private volatile long  count;
+    /**
+     * Indicates whether the whole region has been scanned.
+     */
+    private volatile boolean exact;
+    /**
+     * The estimated number of rows in the region. Equals to the count if the region was fully scanned.
+     */
+    private volatile long  estimate;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link RegionRowsCount} class.
+     *
+     * @param range The key range of the region.
+     */
+    public RegionRowsCount(KeyRange range) {
+        this.range = range;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the key range of the region.
+     *
+     * @return A key range.
+     */
+    public KeyRange getRange() {
+        return this.range;
+    }
+
+    /**
+     * Gets the number of rows counted in the region.
+     *
+     * @return The number of rows.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Indicates whether the count is exact, meaning the whole region has been scanned before the timeout.
+     *
+     * @return True if the count is exact or False if the count only represents the lower bound.
+     */
+    public boolean isExact() {
+        return this.exact;
+    }
+
+    /**
+     * Gets the estimated number of rows in the region. For the exact counts the estimation is equal to the count.
+     *
+     * @return The estimated number of rows.
+     */
+    public long getEstimate() {
+        return this.exact ? this.count : Math.max(this.count, this.estimate);
+    }
+    //endregion
+
+    //region Package Methods
+
+    /**
+     * Increments the number of counted rows. The method is called by a single worker thread only.
+     */
+    @SuppressWarnings("NonAtomicOperationOnVolatileField")
+    void increment() {
+        this.count++;
+    }
+
+    /**
+     * Marks the region as fully scanned.
+     */
+    void complete() {
+        this.exact = true;
+    }
+
+    /**
+     * Sets the estimated number of rows for the region that was not fully scanned.
+     *
+     * @param estimate The estimated number of rows.
+     */
+    void setEstimate(long estimate) {
+        this.estimate = estimate;
+    }
+    //endregion
+
+    //region Public Methods
+    @Override
+    public String toString() {
+        return String.format("%s: %s%s", this.range, this.exact ? "" : "~", getEstimate());
+    }
+    //endregion
+}
@@ -0,0 +1,245 @@
+package hrider.hbase;
+
+import hrider.actions.FutureUtils;
+import hrider.actions.NamedThreadFactory;
+import hrider.io.Log;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class counts the rows of the table. The scan is split by the region boundaries and each region is counted concurrently
+ *          on a bounded pool of worker threads, so the operation scales with the number of region servers rather than being limited by
+ *          a single scanner.
+ */
+public class RowsCounter {
+
+    //region Constants
+    private static final Log logger = Log.getLogger(RowsCounter.class);
+    //endregion
+
+    //region Variables
+    /**
+     * The connection used to access the table.
+     */
+    private Connection connection;
+    /**
+     * The name of the table to count.
+     */
+    private String     tableName;
+    /**
+     * The maximum number of regions to be counted at the same time.
+     */
+    private int        threads;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link RowsCounter} class.
+     *
+     * @param connection The connection to hbase.
+     * @param tableName  The name of the table to count.
+     * @param threads    The maximum number of regions to be counted concurrently.
+     */
+    public RowsCounter(Connection connection, String tableName, int threads) {
+        this.connection = connection;
+        this.tableName = tableName;
+        this.threads = Math.max(1, threads);
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Counts the rows matching the provided scan. The scan is executed once per region overlapping its start/stop rows.
+     *
+     * @param scan     The scan to use as a template for all regions. The filters of the scan are preserved.
+     * @param timeout  The amount of time in milliseconds to wait before stopping the operation. The regions that were not completed
+     *                 by that time report the number of rows counted so far and an estimated number of rows.
+     * @param listener A listener to be notified each time a region has been counted. Can be null.
+     * @return A list of counted regions sorted by the region start key.
+     * @throws IOException Error accessing hbase.
+     */
+    public List<RegionRowsCount> count(Scan scan, long timeout, RowsCountListener listener) throws IOException {
+        return count(Collections.singletonList(scan), timeout, listener);
+    }
+
+    /**
+     * Counts the rows matching any of the provided scans, for example the scans of the buckets of a salted table. The key ranges of the scans
+     * should not overlap. Each scan is executed once per region overlapping its start/stop rows and all the regions are counted concurrently.
+     *
+     * @param scans    The scans to use as templates for the regions, sorted by the start row. The filters of the scans are preserved.
+     * @param timeout  The amount of time in milliseconds to wait before stopping the operation. The regions that were not completed
+     *                 by that time report the number of rows counted so far and an estimated number of rows.
+     * @param listener A listener to be notified each time a region has been counted. Can be null.
+     * @return A list of counted regions sorted by the region start key.
+     * @throws IOException Error accessing hbase.
+     */
+    public List<RegionRowsCount> count(List<Scan> scans, long timeout, RowsCountListener listener) throws IOException {
+        StorageTable table = this.connection.getTableFactory().get(this.tableName);
+
+        List<RegionRowsCount> regions = new ArrayList<RegionRowsCount>();
+        List<Scan> regionScans = new ArrayList<Scan>();
+
+        for (Scan scan : scans) {
+            for (KeyRange range : KeyRange.split(table, scan.getStartRow(), scan.getStopRow())) {
+                regions.add(new RegionRowsCount(range));
+                regionScans.add(scan);
+            }
+        }
+
+        if (regions.isEmpty()) {
+            return regions;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+            Math.min(this.threads, regions.size()), new NamedThreadFactory(this.tableName + "-rowsCount"));
+
+        CompletionService<RegionRowsCount> completionService = new ExecutorCompletionService<RegionRowsCount>(executor);
+
+        long deadline = System.currentTimeMillis() + timeout;
+        for (int i = 0 ; i < regions.size() ; i++) {
+            completionService.submit(new RegionCounter(regions.get(i), regionScans.get(i), deadline));
+        }
+
+        try {
+            long total = 0;
+            for (int completed = 0 ; completed < regions.size() ; completed++) {
+                long wait = deadline - System.currentTimeMillis();
+
+                Future<RegionRowsCount> future = wait > 0 ? completionService.poll(wait, TimeUnit.MILLISECONDS) : completionService.poll();
+                if (future == null) {
+                    break;
+                }
+
+                RegionRowsCount region = FutureUtils.getResult(future);
+                total += region.getCount();
+
+                if (listener != null) {
+                    listener.onRegionCounted(region, total);
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("Rows count of the table '%s' has been interrupted.", this.tableName));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        estimate(regions);
+
+        return regions;
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Sets the estimated number of rows for the regions that were not completed. The estimation is based on the average number
+     * of rows in the completed regions since regions are split by size and tend to hold similar numbers of rows.
+     *
+     * @param regions The counted regions.
+     */
+    private static void estimate(Iterable<RegionRowsCount> regions) {
+        long exactRows = 0;
+        int exactRegions = 0;
+
+        for (RegionRowsCount region : regions) {
+            if (region.isExact()) {
+                exactRows += region.getCount();
+                exactRegions++;
+            }
+        }
+
+        if (exactRegions > 0) {
+            long average = exactRows / exactRegions;
+            for (RegionRowsCount region : regions) {
+                if (!region.isExact()) {
+                    region.setEstimate(average);
+                }
+            }
+        }
+    }
+    //endregion
+
+    /**
+     * Counts the rows of a single region.
+     */
+    private class RegionCounter implements Callable<RegionRowsCount> {
+
+        //region Variables
+        private RegionRowsCount region;
+        private Scan            scan;
+        private long            deadline;
+        //endregion
+
+        //region Constructor
+        private RegionCounter(RegionRowsCount region, Scan scan, long deadline) {
+            this.region = region;
+            this.scan = scan;
+            this.deadline = deadline;
+        }
+        //endregion
+
+        //region Public Methods
+        @Override
+        public RegionRowsCount call() throws IOException {
+            Scan regionScan = new Scan(this.scan);
+            regionScan.setStartRow(this.region.getRange().getStartKey());
+            regionScan.setStopRow(this.region.getRange().getStopKey());
+
+            // StorageTable is not thread safe, each worker uses its own instance.
+            StorageTable table = connection.getTableFactory().create(tableName);
+            try {
+                ResultScanner scanner = table.getScanner(regionScan);
+                try {
+                    for (Result result = scanner.next() ; result != null ; result = scanner.next()) {
+                        this.region.increment();
+
+                        if (System.currentTimeMillis() > this.deadline || Thread.currentThread().isInterrupted()) {
+                            logger.info("Rows count of the region %s stopped after %d rows.", this.region.getRange(), this.region.getCount());
+                            return this.region;
+                        }
+                    }
+
+                    this.region.complete();
+                    return this.region;
+                }
+                finally {
+                    scanner.close();
+                }
+            }
+            finally {
+                table.close();
+            }
+        }
+        //endregion
+    }
+}
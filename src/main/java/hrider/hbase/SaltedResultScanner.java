@@ -0,0 +1,369 @@
+package hrider.hbase;
+
+import hrider.actions.NamedThreadFactory;
+import hrider.config.GlobalConfig;
+import hrider.io.Log;
+import org.apache.hadoop.hbase.client.AbstractClientScanner;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents an hbase scanner over a table which row keys are prefixed with a salt, the number of the hash bucket of the
+ *          key. The rows of a range of the unsalted keys are spread over all the buckets, so one scan per bucket is executed concurrently and
+ *          the rows returned by the scans are merged by their unsalted keys. The rows with the same unsalted key are returned in the order of
+ *          the buckets. The next batch of each bucket is fetched in the background while the current one is merged.
+ */
+public class SaltedResultScanner extends AbstractClientScanner {
+
+    //region Constants
+    private static final Log logger = Log.getLogger(SaltedResultScanner.class);
+    //endregion
+
+    //region Variables
+    /**
+     * The connection to the cluster.
+     */
+    private Connection      connection;
+    /**
+     * The name of the table to scan.
+     */
+    private String          tableName;
+    /**
+     * The number of the leading bytes of the row keys holding the salt.
+     */
+    private int             saltWidth;
+    /**
+     * The buckets which have not been exhausted yet ordered by the unsalted key of their current row.
+     */
+    private Queue<Bucket>   heads;
+    /**
+     * All the buckets of the scan.
+     */
+    private List<Bucket>    buckets;
+    /**
+     * The executor used to fetch the rows of the buckets.
+     */
+    private ExecutorService executor;
+    /**
+     * Indicates whether the first batches of the buckets have been merged.
+     */
+    private boolean         started;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link SaltedResultScanner} class. The scans of the buckets are started immediately.
+     *
+     * @param connection The connection to the cluster.
+     * @param tableName  The name of the table to scan.
+     * @param scans      The scans of the buckets, one per bucket in the order of the salts. The number of rows fetched by a single call is taken
+     *                   from the caching of the scan.
+     * @param saltWidth  The number of the leading bytes of the row keys holding the salt.
+     * @param threads    The maximum number of the buckets fetched concurrently.
+     */
+    public SaltedResultScanner(Connection connection, String tableName, List<Scan> scans, int saltWidth, int threads) {
+        this.connection = connection;
+        this.tableName = tableName;
+        this.saltWidth = saltWidth;
+        this.buckets = new ArrayList<Bucket>(scans.size());
+        this.heads = new PriorityQueue<Bucket>(
+            Math.max(1, scans.size()), new Comparator<Bucket>() {
+                @Override
+                public int compare(Bucket o1, Bucket o2) {
+                    return compareRows(o1.head().getRow(), o2.head().getRow());
+                }
+            });
+
+        this.executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, scans.size())), new NamedThreadFactory(tableName + "-salted"));
+
+        for (Scan scan : scans) {
+            Bucket bucket = new Bucket(scan);
+            bucket.fetch();
+
+            this.buckets.add(bucket);
+        }
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Gets the salt of the specified bucket. The number of the bucket is written in big endian order to the specified number of bytes.
+     *
+     * @param bucket The number of the bucket.
+     * @param width  The number of bytes of the salt.
+     * @return The salt.
+     */
+    public static byte[] getSalt(int bucket, int width) {
+        byte[] salt = new byte[width];
+        for (int i = width - 1, value = bucket ; i >= 0 ; i--, value >>>= 8) {
+            salt[i] = (byte)value;
+        }
+        return salt;
+    }
+
+    @Override
+    public synchronized Result next() throws IOException {
+        if (!this.started) {
+            // The first batches of all the buckets are fetched concurrently.
+            for (Bucket bucket : this.buckets) {
+                if (bucket.advance()) {
+                    this.heads.add(bucket);
+                }
+            }
+            this.started = true;
+        }
+
+        Bucket bucket = this.heads.poll();
+        if (bucket == null) {
+            return null;
+        }
+
+        Result result = bucket.head();
+        if (bucket.advance()) {
+            this.heads.add(bucket);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Bucket bucket : this.buckets) {
+            bucket.cancel();
+        }
+
+        this.executor.shutdown();
+        this.heads.clear();
+
+        try {
+            // The scanners are opened by the fetches, they can be closed only after the running fetches complete.
+            this.executor.awaitTermination(GlobalConfig.instance().getScannerLeaseTimeout(), TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            for (Bucket bucket : this.buckets) {
+                bucket.close();
+            }
+        }
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Compares the row keys by their unsalted parts first and by their salts next.
+     *
+     * @param left  The first key.
+     * @param right The second key.
+     * @return A negative number, zero or a positive number if the first key is less than, equal to or greater than the second key.
+     */
+    private int compareRows(byte[] left, byte[] right) {
+        int leftOffset = Math.min(this.saltWidth, left.length);
+        int rightOffset = Math.min(this.saltWidth, right.length);
+
+        int result = Bytes.compareTo(left, leftOffset, left.length - leftOffset, right, rightOffset, right.length - rightOffset);
+        if (result != 0) {
+            return result;
+        }
+        return Bytes.compareTo(left, 0, leftOffset, right, 0, rightOffset);
+    }
+    //endregion
+
+    /**
+     * Represents the scan of a single bucket. The bucket holds the current batch of rows and the fetch of the next batch.
+     */
+    private class Bucket {
+
+        //region Variables
+        /**
+         * The scan of the bucket.
+         */
+        private Scan                   scan;
+        /**
+         * The table the bucket is scanned with. The table is created by the first fetch.
+         */
+        private volatile StorageTable  table;
+        /**
+         * The hbase scanner of the bucket. The scanner is opened by the first fetch.
+         */
+        private volatile ResultScanner scanner;
+        /**
+         * The rows of the current batch.
+         */
+        private Result[]               batch;
+        /**
+         * The index of the current row in the batch.
+         */
+        private int                    index;
+        /**
+         * The fetch of the next batch or null if the end of the bucket has been reached.
+         */
+        private Future<Result[]>       next;
+        //endregion
+
+        //region Constructor
+
+        /**
+         * Initializes a new instance of the {@link Bucket} class.
+         *
+         * @param scan The scan of the bucket.
+         */
+        private Bucket(Scan scan) {
+            this.scan = scan;
+            this.batch = new Result[0];
+        }
+        //endregion
+
+        //region Public Methods
+
+        /**
+         * Gets the current row of the bucket.
+         *
+         * @return The current row.
+         */
+        public Result head() {
+            return this.batch[this.index];
+        }
+
+        /**
+         * Moves to the next row of the bucket. The method waits for the next batch if the current batch has been consumed.
+         *
+         * @return True if the bucket has a current row or False if the end of the bucket has been reached.
+         * @throws IOException Error accessing hbase.
+         */
+        public boolean advance() throws IOException {
+            if (this.index + 1 < this.batch.length) {
+                this.index++;
+                return true;
+            }
+
+            if (this.next == null) {
+                return false;
+            }
+
+            this.batch = await();
+            this.index = 0;
+
+            if (this.batch.length == 0) {
+                return false;
+            }
+
+            fetch();
+            return true;
+        }
+
+        /**
+         * Starts fetching the next batch of rows in the background.
+         */
+        public void fetch() {
+            final int rowsNumber = this.scan.getCaching() > 0 ? this.scan.getCaching() : GlobalConfig.instance().getBatchSizeForRead();
+
+            this.next = executor.submit(
+                new Callable<Result[]>() {
+                    @Override
+                    public Result[] call() throws Exception {
+                        if (scanner == null) {
+                            // StorageTable is not thread safe, each bucket uses its own instance.
+                            table = connection.getTableFactory().create(tableName);
+                            scanner = table.getScanner(scan);
+                        }
+                        return scanner.next(rowsNumber);
+                    }
+                });
+        }
+
+        /**
+         * Cancels the fetch of the next batch if any.
+         */
+        public void cancel() {
+            if (this.next != null) {
+                this.next.cancel(false);
+                this.next = null;
+            }
+        }
+
+        /**
+         * Closes the hbase scanner and the table of the bucket if they have been opened.
+         */
+        public void close() {
+            try {
+                if (this.scanner != null) {
+                    this.scanner.close();
+                    this.scanner = null;
+                }
+            }
+            finally {
+                if (this.table != null) {
+                    try {
+                        this.table.close();
+                    }
+                    catch (IOException e) {
+                        logger.warn(e, "Failed to close the table '%s'.", tableName);
+                    }
+                    this.table = null;
+                }
+            }
+        }
+        //endregion
+
+        //region Private Methods
+
+        /**
+         * Waits for the fetch of the next batch to complete.
+         *
+         * @return The fetched rows.
+         * @throws IOException Error accessing hbase.
+         */
+        private Result[] await() throws IOException {
+            Future<Result[]> future = this.next;
+            this.next = null;
+
+            try {
+                return future.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Fetch of the rows of the bucket has been interrupted.");
+            }
+            catch (ExecutionException e) {
+                logger.error(e.getCause(), "Failed to fetch the rows of the bucket.");
+
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException)e.getCause();
+                }
+                throw new IOException(e.getCause());
+            }
+            catch (CancellationException ignore) {
+                return new Result[0];
+            }
+        }
+        //endregion
+    }
+}
@@ -4,16 +4,17 @@ import hrider.config.GlobalConfig;
 import hrider.converters.TypeConverter;
 import hrider.data.*;
 import hrider.ui.MessageHandler;
-import org.apache.commons.lang.time.StopWatch;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.HTableDescriptor;
-import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
-import org.apache.hadoop.hbase.filter.FilterList;
-import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.*;
+import org.apache.hadoop.hbase.io.TimeRange;
+import org.apache.hadoop.hbase.util.Bytes;
 
 import java.io.IOException;
 import java.util.*;
@@ -59,6 +60,10 @@ public class Scanner {
      * Holds a rows number in the table if the calculation has not been completed because of the timeout.
      */
     private long                    partialRowsCount;
+    /**
+     * Holds an estimated number of rows in the table if the calculation has not been completed because of the timeout.
+     */
+    private long                    estimatedRowsCount;
     /**
      * The number of the last loaded row.
      */
@@ -83,6 +88,47 @@ public class Scanner {
      * Represents a converter for column names.
      */
     private TypeConverter           columnNameConverter;
+    /**
+     * The registry of the columns loaded from the table.
+     */
+    private ColumnQualifierRegistry columnRegistry;
+    /**
+     * The hbase scanner kept open between the pages.
+     */
+    private ScannerSession          session;
+    /**
+     * The position of the first row returned by the session or -1 if the position is not known.
+     */
+    private long                    sessionPosition;
+    /**
+     * The number of valid rows consumed from the session since it has been opened.
+     */
+    private long                    sessionRows;
+    /**
+     * The sparse index of the row keys used to jump to an arbitrary row.
+     */
+    private PageIndex               pageIndex;
+    /**
+     * Indicates whether the rows are counted from the beginning of the scan. If the scan has been reset to a specific key
+     * the positions of the rows are relative to that key and cannot be indexed.
+     */
+    private boolean                 absolutePositions;
+    /**
+     * The listener to be notified about the rows of a page as they are loaded.
+     */
+    private volatile PageLoadListener loadListener;
+    /**
+     * The columns the pages are loaded with or null if the pages are loaded with all the columns.
+     */
+    private List<ColumnQualifier>   projection;
+    /**
+     * The number of the hash buckets the row keys are salted with or 0 if the keys are not salted.
+     */
+    private int                     saltBuckets;
+    /**
+     * The number of the leading bytes of the row keys holding the bucket.
+     */
+    private int                     saltWidth;
     //endregion
 
     //region Constructor
@@ -99,6 +145,8 @@ public class Scanner {
         this.rowsCount = 0;
         this.lastRow = 0;
         this.markers = new Stack<Marker>();
+        this.pageIndex = new PageIndex(GlobalConfig.instance().getScannerIndexInterval());
+        this.absolutePositions = true;
     }
     //endregion
 
@@ -158,6 +206,16 @@ public class Scanner {
         return this.partialRowsCount > 0;
     }
 
+    /**
+     * Gets the estimated number of rows in the table. If the rows count has been completed the estimation is equal to the rows count.
+     * Otherwise the regions that were not fully counted are extrapolated from the completed ones.
+     *
+     * @return The estimated number of rows.
+     */
+    public long getEstimatedRowsCount() {
+        return Math.max(this.rowsCount, this.estimatedRowsCount);
+    }
+
     /**
      * Gets a list of columns. If there is no columns at this moment they will be loaded according to the provided rows number. In other words only columns
      * of loaded rows will be returned.
@@ -166,7 +224,8 @@ public class Scanner {
      * @return A list of columns.
      */
     public Collection<ColumnQualifier> getColumns(int rowsNumber) {
-        if (this.markers.isEmpty() || peekMarker().columns.size() != rowsNumber) {
+        // The rows of the pages hold only the projected columns.
+        if (this.markers.isEmpty() || this.projection != null || peekMarker().columns.size() != rowsNumber) {
             try {
                 return loadColumns(rowsNumber);
             }
@@ -198,6 +257,114 @@ public class Scanner {
         this.columnTypes = columnTypes;
     }
 
+    /**
+     * Gets the converter used to convert the column names.
+     *
+     * @return The column name converter or null if the default converter is used.
+     */
+    public TypeConverter getColumnNameConverter() {
+        return this.columnNameConverter;
+    }
+
+    /**
+     * Sets the listener to be notified about the rows of the pages loaded by {@link #current(long, int)} and {@link #next(int)} as they
+     * arrive from the cluster.
+     *
+     * @param listener The listener or null to stop the notifications.
+     */
+    public void setLoadListener(PageLoadListener listener) {
+        this.loadListener = listener;
+    }
+
+    /**
+     * Gets the columns the pages are loaded with.
+     *
+     * @return The list of columns or null if the pages are loaded with all the columns.
+     */
+    public Collection<ColumnQualifier> getProjection() {
+        return this.projection;
+    }
+
+    /**
+     * Sets the columns the pages loaded by {@link #current(long, int)} and {@link #next(int)} should be loaded with. The rest of the
+     * columns are not transferred from the cluster. The rows without any of the columns are still loaded, so the positions of the rows do not
+     * depend on the projection.
+     *
+     * @param columns The columns to load or null to load all the columns.
+     */
+    public void setProjection(Collection<ColumnQualifier> columns) {
+        if (columns == null ? this.projection == null :
+            this.projection != null && this.projection.size() == columns.size() && this.projection.containsAll(columns)) {
+            return;
+        }
+
+        // The loaded rows and the open hbase scanner have been fetched with the previous columns.
+        closeSession();
+
+        this.current = null;
+        this.projection = columns != null ? new ArrayList<ColumnQualifier>(columns) : null;
+    }
+
+    /**
+     * Indicates whether the row keys of the table are prefixed with a salt.
+     *
+     * @return True if the rows are scanned by buckets or False otherwise.
+     */
+    public boolean isSalted() {
+        return this.saltBuckets > 1;
+    }
+
+    /**
+     * Gets the number of the hash buckets the row keys are salted with.
+     *
+     * @return The number of the buckets or 0 if the keys are not salted.
+     */
+    public int getSaltBuckets() {
+        return this.saltBuckets;
+    }
+
+    /**
+     * Gets the number of the leading bytes of the row keys holding the bucket.
+     *
+     * @return The number of bytes.
+     */
+    public int getSaltWidth() {
+        return this.saltWidth;
+    }
+
+    /**
+     * Sets the salting of the row keys. The keys of a salted table start with the number of the hash bucket of the key written in big endian
+     * order to the specified number of bytes. The rows of a salted table are scanned by one scan per bucket, the scans are executed concurrently
+     * and the rows are merged by their unsalted keys, so the pages show the rows ordered by the unsalted keys. The start and the end keys of the
+     * scan and the words compared with the row keys do not include the salt.
+     *
+     * @param buckets The number of the buckets or 0 if the keys are not salted.
+     * @param width   The number of the leading bytes of the keys holding the bucket.
+     */
+    public void setSalting(int buckets, int width) {
+        if (buckets > 1) {
+            if (width < 1 || width > 4) {
+                throw new IllegalArgumentException(String.format("The salt width must be between 1 and 4 bytes, %d is specified.", width));
+            }
+
+            if (width < 4 && buckets > 1 << 8 * width) {
+                throw new IllegalArgumentException(String.format("%d buckets cannot be held by %d bytes of the salt.", buckets, width));
+            }
+        }
+        else {
+            buckets = 0;
+            width = 0;
+        }
+
+        if (this.saltBuckets != buckets || this.saltWidth != width) {
+            // The loaded rows and the markers are ordered by the previous keys.
+            resetCurrent(null);
+
+            this.saltBuckets = buckets;
+            this.saltWidth = width;
+        }
+    }
+
     /**
      * Gets the last loaded row number.
      *
@@ -276,6 +443,10 @@ public class Scanner {
     public void updateColumnNameConverter(TypeConverter converter) {
         this.columnNameConverter = converter;
 
+        if (this.columnRegistry != null) {
+            this.columnRegistry.setNameConverter(getColumnNameConverterInternal());
+        }
+
         Collection<DataRow> rows = this.current;
         if (rows != null) {
             for (DataRow row : rows) {
@@ -290,10 +461,19 @@ public class Scanner {
      * @param startKey The key the scan should start from. This parameter can be null.
      */
     public void resetCurrent(ConvertibleObject startKey) {
+        closeSession();
+
         this.current = null;
         this.rowsCount = 0;
         this.lastRow = 0;
         this.markers.clear();
+        this.pageIndex.clear();
+        this.absolutePositions = startKey == null;
+
+        if (this.columnRegistry != null) {
+            // The table structure could have been changed.
+            this.columnRegistry.clear();
+        }
 
         if (startKey != null) {
             this.markers.push(new Marker(startKey, new ArrayList<DataRow>(), new ArrayList<ColumnQualifier>()));
@@ -307,10 +487,7 @@ public class Scanner {
      * @throws IOException Error accessing hbase.
      */
     public DataRow getFirstRow() throws IOException {
-        Scan scan = getScanner();
-
-        HTable table = this.connection.getTableFactory().get(this.tableName);
-        ResultScanner scanner = table.getScanner(scan);
+        ResultScanner scanner = openScanner(createScans(null, 0));
 
         try {
             Collection<DataRow> rows = new LinkedList<DataRow>();
@@ -369,6 +546,7 @@ public class Scanner {
             }
 
             this.markers.clear();
+            this.absolutePositions = true;
             this.current = next(offset - 1, rowsNumber);
             this.lastRow = offset + this.current.size() - 1;
         }
@@ -421,73 +599,274 @@ public class Scanner {
      * @throws IOException Error accessing hbase.
      */
     public long getRowsCount(long timeout) throws IOException {
+        return getRowsCount(timeout, null);
+    }
+
+    /**
+     * Gets the total number of rows in the table. The table is counted region by region concurrently and the listener is notified each time
+     * a region is counted. This value is then cached for future uses.
+     *
+     * @param timeout  The amount of time to wait for the count to complete.
+     * @param listener A listener to be notified about the count progress. Can be null.
+     * @return A total number of rows in the table.
+     * @throws IOException Error accessing hbase.
+     */
+    public long getRowsCount(long timeout, RowsCountListener listener) throws IOException {
         if (this.rowsCount == 0) {
             this.partialRowsCount = 0;
+            this.estimatedRowsCount = 0;
 
-            Scan scan = getScanner();
-
-            FilterList filters = new FilterList();
-            if (scan.getFilter() != null) {
-                filters.addFilter(scan.getFilter());
-            }
-
-            filters.addFilter(new FirstKeyOnlyFilter());
-
-            scan.setFilter(filters);
-            scan.setCaching(GlobalConfig.instance().getBatchSizeForRead());
+            List<Scan> scans = createScans(null, 0);
+            for (Scan scan : scans) {
+                FilterList filters = new FilterList();
+                if (scan.getFilter() != null) {
+                    filters.addFilter(scan.getFilter());
+                }
+                else {
+                    // The first cell is enough to count the row unless the row is filtered by its columns.
+                    filters.addFilter(new FirstKeyOnlyFilter());
+                }
 
-            HTable table = this.connection.getTableFactory().get(this.tableName);
-            ResultScanner scanner = table.getScanner(scan);
+                filters.addFilter(new KeyOnlyFilter());
 
-            StopWatch stopWatch = new StopWatch();
-            stopWatch.start();
+                scan.setFilter(filters);
+                scan.setCaching(GlobalConfig.instance().getBatchSizeForRead());
+                scan.setCacheBlocks(false);
+            }
 
-            try {
-                int count = 0;
-                for (Result rr = scanner.next() ; rr != null ; rr = scanner.next(), count++) {
-                    if (stopWatch.getTime() > timeout) {
-                        this.partialRowsCount = count;
+            RowsCounter counter = new RowsCounter(this.connection, this.tableName, GlobalConfig.instance().getRowCountThreads());
 
-                        break;
-                    }
-                }
+            long count = 0;
+            long estimate = 0;
+            boolean exact = true;
 
-                this.rowsCount = count;
+            for (RegionRowsCount region : counter.count(scans, timeout, listener)) {
+                count += region.getCount();
+                estimate += region.getEstimate();
+                exact &= region.isExact();
             }
-            finally {
-                stopWatch.stop();
-                scanner.close();
+
+            if (!exact) {
+                this.partialRowsCount = count;
             }
+
+            this.estimatedRowsCount = estimate;
+            this.rowsCount = count;
         }
         return this.rowsCount;
     }
-    //endregion
 
-    //region Protected Methods
+    /**
+     * Releases the hbase scanner kept open between the pages if any.
+     */
+    public void close() {
+        closeSession();
+    }
 
     /**
-     * Gets the hbase scanner.
+     * Gets the hbase scan describing the rows of the scanner. A new instance is returned on each call.
      *
-     * @return A hbase scanner
+     * @return A hbase scan.
      * @throws IOException Error accessing hbase.
      */
-    protected Scan getScanner() throws IOException {
+    public Scan getScanner() throws IOException {
         return new Scan();
     }
 
+    /**
+     * Gets the hbase scan describing the rows which keys start with the specified prefix, for example the rows of a single bucket of a salted
+     * table. The start and the stop rows of the scan are prefixed with the prefix. A new instance is returned on each call.
+     *
+     * @param keyPrefix The prefix of the row keys.
+     * @return A hbase scan.
+     * @throws IOException Error accessing hbase.
+     */
+    public Scan getScanner(byte[] keyPrefix) throws IOException {
+        Scan scan = getScanner();
+
+        byte[] stopRow = scan.getStopRow();
+
+        scan.setStartRow(Bytes.add(keyPrefix, scan.getStartRow()));
+        scan.setStopRow(stopRow.length > 0 ? Bytes.add(keyPrefix, stopRow) : QueryPlanner.getPrefixStopRow(keyPrefix));
+        return scan;
+    }
+
+    /**
+     * Gets the hbase scan describing the rows within the specified range of the row keys, for example a region of the table. The keys of the
+     * range include the salt if the row keys are salted, in which case the range must lie within a single bucket. A new instance is returned
+     * on each call.
+     *
+     * @param range The range of the row keys. An empty key stands for the start or the end of the table.
+     * @return A hbase scan.
+     * @throws IOException Error accessing hbase.
+     */
+    public Scan getScanner(KeyRange range) throws IOException {
+        byte[] startRow = range.getStartKey();
+
+        Scan scan = isSalted() ? getScanner(Arrays.copyOf(startRow, this.saltWidth)) : getScanner();
+        if (startRow.length > 0) {
+            scan.setStartRow(startRow);
+        }
+        if (range.getStopKey().length > 0) {
+            scan.setStopRow(range.getStopKey());
+        }
+        return scan;
+    }
+
+    /**
+     * Gets the hbase scans describing the rows following the specified row in the order of the pages. A single scan is returned unless the
+     * row keys are salted, in which case one scan per bucket is returned. The rows of the bucket scans are merged by a
+     * {@link SaltedResultScanner}. New instances are returned on each call.
+     *
+     * @param lastKey The key of the last row read before or null to describe all the rows.
+     * @return A list of hbase scans.
+     * @throws IOException Error accessing hbase.
+     */
+    public List<Scan> getScans(byte[] lastKey) throws IOException {
+        if (lastKey == null) {
+            return createScans(null, 0);
+        }
+
+        if (!isSalted()) {
+            return createScans(QueryPlanner.getNextRow(lastKey), 0);
+        }
+
+        // The buckets preceding the bucket of the last row skip its unsalted key and the bucket of the last row starts from the row itself.
+        List<Scan> scans = new ArrayList<Scan>();
+        for (Scan scan : createScans(lastKey, 0)) {
+            if (Bytes.equals(scan.getStartRow(), lastKey)) {
+                byte[] startRow = QueryPlanner.getNextRow(lastKey);
+
+                byte[] stopRow = scan.getStopRow();
+                if (stopRow.length > 0 && Bytes.compareTo(startRow, stopRow) >= 0) {
+                    continue;
+                }
+
+                scan.setStartRow(startRow);
+            }
+            scans.add(scan);
+        }
+        return scans;
+    }
+
     /**
      * Checks if the row is valid. The default implementation is return 'True'. This method should be overridden by the derived classes.
      *
      * @param row A row to check.
      * @return True if the row is valid and False otherwise.
      */
-    protected boolean isValidRow(Result row) {
+    public boolean isValidRow(Result row) {
         return true;
     }
+
+    /**
+     * Loads the values of a column for the specified rows. The values are read with batches of gets restricted to the column instead of
+     * scanning the rows again. The cells are not added to the rows.
+     *
+     * @param rows   The rows to load the values for.
+     * @param column The column to load.
+     * @return The cells of the rows which have a value in the column.
+     * @throws IOException Error accessing hbase.
+     */
+    public List<DataCell> loadColumn(Collection<DataRow> rows, ColumnQualifier column) throws IOException {
+        List<DataCell> cells = new ArrayList<DataCell>();
+        if (column.isKey() || column.getFamily() == null) {
+            return cells;
+        }
+
+        byte[] family = Bytes.toBytesBinary(column.getFamily());
+        byte[] qualifier = column.getNameAsByteArray();
+
+        ColumnType columnType = this.columnTypes != null ? this.columnTypes.get(column.getFullName()) : null;
+        if (columnType == null) {
+            columnType = ColumnType.String;
+        }
+
+        TimeRange timeRange = getScanner().getTimeRange();
+
+        List<DataRow> keys = new ArrayList<DataRow>(rows);
+        List<Get> gets = new ArrayList<Get>(keys.size());
+
+        for (DataRow row : keys) {
+            Get get = new Get(row.getKey().getValue());
+            get.addColumn(family, qualifier);
+            get.setTimeRange(timeRange.getMin(), timeRange.getMax());
+
+            gets.add(get);
+        }
+
+        Result[] results = get(gets);
+        for (int i = 0 ; i < results.length ; i++) {
+            Cell cell = results[i] != null ? results[i].getColumnLatestCell(family, qualifier) : null;
+            if (cell != null) {
+                DataRow row = keys.get(i);
+                cells.add(new DataCell(row, column, new ConvertibleObject(columnType, CellUtil.cloneValue(cell))));
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Loads all the columns of the specified rows regardless of the projection the rows have been loaded with.
+     *
+     * @param rows The rows to load.
+     * @return The loaded rows in the order of the specified rows. The rows deleted since they have been loaded are null.
+     * @throws IOException Error accessing hbase.
+     */
+    public List<DataRow> loadRows(Collection<DataRow> rows) throws IOException {
+        TimeRange timeRange = getScanner().getTimeRange();
+
+        List<Get> gets = new ArrayList<Get>(rows.size());
+        for (DataRow row : rows) {
+            Get get = new Get(row.getKey().getValue());
+            get.setTimeRange(timeRange.getMin(), timeRange.getMax());
+
+            gets.add(get);
+        }
+
+        HTableDescriptor tableDescriptor = this.connection.getSchema(this.tableName).getDescriptor();
+
+        DataPage page = new DataPage(new ColumnDictionary());
+        Collection<ColumnQualifier> columns = new ArrayList<ColumnQualifier>();
+
+        List<DataRow> loadedRows = new ArrayList<DataRow>(gets.size());
+        for (Result result : get(gets)) {
+            loadedRows.add(result != null && !result.isEmpty() ? loadRow(result, tableDescriptor, page, columns, null) : null);
+        }
+
+        page.trim();
+
+        return loadedRows;
+    }
     //endregion
 
     //region Private Methods
 
+    /**
+     * Adds the columns which should be loaded with the pages regardless of the projection. The default implementation adds no columns. This
+     * method should be overridden by the derived classes validating the rows by their columns.
+     *
+     * @param columns The map of the column families to the column names to add the columns to.
+     */
+    protected void addRequiredColumns(Map<byte[], NavigableSet<byte[]>> columns) {
+    }
+
+    /**
+     * Adds a column to the map of the column families to the column names.
+     *
+     * @param columns   The map to add the column to.
+     * @param family    The column family.
+     * @param qualifier The column name.
+     */
+    protected static void addColumn(Map<byte[], NavigableSet<byte[]>> columns, byte[] family, byte[] qualifier) {
+        NavigableSet<byte[]> qualifiers = columns.get(family);
+        if (qualifiers == null) {
+            qualifiers = new TreeSet<byte[]>(Bytes.BYTES_COMPARATOR);
+            columns.put(family, qualifiers);
+        }
+        qualifiers.add(qualifier);
+    }
+
     /**
      * Loads a specified number of rows from the hbase.
      *
@@ -501,56 +880,123 @@ public class Scanner {
      */
     protected ConvertibleObject loadRows(
         ResultScanner scanner, long offset, int rowsNumber, Collection<DataRow> rows, Collection<ColumnQualifier> columns) throws IOException {
+        return loadRows(scanner, offset, rowsNumber, rows, columns, -1, null);
+    }
 
-        ColumnType keyType = this.columnTypes.get(ColumnQualifier.KEY.getName());
-        Map<ColumnQualifier, ColumnQualifier> loadedColumns = new HashMap<ColumnQualifier, ColumnQualifier>();
+    /**
+     * Materializes the row into the page. Only the latest version of each cell is kept.
+     *
+     * @param result          The row returned by the hbase scanner.
+     * @param tableDescriptor The descriptor of the table.
+     * @param page            The page to add the row to. The columns are resolved through the dictionary of the page.
+     * @param columns         The columns not seen before by the dictionary are added to this collection. This is the output parameter.
+     * @param projection      The columns to keep or null to keep all the columns of the row.
+     * @return A row backed by the page.
+     */
+    protected DataRow loadRow(
+        Result result, HTableDescriptor tableDescriptor, DataPage page, Collection<ColumnQualifier> columns,
+        Map<byte[], NavigableSet<byte[]>> projection) {
+        ColumnDictionary dictionary = page.getDictionary();
+        ColumnQualifierRegistry registry = getColumnRegistry();
+
+        ConvertibleObject key = new ConvertibleObject(this.columnTypes.get(ColumnQualifier.KEY.getName()), result.getRow());
+
+        DataRow row = new DataRow(key, page, page.addRow());
+        row.addCell(new DataCell(row, ColumnQualifier.KEY, key));
+
+        int previousColumn = -1;
+
+        for (Cell cell : result.rawCells()) {
+            int column = dictionary.indexOf(
+                cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength(), cell.getQualifierArray(), cell.getQualifierOffset(),
+                cell.getQualifierLength());
+
+            if (column == -1) {
+                if (projection != null && !isProjected(projection, cell)) {
+                    // The first cell of the row is returned even if it is not projected, it only marks the row.
+                    continue;
+                }
+
+                ColumnQualifier qualifier = registry.get(
+                    tableDescriptor, cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength(), cell.getQualifierArray(),
+                    cell.getQualifierOffset(), cell.getQualifierLength());
+
+                ColumnType columnType = this.columnTypes.get(qualifier.getFullName());
+                if (columnType == null) {
+                    columnType = ColumnType.String;
+                }
+
+                column = dictionary.add(qualifier, columnType);
+                columns.add(qualifier);
+            }
+
+            // The versions of the cell are sorted from the latest one, only the latest version is shown.
+            if (column != previousColumn) {
+                page.addCell(column, cell.getValueArray(), cell.getValueOffset(), cell.getValueLength());
+                previousColumn = column;
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Loads a specified number of rows from the hbase and records the keys of the passed rows in the page index.
+     *
+     * @param scanner    The hbase scanner to retrieve the data.
+     * @param offset     The offset to start from.
+     * @param rowsNumber The number of rows to load.
+     * @param rows       The loaded rows. This is the output parameter.
+     * @param columns    The columns loaded from rows. This is the output parameter.
+     * @param position   The position of the first row returned by the scanner or -1 if the position is not known.
+     * @param projection The columns the scanner has been opened with or null if the scanner returns all the columns.
+     * @return A key of the last loaded row. Used to mark the current position for the next scan.
+     * @throws IOException Error accessing hbase.
+     */
+    private ConvertibleObject loadRows(
+        ResultScanner scanner, long offset, int rowsNumber, Collection<DataRow> rows, Collection<ColumnQualifier> columns, long position,
+        Map<byte[], NavigableSet<byte[]>> projection) throws IOException {
+
+        // The cells of all rows are held by a single page and the columns are shared between the rows.
+        DataPage page = new DataPage(new ColumnDictionary());
 
         int index = 0;
         boolean isValid;
         ConvertibleObject key = null;
 
-        TypeConverter nameConverter = getColumnNameConverterInternal();
+        // The rows reported to the listener must not be modified afterwards, so each reported batch is held by its own page.
+        PageLoadListener listener = rowsNumber > 1 ? this.loadListener : null;
+        List<DataRow> batch = listener != null ? new ArrayList<DataRow>() : null;
+        int batchSize = getCaching(rowsNumber);
 
-        HTable table = this.connection.getTableFactory().get(this.tableName);
-        HTableDescriptor tableDescriptor = table.getTableDescriptor();
+        HTableDescriptor tableDescriptor = this.connection.getSchema(this.tableName).getDescriptor();
 
         do {
-            Result result = scanner.next();
+            // Do not read beyond the requested number of rows as the scanner can be kept open for the next page.
+            Result result = rows.size() < rowsNumber ? scanner.next() : null;
 
-            isValid = result != null && rows.size() < rowsNumber;
+            isValid = result != null;
             if (isValid && isValidRow(result)) {
-                if (index >= offset) {
-                    key = new ConvertibleObject(keyType, result.getRow());
-
-                    DataRow row = new DataRow(key);
-                    row.addCell(new DataCell(row, ColumnQualifier.KEY, key));
-
-                    NavigableMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> familyMap = result.getMap();
-                    for (NavigableMap.Entry<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> familyEntry : familyMap.entrySet()) {
-                        HColumnDescriptor columnDescriptor = tableDescriptor.getFamily(familyEntry.getKey());
+                if (position >= 0) {
+                    this.pageIndex.add(position + index, result.getRow());
+                }
 
-                        for (NavigableMap.Entry<byte[], NavigableMap<Long, byte[]>> qualifierEntry : familyEntry.getValue().entrySet()) {
-                            ColumnQualifier qualifier = new ColumnQualifier(qualifierEntry.getKey(), new ColumnFamily(columnDescriptor), nameConverter);
+                if (index >= offset) {
+                    DataRow row = loadRow(result, tableDescriptor, page, columns, projection);
+                    key = row.getKey();
 
-                            String columnName = qualifier.getFullName();
-                            ColumnType columnType = this.columnTypes.get(columnName);
+                    rows.add(row);
 
-                            if (columnType == null) {
-                                columnType = ColumnType.String;
-                            }
+                    if (batch != null) {
+                        batch.add(row);
 
-                            for (NavigableMap.Entry<Long, byte[]> cell : qualifierEntry.getValue().entrySet()) {
-                                row.addCell(new DataCell(row, qualifier, new ConvertibleObject(columnType, cell.getValue())));
-                            }
+                        if (batch.size() == batchSize) {
+                            page.trim();
+                            page = new DataPage(new ColumnDictionary());
 
-                            if (!loadedColumns.containsKey(qualifier)) {
-                                columns.add(qualifier);
-                                loadedColumns.put(qualifier, null);
-                            }
+                            listener.onRowsLoaded(batch);
+                            batch = new ArrayList<DataRow>();
                         }
                     }
-
-                    rows.add(row);
                 }
 
                 index++;
@@ -558,9 +1004,41 @@ public class Scanner {
         }
         while (isValid);
 
+        page.trim();
+
+        if (batch != null && !batch.isEmpty()) {
+            listener.onRowsLoaded(batch);
+        }
+
         return key;
     }
 
+    /**
+     * Loads a specified number of rows from the scanner kept open between the pages. The session is closed if the load fails or is
+     * canceled as the number of the rows it has passed is not known, the next page reopens it from the page index.
+     *
+     * @param offset     The offset to start from.
+     * @param rowsNumber The number of rows to load.
+     * @param rows       The loaded rows. This is the output parameter.
+     * @param columns    The columns loaded from rows. This is the output parameter.
+     * @param position   The position of the first row returned by the session or -1 if the position is not known.
+     * @param projection The columns the session has been opened with or null if the session returns all the columns.
+     * @return A key of the last loaded row. Used to mark the current position for the next scan.
+     * @throws IOException Error accessing hbase.
+     */
+    private ConvertibleObject loadSessionRows(
+        long offset, int rowsNumber, Collection<DataRow> rows, Collection<ColumnQualifier> columns, long position,
+        Map<byte[], NavigableSet<byte[]>> projection) throws IOException {
+
+        try {
+            return loadRows(this.session, offset, rowsNumber, rows, columns, position, projection);
+        }
+        catch (IOException e) {
+            closeSession();
+            throw e;
+        }
+    }
+
     /**
      * Loads column names.
      *
@@ -575,15 +1053,11 @@ public class Scanner {
 
         int itemsNumber = rowsNumber <= GlobalConfig.instance().getBatchSizeForRead() ? rowsNumber : GlobalConfig.instance().getBatchSizeForRead();
 
-        Scan scan = getScanner();
-        scan.setCaching(itemsNumber);
-
-        HTable table = this.connection.getTableFactory().get(this.tableName);
-        HTableDescriptor tableDescriptor = table.getTableDescriptor();
+        HTableDescriptor tableDescriptor = this.connection.getSchema(this.tableName).getDescriptor();
 
-        ResultScanner scanner = table.getScanner(scan);
+        ResultScanner scanner = openScanner(createScans(null, itemsNumber));
         try {
-            TypeConverter nameConverter = getColumnNameConverterInternal();
+            ColumnQualifierRegistry registry = getColumnRegistry();
 
             Result row;
             int counter = 0;
@@ -591,16 +1065,14 @@ public class Scanner {
             do {
                 row = scanner.next();
                 if (row != null) {
-                    NavigableMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> familyMap = row.getMap();
-                    for (NavigableMap.Entry<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> familyEntry : familyMap.entrySet()) {
-                        HColumnDescriptor columnDescriptor = tableDescriptor.getFamily(familyEntry.getKey());
-
-                        for (byte[] quantifier : familyEntry.getValue().keySet()) {
-                            ColumnQualifier columnQualifier = new ColumnQualifier(quantifier, new ColumnFamily(columnDescriptor), nameConverter);
-                            if (!loadedColumns.containsKey(columnQualifier)) {
-                                columns.add(columnQualifier);
-                                loadedColumns.put(columnQualifier, null);
-                            }
+                    for (Cell cell : row.rawCells()) {
+                        ColumnQualifier columnQualifier = registry.get(
+                            tableDescriptor, cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength(), cell.getQualifierArray(),
+                            cell.getQualifierOffset(), cell.getQualifierLength());
+
+                        if (!loadedColumns.containsKey(columnQualifier)) {
+                            columns.add(columnQualifier);
+                            loadedColumns.put(columnQualifier, null);
                         }
                     }
                 }
@@ -625,41 +1097,428 @@ public class Scanner {
      * @throws IOException Error accessing hbase.
      */
     private Collection<DataRow> next(long offset, int rowsNumber) throws IOException {
-        int itemsNumber = rowsNumber <= GlobalConfig.instance().getBatchSizeForRead() ? rowsNumber : GlobalConfig.instance().getBatchSizeForRead();
-
-        Scan scan = getScanner();
-        scan.setCaching(itemsNumber);
+        byte[] startKey = this.markers.isEmpty() ? null : peekMarker().key.getValue();
 
-        if (!this.markers.isEmpty()) {
-            scan.setStartRow(peekMarker().key.getValue());
-        }
+        // The position of the row the scan starts from. The marker is the last loaded row.
+        long position = startKey == null ? 0 : this.absolutePositions ? this.lastRow - 1 : -1;
 
         if (this.forwardNavigateOnly) {
             // Remove the current marker to reduce the memory load in case backward navigation should not be supported.
             popMarker();
         }
 
-        HTable table = this.connection.getTableFactory().get(this.tableName);
-        ResultScanner scanner = table.getScanner(scan);
+        Collection<DataRow> rows = new LinkedList<DataRow>();
+        Collection<ColumnQualifier> columns = new LinkedList<ColumnQualifier>();
 
-        try {
-            Collection<DataRow> rows = new LinkedList<DataRow>();
-            Collection<ColumnQualifier> columns = new LinkedList<ColumnQualifier>();
+        columns.add(ColumnQualifier.KEY);
 
-            columns.add(ColumnQualifier.KEY);
+        ConvertibleObject lastKey;
+
+        boolean keepAlive = GlobalConfig.instance().getScannerKeepAlive();
+
+        Map<byte[], NavigableSet<byte[]>> projection = getProjectedColumns();
+
+        long skip = keepAlive ? getSessionOffset(startKey, offset, rowsNumber) : -1;
+        if (skip >= 0) {
+            lastKey = loadSessionRows(skip, rowsNumber, rows, columns, getSessionRow(), projection);
+
+            this.sessionRows += skip + rows.size();
+            this.session.prefetch(getCaching(rowsNumber));
+        }
+        else {
+            skip = offset;
+
+            if (position >= 0) {
+                Map.Entry<Long, byte[]> entry = this.pageIndex.floor(position + offset);
+                if (entry != null && entry.getKey() > position) {
+                    startKey = entry.getValue();
+                    skip = position + offset - entry.getKey();
+                    position = entry.getKey();
+                }
+            }
+
+            if (skip > getCaching(rowsNumber)) {
+                startKey = skipRows(startKey, position, skip);
+                if (startKey == null) {
+                    return rows;
+                }
+
+                position = position >= 0 ? position + skip : -1;
+                skip = 0;
+            }
+
+            if (keepAlive) {
+                openSession(startKey, position, rowsNumber, projection);
 
-            ConvertibleObject lastKey = loadRows(scanner, offset, rowsNumber, rows, columns);
-            if (lastKey != null) {
-                this.markers.push(new Marker(lastKey, rows, columns));
+                lastKey = loadSessionRows(skip, rowsNumber, rows, columns, position, projection);
+
+                this.sessionRows += skip + rows.size();
+                this.session.prefetch(getCaching(rowsNumber));
+            }
+            else {
+                ResultScanner scanner = openScanner(createPageScans(startKey, rowsNumber, projection));
+
+                try {
+                    lastKey = loadRows(scanner, skip, rowsNumber, rows, columns, position, projection);
+                }
+                finally {
+                    scanner.close();
+                }
+            }
+        }
+
+        if (lastKey != null) {
+            this.markers.push(new Marker(lastKey, rows, columns));
+        }
+
+        return rows;
+    }
+
+    /**
+     * Skips the specified number of rows without transferring their content. Only the keys of the rows are retrieved and recorded
+     * in the page index.
+     *
+     * @param startKey The key to start from. Can be null.
+     * @param position The position of the start key or -1 if the position is not known.
+     * @param count    The number of rows to skip.
+     * @return The key of the first row after the skipped ones or null if the end of the table has been reached.
+     * @throws IOException Error accessing hbase.
+     */
+    private byte[] skipRows(byte[] startKey, long position, long count) throws IOException {
+        List<Scan> scans = createScans(startKey, GlobalConfig.instance().getBatchSizeForRead());
+        for (Scan scan : scans) {
+            FilterList filters = new FilterList();
+            if (scan.getFilter() != null) {
+                filters.addFilter(scan.getFilter());
+            }
+            else {
+                // The first cell is enough to identify the row unless the row is validated by its columns.
+                filters.addFilter(new FirstKeyOnlyFilter());
             }
 
-            return rows;
+            filters.addFilter(new KeyOnlyFilter());
+
+            scan.setFilter(filters);
+            scan.setCacheBlocks(false);
+        }
+
+        ResultScanner scanner = openScanner(scans);
+
+        try {
+            long index = 0;
+            for (Result result = scanner.next() ; result != null ; result = scanner.next()) {
+                if (isValidRow(result)) {
+                    if (index == count) {
+                        return result.getRow();
+                    }
+
+                    if (position >= 0) {
+                        this.pageIndex.add(position + index, result.getRow());
+                    }
+
+                    index++;
+                }
+            }
+            return null;
         }
         finally {
             scanner.close();
         }
     }
 
+    /**
+     * Creates the scans to load the rows starting from the specified key. A single scan is created unless the row keys are salted, in which
+     * case one scan per bucket is created.
+     *
+     * @param startKey The key to start the scans from. Can be null.
+     * @param caching  The number of rows to be fetched by the scans in a single call together or 0 to use the default value.
+     * @return A list of new scans.
+     * @throws IOException Error accessing hbase.
+     */
+    private List<Scan> createScans(byte[] startKey, int caching) throws IOException {
+        if (!isSalted()) {
+            Scan scan = getScanner();
+            if (caching > 0) {
+                scan.setCaching(caching);
+            }
+
+            if (startKey != null) {
+                scan.setStartRow(startKey);
+            }
+            return Collections.singletonList(scan);
+        }
+
+        int saltLength = startKey != null ? Math.min(this.saltWidth, startKey.length) : 0;
+
+        List<Scan> scans = new ArrayList<Scan>(this.saltBuckets);
+        for (int bucket = 0 ; bucket < this.saltBuckets ; bucket++) {
+            byte[] salt = SaltedResultScanner.getSalt(bucket, this.saltWidth);
+
+            Scan scan = getScanner(salt);
+            if (caching > 0) {
+                // The rows of the page are spread over the buckets.
+                scan.setCaching(Math.max(1, (caching + this.saltBuckets - 1) / this.saltBuckets));
+            }
+
+            if (startKey != null) {
+                // The rows are ordered by the unsalted keys and then by the salts, so each bucket continues from the unsalted start key. The buckets
+                // preceding the bucket of the start key have already returned the rows with the same unsalted key.
+                byte[] startRow = Bytes.add(salt, Arrays.copyOfRange(startKey, saltLength, startKey.length));
+                if (Bytes.compareTo(salt, 0, salt.length, startKey, 0, saltLength) < 0) {
+                    startRow = QueryPlanner.getNextRow(startRow);
+                }
+
+                if (Bytes.compareTo(startRow, scan.getStartRow()) > 0) {
+                    byte[] stopRow = scan.getStopRow();
+                    if (stopRow.length > 0 && Bytes.compareTo(startRow, stopRow) >= 0) {
+                        // The bucket has no more rows.
+                        continue;
+                    }
+
+                    scan.setStartRow(startRow);
+                }
+            }
+
+            scans.add(scan);
+        }
+        return scans;
+    }
+
+    /**
+     * Opens a scanner returning the rows of the scans. The rows of the scans of the buckets of a salted table are merged by their unsalted keys.
+     * The regions of a filtered scan are scanned concurrently, so that the region servers skipping the rows not matching the filter do not wait
+     * for each other.
+     *
+     * @param scans The scans created by the {@link #createScans(byte[], int)}.
+     * @return A new scanner.
+     * @throws IOException Error accessing hbase.
+     */
+    private ResultScanner openScanner(List<Scan> scans) throws IOException {
+        int threads = GlobalConfig.instance().getScanThreads();
+
+        if (isSalted()) {
+            return new SaltedResultScanner(this.connection, this.tableName, scans, this.saltWidth, threads);
+        }
+
+        Scan scan = scans.get(0);
+        StorageTable table = this.connection.getTableFactory().get(this.tableName);
+
+        if (threads > 1 && GlobalConfig.instance().getScannerParallel() && isFiltered()) {
+            List<KeyRange> ranges = KeyRange.split(table, scan.getStartRow(), scan.getStopRow());
+            if (ranges.size() > 1) {
+                return new ParallelResultScanner(this.connection, this.tableName, scan, ranges, threads);
+            }
+        }
+        return table.getScanner(scan);
+    }
+
+    /**
+     * Checks whether the rows are filtered on the region servers. The filters added to project the columns or to load the keys only are not
+     * taken into account as they do not skip any rows.
+     *
+     * @return True if the rows are filtered or False otherwise.
+     * @throws IOException Error accessing hbase.
+     */
+    private boolean isFiltered() throws IOException {
+        return getScanner().getFilter() != null;
+    }
+
+    /**
+     * Creates the scans to load the rows of a page with the projected columns. The cells of the other columns are dropped on the region
+     * servers. The first cell of each row is kept as well, so that the rows without any of the projected columns are still returned.
+     *
+     * @param startKey   The key to start the scans from. Can be null.
+     * @param rowsNumber The number of rows in the page.
+     * @param projection The columns to load or null to load all the columns.
+     * @return A list of new scans.
+     * @throws IOException Error accessing hbase.
+     */
+    private List<Scan> createPageScans(byte[] startKey, int rowsNumber, Map<byte[], NavigableSet<byte[]>> projection) throws IOException {
+        List<Scan> scans = createScans(startKey, getCaching(rowsNumber));
+        if (projection != null) {
+            for (Scan scan : scans) {
+                project(scan, projection);
+            }
+        }
+        return scans;
+    }
+
+    /**
+     * Restricts the scan to the projected columns.
+     *
+     * @param scan       The scan to update.
+     * @param projection The columns to load.
+     */
+    private static void project(Scan scan, Map<byte[], NavigableSet<byte[]>> projection) {
+        FilterList selection = new FilterList(FilterList.Operator.MUST_PASS_ONE);
+        selection.addFilter(new FirstKeyOnlyFilter());
+
+        for (Map.Entry<byte[], NavigableSet<byte[]>> entry : projection.entrySet()) {
+            FilterList qualifiers = new FilterList(FilterList.Operator.MUST_PASS_ONE);
+            for (byte[] qualifier : entry.getValue()) {
+                qualifiers.addFilter(new QualifierFilter(CompareFilter.CompareOp.EQUAL, new BinaryComparator(qualifier)));
+            }
+
+            selection.addFilter(
+                new FilterList(
+                    FilterList.Operator.MUST_PASS_ALL, new FamilyFilter(CompareFilter.CompareOp.EQUAL, new BinaryComparator(entry.getKey())),
+                    qualifiers));
+        }
+
+        if (scan.getFilter() != null) {
+            // The filter of the scan should see all the cells of the row, so the projection is applied after it.
+            scan.setFilter(new FilterList(FilterList.Operator.MUST_PASS_ALL, scan.getFilter(), selection));
+        }
+        else {
+            scan.setFilter(selection);
+        }
+    }
+
+    /**
+     * Gets the columns the pages should be loaded with including the columns required by the scanner itself.
+     *
+     * @return A map of the column families to the column names or null if all the columns should be loaded.
+     */
+    private Map<byte[], NavigableSet<byte[]>> getProjectedColumns() {
+        if (this.projection == null) {
+            return null;
+        }
+
+        Map<byte[], NavigableSet<byte[]>> columns = new TreeMap<byte[], NavigableSet<byte[]>>(Bytes.BYTES_COMPARATOR);
+        for (ColumnQualifier column : this.projection) {
+            if (!column.isKey() && column.getFamily() != null) {
+                addColumn(columns, Bytes.toBytesBinary(column.getFamily()), column.getNameAsByteArray());
+            }
+        }
+
+        addRequiredColumns(columns);
+
+        return columns;
+    }
+
+    /**
+     * Checks whether the column of the cell is one of the projected columns.
+     *
+     * @param projection The projected columns.
+     * @param cell       The cell to check.
+     * @return True if the column is projected or False otherwise.
+     */
+    private static boolean isProjected(Map<byte[], NavigableSet<byte[]>> projection, Cell cell) {
+        // The names are compared in place, so no arrays are allocated for the cells of the rows.
+        for (Map.Entry<byte[], NavigableSet<byte[]>> entry : projection.entrySet()) {
+            byte[] family = entry.getKey();
+
+            if (Bytes.equals(family, 0, family.length, cell.getFamilyArray(), cell.getFamilyOffset(), cell.getFamilyLength())) {
+                for (byte[] qualifier : entry.getValue()) {
+                    if (Bytes.equals(
+                        qualifier, 0, qualifier.length, cell.getQualifierArray(), cell.getQualifierOffset(), cell.getQualifierLength())) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Executes the gets in batches of the configured read batch size.
+     *
+     * @param gets The gets to execute.
+     * @return The results in the order of the gets.
+     * @throws IOException Error accessing hbase.
+     */
+    private Result[] get(List<Get> gets) throws IOException {
+        Result[] results = new Result[gets.size()];
+
+        int batchSize = GlobalConfig.instance().getBatchSizeForRead();
+
+        StorageTable table = this.connection.getTableFactory().get(this.tableName);
+        for (int i = 0 ; i < gets.size() ; i += batchSize) {
+            List<Get> batch = gets.subList(i, Math.min(gets.size(), i + batchSize));
+
+            Result[] batchResults = table.get(batch);
+            System.arraycopy(batchResults, 0, results, i, batchResults.length);
+        }
+        return results;
+    }
+
+    /**
+     * Gets the number of rows to be fetched by the scanner in a single call.
+     *
+     * @param rowsNumber The number of rows in the page.
+     * @return The number of rows to fetch.
+     */
+    private static int getCaching(int rowsNumber) {
+        return rowsNumber <= GlobalConfig.instance().getBatchSizeForRead() ? rowsNumber : GlobalConfig.instance().getBatchSizeForRead();
+    }
+
+    /**
+     * Calculates how many rows should be skipped on the open session to reach the requested position.
+     *
+     * @param startKey   The key of the marker the rows should be loaded from. Can be null if the rows should be loaded from the beginning.
+     * @param offset     The number of rows to skip starting from the marker.
+     * @param rowsNumber The number of rows in the page.
+     * @return The number of rows to skip on the open session or -1 if the session cannot be used and should be re-opened.
+     */
+    private long getSessionOffset(byte[] startKey, long offset, int rowsNumber) {
+        if (this.session == null || this.session.isExpired()) {
+            return -1;
+        }
+
+        if (startKey != null) {
+            // The marker row has already been consumed by the session.
+            return offset > 0 && this.session.isPositionedAfter(startKey) ? offset - 1 : -1;
+        }
+
+        long row = getSessionRow();
+        if (row < 0 || row > offset) {
+            return -1;
+        }
+
+        // Skipping many rows is cheaper with a key only scan than by reading the rows from the open session.
+        long skip = offset - row;
+        return skip > getCaching(rowsNumber) ? -1 : skip;
+    }
+
+    /**
+     * Gets the position of the next row to be returned by the open session.
+     *
+     * @return The position of the row or -1 if the position is not known.
+     */
+    private long getSessionRow() {
+        return this.sessionPosition >= 0 ? this.sessionPosition + this.sessionRows : -1;
+    }
+
+    /**
+     * Opens a new hbase scanner to be kept open between the pages. The previously opened scanner is closed.
+     *
+     * @param startKey   The key to start the scan from. Can be null.
+     * @param position   The position of the start key or -1 if the position is not known.
+     * @param rowsNumber The number of rows in the page.
+     * @param projection The columns to load or null to load all the columns.
+     * @throws IOException Error accessing hbase.
+     */
+    private void openSession(byte[] startKey, long position, int rowsNumber, Map<byte[], NavigableSet<byte[]>> projection) throws IOException {
+        closeSession();
+
+        this.session = new ScannerSession(
+            this.tableName, openScanner(createPageScans(startKey, rowsNumber, projection)), GlobalConfig.instance().getScannerLeaseTimeout());
+
+        this.sessionPosition = position;
+        this.sessionRows = 0;
+    }
+
+    /**
+     * Closes the hbase scanner kept open between the pages if any.
+     */
+    private void closeSession() {
+        if (this.session != null) {
+            this.session.close();
+            this.session = null;
+        }
+    }
+
     /**
      * Removes a marker from the stack.
      *
@@ -684,6 +1543,18 @@ public class Scanner {
         return null;
     }
 
+    /**
+     * Gets the registry of the columns bound to the current column name converter.
+     *
+     * @return A column registry.
+     */
+    private ColumnQualifierRegistry getColumnRegistry() {
+        if (this.columnRegistry == null) {
+            this.columnRegistry = new ColumnQualifierRegistry(getColumnNameConverterInternal());
+        }
+        return this.columnRegistry;
+    }
+
     /**
      * Gets configured column name converter or a default one.
      *
@@ -0,0 +1,256 @@
+package hrider.hbase;
+
+import hrider.actions.NamedThreadFactory;
+import hrider.io.Log;
+import org.apache.hadoop.hbase.client.AbstractClientScanner;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents an hbase scanner which is kept open between the pages. The session remembers the key of the last row
+ *          returned to the caller so that the next page can continue from the same position without opening a new scanner. The next page
+ *          can be prefetched in the background while the current page is shown. If the session has not been used for longer than the lease
+ *          timeout it is considered expired and should be replaced by a new one.
+ */
+public class ScannerSession extends AbstractClientScanner {
+
+    //region Constants
+    private static final Log logger = Log.getLogger(ScannerSession.class);
+    //endregion
+
+    //region Variables
+    /**
+     * The underlying hbase scanner.
+     */
+    private ResultScanner    scanner;
+    /**
+     * The amount of time in milliseconds the session can stay idle before it expires.
+     */
+    private long             leaseTimeout;
+    /**
+     * The time the underlying scanner was accessed for the last time.
+     */
+    private volatile long    lastAccess;
+    /**
+     * The key of the last row returned to the caller.
+     */
+    private byte[]           lastKey;
+    /**
+     * Holds the rows that were prefetched but not yet returned to the caller.
+     */
+    private Queue<Result>    buffer;
+    /**
+     * The background prefetch operation if any.
+     */
+    private Future<Result[]> prefetch;
+    /**
+     * The executor used to prefetch the rows.
+     */
+    private ExecutorService  executor;
+    /**
+     * Indicates whether the underlying scanner has reached the end of the table.
+     */
+    private boolean          exhausted;
+    /**
+     * Indicates whether the session has been closed.
+     */
+    private AtomicBoolean    closed;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link ScannerSession} class.
+     *
+     * @param name         The name of the session. Used to name the prefetch thread.
+     * @param scanner      The hbase scanner to keep open.
+     * @param leaseTimeout The amount of time in milliseconds the session can stay idle before it expires.
+     */
+    public ScannerSession(String name, ResultScanner scanner, long leaseTimeout) {
+        this.scanner = scanner;
+        this.leaseTimeout = leaseTimeout;
+        this.lastAccess = System.currentTimeMillis();
+        this.buffer = new LinkedList<Result>();
+        this.closed = new AtomicBoolean();
+        this.executor = Executors.newSingleThreadExecutor(new NamedThreadFactory(name + "-prefetch"));
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the key of the last row returned to the caller.
+     *
+     * @return A row key or null if no rows have been returned yet.
+     */
+    public byte[] getLastKey() {
+        return this.lastKey;
+    }
+
+    /**
+     * Checks whether the session stopped exactly after the provided key and therefore can continue from there.
+     *
+     * @param key The key to check.
+     * @return True if the last returned row has the provided key or False otherwise.
+     */
+    public boolean isPositionedAfter(byte[] key) {
+        return this.lastKey != null && key != null && Bytes.equals(this.lastKey, key);
+    }
+
+    /**
+     * Indicates whether the session has not been used for longer than the lease timeout. The region server drops the idle scanners
+     * so the expired session cannot be used anymore.
+     *
+     * @return True if the session has expired or False otherwise.
+     */
+    public synchronized boolean isExpired() {
+        if (this.prefetch != null && !this.prefetch.isDone()) {
+            return false;
+        }
+        return System.currentTimeMillis() - this.lastAccess > this.leaseTimeout;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Starts loading the specified number of rows in the background. The rows are returned by the subsequent calls to the {@link #next()}
+     * method. The method does nothing if there is a prefetch in progress or the end of the table has been reached.
+     *
+     * @param rowsNumber The number of rows to prefetch.
+     */
+    public synchronized void prefetch(final int rowsNumber) {
+        if (this.prefetch == null && !this.exhausted && !this.executor.isShutdown()) {
+            this.prefetch = this.executor.submit(
+                new Callable<Result[]>() {
+                    @Override
+                    public Result[] call() throws Exception {
+                        if (closed.get()) {
+                            return new Result[0];
+                        }
+
+                        try {
+                            return scanner.next(rowsNumber);
+                        }
+                        finally {
+                            lastAccess = System.currentTimeMillis();
+                        }
+                    }
+                });
+        }
+    }
+
+    @Override
+    public synchronized Result next() throws IOException {
+        if (this.closed.get()) {
+            return null;
+        }
+
+        if (this.buffer.isEmpty() && this.prefetch != null) {
+            Collections.addAll(this.buffer, awaitPrefetch());
+        }
+
+        Result result = this.buffer.poll();
+        if (result == null && !this.exhausted) {
+            result = this.scanner.next();
+            this.exhausted = result == null;
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+        if (result != null) {
+            this.lastKey = result.getRow();
+        }
+        return result;
+    }
+
+    /**
+     * Closes the session without waiting. The session is called from the event dispatch thread while a prefetch or a page load may be
+     * stuck in a slow call to the region servers, so the underlying scanner is closed by the prefetch thread once the running prefetch and
+     * the running call to the {@link #next()} complete.
+     */
+    @Override
+    public void close() {
+        if (!this.closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            this.executor.execute(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        synchronized (ScannerSession.this) {
+                            prefetch = null;
+                            buffer.clear();
+                            scanner.close();
+                        }
+                    }
+                });
+        }
+        finally {
+            this.executor.shutdown();
+        }
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Waits for the background prefetch to complete.
+     *
+     * @return The prefetched rows.
+     * @throws IOException Error accessing hbase.
+     */
+    private Result[] awaitPrefetch() throws IOException {
+        Future<Result[]> future = this.prefetch;
+        this.prefetch = null;
+
+        try {
+            Result[] results = future.get();
+            if (results.length == 0) {
+                this.exhausted = true;
+            }
+            return results;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Prefetch of the rows has been interrupted.");
+        }
+        catch (ExecutionException e) {
+            logger.error(e.getCause(), "Failed to prefetch the rows.");
+
+            if (e.getCause() instanceof IOException) {
+                throw (IOException)e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+        catch (CancellationException ignore) {
+            return new Result[0];
+        }
+    }
+    //endregion
+}
@@ -0,0 +1,145 @@
+package hrider.hbase;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableNotFoundException;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This interface represents the storage the tables are kept in. It covers the administration of the tables, the data of each table
+ *          is accessed through the {@link StorageTable} instances opened by the provider. The implementations must be thread safe.
+ */
+public interface StorageProvider extends Closeable {
+
+    /**
+     * Gets the configuration used by the provider.
+     *
+     * @return A reference to the {@link Configuration} instance.
+     */
+    Configuration getConfiguration();
+
+    /**
+     * Gets the descriptors of all the tables.
+     *
+     * @return An array of table descriptors.
+     * @throws IOException Error accessing the storage.
+     */
+    HTableDescriptor[] listTables() throws IOException;
+
+    /**
+     * Checks whether the table exists.
+     *
+     * @param tableName The name of the table.
+     * @return True if the table exists or False otherwise.
+     * @throws IOException Error accessing the storage.
+     */
+    boolean tableExists(String tableName) throws IOException;
+
+    /**
+     * Checks whether the table is enabled.
+     *
+     * @param tableName The name of the table.
+     * @return True if the table is enabled or False otherwise.
+     * @throws IOException Error accessing the storage.
+     */
+    boolean isTableEnabled(String tableName) throws IOException;
+
+    /**
+     * Enables the table.
+     *
+     * @param tableName The name of the table.
+     * @throws IOException Error accessing the storage.
+     */
+    void enableTable(String tableName) throws IOException;
+
+    /**
+     * Disables the table.
+     *
+     * @param tableName The name of the table.
+     * @throws IOException Error accessing the storage.
+     */
+    void disableTable(String tableName) throws IOException;
+
+    /**
+     * Gets the descriptor of the table.
+     *
+     * @param tableName The name of the table.
+     * @return The table descriptor.
+     * @throws IOException            Error accessing the storage.
+     * @throws TableNotFoundException The table does not exist.
+     */
+    HTableDescriptor getTableDescriptor(String tableName) throws IOException, TableNotFoundException;
+
+    /**
+     * Creates a new table.
+     *
+     * @param tableDescriptor The descriptor of the table.
+     * @param splitKeys       The keys the table is pre-split by. Can be null or empty to create a table with a single region.
+     * @throws IOException Error accessing the storage.
+     */
+    void createTable(HTableDescriptor tableDescriptor, byte[][] splitKeys) throws IOException;
+
+    /**
+     * Replaces the descriptor of a disabled table.
+     *
+     * @param tableName       The name of the table.
+     * @param tableDescriptor The new descriptor of the table.
+     * @throws IOException Error accessing the storage.
+     */
+    void modifyTable(String tableName, HTableDescriptor tableDescriptor) throws IOException;
+
+    /**
+     * Adds a column family to a disabled table.
+     *
+     * @param tableName The name of the table.
+     * @param family    The descriptor of the column family.
+     * @throws IOException Error accessing the storage.
+     */
+    void addColumn(String tableName, HColumnDescriptor family) throws IOException;
+
+    /**
+     * Deletes a disabled table.
+     *
+     * @param tableName The name of the table.
+     * @throws IOException Error accessing the storage.
+     */
+    void deleteTable(String tableName) throws IOException;
+
+    /**
+     * Flushes the in memory portion of the table.
+     *
+     * @param tableName The name of the table.
+     * @throws IOException          Error accessing the storage.
+     * @throws InterruptedException The operation has been interrupted.
+     */
+    void flush(String tableName) throws IOException, InterruptedException;
+
+    /**
+     * Opens the table for data operations.
+     *
+     * @param tableName The name of the table.
+     * @return A new table instance. The caller is responsible to close the table.
+     * @throws IOException Error accessing the storage.
+     */
+    StorageTable openTable(String tableName) throws IOException;
+}
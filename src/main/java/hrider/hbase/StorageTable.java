@@ -0,0 +1,126 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.client.*;
+import org.apache.hadoop.hbase.util.Pair;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This interface represents the data operations on a single table of a {@link StorageProvider}. The instances are not required to
+ *          be thread safe, the operations that access the same table from several threads should use a separate instance per thread.
+ */
+public interface StorageTable extends Closeable {
+
+    /**
+     * Gets the name of the table.
+     *
+     * @return The table name.
+     */
+    String getName();
+
+    /**
+     * Gets the descriptor of the table.
+     *
+     * @return The table descriptor.
+     * @throws IOException Error accessing the storage.
+     */
+    HTableDescriptor getTableDescriptor() throws IOException;
+
+    /**
+     * Gets the start and the end keys of the regions of the table sorted by the start key. The start key of the first region and the
+     * end key of the last region are empty.
+     *
+     * @return A pair of the start keys and the end keys.
+     * @throws IOException Error accessing the storage.
+     */
+    Pair<byte[][], byte[][]> getStartEndKeys() throws IOException;
+
+    /**
+     * Gets the start keys of the regions of the table sorted in ascending order. The start key of the first region is empty.
+     *
+     * @return An array of the start keys.
+     * @throws IOException Error accessing the storage.
+     */
+    byte[][] getStartKeys() throws IOException;
+
+    /**
+     * Opens a scanner over the table.
+     *
+     * @param scan The scan describing the rows and the columns to read.
+     * @return A new scanner. The caller is responsible to close the scanner.
+     * @throws IOException Error accessing the storage.
+     */
+    ResultScanner getScanner(Scan scan) throws IOException;
+
+    /**
+     * Reads a single row.
+     *
+     * @param get The get describing the row and the columns to read.
+     * @return The result. The result is empty if the row does not exist.
+     * @throws IOException Error accessing the storage.
+     */
+    Result get(Get get) throws IOException;
+
+    /**
+     * Reads several rows in a single batch.
+     *
+     * @param gets The gets describing the rows and the columns to read.
+     * @return The results in the order of the gets.
+     * @throws IOException Error accessing the storage.
+     */
+    Result[] get(List<Get> gets) throws IOException;
+
+    /**
+     * Writes a single row.
+     *
+     * @param put The put to write.
+     * @throws IOException Error accessing the storage.
+     */
+    void put(Put put) throws IOException;
+
+    /**
+     * Writes several rows in a single batch.
+     *
+     * @param puts The puts to write.
+     * @throws IOException Error accessing the storage.
+     */
+    void put(List<Put> puts) throws IOException;
+
+    /**
+     * Deletes a row or some of its columns.
+     *
+     * @param delete The delete to apply.
+     * @throws IOException Error accessing the storage.
+     */
+    void delete(Delete delete) throws IOException;
+
+    /**
+     * Applies several puts and deletes in a single batch. The order of the actions within the batch is not guaranteed.
+     *
+     * @param actions The actions to apply.
+     * @param results The array to be filled with the result of each action. The result of a failed action is the error or null.
+     * @throws IOException          Some of the actions failed, the results tell which.
+     * @throws InterruptedException The batch was interrupted.
+     */
+    void batch(List<? extends Row> actions, Object[] results) throws IOException, InterruptedException;
+}
@@ -0,0 +1,344 @@
+package hrider.hbase;
+
+import hrider.actions.FutureUtils;
+import hrider.actions.NamedThreadFactory;
+import hrider.config.GlobalConfig;
+import hrider.io.Log;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.*;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class copies the data of a table to another table, possibly on another cluster. The source table is split by its regions
+ *          and each region is copied by a reader and a writer connected with a bounded queue of batches. Several regions are copied
+ *          concurrently and the writers share a throttle limiting the load on the target cluster.
+ */
+public class TableCopier {
+
+    //region Constants
+    private static final Log   logger = Log.getLogger(TableCopier.class);
+    /**
+     * Marks the end of the batches read from a region.
+     */
+    private static final Batch END    = new Batch(Collections.<Put>emptyList(), 0, null);
+    //endregion
+
+    //region Variables
+    /**
+     * The connection to the source cluster.
+     */
+    private Connection       source;
+    /**
+     * The name of the table to copy from.
+     */
+    private String           sourceTable;
+    /**
+     * The connection to the target cluster.
+     */
+    private Connection       target;
+    /**
+     * The name of the table to copy to.
+     */
+    private String           targetTable;
+    /**
+     * The maximum number of regions copied concurrently.
+     */
+    private int              threads;
+    /**
+     * The maximum number of batches waiting to be written per region.
+     */
+    private int              queueSize;
+    /**
+     * Limits the rate of the writes.
+     */
+    private Throttle         throttle;
+    /**
+     * The number of rows written so far.
+     */
+    private AtomicLong       rows;
+    /**
+     * The number of bytes written so far.
+     */
+    private AtomicLong       bytes;
+    /**
+     * The last row written to the target table.
+     */
+    private volatile Result  lastResult;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link TableCopier} class. The settings are taken from the global configuration.
+     *
+     * @param source      The connection to the source cluster.
+     * @param sourceTable The name of the table to copy from.
+     * @param target      The connection to the target cluster.
+     * @param targetTable The name of the table to copy to.
+     */
+    public TableCopier(Connection source, String sourceTable, Connection target, String targetTable) {
+        this.source = source;
+        this.sourceTable = sourceTable;
+        this.target = target;
+        this.targetTable = targetTable;
+        this.threads = Math.max(1, GlobalConfig.instance().getCopyThreads());
+        this.queueSize = Math.max(1, GlobalConfig.instance().getCopyQueueSize());
+        this.throttle = new Throttle(GlobalConfig.instance().getCopyMaxRowsPerSecond(), GlobalConfig.instance().getCopyMaxBytesPerSecond());
+        this.rows = new AtomicLong();
+        this.bytes = new AtomicLong();
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Copies the table.
+     *
+     * @param listener The listener to be notified about the progress periodically. Can be null.
+     * @throws IOException Error accessing hbase on one of the clusters.
+     */
+    public void copy(CopyProgressListener listener) throws IOException {
+        copy(KeyRange.split(this.source.getTableFactory().get(this.sourceTable), HConstants.EMPTY_START_ROW, HConstants.EMPTY_END_ROW), listener, null);
+    }
+
+    /**
+     * Copies the specified ranges of the table. Each range is read and written independently.
+     *
+     * @param ranges             The ranges of keys to copy.
+     * @param listener           The listener to be notified about the progress periodically. Can be null.
+     * @param checkpointListener The listener to be notified about each batch written to the target table. Can be null.
+     * @throws IOException Error accessing hbase on one of the clusters or the copy has been stopped by the checkpoint listener.
+     */
+    public void copy(List<KeyRange> ranges, CopyProgressListener listener, CopyCheckpointListener checkpointListener) throws IOException {
+        if (ranges.isEmpty()) {
+            return;
+        }
+
+        int poolSize = Math.min(this.threads, ranges.size());
+
+        ExecutorService readers = Executors.newFixedThreadPool(poolSize, new NamedThreadFactory(this.sourceTable + "-copyReader"));
+        ExecutorService writers = Executors.newFixedThreadPool(poolSize, new NamedThreadFactory(this.targetTable + "-copyWriter"));
+
+        BlockingQueue<Future<Object>> completed = new LinkedBlockingQueue<Future<Object>>();
+
+        CompletionService<Object> readerService = new ExecutorCompletionService<Object>(readers, completed);
+        CompletionService<Object> writerService = new ExecutorCompletionService<Object>(writers, completed);
+
+        // The writer of a region is submitted before its reader so that the writers are started in the same order as the readers.
+        for (KeyRange range : ranges) {
+            BlockingQueue<Batch> queue = new ArrayBlockingQueue<Batch>(this.queueSize);
+
+            writerService.submit(new RegionWriter(range, queue, checkpointListener));
+            readerService.submit(new RegionReader(range, queue));
+        }
+
+        long progressInterval = GlobalConfig.instance().getProgressInterval();
+        long nextProgress = System.currentTimeMillis() + progressInterval;
+
+        try {
+            for (int tasks = ranges.size() * 2 ; tasks > 0 ; ) {
+                Future<Object> future = completed.poll(Math.max(1, nextProgress - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                if (future != null) {
+                    FutureUtils.getResult(future);
+                    tasks--;
+                }
+
+                if (System.currentTimeMillis() >= nextProgress) {
+                    notifyProgress(listener);
+                    nextProgress = System.currentTimeMillis() + progressInterval;
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("Copy of the table '%s' has been interrupted.", this.sourceTable));
+        }
+        finally {
+            readers.shutdownNow();
+            writers.shutdownNow();
+        }
+
+        notifyProgress(listener);
+
+        logger.info("Copied %d rows (%d bytes) from table '%s' to table '%s'.", this.rows.get(), this.bytes.get(), this.sourceTable, this.targetTable);
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Notifies the listener about the current progress.
+     *
+     * @param listener The listener to notify. Can be null.
+     */
+    private void notifyProgress(CopyProgressListener listener) {
+        if (listener != null) {
+            listener.onProgress(this.rows.get(), this.bytes.get(), this.lastResult);
+        }
+    }
+    //endregion
+
+    /**
+     * Represents a batch of rows read from the source table.
+     */
+    private static class Batch {
+
+        //region Variables
+        private List<Put> puts;
+        private long      size;
+        private Result    last;
+        //endregion
+
+        //region Constructor
+        private Batch(List<Put> puts, long size, Result last) {
+            this.puts = puts;
+            this.size = size;
+            this.last = last;
+        }
+        //endregion
+    }
+
+    /**
+     * Reads the rows of a single region and queues them in batches.
+     */
+    private class RegionReader implements Callable<Object> {
+
+        //region Variables
+        private KeyRange             range;
+        private BlockingQueue<Batch> queue;
+        //endregion
+
+        //region Constructor
+        private RegionReader(KeyRange range, BlockingQueue<Batch> queue) {
+            this.range = range;
+            this.queue = queue;
+        }
+        //endregion
+
+        //region Public Methods
+        @Override
+        public Object call() throws Exception {
+            Scan scan = new Scan(this.range.getStartKey(), this.range.getStopKey());
+            scan.setCaching(GlobalConfig.instance().getBatchSizeForRead());
+            scan.setCacheBlocks(false);
+
+            int batchSize = GlobalConfig.instance().getBatchSizeForWrite();
+
+            // StorageTable is not thread safe, each reader uses its own instance.
+            StorageTable table = source.getTableFactory().create(sourceTable);
+            try {
+                ResultScanner scanner = table.getScanner(scan);
+                try {
+                    List<Put> puts = new ArrayList<Put>(batchSize);
+                    long size = 0;
+                    Result last = null;
+
+                    for (Result result = scanner.next() ; result != null ; result = scanner.next()) {
+                        Put put = new Put(result.getRow());
+                        for (KeyValue kv : result.list()) {
+                            put.add(kv);
+                            size += kv.getLength();
+                        }
+
+                        puts.add(put);
+                        last = result;
+
+                        if (puts.size() == batchSize) {
+                            this.queue.put(new Batch(puts, size, last));
+
+                            puts = new ArrayList<Put>(batchSize);
+                            size = 0;
+                        }
+                    }
+
+                    if (!puts.isEmpty()) {
+                        this.queue.put(new Batch(puts, size, last));
+                    }
+                }
+                finally {
+                    scanner.close();
+                }
+            }
+            finally {
+                table.close();
+
+                // The writer should stop even if the reader has failed.
+                this.queue.put(END);
+            }
+            return null;
+        }
+        //endregion
+    }
+
+    /**
+     * Writes the batches queued by the reader of a single region to the target table.
+     */
+    private class RegionWriter implements Callable<Object> {
+
+        //region Variables
+        private KeyRange               range;
+        private BlockingQueue<Batch>   queue;
+        private CopyCheckpointListener checkpointListener;
+        //endregion
+
+        //region Constructor
+        private RegionWriter(KeyRange range, BlockingQueue<Batch> queue, CopyCheckpointListener checkpointListener) {
+            this.range = range;
+            this.queue = queue;
+            this.checkpointListener = checkpointListener;
+        }
+        //endregion
+
+        //region Public Methods
+        @Override
+        public Object call() throws Exception {
+            // StorageTable is not thread safe, each writer uses its own instance.
+            StorageTable table = target.getTableFactory().create(targetTable);
+            try {
+                for (Batch batch = this.queue.take() ; batch != END ; batch = this.queue.take()) {
+                    throttle.acquire(batch.puts.size(), batch.size);
+
+                    table.put(batch.puts);
+
+                    rows.addAndGet(batch.puts.size());
+                    bytes.addAndGet(batch.size);
+                    lastResult = batch.last;
+
+                    if (this.checkpointListener != null) {
+                        this.checkpointListener.onBatchCommitted(this.range, batch.last.getRow(), batch.puts.size());
+                    }
+                }
+            }
+            finally {
+                table.close();
+            }
+            return null;
+        }
+        //endregion
+    }
+}
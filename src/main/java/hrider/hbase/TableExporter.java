@@ -0,0 +1,516 @@
+package hrider.hbase;
+
+import hrider.actions.FutureUtils;
+import hrider.actions.NamedThreadFactory;
+import hrider.config.GlobalConfig;
+import hrider.converters.TypeConverter;
+import hrider.data.ColumnType;
+import hrider.export.*;
+import hrider.io.Log;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class exports the rows of a scanner to a file. The rows are read straight from an hbase scanner on a separate thread and
+ *          handed over in batches to the calling thread which encodes them with the exporter of the chosen format into a large buffer.
+ *          The output is compressed according to the extension of the file.
+ */
+public class TableExporter {
+
+    //region Constants
+    private static final Log          logger = Log.getLogger(TableExporter.class);
+    /**
+     * Marks the end of the rows.
+     */
+    private static final List<Result> END    = Collections.emptyList();
+    //endregion
+
+    //region Variables
+    /**
+     * The scanner describing the exported rows.
+     */
+    private Scanner          scanner;
+    /**
+     * The format of the file.
+     */
+    private ExportFormat     format;
+    /**
+     * The character delimiting the values if the format is delimited.
+     */
+    private char             delimiter;
+    /**
+     * The maximum number of batches waiting to be written.
+     */
+    private int              queueSize;
+    /**
+     * The number of rows written so far.
+     */
+    private volatile long    rows;
+    /**
+     * The full names of the columns in the header of the file.
+     */
+    private volatile List<String> header;
+    /**
+     * The number of bytes taken by the header before the compression.
+     */
+    private volatile long    headerLength;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link TableExporter} class. The settings are taken from the global configuration.
+     *
+     * @param scanner   The scanner describing the rows to export. The query, the column types and the column name converter of the scanner
+     *                  are used.
+     * @param format    The format of the file.
+     * @param delimiter The character delimiting the values if the format is delimited.
+     */
+    public TableExporter(Scanner scanner, ExportFormat format, char delimiter) {
+        this.scanner = scanner;
+        this.format = format;
+        this.delimiter = delimiter;
+        this.queueSize = Math.max(1, GlobalConfig.instance().getExportQueueSize());
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the full names of the columns in the header of the file. The first column is the key.
+     *
+     * @return A list of column names or null if the header is not known yet.
+     */
+    public List<String> getHeader() {
+        return this.header;
+    }
+
+    /**
+     * Gets the number of bytes taken by the header at the beginning of the file before the compression. The value is zero if the header has
+     * not been written by the last export or the format has no header.
+     *
+     * @return The number of bytes.
+     */
+    public long getHeaderLength() {
+        return this.headerLength;
+    }
+
+    /**
+     * Gets the number of rows written by the last export.
+     *
+     * @return The number of rows.
+     */
+    public long getRows() {
+        return this.rows;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Gets the columns of the first batch of rows of the scanner. The columns are used as a header shared by several files.
+     *
+     * @return A list of the full names of the columns. The first column is the key.
+     * @throws IOException Error accessing hbase.
+     */
+    public List<String> sampleHeader() throws IOException {
+        int batchSize = GlobalConfig.instance().getBatchSizeForRead();
+
+        List<Scan> scans = this.scanner.getScans(null);
+        for (Scan scan : scans) {
+            scan.setCaching(batchSize);
+        }
+
+        List<Cell> cells = new ArrayList<Cell>();
+
+        StorageTable table = this.scanner.getConnection().getTableFactory().create(this.scanner.getTableName());
+        try {
+            ResultScanner results = openScanner(table, scans);
+            try {
+                int count = 0;
+                for (Result result = results.next() ; result != null && count < batchSize ; result = results.next()) {
+                    if (this.scanner.isValidRow(result)) {
+                        Collections.addAll(cells, result.rawCells());
+                        count++;
+                    }
+                }
+            }
+            finally {
+                results.close();
+            }
+        }
+        finally {
+            table.close();
+        }
+
+        ExportSchema schema = createSchema();
+        schema.setHeaderFrom(cells);
+        return schema.getHeader();
+    }
+
+    /**
+     * Exports the rows to a new file.
+     *
+     * @param file               The file to export to. The file is overwritten.
+     * @param progressListener   The listener to be notified about the progress at a fixed rate. Can be null.
+     * @param checkpointListener The listener to be notified about the rows written to the file. Can be null.
+     * @throws IOException Error accessing hbase or writing the file or the export has been stopped by the checkpoint listener.
+     */
+    public void export(File file, ExportProgressListener progressListener, ExportCheckpointListener checkpointListener) throws IOException {
+        export(file, 0, (byte[])null, null, progressListener, checkpointListener);
+    }
+
+    /**
+     * Exports the rows following the specified row to a file, optionally appending them to the rows exported before. The rows are exported
+     * in the order of the pages of the scanner, so the buckets of a salted table are merged by the unsalted keys.
+     *
+     * @param file               The file to export to.
+     * @param length             The length the file is truncated to before the rows are appended or zero to overwrite the file. A compressed
+     *                           file can only be overwritten.
+     * @param lastRow            The key of the last row exported before or null to start from the first row of the scanner.
+     * @param header             The full names of the columns of the header or null to use the columns found in the first batch of rows.
+     *                           The header is written to the file only if the file is overwritten.
+     * @param progressListener   The listener to be notified about the progress at a fixed rate. Can be null.
+     * @param checkpointListener The listener to be notified about the rows written to the file. Can be null.
+     * @throws IOException Error accessing hbase or writing the file or the export has been stopped by the checkpoint listener.
+     */
+    public void export(
+        File file, long length, byte[] lastRow, List<String> header, ExportProgressListener progressListener,
+        ExportCheckpointListener checkpointListener) throws IOException {
+
+        export(file, length, this.scanner.getScans(lastRow), header, progressListener, checkpointListener);
+    }
+
+    /**
+     * Exports the rows within the specified range of the row keys to a file, optionally appending them to the rows exported before. The keys
+     * include the salt if the row keys are salted, in which case the range must lie within a single bucket.
+     *
+     * @param file               The file to export to.
+     * @param length             The length the file is truncated to before the rows are appended or zero to overwrite the file. A compressed
+     *                           file can only be overwritten.
+     * @param range              The range of the row keys, for example a region of the table.
+     * @param header             The full names of the columns of the header or null to use the columns found in the first batch of rows.
+     *                           The header is written to the file only if the file is overwritten.
+     * @param progressListener   The listener to be notified about the progress at a fixed rate. Can be null.
+     * @param checkpointListener The listener to be notified about the rows written to the file. Can be null.
+     * @throws IOException Error accessing hbase or writing the file or the export has been stopped by the checkpoint listener.
+     */
+    public void export(
+        File file, long length, KeyRange range, List<String> header, ExportProgressListener progressListener,
+        ExportCheckpointListener checkpointListener) throws IOException {
+
+        export(file, length, Collections.singletonList(this.scanner.getScanner(range)), header, progressListener, checkpointListener);
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Exports the rows of the scans to a file.
+     *
+     * @param file               The file to export to.
+     * @param length             The length the file is truncated to before the rows are appended or zero to overwrite the file.
+     * @param scans              The scans of the exported rows. The rows of several scans are merged as the buckets of a salted table.
+     * @param header             The full names of the columns of the header or null to use the columns found in the first batch of rows.
+     * @param progressListener   The listener to be notified about the progress at a fixed rate. Can be null.
+     * @param checkpointListener The listener to be notified about the rows written to the file. Can be null.
+     * @throws IOException Error accessing hbase or writing the file or the export has been stopped by the checkpoint listener.
+     */
+    private void export(
+        File file, long length, List<Scan> scans, List<String> header, ExportProgressListener progressListener,
+        ExportCheckpointListener checkpointListener) throws IOException {
+
+        ExportCompression compression = ExportCompression.fromFileName(file.getName());
+        if (length > 0 && compression != ExportCompression.None) {
+            throw new IllegalArgumentException(String.format("The compressed file '%s' cannot be appended to.", file.getName()));
+        }
+
+        this.rows = 0;
+        this.header = null;
+        this.headerLength = 0;
+
+        for (Scan scan : scans) {
+            scan.setCaching(GlobalConfig.instance().getBatchSizeForRead());
+            scan.setCacheBlocks(false);
+        }
+
+        if (length > 0) {
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                raf.setLength(length);
+            }
+            finally {
+                raf.close();
+            }
+        }
+
+        ExecutorService reader = Executors.newSingleThreadExecutor(new NamedThreadFactory(this.scanner.getTableName() + "-exportReader"));
+
+        BlockingQueue<List<Result>> queue = new ArrayBlockingQueue<List<Result>>(this.queueSize);
+
+        FileOutputStream fileStream = new FileOutputStream(file, length > 0);
+        try {
+            Future<Object> readerTask = reader.submit(new RowsReader(scans, queue));
+
+            OutputStream stream = compression.wrap(fileStream);
+            try {
+                OutputBuffer output = new OutputBuffer(stream, this.format.getCharset(), GlobalConfig.instance().getExportBufferSize());
+                write(queue, readerTask, output, fileStream, length == 0, header, progressListener, checkpointListener);
+            }
+            finally {
+                stream.close();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("Export of the table '%s' has been interrupted.", this.scanner.getTableName()));
+        }
+        finally {
+            reader.shutdownNow();
+            fileStream.close();
+        }
+
+        logger.info("Exported %d rows from table '%s' to file '%s'.", this.rows, this.scanner.getTableName(), file.getName());
+    }
+
+    /**
+     * Opens a scanner returning the rows of the scans. The rows of the scans of the buckets of a salted table are merged by their unsalted keys.
+     *
+     * @param table The table to scan if there is a single scan.
+     * @param scans The scans to open.
+     * @return A new scanner.
+     * @throws IOException Error accessing hbase.
+     */
+    private ResultScanner openScanner(StorageTable table, List<Scan> scans) throws IOException {
+        if (scans.size() == 1) {
+            return table.getScanner(scans.get(0));
+        }
+        return new SaltedResultScanner(
+            this.scanner.getConnection(), this.scanner.getTableName(), scans, this.scanner.getSaltWidth(),
+            GlobalConfig.instance().getScanThreads());
+    }
+
+    /**
+     * Creates the schema of the exported rows.
+     *
+     * @return A new schema without a header.
+     * @throws IOException Error accessing hbase.
+     */
+    private ExportSchema createSchema() throws IOException {
+        TypeConverter nameConverter = this.scanner.getColumnNameConverter();
+        if (nameConverter == null) {
+            nameConverter = ColumnType.BinaryString.getConverter();
+        }
+
+        return new ExportSchema(
+            this.scanner.getConnection().getSchema(this.scanner.getTableName()).getDescriptor(), nameConverter,
+            this.scanner.getColumnTypes());
+    }
+
+    /**
+     * Writes the batches of rows taken from the queue.
+     *
+     * @param queue              The queue of the batches.
+     * @param readerTask         The task reading the rows.
+     * @param output             The buffer to encode the rows into.
+     * @param fileStream         The stream of the file.
+     * @param writeHeader        Indicates whether the header should be written.
+     * @param header             The names of the columns of the header or null to use the columns of the first batch.
+     * @param progressListener   The listener to be notified about the progress. Can be null.
+     * @param checkpointListener The listener to be notified about the rows written to the file. Can be null.
+     * @throws IOException          Error accessing hbase or writing the file.
+     * @throws InterruptedException The current thread has been interrupted.
+     */
+    private void write(
+        BlockingQueue<List<Result>> queue, Future<Object> readerTask, OutputBuffer output, FileOutputStream fileStream, boolean writeHeader,
+        List<String> header, ExportProgressListener progressListener, ExportCheckpointListener checkpointListener)
+        throws IOException, InterruptedException {
+
+        ExportSchema schema = createSchema();
+
+        Exporter exporter = this.format.create(output, this.delimiter);
+
+        if (header != null) {
+            schema.setHeader(header);
+            this.header = schema.getHeader();
+        }
+
+        long progressInterval = GlobalConfig.instance().getProgressInterval();
+        long nextProgress = System.currentTimeMillis() + progressInterval;
+
+        long committedRows = 0;
+        byte[] lastKey = null;
+
+        while (true) {
+            List<Result> batch = queue.poll(Math.max(1, nextProgress - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+
+            if (batch == END) {
+                FutureUtils.getResult(readerTask);
+                break;
+            }
+
+            if (batch == null && readerTask.isDone()) {
+                // The reader has failed before queueing the end of the rows.
+                FutureUtils.getResult(readerTask);
+            }
+
+            if (batch != null) {
+                if (this.header == null) {
+                    List<Cell> cells = new ArrayList<Cell>();
+                    for (Result row : batch) {
+                        Collections.addAll(cells, row.rawCells());
+                    }
+
+                    schema.setHeaderFrom(cells);
+                    this.header = schema.getHeader();
+                }
+
+                if (writeHeader) {
+                    exporter.writeHeader(schema);
+                    this.headerLength = output.getSize();
+                    writeHeader = false;
+                }
+
+                for (Result row : batch) {
+                    exporter.write(row, schema);
+                    lastKey = row.getRow();
+                }
+
+                this.rows += batch.size();
+            }
+
+            if (System.currentTimeMillis() >= nextProgress) {
+                committedRows = commit(output, fileStream, lastKey, committedRows, checkpointListener);
+
+                if (progressListener != null) {
+                    progressListener.onProgress(this.rows);
+                }
+
+                nextProgress = System.currentTimeMillis() + progressInterval;
+            }
+        }
+
+        if (this.header == null) {
+            schema.setHeader(Collections.<String>emptyList());
+            this.header = schema.getHeader();
+        }
+
+        if (writeHeader) {
+            exporter.writeHeader(schema);
+            this.headerLength = output.getSize();
+        }
+
+        commit(output, fileStream, lastKey, committedRows, checkpointListener);
+
+        if (progressListener != null) {
+            progressListener.onProgress(this.rows);
+        }
+    }
+
+    /**
+     * Writes the buffered rows to the file and notifies the listener.
+     *
+     * @param output        The buffer holding the encoded rows.
+     * @param fileStream    The stream of the file.
+     * @param lastKey       The key of the last written row. Can be null if nothing has been written yet.
+     * @param committedRows The number of rows reported to the listener so far.
+     * @param listener      The listener to notify. Can be null.
+     * @return The number of rows reported to the listener.
+     * @throws IOException Error writing to the file or the export should be stopped.
+     */
+    private long commit(OutputBuffer output, FileOutputStream fileStream, byte[] lastKey, long committedRows, ExportCheckpointListener listener)
+        throws IOException {
+
+        output.flush();
+
+        long written = this.rows;
+        if (listener != null && lastKey != null && written > committedRows) {
+            listener.onCommitted(fileStream.getChannel().position(), lastKey, written - committedRows);
+        }
+        return written;
+    }
+    //endregion
+
+    /**
+     * Reads the rows from the table and queues them in batches.
+     */
+    private class RowsReader implements Callable<Object> {
+
+        //region Variables
+        private List<Scan>                  scans;
+        private BlockingQueue<List<Result>> queue;
+        //endregion
+
+        //region Constructor
+        private RowsReader(List<Scan> scans, BlockingQueue<List<Result>> queue) {
+            this.scans = scans;
+            this.queue = queue;
+        }
+        //endregion
+
+        //region Public Methods
+        @Override
+        public Object call() throws Exception {
+            int batchSize = GlobalConfig.instance().getBatchSizeForRead();
+
+            // StorageTable is not thread safe, the reader uses its own instance.
+            StorageTable table = scanner.getConnection().getTableFactory().create(scanner.getTableName());
+            try {
+                ResultScanner results = openScanner(table, this.scans);
+                try {
+                    List<Result> batch = new ArrayList<Result>(batchSize);
+
+                    for (Result result = results.next() ; result != null ; result = results.next()) {
+                        if (scanner.isValidRow(result)) {
+                            batch.add(result);
+
+                            if (batch.size() == batchSize) {
+                                this.queue.put(batch);
+                                batch = new ArrayList<Result>(batchSize);
+                            }
+                        }
+                    }
+
+                    if (!batch.isEmpty()) {
+                        this.queue.put(batch);
+                    }
+
+                    this.queue.put(END);
+                }
+                finally {
+                    results.close();
+                }
+            }
+            finally {
+                table.close();
+            }
+            return null;
+        }
+        //endregion
+    }
+}
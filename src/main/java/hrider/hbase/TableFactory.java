@@ -1,8 +1,5 @@
 package hrider.hbase;
 
-import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.hbase.client.HTable;
-
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
@@ -25,30 +22,31 @@ import java.util.Map;
  * @author Igor Cher
  * @version %I%, %G%
  *          <p/>
- *          This class represents a factory for creating tables. Once the table is created it is cached for future use.
+ *          This class represents a factory for creating tables. Once the table is created it is cached for future use. The tables are
+ *          opened through the {@link StorageProvider} of the connection.
  */
 public class TableFactory {
 
     //region Variables
     /**
-     * A configuration object containing connection related information.
+     * The storage the tables are opened from.
      */
-    private Configuration config;
+    private StorageProvider           provider;
     /**
      * A collection of created tables.
      */
-    private Map<String, HTable> tables;
+    private Map<String, StorageTable> tables;
     //endregion
 
     //region Constructor
 
     /**
      * Initializes an instance of the {@link TableFactory} class.
-     * @param config A configuration object required to connect to hbase.
+     * @param provider The storage the tables are opened from.
      */
-    public TableFactory(Configuration config) {
-        this.config = config;
-        this.tables = new HashMap<String, HTable>();
+    public TableFactory(StorageProvider provider) {
+        this.provider = provider;
+        this.tables = new HashMap<String, StorageTable>();
     }
     //endregion
 
@@ -57,27 +55,38 @@ public class TableFactory {
     /**
      * Creates a new table if it wasn't created yet or returns the already created one.
      * @param tableName The name of the table to get/create.
-     * @return A reference to the {@link HTable}.
+     * @return A reference to the {@link StorageTable}.
      * @throws IOException Error accessing hbase.
      */
-    public synchronized HTable get(String tableName) throws IOException {
+    public synchronized StorageTable get(String tableName) throws IOException {
         if (this.tables.containsKey(tableName)) {
             return this.tables.get(tableName);
         }
 
-        HTable table = new HTable(this.config, tableName);
+        StorageTable table = this.provider.openTable(tableName);
         this.tables.put(tableName, table);
 
         return table;
     }
 
+    /**
+     * Creates a new table instance which is not cached by the factory. {@link StorageTable} is not thread safe, so the operations that access
+     * the same table from several threads should use a separate instance per thread. The caller is responsible to close the table.
+     * @param tableName The name of the table to create.
+     * @return A new instance of the {@link StorageTable}.
+     * @throws IOException Error accessing hbase.
+     */
+    public StorageTable create(String tableName) throws IOException {
+        return this.provider.openTable(tableName);
+    }
+
     /**
      * Cleans the resources of the specified table.
      * @param tableName The name of the table to dispose.
      * @throws IOException Error accessing hbase.
      */
     public synchronized void dispose(String tableName) throws IOException {
-        HTable table = this.tables.remove(tableName);
+        StorageTable table = this.tables.remove(tableName);
         if (table != null) {
             table.close();
         }
@@ -0,0 +1,683 @@
+package hrider.hbase;
+
+import hrider.actions.FutureUtils;
+import hrider.actions.NamedThreadFactory;
+import hrider.config.GlobalConfig;
+import hrider.converters.TypeConverter;
+import hrider.data.ColumnQualifier;
+import hrider.data.ColumnType;
+import hrider.format.DelimitedParser;
+import hrider.io.FileChunkReader;
+import hrider.io.Log;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class imports a character delimited file to a table. The file is read in chunks of whole lines, the chunks are parsed
+ *          concurrently into puts and the batches of puts are written by several writers connected to the parsers with a bounded queue.
+ *          The chunks are committed in the order of the file so that an interrupted import can be resumed from the last committed offset.
+ */
+public class TableImporter {
+
+    //region Constants
+    private static final Log   logger = Log.getLogger(TableImporter.class);
+    /**
+     * Stops a writer.
+     */
+    private static final Batch END    = new Batch(null, Collections.<Put>emptyList());
+    //endregion
+
+    //region Variables
+    /**
+     * The connection to the cluster.
+     */
+    private Connection              connection;
+    /**
+     * The name of the table to import to.
+     */
+    private String                  tableName;
+    /**
+     * The file to import.
+     */
+    private File                    file;
+    /**
+     * The character delimiting the values in the file.
+     */
+    private char                    delimiter;
+    /**
+     * The types of the values of the columns.
+     */
+    private Map<String, ColumnType> columnTypes;
+    /**
+     * The converter used to convert the names of the columns to bytes.
+     */
+    private TypeConverter           nameConverter;
+    /**
+     * The charset of the file.
+     */
+    private Charset                 charset;
+    /**
+     * The number of threads parsing the chunks.
+     */
+    private int                     parserThreads;
+    /**
+     * The number of threads writing the batches.
+     */
+    private int                     writerThreads;
+    /**
+     * The maximum number of batches waiting to be written.
+     */
+    private int                     queueSize;
+    /**
+     * The number of rows read from the file so far.
+     */
+    private AtomicLong              readRows;
+    /**
+     * The number of rows written to the table so far.
+     */
+    private AtomicLong              writtenRows;
+    /**
+     * The time of the next progress notification.
+     */
+    private long                    nextProgress;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link TableImporter} class. The settings are taken from the global configuration.
+     *
+     * @param connection    The connection to the cluster.
+     * @param tableName     The name of the table to import to. The table must exist.
+     * @param file          The file to import.
+     * @param delimiter     The character delimiting the values in the file.
+     * @param columnTypes   The types of the values of the columns. The values of the columns not in the map are imported as strings.
+     * @param nameConverter The converter used to convert the names of the columns to bytes.
+     */
+    public TableImporter(
+        Connection connection, String tableName, File file, char delimiter, Map<String, ColumnType> columnTypes, TypeConverter nameConverter) {
+        this.connection = connection;
+        this.tableName = tableName;
+        this.file = file;
+        this.delimiter = delimiter;
+        this.columnTypes = columnTypes;
+        this.nameConverter = nameConverter;
+        this.charset = Charset.defaultCharset();
+        this.parserThreads = Math.max(1, GlobalConfig.instance().getImportParserThreads());
+        this.writerThreads = Math.max(1, GlobalConfig.instance().getImportWriterThreads());
+        this.queueSize = Math.max(1, GlobalConfig.instance().getImportQueueSize());
+        this.readRows = new AtomicLong();
+        this.writtenRows = new AtomicLong();
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Imports the file.
+     *
+     * @param offset             The offset in the file to start from. Zero to import the whole file.
+     * @param progressListener   The listener to be notified about the progress at a fixed rate. Can be null.
+     * @param checkpointListener The listener to be notified about the parts of the file written to the table. Can be null.
+     * @throws IOException Error accessing hbase or reading the file or the import has been stopped by the checkpoint listener.
+     */
+    public void load(long offset, ImportProgressListener progressListener, ImportCheckpointListener checkpointListener) throws IOException {
+        Header header = readHeader();
+        if (header == null) {
+            return;
+        }
+
+        Collection<String> families = new HashSet<String>();
+        for (Column column : header.columns) {
+            if (column.family != null) {
+                families.add(Bytes.toStringBinary(column.family));
+            }
+        }
+
+        this.connection.addMissingFamilies(this.tableName, families);
+
+        ExecutorService parsers = Executors.newFixedThreadPool(this.parserThreads, new NamedThreadFactory(this.tableName + "-importParser"));
+        ExecutorService writers = Executors.newFixedThreadPool(this.writerThreads, new NamedThreadFactory(this.tableName + "-importWriter"));
+
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<Batch>(this.queueSize);
+
+        // Limits the number of chunks held in memory.
+        Semaphore chunks = new Semaphore(this.parserThreads * 2);
+
+        CommitTracker tracker = new CommitTracker(checkpointListener);
+
+        List<Future<Object>> tasks = new LinkedList<Future<Object>>();
+        List<Future<Object>> writerTasks = new ArrayList<Future<Object>>();
+
+        this.nextProgress = System.currentTimeMillis() + GlobalConfig.instance().getProgressInterval();
+
+        try {
+            for (int i = 0 ; i < this.writerThreads ; i++) {
+                Future<Object> task = writers.submit(new BatchWriter(queue, tracker));
+                tasks.add(task);
+                writerTasks.add(task);
+            }
+
+            FileChunkReader reader = new FileChunkReader(
+                this.file, Math.max(offset, header.length), GlobalConfig.instance().getImportChunkSize(),
+                GlobalConfig.instance().getImportMapThreshold(), new DelimitedParser(this.delimiter));
+
+            try {
+                for (FileChunkReader.Chunk chunk = reader.next() ; chunk != null ; chunk = reader.next()) {
+                    while (!chunks.tryAcquire(getWaitTime(), TimeUnit.MILLISECONDS)) {
+                        checkTasks(tasks, progressListener);
+                    }
+
+                    checkTasks(tasks, progressListener);
+
+                    tasks.add(parsers.submit(new ChunkParser(chunk, header, tracker.add(chunk.getEndOffset()), tracker, queue, chunks)));
+                }
+            }
+            finally {
+                reader.close();
+            }
+
+            while (!tracker.await(getWaitTime())) {
+                checkTasks(tasks, progressListener);
+            }
+
+            for (int i = 0 ; i < this.writerThreads ; i++) {
+                queue.put(END);
+            }
+
+            for (Future<Object> task : writerTasks) {
+                FutureUtils.getResult(task);
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(String.format("Import of the file '%s' has been interrupted.", this.file.getName()));
+        }
+        finally {
+            parsers.shutdownNow();
+            writers.shutdownNow();
+        }
+
+        notifyProgress(progressListener);
+
+        logger.info("Imported %d rows from file '%s' to table '%s'.", this.writtenRows.get(), this.file.getName(), this.tableName);
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Reads the names of the columns from the first line of the file.
+     *
+     * @return The header or null if the file is empty.
+     * @throws IOException Error reading the file or the header is not valid.
+     */
+    private Header readHeader() throws IOException {
+        DelimitedParser parser = new DelimitedParser(this.delimiter);
+
+        FileChunkReader reader = new FileChunkReader(this.file, 0, 64 * 1024, Long.MAX_VALUE, parser);
+        try {
+            FileChunkReader.Chunk chunk = reader.next();
+            if (chunk == null) {
+                return null;
+            }
+
+            CharBuffer text = this.charset.decode(chunk.getData());
+
+            int end = parser.findRecordEnd(text, 0, text.length());
+            if (end < 0) {
+                end = text.length();
+            }
+
+            List<String> names = new ArrayList<String>();
+            parser.parse(text, 0, end, names);
+
+            Header header = new Header();
+            header.length = Math.min(this.charset.encode(CharBuffer.wrap(text, 0, end)).limit() + 1, chunk.getEndOffset());
+            header.columns = new ArrayList<Column>(names.size());
+            header.keyIndex = -1;
+
+            for (String name : names) {
+                ColumnType type = this.columnTypes.get(name);
+                if (type == null) {
+                    type = ColumnType.String;
+                }
+
+                if (ColumnQualifier.isKey(name)) {
+                    header.keyIndex = header.columns.size();
+                    header.columns.add(new Column(null, null, type));
+                }
+                else {
+                    int index = name.indexOf(':');
+                    if (index <= 0) {
+                        throw new IllegalArgumentException(String.format("Column '%s' does not specify the column family.", name));
+                    }
+
+                    header.columns.add(new Column(Bytes.toBytesBinary(name.substring(0, index)), this.nameConverter.toBytes(name.substring(index + 1)), type));
+                }
+            }
+
+            if (header.keyIndex == -1) {
+                throw new IllegalArgumentException("Column 'key' is missing in the file.");
+            }
+            return header;
+        }
+        finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Gets the time to wait for the next progress notification.
+     *
+     * @return The time in milliseconds.
+     */
+    private long getWaitTime() {
+        return Math.max(1, this.nextProgress - System.currentTimeMillis());
+    }
+
+    /**
+     * Checks whether any of the completed tasks has failed and notifies the listener about the progress if the time has come.
+     *
+     * @param tasks            The running tasks. The completed tasks are removed from the list.
+     * @param progressListener The listener to notify. Can be null.
+     * @throws IOException          One of the tasks has failed.
+     * @throws InterruptedException The current thread has been interrupted.
+     */
+    private void checkTasks(Collection<Future<Object>> tasks, ImportProgressListener progressListener) throws IOException, InterruptedException {
+        Iterator<Future<Object>> iterator = tasks.iterator();
+        while (iterator.hasNext()) {
+            Future<Object> task = iterator.next();
+            if (task.isDone()) {
+                FutureUtils.getResult(task);
+                iterator.remove();
+            }
+        }
+
+        if (System.currentTimeMillis() >= this.nextProgress) {
+            notifyProgress(progressListener);
+            this.nextProgress = System.currentTimeMillis() + GlobalConfig.instance().getProgressInterval();
+        }
+    }
+
+    /**
+     * Notifies the listener about the current progress.
+     *
+     * @param listener The listener to notify. Can be null.
+     */
+    private void notifyProgress(ImportProgressListener listener) {
+        if (listener != null) {
+            listener.onProgress(this.readRows.get(), this.writtenRows.get());
+        }
+    }
+    //endregion
+
+    /**
+     * Represents a column of the file.
+     */
+    private static class Column {
+
+        //region Variables
+        private byte[]     family;
+        private byte[]     qualifier;
+        private ColumnType type;
+        //endregion
+
+        //region Constructor
+        private Column(byte[] family, byte[] qualifier, ColumnType type) {
+            this.family = family;
+            this.qualifier = qualifier;
+            this.type = type;
+        }
+        //endregion
+    }
+
+    /**
+     * Represents the first line of the file.
+     */
+    private static class Header {
+
+        //region Variables
+        private List<Column> columns;
+        private int          keyIndex;
+        private long         length;
+        //endregion
+    }
+
+    /**
+     * Represents a chunk of the file being imported.
+     */
+    private static class ChunkState {
+
+        //region Variables
+        /**
+         * The offset following the last line of the chunk.
+         */
+        private long          endOffset;
+        /**
+         * The number of rows parsed from the chunk.
+         */
+        private long          rows;
+        /**
+         * The number of batches not written yet plus one while the chunk is being parsed.
+         */
+        private AtomicInteger pending;
+        /**
+         * Indicates whether all rows of the chunk have been written.
+         */
+        private boolean       done;
+        //endregion
+
+        //region Constructor
+        private ChunkState(long endOffset) {
+            this.endOffset = endOffset;
+            this.pending = new AtomicInteger(1);
+        }
+        //endregion
+    }
+
+    /**
+     * Represents a batch of puts parsed from a chunk.
+     */
+    private static class Batch {
+
+        //region Variables
+        private ChunkState chunk;
+        private List<Put>  puts;
+        //endregion
+
+        //region Constructor
+        private Batch(ChunkState chunk, List<Put> puts) {
+            this.chunk = chunk;
+            this.puts = puts;
+        }
+        //endregion
+    }
+
+    /**
+     * Keeps track of the chunks being imported and reports the committed offset in the order of the file.
+     */
+    private static class CommitTracker {
+
+        //region Variables
+        private Queue<ChunkState>        chunks;
+        private ImportCheckpointListener listener;
+        //endregion
+
+        //region Constructor
+        private CommitTracker(ImportCheckpointListener listener) {
+            this.chunks = new LinkedList<ChunkState>();
+            this.listener = listener;
+        }
+        //endregion
+
+        //region Public Methods
+
+        /**
+         * Registers the next chunk of the file.
+         *
+         * @param endOffset The offset following the last line of the chunk.
+         * @return The state of the chunk.
+         */
+        public synchronized ChunkState add(long endOffset) {
+            ChunkState chunk = new ChunkState(endOffset);
+            this.chunks.add(chunk);
+            return chunk;
+        }
+
+        /**
+         * Releases one of the pending parts of the chunk and commits the chunk together with the chunks following it once nothing is
+         * pending.
+         *
+         * @param chunk The chunk.
+         * @throws IOException The import should be stopped.
+         */
+        public synchronized void release(ChunkState chunk) throws IOException {
+            if (chunk.pending.decrementAndGet() > 0) {
+                return;
+            }
+
+            chunk.done = true;
+
+            long offset = -1;
+            long rows = 0;
+
+            while (!this.chunks.isEmpty() && this.chunks.peek().done) {
+                ChunkState committed = this.chunks.poll();
+
+                offset = committed.endOffset;
+                rows += committed.rows;
+            }
+
+            if (this.chunks.isEmpty()) {
+                notifyAll();
+            }
+
+            if (offset != -1 && this.listener != null) {
+                this.listener.onCommitted(offset, rows);
+            }
+        }
+
+        /**
+         * Waits until all registered chunks are committed.
+         *
+         * @param timeout The maximum time to wait in milliseconds.
+         * @return True if all chunks are committed or False otherwise.
+         * @throws InterruptedException The current thread has been interrupted while waiting.
+         */
+        public synchronized boolean await(long timeout) throws InterruptedException {
+            if (!this.chunks.isEmpty()) {
+                wait(timeout);
+            }
+            return this.chunks.isEmpty();
+        }
+        //endregion
+    }
+
+    /**
+     * Parses the lines of a chunk into puts and queues them in batches.
+     */
+    private class ChunkParser implements Callable<Object> {
+
+        //region Variables
+        private FileChunkReader.Chunk chunk;
+        private Header                header;
+        private ChunkState            state;
+        private CommitTracker         tracker;
+        private BlockingQueue<Batch>  queue;
+        private Semaphore             chunks;
+        //endregion
+
+        //region Constructor
+        private ChunkParser(
+            FileChunkReader.Chunk chunk, Header header, ChunkState state, CommitTracker tracker, BlockingQueue<Batch> queue, Semaphore chunks) {
+            this.chunk = chunk;
+            this.header = header;
+            this.state = state;
+            this.tracker = tracker;
+            this.queue = queue;
+            this.chunks = chunks;
+        }
+        //endregion
+
+        //region Public Methods
+        @Override
+        public Object call() throws Exception {
+            try {
+                CharBuffer text = charset.decode(this.chunk.getData());
+
+                // Let the chunk be collected while its puts are waiting to be written.
+                this.chunk = null;
+
+                DelimitedParser parser = new DelimitedParser(delimiter);
+                List<String> values = new ArrayList<String>();
+
+                int batchSize = GlobalConfig.instance().getBatchSizeForWrite();
+                List<Put> puts = new ArrayList<Put>(batchSize);
+
+                int length = text.length();
+                for (int start = 0, end ; start < length ; start = end + 1) {
+                    // The new lines inside the quoted values do not end the record.
+                    end = parser.findRecordEnd(text, start, length);
+                    if (end < 0) {
+                        end = length;
+                    }
+
+                    values.clear();
+                    parser.parse(text, start, end, values);
+
+                    Put put = toPut(values);
+                    if (put != null) {
+                        puts.add(put);
+                        readRows.incrementAndGet();
+
+                        if (puts.size() == batchSize) {
+                            queue(puts);
+                            puts = new ArrayList<Put>(batchSize);
+                        }
+                    }
+                }
+
+                if (!puts.isEmpty()) {
+                    queue(puts);
+                }
+            }
+            finally {
+                this.chunks.release();
+            }
+
+            this.tracker.release(this.state);
+            return null;
+        }
+        //endregion
+
+        //region Private Methods
+
+        /**
+         * Queues the batch of puts to be written.
+         *
+         * @param puts The puts to write.
+         * @throws InterruptedException The thread has been interrupted while waiting.
+         */
+        private void queue(List<Put> puts) throws InterruptedException {
+            this.state.rows += puts.size();
+            this.state.pending.incrementAndGet();
+            this.queue.put(new Batch(this.state, puts));
+        }
+
+        /**
+         * Converts the values of a line to a put.
+         *
+         * @param values The values of the line.
+         * @return The put or null if the line does not contain a key or any other value.
+         * @throws IOException A value could not be converted to its type.
+         */
+        private Put toPut(List<String> values) throws IOException {
+            List<Column> columns = this.header.columns;
+
+            int keyIndex = this.header.keyIndex;
+            if (keyIndex >= values.size() || values.get(keyIndex).isEmpty()) {
+                return null;
+            }
+
+            Put put = new Put(toBytes(columns.get(keyIndex), values.get(keyIndex)));
+
+            int count = Math.min(values.size(), columns.size());
+            for (int i = 0 ; i < count ; i++) {
+                String value = values.get(i);
+
+                // The exporter writes an empty value for a missing cell.
+                if (i != keyIndex && !value.isEmpty()) {
+                    Column column = columns.get(i);
+                    put.add(column.family, column.qualifier, toBytes(column, value));
+                }
+            }
+
+            return put.isEmpty() ? null : put;
+        }
+
+        /**
+         * Converts the value to bytes according to the type of its column.
+         *
+         * @param column The column of the value.
+         * @param value  The value to convert.
+         * @return The converted value.
+         * @throws IOException The value could not be converted.
+         */
+        private byte[] toBytes(Column column, String value) throws IOException {
+            try {
+                return column.type.toBytes(value);
+            }
+            catch (RuntimeException e) {
+                throw new IOException(String.format("Failed to convert value '%s' to %s.", value, column.type), e);
+            }
+        }
+        //endregion
+    }
+
+    /**
+     * Writes the queued batches to the table.
+     */
+    private class BatchWriter implements Callable<Object> {
+
+        //region Variables
+        private BlockingQueue<Batch> queue;
+        private CommitTracker        tracker;
+        //endregion
+
+        //region Constructor
+        private BatchWriter(BlockingQueue<Batch> queue, CommitTracker tracker) {
+            this.queue = queue;
+            this.tracker = tracker;
+        }
+        //endregion
+
+        //region Public Methods
+        @Override
+        public Object call() throws Exception {
+            // StorageTable is not thread safe, each writer uses its own instance.
+            StorageTable table = connection.getTableFactory().create(tableName);
+            try {
+                for (Batch batch = this.queue.take() ; batch != END ; batch = this.queue.take()) {
+                    table.put(batch.puts);
+
+                    writtenRows.addAndGet(batch.puts.size());
+
+                    this.tracker.release(batch.chunk);
+                }
+            }
+            finally {
+                table.close();
+            }
+            return null;
+        }
+        //endregion
+    }
+}
@@ -0,0 +1,529 @@
+package hrider.hbase;
+
+import hrider.actions.NamedThreadFactory;
+import hrider.config.GlobalConfig;
+import hrider.data.DataRow;
+import hrider.data.TableDescriptor;
+import hrider.io.Log;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableNotFoundException;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class keeps the names, the state and the descriptors of the tables of a cluster so that the UI can read them without calling
+ *          the cluster. The metadata is loaded on a background thread when the cache is first used and refreshed on a configurable interval.
+ *          The cache listens to the operations of its connection and reloads the metadata of a modified table on the thread which has
+ *          modified it. The readers get an immutable snapshot, so the cache can be read from any thread. The cache also keeps the schemas
+ *          of the tables used by the read and write paths. A schema is built from the loaded descriptor and dropped once the descriptor
+ *          changes.
+ */
+public class TableMetadataCache implements HbaseActionListener {
+
+    //region Constants
+    private static final Log logger = Log.getLogger(TableMetadataCache.class);
+    //endregion
+
+    //region Variables
+    /**
+     * The storage the metadata is loaded from.
+     */
+    private StorageProvider             provider;
+    /**
+     * The name of the refreshing thread.
+     */
+    private String                      name;
+    /**
+     * The thread refreshing the metadata. The thread is created on first use.
+     */
+    private ScheduledThreadPoolExecutor executor;
+    /**
+     * The last loaded metadata or null if the metadata has not been loaded yet.
+     */
+    private volatile Snapshot           snapshot;
+    /**
+     * A list of listeners.
+     */
+    private List<TableMetadataListener> listeners;
+    /**
+     * Guards the replacement of the snapshot. The metadata is loaded from the storage outside of the lock.
+     */
+    private Object                      loadLock;
+    /**
+     * The number of the single table reloads started so far. Guarded by the load lock.
+     */
+    private long                        sequence;
+    /**
+     * The sequence number of the latest applied reload per table, so that a load started earlier cannot overwrite the table with older
+     * metadata. Guarded by the load lock.
+     */
+    private Map<String, Long>           reloaded;
+    /**
+     * The schemas of the tables requested by the read and write paths.
+     */
+    private Map<String, TableSchema>    schemas;
+    /**
+     * The version of the schemas. The version is incremented each time the cached schemas are checked against the loaded descriptors.
+     */
+    private AtomicLong                  schemaVersion;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link TableMetadataCache} class.
+     *
+     * @param name     The name of the refreshing thread.
+     * @param provider The storage the metadata is loaded from.
+     */
+    public TableMetadataCache(String name, StorageProvider provider) {
+        this.name = name;
+        this.provider = provider;
+        this.listeners = new CopyOnWriteArrayList<TableMetadataListener>();
+        this.loadLock = new Object();
+        this.reloaded = new HashMap<String, Long>();
+        this.schemas = new ConcurrentHashMap<String, TableSchema>();
+        this.schemaVersion = new AtomicLong();
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Checks whether the metadata has been loaded at least once.
+     *
+     * @return True if the metadata is loaded or False otherwise.
+     */
+    public boolean isLoaded() {
+        start();
+        return this.snapshot != null;
+    }
+
+    /**
+     * Gets the names of all the tables. The list is empty until the metadata is loaded.
+     *
+     * @return A list of table names.
+     */
+    public Collection<String> getTables() {
+        start();
+
+        Snapshot current = this.snapshot;
+        if (current == null) {
+            return new ArrayList<String>();
+        }
+        return new ArrayList<String>(current.descriptors.keySet());
+    }
+
+    /**
+     * Checks whether the specified table is enabled. A table which is not known to the cache is reported as enabled.
+     *
+     * @param tableName The name of the table to check.
+     * @return True if the table is enabled or False otherwise.
+     */
+    public boolean isTableEnabled(String tableName) {
+        if (tableName == null) {
+            return false;
+        }
+
+        if (TableUtil.isMetaTable(tableName)) {
+            return true;
+        }
+
+        start();
+
+        Snapshot current = this.snapshot;
+        if (current == null) {
+            return true;
+        }
+
+        Boolean enabled = current.enabled.get(tableName);
+        return enabled == null || enabled;
+    }
+
+    /**
+     * Gets the descriptor of the specified table.
+     *
+     * @param tableName The name of the table.
+     * @return A new instance of the {@link TableDescriptor} or null if the table is not known to the cache.
+     */
+    public TableDescriptor getTableDescriptor(String tableName) {
+        start();
+
+        Snapshot current = this.snapshot;
+        if (current == null) {
+            return null;
+        }
+
+        HTableDescriptor descriptor = current.descriptors.get(tableName);
+        if (descriptor == null) {
+            return null;
+        }
+        return new TableDescriptor(descriptor);
+    }
+
+    /**
+     * Gets the schema of the specified table. The schema is built from the loaded descriptor of the table if the table is known to the
+     * cache, otherwise the descriptor is loaded from the storage. The schema is loaded again only after the descriptor of the table has
+     * changed, so the read and write paths do not call the cluster administration.
+     *
+     * @param tableName The name of the table.
+     * @return A reference to the {@link TableSchema}.
+     * @throws IOException            Error accessing hbase.
+     * @throws TableNotFoundException The specified table does not exist.
+     */
+    public TableSchema getSchema(String tableName) throws IOException, TableNotFoundException {
+        TableSchema schema = this.schemas.get(tableName);
+        if (schema == null) {
+            long version = this.schemaVersion.get();
+
+            Snapshot current = this.snapshot;
+
+            HTableDescriptor descriptor = current != null ? current.descriptors.get(tableName) : null;
+            if (descriptor == null) {
+                descriptor = this.provider.getTableDescriptor(tableName);
+            }
+
+            schema = new TableSchema(descriptor);
+
+            synchronized (this.schemas) {
+                // A schema loaded while the descriptors were replaced might be stale, so it is returned but not cached.
+                if (this.schemaVersion.get() == version) {
+                    this.schemas.put(tableName, schema);
+                }
+            }
+        }
+        return schema;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Adds a listener for the changes of the metadata.
+     *
+     * @param listener A listener to add.
+     */
+    public void addListener(TableMetadataListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Removes the listener.
+     *
+     * @param listener A listener to remove.
+     */
+    public void removeListener(TableMetadataListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Reloads the metadata of all the tables on the refreshing thread. The listeners are notified if anything has changed.
+     */
+    public void refresh() {
+        execute(
+            new Runnable() {
+                @Override
+                public void run() {
+                    reload();
+                }
+            });
+    }
+
+    /**
+     * Reloads the metadata of the specified table on the calling thread, so the cache is up to date when the method returns. The table is
+     * loaded without waiting for a full reload in progress. The listeners are notified if anything has changed.
+     *
+     * @param tableName The name of the table.
+     */
+    public void invalidate(String tableName) {
+        reload(tableName);
+    }
+
+    /**
+     * Drops the cached schemas of all the tables. The schemas are loaded again the next time they are requested.
+     */
+    public void clearSchemas() {
+        synchronized (this.schemas) {
+            this.schemaVersion.incrementAndGet();
+            this.schemas.clear();
+        }
+    }
+
+    /**
+     * Stops the refreshing thread. The thread is started again if the cache is used after it has been stopped.
+     */
+    public synchronized void stop() {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+            this.executor = null;
+        }
+    }
+
+    @Override
+    public void copyOperation(String source, String sourceTable, String target, String targetTable, Result result) {
+    }
+
+    @Override
+    public void saveOperation(String tableName, String path, Result result) {
+    }
+
+    @Override
+    public void loadOperation(String tableName, String path, Put put) {
+    }
+
+    @Override
+    public void tableOperation(String tableName, String operation) {
+        invalidate(tableName);
+    }
+
+    @Override
+    public void rowOperation(String tableName, DataRow row, String operation) {
+    }
+
+    @Override
+    public void columnOperation(String tableName, String column, String operation) {
+        invalidate(tableName);
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Starts the refreshing thread if it is not running. The first refresh is scheduled immediately.
+     */
+    private synchronized void start() {
+        if (this.executor == null) {
+            this.executor = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory(this.name));
+
+            Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    reload();
+                }
+            };
+
+            long interval = GlobalConfig.instance().getMetadataRefreshInterval();
+            if (interval > 0) {
+                this.executor.scheduleWithFixedDelay(task, 0, interval, TimeUnit.MILLISECONDS);
+            }
+            else {
+                this.executor.execute(task);
+            }
+        }
+    }
+
+    /**
+     * Executes a task on the refreshing thread.
+     *
+     * @param task The task to execute.
+     */
+    private synchronized void execute(Runnable task) {
+        start();
+        this.executor.execute(task);
+    }
+
+    /**
+     * Loads the metadata of all the tables. The tables reloaded individually after the load has started keep their reloaded metadata.
+     */
+    private void reload() {
+        long started;
+        synchronized (this.loadLock) {
+            started = this.sequence;
+        }
+
+        try {
+            Map<String, HTableDescriptor> descriptors = new TreeMap<String, HTableDescriptor>();
+            Map<String, Boolean> enabled = new HashMap<String, Boolean>();
+
+            for (HTableDescriptor descriptor : this.provider.listTables()) {
+                String tableName = descriptor.getNameAsString();
+
+                descriptors.put(tableName, descriptor);
+                enabled.put(tableName, this.provider.isTableEnabled(tableName));
+            }
+
+            synchronized (this.loadLock) {
+                Snapshot current = this.snapshot;
+
+                for (Map.Entry<String, Long> entry : this.reloaded.entrySet()) {
+                    if (entry.getValue() > started) {
+                        String tableName = entry.getKey();
+
+                        if (current.descriptors.containsKey(tableName)) {
+                            descriptors.put(tableName, current.descriptors.get(tableName));
+                            enabled.put(tableName, current.enabled.get(tableName));
+                        }
+                        else {
+                            descriptors.remove(tableName);
+                            enabled.remove(tableName);
+                        }
+                    }
+                }
+
+                update(new Snapshot(descriptors, enabled));
+            }
+        }
+        catch (Exception e) {
+            // The exception must not escape, otherwise the periodic refresh is cancelled.
+            logger.error(e, "Failed to load the metadata of the tables from '%s'.", this.name);
+        }
+    }
+
+    /**
+     * Loads the metadata of a single table. Nothing is loaded if the cache has not been loaded yet, the first load will see the table anyway.
+     *
+     * @param tableName The name of the table.
+     */
+    private void reload(String tableName) {
+        long started;
+        synchronized (this.loadLock) {
+            if (this.snapshot == null) {
+                // The schema of the table could have been loaded before the first load of the cache.
+                synchronized (this.schemas) {
+                    this.schemaVersion.incrementAndGet();
+                    this.schemas.remove(tableName);
+                }
+                return;
+            }
+            started = ++this.sequence;
+        }
+
+        try {
+            HTableDescriptor descriptor = null;
+            Boolean tableEnabled = null;
+
+            if (this.provider.tableExists(tableName)) {
+                descriptor = this.provider.getTableDescriptor(tableName);
+                tableEnabled = this.provider.isTableEnabled(tableName);
+            }
+
+            synchronized (this.loadLock) {
+                Long last = this.reloaded.get(tableName);
+                if (last != null && last > started) {
+                    // The table has been reloaded by a later call in the meantime.
+                    return;
+                }
+
+                this.reloaded.put(tableName, started);
+
+                Snapshot current = this.snapshot;
+
+                Map<String, HTableDescriptor> descriptors = new TreeMap<String, HTableDescriptor>(current.descriptors);
+                Map<String, Boolean> enabled = new HashMap<String, Boolean>(current.enabled);
+
+                if (descriptor != null) {
+                    descriptors.put(tableName, descriptor);
+                    enabled.put(tableName, tableEnabled);
+                }
+                else {
+                    descriptors.remove(tableName);
+                    enabled.remove(tableName);
+                }
+
+                update(new Snapshot(descriptors, enabled));
+            }
+        }
+        catch (Exception e) {
+            logger.error(e, "Failed to load the metadata of the table '%s'.", tableName);
+        }
+    }
+
+    /**
+     * Replaces the current snapshot and notifies the listeners if the metadata has changed. Must be called while holding the load lock.
+     *
+     * @param loaded The loaded snapshot.
+     */
+    private void update(Snapshot loaded) {
+        Snapshot current = this.snapshot;
+        this.snapshot = loaded;
+
+        synchronized (this.schemas) {
+            this.schemaVersion.incrementAndGet();
+
+            Iterator<Map.Entry<String, TableSchema>> iterator = this.schemas.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, TableSchema> entry = iterator.next();
+
+                // The schemas of the modified, deleted and not yet listed tables are loaded again when requested.
+                if (!entry.getValue().getDescriptor().equals(loaded.descriptors.get(entry.getKey()))) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        if (current == null || !current.equals(loaded)) {
+            for (TableMetadataListener listener : this.listeners) {
+                try {
+                    listener.onMetadataChanged(this);
+                }
+                catch (Exception e) {
+                    logger.error(e, "Metadata listener failed.");
+                }
+            }
+        }
+    }
+    //endregion
+
+    /**
+     * The metadata of all the tables loaded at once.
+     */
+    private static class Snapshot {
+
+        /**
+         * The descriptors of the tables ordered by the table name.
+         */
+        private final Map<String, HTableDescriptor> descriptors;
+        /**
+         * The state of the tables.
+         */
+        private final Map<String, Boolean>          enabled;
+
+        private Snapshot(Map<String, HTableDescriptor> descriptors, Map<String, Boolean> enabled) {
+            this.descriptors = descriptors;
+            this.enabled = enabled;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Snapshot)) {
+                return false;
+            }
+
+            Snapshot other = (Snapshot)obj;
+            return this.descriptors.equals(other.descriptors) && this.enabled.equals(other.enabled);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.descriptors.hashCode() + this.enabled.hashCode();
+        }
+    }
+}
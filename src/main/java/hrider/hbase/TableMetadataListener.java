@@ -0,0 +1,32 @@
+package hrider.hbase;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This interface represents a listener for the changes of the cached table metadata.
+ */
+public interface TableMetadataListener {
+
+    /**
+     * This method is called when the cached list of the tables, their state or their descriptors have changed. The method is called either on the
+     * refreshing thread of the cache or on the thread which has modified a table.
+     *
+     * @param cache The cache which content has changed.
+     */
+    void onMetadataChanged(TableMetadataCache cache);
+}
@@ -0,0 +1,105 @@
+package hrider.hbase;
+
+import hrider.data.ColumnFamily;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+
+import java.util.*;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents the schema of a table cached by the {@link TableMetadataCache}. The instance is immutable and must not be
+ *          modified by the callers.
+ */
+public class TableSchema {
+
+    //region Variables
+    /**
+     * The descriptor of the table.
+     */
+    private HTableDescriptor         descriptor;
+    /**
+     * The column families of the table.
+     */
+    private Collection<ColumnFamily> families;
+    /**
+     * The names of the column families.
+     */
+    private Set<String>              familyNames;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link TableSchema} class.
+     *
+     * @param descriptor The descriptor of the table.
+     */
+    public TableSchema(HTableDescriptor descriptor) {
+        this.descriptor = descriptor;
+
+        Collection<ColumnFamily> columnFamilies = new ArrayList<ColumnFamily>();
+        Set<String> names = new HashSet<String>();
+
+        for (HColumnDescriptor column : descriptor.getColumnFamilies()) {
+            ColumnFamily family = new ColumnFamily(column);
+
+            columnFamilies.add(family);
+            names.add(family.getName());
+        }
+
+        this.families = Collections.unmodifiableCollection(columnFamilies);
+        this.familyNames = Collections.unmodifiableSet(names);
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the descriptor of the table. The descriptor is shared and must not be modified.
+     *
+     * @return A reference to the {@link HTableDescriptor}.
+     */
+    public HTableDescriptor getDescriptor() {
+        return this.descriptor;
+    }
+
+    /**
+     * Gets the column families of the table.
+     *
+     * @return A read only collection of the column families.
+     */
+    public Collection<ColumnFamily> getFamilies() {
+        return this.families;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Checks whether the table has the specified column family.
+     *
+     * @param family The name of the column family.
+     * @return True if the column family exists or False otherwise.
+     */
+    public boolean hasFamily(String family) {
+        return this.familyNames.contains(family);
+    }
+    //endregion
+}
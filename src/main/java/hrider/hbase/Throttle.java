@@ -0,0 +1,121 @@
+package hrider.hbase;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class limits the rate of a data transfer shared by several threads. The callers are delayed so that the average number of
+ *          rows and bytes per second since the throttle has been created does not exceed the configured limits.
+ */
+public class Throttle {
+
+    //region Variables
+    /**
+     * The maximum number of rows per second or zero if the rows are not limited.
+     */
+    private long maxRowsPerSecond;
+    /**
+     * The maximum number of bytes per second or zero if the bytes are not limited.
+     */
+    private long maxBytesPerSecond;
+    /**
+     * The time the throttle has been created.
+     */
+    private long startTime;
+    /**
+     * The number of rows transferred so far.
+     */
+    private long rows;
+    /**
+     * The number of bytes transferred so far.
+     */
+    private long bytes;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link Throttle} class.
+     *
+     * @param maxRowsPerSecond  The maximum number of rows per second or zero if the rows should not be limited.
+     * @param maxBytesPerSecond The maximum number of bytes per second or zero if the bytes should not be limited.
+     */
+    public Throttle(long maxRowsPerSecond, long maxBytesPerSecond) {
+        this.maxRowsPerSecond = maxRowsPerSecond;
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        this.startTime = System.currentTimeMillis();
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Indicates whether the throttle limits anything.
+     *
+     * @return True if at least one of the limits is set or False otherwise.
+     */
+    public boolean isEnabled() {
+        return this.maxRowsPerSecond > 0 || this.maxBytesPerSecond > 0;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Accounts for the data about to be transferred and waits as long as needed to keep the transfer within the limits.
+     *
+     * @param rowsNumber  The number of rows to transfer.
+     * @param bytesNumber The number of bytes to transfer.
+     * @throws InterruptedIOException The thread has been interrupted while waiting.
+     */
+    public void acquire(long rowsNumber, long bytesNumber) throws InterruptedIOException {
+        if (!isEnabled()) {
+            return;
+        }
+
+        long delay;
+
+        synchronized (this) {
+            this.rows += rowsNumber;
+            this.bytes += bytesNumber;
+
+            long expectedTime = 0;
+            if (this.maxRowsPerSecond > 0) {
+                expectedTime = Math.max(expectedTime, this.rows * 1000 / this.maxRowsPerSecond);
+            }
+
+            if (this.maxBytesPerSecond > 0) {
+                expectedTime = Math.max(expectedTime, this.bytes * 1000 / this.maxBytesPerSecond);
+            }
+
+            delay = this.startTime + expectedTime - System.currentTimeMillis();
+        }
+
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("The transfer has been interrupted.");
+            }
+        }
+    }
+    //endregion
+}
@@ -0,0 +1,167 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.*;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a comparison of the value of a column, the row key, the column names or the timestamps of the cells with a word.
+ *          The comparison of a column matches only the rows having the column, so a row without the column matches neither the comparison nor
+ *          its negation. The only exception is the check for null which matches the rows without the column.
+ */
+public class ValuePredicate extends Predicate {
+
+    //region Constants
+    private static final long serialVersionUID = 3398105284731906652L;
+    //endregion
+
+    //region Variables
+    /**
+     * The part of the row the word is compared with.
+     */
+    private final Target   target;
+    /**
+     * The column family of the compared column. Used only with the {@link Target#Column} target.
+     */
+    private final byte[]   family;
+    /**
+     * The name of the compared column. Used only with the {@link Target#Column} target.
+     */
+    private final byte[]   column;
+    /**
+     * The operator to compare with.
+     */
+    private final Operator operator;
+    /**
+     * The word to compare with.
+     */
+    private final String   word;
+    /**
+     * The word converted to a byte array according to the type of the compared value.
+     */
+    private final byte[]   value;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link ValuePredicate} class.
+     *
+     * @param target   The part of the row the word is compared with.
+     * @param family   The column family of the compared column. Can be null unless the target is {@link Target#Column}.
+     * @param column   The name of the compared column. Can be null unless the target is {@link Target#Column}.
+     * @param operator The operator to compare with.
+     * @param word     The word to compare with. Can be null if the operator is unary.
+     * @param value    The word converted to a byte array according to the type of the compared value. For the timestamps the value is
+     *                 the number of milliseconds converted with the {@link Bytes#toBytes(long)}.
+     */
+    public ValuePredicate(Target target, byte[] family, byte[] column, Operator operator, String word, byte[] value) {
+        this.target = target;
+        this.family = family;
+        this.column = column;
+        this.operator = operator;
+        this.word = word;
+        this.value = value;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the part of the row the word is compared with.
+     *
+     * @return The target of the comparison.
+     */
+    public Target getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Gets the operator to compare with.
+     *
+     * @return An operator.
+     */
+    public Operator getOperator() {
+        return this.operator;
+    }
+
+    /**
+     * Gets the word to compare with.
+     *
+     * @return A word.
+     */
+    public String getWord() {
+        return this.word;
+    }
+    //endregion
+
+    //region Protected Methods
+    @Override
+    protected Filter toFilter(boolean negated, Scan scan, byte[] keyPrefix) throws IOException {
+        switch (this.target) {
+            case Column:
+                CompareFilter.CompareOp compareOp = this.operator.toFilter(negated);
+
+                SingleColumnValueFilter filter = new SingleColumnValueFilter(
+                    this.family, this.column, compareOp, this.operator.toComparator(this.word, this.value));
+                // A row without the column is null, so only the check for null lets it pass. The row holding an empty value passes as well.
+                filter.setFilterIfMissing(!this.operator.isUnary() || compareOp != CompareFilter.CompareOp.EQUAL);
+                return filter;
+            case Key:
+                return QueryPlanner.createKeyFilter(this.operator, negated, this.word, this.value, scan, keyPrefix);
+            case Qualifier:
+                return QueryPlanner.createQualifierFilter(this.operator, negated, this.word, this.value);
+            case Timestamp:
+                return QueryPlanner.createTimestampFilter(this.operator, negated, Bytes.toLong(this.value), scan);
+            default:
+                throw new IllegalArgumentException(String.format("The specified target '%s' is not supported.", this.target));
+        }
+    }
+
+    @Override
+    protected boolean comparesColumns() {
+        return this.target == Target.Column;
+    }
+    //endregion
+
+    /**
+     * Represents the part of the row the word is compared with.
+     */
+    public enum Target {
+        /**
+         * The value of a column.
+         */
+        Column,
+        /**
+         * The row key.
+         */
+        Key,
+        /**
+         * The names of the columns. Only the cells of the matching columns are returned.
+         */
+        Qualifier,
+        /**
+         * The timestamps of the cells. Only the cells with the matching timestamps are returned.
+         */
+        Timestamp
+    }
+}
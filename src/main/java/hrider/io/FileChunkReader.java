@@ -0,0 +1,289 @@
+package hrider.io;
+
+import hrider.format.DelimitedParser;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class reads a delimited text file in chunks of whole records so that the chunks can be processed independently. A record
+ *          ends with a new line which is not inside a quoted value. The files larger than the map threshold are mapped to memory chunk by
+ *          chunk, the smaller files are read into heap buffers. A chunk is extended beyond the configured size when a single record does not
+ *          fit into it. The delimiters, the quotes and the new lines are found byte by byte, which holds for the ASCII compatible charsets.
+ */
+public class FileChunkReader implements Closeable {
+
+    //region Variables
+    /**
+     * The file being read.
+     */
+    private RandomAccessFile file;
+    /**
+     * The channel of the file.
+     */
+    private FileChannel      channel;
+    /**
+     * The size of the file when the reader has been opened.
+     */
+    private long             size;
+    /**
+     * The offset of the next chunk.
+     */
+    private long             position;
+    /**
+     * The preferred size of a chunk.
+     */
+    private int              chunkSize;
+    /**
+     * Indicates whether the chunks are mapped to memory.
+     */
+    private boolean          mapped;
+    /**
+     * The parser used to find the ends of the records.
+     */
+    private DelimitedParser  parser;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link FileChunkReader} class.
+     *
+     * @param file         The file to read.
+     * @param offset       The offset to start reading from. The offset should point to the beginning of a record.
+     * @param chunkSize    The preferred size of a chunk.
+     * @param mapThreshold The minimal size of the file to be mapped to memory.
+     * @param parser       The parser used to find the ends of the records.
+     * @throws IOException The file could not be opened.
+     */
+    public FileChunkReader(File file, long offset, int chunkSize, long mapThreshold, DelimitedParser parser) throws IOException {
+        this.file = new RandomAccessFile(file, "r");
+        this.channel = this.file.getChannel();
+        this.size = this.channel.size();
+        this.position = Math.min(offset, this.size);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.mapped = this.size >= mapThreshold;
+        this.parser = parser;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the offset of the next chunk.
+     *
+     * @return The offset in bytes.
+     */
+    public long getPosition() {
+        return this.position;
+    }
+
+    /**
+     * Gets the size of the file.
+     *
+     * @return The size in bytes.
+     */
+    public long getSize() {
+        return this.size;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Reads the next chunk of records. The chunk ends with a new line character unless it is the last chunk of the file.
+     *
+     * @return The chunk or null if the end of the file has been reached.
+     * @throws IOException Error reading the file.
+     */
+    public Chunk next() throws IOException {
+        if (this.position >= this.size) {
+            return null;
+        }
+
+        long length = this.chunkSize;
+
+        while (true) {
+            length = Math.min(length, this.size - this.position);
+
+            ByteBuffer buffer = read(this.position, (int)length);
+
+            int end = buffer.limit();
+            if (this.position + end < this.size) {
+                end = lastRecordEnd(buffer) + 1;
+            }
+
+            if (end > 0) {
+                buffer.limit(end);
+
+                Chunk chunk = new Chunk(this.position, buffer.slice());
+                this.position += end;
+                return chunk;
+            }
+
+            // The record does not fit into the chunk.
+            if (length >= Integer.MAX_VALUE / 2) {
+                throw new IOException(String.format("The record at offset %d is too long.", this.position));
+            }
+            length *= 2;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.file.close();
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Reads or maps the specified region of the file.
+     *
+     * @param offset The offset of the region.
+     * @param length The length of the region.
+     * @return The buffer holding the region.
+     * @throws IOException Error reading the file.
+     */
+    private ByteBuffer read(long offset, int length) throws IOException {
+        if (this.mapped) {
+            return this.channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (this.channel.read(buffer, offset + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Finds the new line ending the last whole record in the buffer. The buffer starts at the beginning of a record, so the records are
+     * followed from the beginning of the buffer to know which new lines are inside quoted values.
+     *
+     * @param buffer The buffer to search.
+     * @return The index of the new line or -1 if the buffer does not hold a whole record.
+     */
+    private int lastRecordEnd(ByteBuffer buffer) {
+        CharSequence text = new ByteSequence(buffer);
+
+        int last = -1;
+        int end = this.parser.findRecordEnd(text, 0, text.length());
+
+        while (end >= 0) {
+            last = end;
+            end = this.parser.findRecordEnd(text, end + 1, text.length());
+        }
+        return last;
+    }
+    //endregion
+
+    /**
+     * Represents the bytes of a buffer as characters. The bytes of the multibyte characters of the ASCII compatible charsets never match an
+     * ASCII character, so the delimiters, the quotes and the new lines can be found without decoding the buffer.
+     */
+    private static class ByteSequence implements CharSequence {
+
+        //region Variables
+        private ByteBuffer buffer;
+        //endregion
+
+        //region Constructor
+        private ByteSequence(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+        //endregion
+
+        //region Public Methods
+        @Override
+        public int length() {
+            return this.buffer.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char)(this.buffer.get(index) & 0xff);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            ByteBuffer slice = this.buffer.duplicate();
+            slice.position(start);
+            slice.limit(end);
+            return new ByteSequence(slice.slice());
+        }
+        //endregion
+    }
+
+    /**
+     * Represents a chunk of lines read from the file.
+     */
+    public static class Chunk {
+
+        //region Variables
+        private long       offset;
+        private ByteBuffer data;
+        //endregion
+
+        //region Constructor
+        private Chunk(long offset, ByteBuffer data) {
+            this.offset = offset;
+            this.data = data;
+        }
+        //endregion
+
+        //region Public Properties
+
+        /**
+         * Gets the offset of the chunk in the file.
+         *
+         * @return The offset in bytes.
+         */
+        public long getOffset() {
+            return this.offset;
+        }
+
+        /**
+         * Gets the offset following the last byte of the chunk.
+         *
+         * @return The offset in bytes.
+         */
+        public long getEndOffset() {
+            return this.offset + this.data.limit();
+        }
+
+        /**
+         * Gets the data of the chunk.
+         *
+         * @return A read only view of the data.
+         */
+        public ByteBuffer getData() {
+            return this.data.asReadOnlyBuffer();
+        }
+        //endregion
+    }
+}
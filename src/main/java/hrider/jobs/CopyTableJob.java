@@ -0,0 +1,147 @@
+package hrider.jobs;
+
+import hrider.hbase.Connection;
+import hrider.hbase.CopyCheckpointListener;
+import hrider.hbase.KeyRange;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a job copying a table to another table. The source table is split by its regions when the job starts for
+ *          the first time and the ranges are stored in the journal, so a resumed job uses the same segments even if the regions have been
+ *          split since. The checkpoint of each range is the key of the last row written to the target table.
+ */
+public class CopyTableJob extends Job {
+
+    //region Constants
+    private static final String SOURCE       = "source";
+    private static final String SOURCE_TABLE = "sourceTable";
+    private static final String TARGET       = "target";
+    private static final String TARGET_TABLE = "targetTable";
+    private static final String RANGES       = "ranges";
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link CopyTableJob} class.
+     *
+     * @param source      The connection to the source cluster.
+     * @param sourceTable The name of the table to copy from.
+     * @param target      The connection to the target cluster. The target table must exist.
+     * @param targetTable The name of the table to copy to.
+     */
+    public CopyTableJob(Connection source, String sourceTable, Connection target, String targetTable) {
+        super(JobJournal.create());
+
+        JobJournal journal = getJournal();
+        journal.setDescription(String.format("Copy %s.%s to %s.%s", source.getServerName(), sourceTable, target.getServerName(), targetTable));
+        journal.setParameter(SOURCE_TABLE, sourceTable);
+        journal.setParameter(TARGET_TABLE, targetTable);
+
+        setConnectionParameter(SOURCE, source.getConnectionDetails());
+        setConnectionParameter(TARGET, target.getConnectionDetails());
+    }
+
+    /**
+     * Initializes a new instance of the {@link CopyTableJob} class from the journal of a stopped job.
+     *
+     * @param journal The journal of the job.
+     */
+    public CopyTableJob(JobJournal journal) {
+        super(journal);
+    }
+    //endregion
+
+    //region Protected Methods
+    @Override
+    protected void execute() throws Exception {
+        JobJournal journal = getJournal();
+
+        Connection source = getConnectionParameter(SOURCE);
+        Connection target = getConnectionParameter(TARGET);
+
+        String sourceTable = journal.getParameter(SOURCE_TABLE);
+        String targetTable = journal.getParameter(TARGET_TABLE);
+
+        if (journal.getParameter(RANGES) == null) {
+            List<KeyRange> regions = KeyRange.split(
+                source.getTableFactory().get(sourceTable), HConstants.EMPTY_START_ROW, HConstants.EMPTY_END_ROW);
+
+            for (int i = 0 ; i < regions.size() ; i++) {
+                journal.setParameter(getSegment(i) + ".start", Bytes.toStringBinary(regions.get(i).getStartKey()));
+                journal.setParameter(getSegment(i) + ".stop", Bytes.toStringBinary(regions.get(i).getStopKey()));
+            }
+
+            journal.setParameter(RANGES, Integer.toString(regions.size()));
+            journal.save();
+        }
+
+        final Map<KeyRange, String> segments = new IdentityHashMap<KeyRange, String>();
+        List<KeyRange> ranges = new ArrayList<KeyRange>();
+
+        int count = Integer.parseInt(journal.getParameter(RANGES));
+        for (int i = 0 ; i < count ; i++) {
+            String segment = getSegment(i);
+
+            byte[] startKey = Bytes.toBytesBinary(journal.getParameter(segment + ".start"));
+            byte[] stopKey = Bytes.toBytesBinary(journal.getParameter(segment + ".stop"));
+
+            String checkpoint = journal.getCheckpoint(segment);
+            if (checkpoint != null) {
+                // Continue right after the last committed row.
+                startKey = Bytes.add(Bytes.toBytesBinary(checkpoint), new byte[1]);
+            }
+
+            KeyRange range = new KeyRange(startKey, stopKey);
+
+            segments.put(range, segment);
+            ranges.add(range);
+        }
+
+        target.copyTable(
+            targetTable, sourceTable, source, ranges, new CopyCheckpointListener() {
+            @Override
+            public void onBatchCommitted(KeyRange range, byte[] lastKey, int rows) throws IOException {
+                checkpoint(segments.get(range), Bytes.toStringBinary(lastKey), rows);
+            }
+        });
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Gets the name of the segment representing the range.
+     *
+     * @param index The index of the range.
+     * @return The name of the segment.
+     */
+    private static String getSegment(int index) {
+        return "range." + index;
+    }
+    //endregion
+}
@@ -0,0 +1,345 @@
+package hrider.jobs;
+
+import hrider.data.ColumnType;
+import hrider.export.*;
+import hrider.hbase.*;
+import org.apache.hadoop.hbase.util.Base64;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a job exporting a table to a file of one of the registered formats. The checkpoint of the file is the key of the last
+ *          exported row together with the length of the file at that point. A resumed job truncates whatever has been written after the
+ *          checkpoint and continues the scan right after the last exported row, keeping the columns of the original header.
+ *          <p/>
+ *          In the parallel mode the table is split by its regions when the job starts for the first time and each range is exported to its
+ *          own part file with a checkpoint of its own. When all parts are exported they are optionally merged into the file and a manifest
+ *          describing the parts is written next to the file.
+ */
+public class ExportFileJob extends Job {
+
+    //region Constants
+    private static final String CONNECTION     = "connection";
+    private static final String TABLE          = "table";
+    private static final String FILE           = "file";
+    private static final String FORMAT         = "format";
+    private static final String DELIMITER      = "delimiter";
+    private static final String NAME_CONVERTER = "nameConverter";
+    private static final String QUERY          = "query";
+    private static final String COLUMN_TYPES   = "columnTypes";
+    private static final String SALT_BUCKETS   = "saltBuckets";
+    private static final String SALT_WIDTH     = "saltWidth";
+    private static final String HEADER         = "header";
+    private static final String PARALLEL       = "parallel";
+    private static final String MERGE          = "merge";
+    private static final String PARTS          = "parts";
+    private static final String SEGMENT_KEY    = "file.key";
+    private static final String SEGMENT_LENGTH = "file.length";
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link ExportFileJob} class.
+     *
+     * @param scanner   The scanner of the table to export. The query, the column types, the column name converter and the salting of the
+     *                  scanner are used by the job.
+     * @param filePath  The path to the file to export to. The file is compressed according to its extension.
+     * @param format    The format of the file.
+     * @param delimiter The character delimiting the values in the file if the format is delimited.
+     * @param parallel  Indicates whether the regions of the table should be exported in parallel to separate part files.
+     * @param merge     Indicates whether the part files should be merged into the file. Used only in the parallel mode.
+     */
+    public ExportFileJob(QueryScanner scanner, String filePath, ExportFormat format, char delimiter, boolean parallel, boolean merge) {
+        super(JobJournal.create());
+
+        Connection connection = scanner.getConnection();
+
+        JobJournal journal = getJournal();
+        journal.setDescription(String.format("Export %s.%s to %s", connection.getServerName(), scanner.getTableName(), filePath));
+        journal.setParameter(TABLE, scanner.getTableName());
+        journal.setParameter(FILE, filePath);
+        journal.setParameter(FORMAT, format.getName());
+        journal.setParameter(DELIMITER, Character.toString(delimiter));
+        journal.setParameter(PARALLEL, Boolean.toString(parallel));
+        journal.setParameter(MERGE, Boolean.toString(merge));
+
+        if (scanner.getColumnNameConverter() != null) {
+            journal.setParameter(NAME_CONVERTER, scanner.getColumnNameConverter().getName());
+        }
+
+        if (scanner.isSalted()) {
+            journal.setParameter(SALT_BUCKETS, Integer.toString(scanner.getSaltBuckets()));
+            journal.setParameter(SALT_WIDTH, Integer.toString(scanner.getSaltWidth()));
+        }
+
+        if (scanner.getQuery() != null) {
+            journal.setParameter(QUERY, Base64.encodeObject(scanner.getQuery(), Base64.DONT_BREAK_LINES));
+        }
+
+        if (scanner.getColumnTypes() != null) {
+            for (Map.Entry<String, ColumnType> entry : scanner.getColumnTypes().entrySet()) {
+                journal.setParameter(COLUMN_TYPES + '.' + entry.getKey(), entry.getValue().getName());
+            }
+        }
+
+        setConnectionParameter(CONNECTION, connection.getConnectionDetails());
+    }
+
+    /**
+     * Initializes a new instance of the {@link ExportFileJob} class from the journal of a stopped job.
+     *
+     * @param journal The journal of the job.
+     */
+    public ExportFileJob(JobJournal journal) {
+        super(journal);
+    }
+    //endregion
+
+    //region Protected Methods
+    @Override
+    protected void execute() throws Exception {
+        JobJournal journal = getJournal();
+
+        Connection connection = getConnectionParameter(CONNECTION);
+
+        String query = journal.getParameter(QUERY);
+
+        QueryScanner scanner = connection.getScanner(journal.getParameter(TABLE), query != null ? (Query)Base64.decodeToObject(query) : null);
+        scanner.setColumnTypes(getColumnTypes());
+
+        String nameConverter = journal.getParameter(NAME_CONVERTER);
+        if (nameConverter != null) {
+            scanner.updateColumnNameConverter(ColumnType.fromNameOrDefault(nameConverter, ColumnType.BinaryString).getConverter());
+        }
+
+        String saltBuckets = journal.getParameter(SALT_BUCKETS);
+        if (saltBuckets != null) {
+            scanner.setSalting(Integer.parseInt(saltBuckets), Integer.parseInt(journal.getParameter(SALT_WIDTH)));
+        }
+
+        // The journals of the jobs created before the formats were introduced have no format.
+        String formatName = journal.getParameter(FORMAT);
+        ExportFormat format = formatName != null ? ExportFormats.get(formatName) : ExportFormats.DELIMITED;
+        if (format == null) {
+            throw new IllegalStateException(String.format("The export format '%s' is not registered.", formatName));
+        }
+
+        File file = new File(journal.getParameter(FILE));
+        char delimiter = journal.getParameter(DELIMITER).charAt(0);
+
+        try {
+            if (Boolean.parseBoolean(journal.getParameter(PARALLEL))) {
+                exportParts(scanner, format, delimiter, file);
+            }
+            else {
+                exportFile(scanner, format, delimiter, file);
+            }
+        }
+        finally {
+            scanner.close();
+        }
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Exports the rows of the scanner to a single file.
+     *
+     * @param scanner   The scanner of the rows.
+     * @param format    The format of the file.
+     * @param delimiter The character delimiting the values if the format is delimited.
+     * @param file      The file to export to.
+     * @throws IOException Error accessing hbase or writing the file or the job has been stopped.
+     */
+    private void exportFile(QueryScanner scanner, ExportFormat format, char delimiter, File file) throws IOException {
+        JobJournal journal = getJournal();
+
+        String lastKey = journal.getCheckpoint(SEGMENT_KEY);
+
+        long length = 0;
+        byte[] lastRow = null;
+        List<String> header = null;
+
+        // A compressed file cannot be truncated at the checkpoint, such a file is exported again from the beginning.
+        if (lastKey != null && ExportCompression.fromFileName(file.getName()) == ExportCompression.None) {
+            length = Long.parseLong(journal.getCheckpoint(SEGMENT_LENGTH));
+            lastRow = Bytes.toBytesBinary(lastKey);
+            header = getHeader();
+        }
+
+        final TableExporter exporter = new TableExporter(scanner, format, delimiter);
+        exporter.export(
+            file, length, lastRow, header, null, new ExportCheckpointListener() {
+            @Override
+            public void onCommitted(long length, byte[] lastKey, long rows) throws IOException {
+                JobJournal journal = getJournal();
+                if (journal.getParameter(HEADER) == null) {
+                    setHeader(exporter.getHeader());
+                }
+
+                journal.setCheckpoint(SEGMENT_LENGTH, Long.toString(length));
+                checkpoint(SEGMENT_KEY, Bytes.toStringBinary(lastKey), rows);
+            }
+        });
+    }
+
+    /**
+     * Exports the rows of the scanner to the part files in parallel, one part per region, and writes the manifest of the parts.
+     *
+     * @param scanner   The scanner of the rows.
+     * @param format    The format of the files.
+     * @param delimiter The character delimiting the values if the format is delimited.
+     * @param file      The file the parts are created next to and merged to.
+     * @throws IOException Error accessing hbase or writing the files or the job has been stopped.
+     */
+    private void exportParts(QueryScanner scanner, ExportFormat format, char delimiter, File file) throws IOException {
+        final JobJournal journal = getJournal();
+
+        PartitionedTableExporter exporter = new PartitionedTableExporter(scanner, format, delimiter);
+
+        if (journal.getParameter(PARTS) == null) {
+            // All parts share the header so they can be merged.
+            setHeader(exporter.sampleHeader());
+
+            List<KeyRange> ranges = exporter.split();
+            for (int i = 0 ; i < ranges.size() ; i++) {
+                journal.setParameter(getPartSegment(i) + ".start", Bytes.toStringBinary(ranges.get(i).getStartKey()));
+                journal.setParameter(getPartSegment(i) + ".stop", Bytes.toStringBinary(ranges.get(i).getStopKey()));
+            }
+
+            journal.setParameter(PARTS, Integer.toString(ranges.size()));
+            journal.save();
+        }
+
+        List<ExportPart> parts = new ArrayList<ExportPart>();
+
+        int count = Integer.parseInt(journal.getParameter(PARTS));
+        for (int i = 0 ; i < count ; i++) {
+            String segment = getPartSegment(i);
+
+            ExportPart part = new ExportPart(
+                i, PartitionedTableExporter.getPartFile(file, i), Bytes.toBytesBinary(journal.getParameter(segment + ".start")),
+                Bytes.toBytesBinary(journal.getParameter(segment + ".stop")));
+
+            String lastKey = journal.getCheckpoint(segment);
+            if (lastKey != null) {
+                part.setCheckpoint(Long.parseLong(journal.getCheckpoint(segment + ".length")), Bytes.toBytesBinary(lastKey));
+                part.setRows(Long.parseLong(journal.getCheckpoint(segment + ".rows")));
+                part.setHeaderLength(Long.parseLong(journal.getCheckpoint(segment + ".headerLength")));
+            }
+
+            parts.add(part);
+        }
+
+        List<String> header = getHeader();
+
+        exporter.export(
+            parts, header, null, new ExportPartListener() {
+            @Override
+            public void onCommitted(ExportPart part, long rows) throws IOException {
+                String segment = getPartSegment(part.getIndex());
+
+                // The parts are committed by several threads, the checkpoint of a part is saved as a whole.
+                synchronized (ExportFileJob.this) {
+                    journal.setCheckpoint(segment + ".length", Long.toString(part.getLength()));
+                    journal.setCheckpoint(segment + ".rows", Long.toString(part.getRows()));
+                    journal.setCheckpoint(segment + ".headerLength", Long.toString(part.getHeaderLength()));
+                    checkpoint(segment, Bytes.toStringBinary(part.getLastKey()), rows);
+                }
+            }
+        });
+
+        ExportManifest manifest = new ExportManifest(format.getName(), header, parts);
+
+        if (Boolean.parseBoolean(journal.getParameter(MERGE))) {
+            PartitionedTableExporter.merge(file, parts);
+            manifest.setMerged(file);
+        }
+
+        manifest.save(ExportManifest.getManifestFile(file));
+    }
+
+    /**
+     * Gets the column types stored in the journal.
+     *
+     * @return A map of column names to column types.
+     */
+    private Map<String, ColumnType> getColumnTypes() {
+        Map<String, ColumnType> columnTypes = new HashMap<String, ColumnType>();
+        for (Map.Entry<String, String> entry : getJournal().getParameters(COLUMN_TYPES + '.').entrySet()) {
+            columnTypes.put(entry.getKey(), ColumnType.fromNameOrDefault(entry.getValue(), ColumnType.String));
+        }
+        return columnTypes;
+    }
+
+    /**
+     * Stores the columns written to the header of the file.
+     *
+     * @param columns The full names of the columns of the header.
+     */
+    private void setHeader(List<String> columns) {
+        JobJournal journal = getJournal();
+
+        int index = 0;
+        for (String column : columns) {
+            journal.setParameter(HEADER + '.' + index++, column);
+        }
+        journal.setParameter(HEADER, Integer.toString(index));
+    }
+
+    /**
+     * Restores the columns written to the header of the file by the previous run.
+     *
+     * @return A list of the full names of the columns.
+     */
+    private List<String> getHeader() {
+        JobJournal journal = getJournal();
+
+        List<String> columns = new ArrayList<String>();
+
+        String header = journal.getParameter(HEADER);
+        if (header != null) {
+            int count = Integer.parseInt(header);
+            for (int i = 0 ; i < count ; i++) {
+                columns.add(journal.getParameter(HEADER + '.' + i));
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Gets the name of the segment representing the part.
+     *
+     * @param index The number of the part.
+     * @return The name of the segment.
+     */
+    private static String getPartSegment(int index) {
+        return "part." + index;
+    }
+    //endregion
+}
@@ -0,0 +1,154 @@
+package hrider.jobs;
+
+import hrider.converters.TypeConverter;
+import hrider.data.ColumnType;
+import hrider.hbase.Connection;
+import hrider.hbase.ImportCheckpointListener;
+import hrider.hbase.ImportProgressListener;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a job importing a character delimited file into a table. The first line of the file holds the names of the
+ *          columns. The checkpoint of the file is the offset up to which all lines have been written to the table, a resumed job continues
+ *          reading from this offset.
+ */
+public class ImportFileJob extends Job {
+
+    //region Constants
+    private static final String CONNECTION     = "connection";
+    private static final String TABLE          = "table";
+    private static final String FILE           = "file";
+    private static final String DELIMITER      = "delimiter";
+    private static final String NAME_CONVERTER = "nameConverter";
+    private static final String COLUMNS        = "columns";
+    private static final String SEGMENT        = "file.offset";
+    //endregion
+
+    //region Variables
+    /**
+     * The number of rows read from the file by the current run.
+     */
+    private volatile long readCount;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link ImportFileJob} class.
+     *
+     * @param connection    The connection to the cluster.
+     * @param table         The name of the table to import to. The table must exist.
+     * @param filePath      The path to the file to import.
+     * @param delimiter     The character delimiting the values in the file.
+     * @param nameConverter The converter used to convert the column names.
+     * @param columnTypes   The types of the values of the columns. The values of the columns not in the map are imported as strings.
+     */
+    public ImportFileJob(
+        Connection connection, String table, String filePath, char delimiter, TypeConverter nameConverter, Map<String, ColumnType> columnTypes) {
+        super(JobJournal.create());
+
+        JobJournal journal = getJournal();
+        journal.setDescription(String.format("Import %s to %s.%s", filePath, connection.getServerName(), table));
+        journal.setParameter(TABLE, table);
+        journal.setParameter(FILE, filePath);
+        journal.setParameter(DELIMITER, Character.toString(delimiter));
+        journal.setParameter(NAME_CONVERTER, nameConverter.getName());
+        journal.setParameter(COLUMNS, Integer.toString(columnTypes.size()));
+
+        int index = 0;
+        for (Map.Entry<String, ColumnType> entry : columnTypes.entrySet()) {
+            journal.setParameter(COLUMNS + '.' + index + ".name", entry.getKey());
+            journal.setParameter(COLUMNS + '.' + index + ".type", entry.getValue().getName());
+            index++;
+        }
+
+        setConnectionParameter(CONNECTION, connection.getConnectionDetails());
+    }
+
+    /**
+     * Initializes a new instance of the {@link ImportFileJob} class from the journal of a stopped job.
+     *
+     * @param journal The journal of the job.
+     */
+    public ImportFileJob(JobJournal journal) {
+        super(journal);
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the number of rows read from the file by the current run. The value is updated periodically.
+     *
+     * @return The number of rows.
+     */
+    public long getReadCount() {
+        return this.readCount;
+    }
+    //endregion
+
+    //region Protected Methods
+    @Override
+    protected void execute() throws Exception {
+        JobJournal journal = getJournal();
+
+        Connection connection = getConnectionParameter(CONNECTION);
+
+        Map<String, ColumnType> columnTypes = new HashMap<String, ColumnType>();
+
+        int count = Integer.parseInt(journal.getParameter(COLUMNS));
+        for (int i = 0 ; i < count ; i++) {
+            columnTypes.put(
+                journal.getParameter(COLUMNS + '.' + i + ".name"),
+                ColumnType.fromNameOrDefault(journal.getParameter(COLUMNS + '.' + i + ".type"), ColumnType.String));
+        }
+
+        TypeConverter nameConverter = ColumnType.BinaryString.getConverter();
+
+        String converterName = journal.getParameter(NAME_CONVERTER);
+        if (converterName != null) {
+            nameConverter = ColumnType.fromNameOrDefault(converterName, ColumnType.BinaryString).getConverter();
+        }
+
+        String checkpoint = journal.getCheckpoint(SEGMENT);
+
+        this.readCount = 0;
+
+        connection.importFile(
+            journal.getParameter(TABLE), new File(journal.getParameter(FILE)), journal.getParameter(DELIMITER).charAt(0), columnTypes, nameConverter,
+            checkpoint != null ? Long.parseLong(checkpoint) : 0, new ImportProgressListener() {
+            @Override
+            public void onProgress(long readRows, long writtenRows) {
+                readCount = readRows;
+                notifyListeners();
+            }
+        }, new ImportCheckpointListener() {
+            @Override
+            public void onCommitted(long offset, long rows) throws IOException {
+                checkpoint(SEGMENT, Long.toString(offset), rows);
+            }
+        });
+    }
+    //endregion
+}
@@ -0,0 +1,391 @@
+package hrider.jobs;
+
+import hrider.config.ConnectionDetails;
+import hrider.config.GlobalConfig;
+import hrider.config.ServerDetails;
+import hrider.hbase.Connection;
+import hrider.hbase.ConnectionManager;
+import hrider.io.Log;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class is a base class for the long running operations that can be paused, cancelled and resumed. A job records the position
+ *          up to which each of its segments has been committed in a {@link JobJournal}. When a stopped job is started again it continues
+ *          from these checkpoints instead of starting from the beginning.
+ *          <p/>
+ *          The implementations must call {@link #checkpoint(String, String, long)} after each committed batch. The call blocks while the
+ *          job is paused and throws a {@link JobCanceledException} when the job has been cancelled.
+ */
+public abstract class Job {
+
+    //region Constants
+    private static final Log logger = Log.getLogger(Job.class);
+    //endregion
+
+    //region Variables
+    /**
+     * The journal of the job.
+     */
+    private JobJournal        journal;
+    /**
+     * The current state of the job.
+     */
+    private volatile JobState state;
+    /**
+     * Indicates whether the job has been cancelled by the user.
+     */
+    private volatile boolean  cancelRequested;
+    /**
+     * The number of rows processed so far including the rows processed by the previous runs.
+     */
+    private AtomicLong        processed;
+    /**
+     * The time the journal has been saved last time.
+     */
+    private long              lastSave;
+    /**
+     * The listeners to be notified about the changes.
+     */
+    private List<JobListener> listeners;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link Job} class.
+     *
+     * @param journal The journal of the job. Can be either a new journal or a journal of a job that has been stopped.
+     */
+    protected Job(JobJournal journal) {
+        this.journal = journal;
+        this.journal.setJobClass(getClass().getName());
+        this.processed = new AtomicLong(journal.getProcessed());
+        this.listeners = new CopyOnWriteArrayList<JobListener>();
+
+        // The job could not be running if it is just loaded from the journal.
+        JobState journalState = journal.getState();
+        this.state = journalState.isActive() ? JobState.Interrupted : journalState;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the identifier of the job.
+     *
+     * @return The identifier.
+     */
+    public String getId() {
+        return this.journal.getId();
+    }
+
+    /**
+     * Gets the description of the job.
+     *
+     * @return The description.
+     */
+    public String getDescription() {
+        return this.journal.getDescription();
+    }
+
+    /**
+     * Gets the current state of the job.
+     *
+     * @return The state.
+     */
+    public JobState getState() {
+        return this.state;
+    }
+
+    /**
+     * Gets the number of rows processed by the job so far.
+     *
+     * @return The number of rows.
+     */
+    public long getProcessed() {
+        return this.processed.get();
+    }
+
+    /**
+     * Gets the error the job has failed with.
+     *
+     * @return The error message or null if the job has not failed.
+     */
+    public String getError() {
+        return this.journal.getError();
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Adds a listener to be notified about the changes of the job.
+     *
+     * @param listener The listener to add.
+     */
+    public void addListener(JobListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Removes the listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeListener(JobListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Executes the job on the current thread. If the job has been stopped before it continues from its checkpoints.
+     *
+     * @throws Exception The job has failed. The cancellation of the job is not considered a failure.
+     */
+    public void run() throws Exception {
+        synchronized (this) {
+            if (this.state.isActive()) {
+                throw new IllegalStateException(String.format("The job '%s' is already running.", getDescription()));
+            }
+
+            if (this.state == JobState.Completed) {
+                return;
+            }
+
+            this.cancelRequested = false;
+            this.journal.setError(null);
+
+            changeState(JobState.Running);
+        }
+
+        logger.info("Job '%s' started from %d processed rows.", getDescription(), this.processed.get());
+
+        try {
+            execute();
+
+            changeState(JobState.Completed);
+
+            // A completed job has nothing to resume, its journal is only kept until the application is closed.
+            this.journal.delete();
+        }
+        catch (JobCanceledException ignore) {
+            changeState(JobState.Cancelled);
+        }
+        catch (InterruptedIOException e) {
+            this.journal.setError(e.getMessage());
+            changeState(JobState.Interrupted);
+
+            throw e;
+        }
+        catch (Exception e) {
+            this.journal.setError(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            changeState(JobState.Failed);
+
+            throw e;
+        }
+        finally {
+            logger.info("Job '%s' stopped in state %s after %d processed rows.", getDescription(), this.state, this.processed.get());
+        }
+    }
+
+    /**
+     * Pauses the job. The job stops at its next checkpoint.
+     */
+    public synchronized void pause() {
+        if (this.state == JobState.Running) {
+            changeState(JobState.Paused);
+        }
+    }
+
+    /**
+     * Resumes the paused job.
+     */
+    public synchronized void resume() {
+        if (this.state == JobState.Paused) {
+            changeState(JobState.Running);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Cancels the job. The job stops at its next checkpoint. If the job is not running it is just marked as cancelled.
+     */
+    public synchronized void cancel() {
+        if (this.state.isActive()) {
+            this.cancelRequested = true;
+            notifyAll();
+        }
+        else if (this.state != JobState.Completed) {
+            changeState(JobState.Cancelled);
+        }
+    }
+
+    /**
+     * Removes the journal of the job.
+     */
+    public synchronized void delete() {
+        if (this.state.isActive()) {
+            throw new IllegalStateException(String.format("The job '%s' is running.", getDescription()));
+        }
+        this.journal.delete();
+    }
+    //endregion
+
+    //region Protected Methods
+
+    /**
+     * Executes the job. The implementation should continue from the checkpoints found in the journal.
+     *
+     * @throws Exception Error executing the job.
+     */
+    protected abstract void execute() throws Exception;
+
+    /**
+     * Gets the journal of the job.
+     *
+     * @return The journal.
+     */
+    protected JobJournal getJournal() {
+        return this.journal;
+    }
+
+    /**
+     * Records the position up to which the data of the segment has been committed and notifies the listeners. The journal is saved at
+     * most once per configured checkpoint interval. If the job is paused the call blocks until the job is resumed or cancelled.
+     *
+     * @param segment    The name of the segment.
+     * @param checkpoint The committed position.
+     * @param rows       The number of rows committed since the previous checkpoint.
+     * @throws JobCanceledException   The job has been cancelled.
+     * @throws InterruptedIOException The thread has been interrupted while the job is paused.
+     */
+    protected void checkpoint(String segment, String checkpoint, long rows) throws InterruptedIOException {
+        synchronized (this) {
+            this.journal.setCheckpoint(segment, checkpoint);
+            this.processed.addAndGet(rows);
+
+            if (System.currentTimeMillis() - this.lastSave >= GlobalConfig.instance().getJobCheckpointInterval()) {
+                save();
+            }
+        }
+
+        // The checkpoints are made by many writer threads concurrently, the listeners are notified without holding the lock of the job.
+        notifyListeners();
+        checkState();
+    }
+
+    /**
+     * Notifies the listeners about the change of the job, for example about the progress made between two checkpoints.
+     */
+    protected void notifyListeners() {
+        for (JobListener listener : this.listeners) {
+            listener.onJobChanged(this);
+        }
+    }
+
+    /**
+     * Blocks while the job is paused.
+     *
+     * @throws JobCanceledException   The job has been cancelled.
+     * @throws InterruptedIOException The thread has been interrupted while the job is paused.
+     */
+    protected void checkState() throws InterruptedIOException {
+        if (this.state != JobState.Paused && !this.cancelRequested) {
+            return;
+        }
+
+        synchronized (this) {
+            try {
+                while (this.state == JobState.Paused && !this.cancelRequested) {
+                    wait();
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(String.format("The job '%s' has been interrupted.", getDescription()));
+            }
+
+            if (this.cancelRequested) {
+                throw new JobCanceledException(String.format("The job '%s' has been cancelled.", getDescription()));
+            }
+        }
+    }
+
+    /**
+     * Stores the connection details as parameters of the job.
+     *
+     * @param name       The name of the parameter.
+     * @param connection The connection details.
+     */
+    protected void setConnectionParameter(String name, ConnectionDetails connection) {
+        this.journal.setParameter(name + ".zookeeper.host", connection.getZookeeper().getHost());
+        this.journal.setParameter(name + ".zookeeper.port", connection.getZookeeper().getPort());
+        this.journal.setParameter(name + ".zookeeper.quorum", connection.getZookeeper().getZnode());
+    }
+
+    /**
+     * Connects to the cluster described by the parameter of the job.
+     *
+     * @param name The name of the parameter.
+     * @return A connection to the cluster.
+     * @throws IOException Error connecting to the cluster.
+     */
+    protected Connection getConnectionParameter(String name) throws IOException {
+        ServerDetails zookeeper = new ServerDetails(
+            this.journal.getParameter(name + ".zookeeper.host"), this.journal.getParameter(name + ".zookeeper.port"),
+            this.journal.getParameter(name + ".zookeeper.quorum"));
+
+        ConnectionDetails details = new ConnectionDetails();
+        details.setZookeeper(zookeeper);
+
+        return ConnectionManager.create(details);
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Changes the state of the job, saves the journal and notifies the listeners.
+     *
+     * @param state The new state.
+     */
+    private synchronized void changeState(JobState state) {
+        this.state = state;
+
+        save();
+        notifyListeners();
+    }
+
+    /**
+     * Saves the journal.
+     */
+    private synchronized void save() {
+        this.journal.setState(this.state);
+        this.journal.setProcessed(this.processed.get());
+        this.journal.save();
+
+        this.lastSave = System.currentTimeMillis();
+    }
+    //endregion
+}
@@ -0,0 +1,37 @@
+package hrider.jobs;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This exception is thrown by a job when the user has cancelled it. The data committed before the cancellation is recorded in the
+ *          journal of the job.
+ */
+public class JobCanceledException extends InterruptedIOException {
+
+    //region Constants
+    private static final long serialVersionUID = 4571829023419983610L;
+    //endregion
+
+    //region Constructor
+    public JobCanceledException(String message) {
+        super(message);
+    }
+    //endregion
+}
@@ -0,0 +1,281 @@
+package hrider.jobs;
+
+import hrider.config.PropertiesConfig;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents the journal of a job stored in the config/jobs folder. The journal holds the parameters the job has been
+ *          started with, its state and the checkpoints of its segments. A checkpoint is the position up to which the data of a segment
+ *          (a region of a table or a file) has been committed.
+ */
+public class JobJournal extends PropertiesConfig {
+
+    //region Constants
+    private static final String FOLDER            = "jobs";
+    private static final String KEY_CLASS         = "job.class";
+    private static final String KEY_DESCRIPTION   = "job.description";
+    private static final String KEY_STATE         = "job.state";
+    private static final String KEY_PROCESSED     = "job.processed";
+    private static final String KEY_ERROR         = "job.error";
+    private static final String PREFIX_PARAMETER  = "parameter.";
+    private static final String PREFIX_CHECKPOINT = "checkpoint.";
+    //endregion
+
+    //region Variables
+    /**
+     * The identifier of the job.
+     */
+    private String id;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link JobJournal} class.
+     *
+     * @param id The identifier of the job.
+     */
+    public JobJournal(String id) {
+        super(FOLDER + '/' + id);
+
+        this.id = id;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the identifier of the job.
+     *
+     * @return The identifier of the job.
+     */
+    public String getId() {
+        return this.id;
+    }
+
+    /**
+     * Gets the name of the class implementing the job.
+     *
+     * @return The class name.
+     */
+    public String getJobClass() {
+        return get(String.class, KEY_CLASS);
+    }
+
+    /**
+     * Sets the name of the class implementing the job.
+     *
+     * @param jobClass The class name.
+     */
+    public void setJobClass(String jobClass) {
+        set(KEY_CLASS, jobClass);
+    }
+
+    /**
+     * Gets the description of the job.
+     *
+     * @return The description.
+     */
+    public String getDescription() {
+        return get(String.class, KEY_DESCRIPTION);
+    }
+
+    /**
+     * Sets the description of the job.
+     *
+     * @param description The description.
+     */
+    public void setDescription(String description) {
+        set(KEY_DESCRIPTION, description);
+    }
+
+    /**
+     * Gets the last recorded state of the job.
+     *
+     * @return The state of the job.
+     */
+    public JobState getState() {
+        String state = get(String.class, KEY_STATE);
+        if (state != null) {
+            return JobState.valueOf(state);
+        }
+        return JobState.Interrupted;
+    }
+
+    /**
+     * Sets the state of the job.
+     *
+     * @param state The state of the job.
+     */
+    public void setState(JobState state) {
+        set(KEY_STATE, state.name());
+    }
+
+    /**
+     * Gets the number of rows processed by the job so far.
+     *
+     * @return The number of rows.
+     */
+    public long getProcessed() {
+        Long processed = get(Long.class, KEY_PROCESSED);
+        return processed != null ? processed : 0;
+    }
+
+    /**
+     * Sets the number of rows processed by the job so far.
+     *
+     * @param processed The number of rows.
+     */
+    public void setProcessed(long processed) {
+        set(KEY_PROCESSED, Long.toString(processed));
+    }
+
+    /**
+     * Gets the error the job has failed with.
+     *
+     * @return The error message or null if the job has not failed.
+     */
+    public String getError() {
+        return get(String.class, KEY_ERROR);
+    }
+
+    /**
+     * Sets the error the job has failed with.
+     *
+     * @param error The error message. Can be null.
+     */
+    public void setError(String error) {
+        if (error != null) {
+            set(KEY_ERROR, error);
+        }
+        else {
+            remove(KEY_ERROR);
+        }
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Creates a journal for a new job.
+     *
+     * @return A new journal.
+     */
+    public static synchronized JobJournal create() {
+        long id = System.currentTimeMillis();
+        while (fileExists(FOLDER + '/' + id)) {
+            id++;
+        }
+        return new JobJournal(Long.toString(id));
+    }
+
+    /**
+     * Loads the journals of all jobs ordered by their creation.
+     *
+     * @return A list of journals.
+     */
+    public static List<JobJournal> loadAll() {
+        List<JobJournal> journals = new ArrayList<JobJournal>();
+
+        String[] files = new File("config/" + FOLDER).list();
+        if (files != null) {
+            Arrays.sort(files);
+
+            for (String file : files) {
+                if (file.endsWith(".properties")) {
+                    journals.add(new JobJournal(file.substring(0, file.length() - ".properties".length())));
+                }
+            }
+        }
+        return journals;
+    }
+
+    /**
+     * Gets the value of the parameter the job has been started with.
+     *
+     * @param name The name of the parameter.
+     * @return The value of the parameter or null if the parameter is not found.
+     */
+    public String getParameter(String name) {
+        return get(String.class, PREFIX_PARAMETER + name);
+    }
+
+    /**
+     * Sets the value of the parameter.
+     *
+     * @param name  The name of the parameter.
+     * @param value The value of the parameter.
+     */
+    public void setParameter(String name, String value) {
+        set(PREFIX_PARAMETER + name, value);
+    }
+
+    /**
+     * Gets the parameters which names start with the specified prefix.
+     *
+     * @param prefix The prefix of the parameter names.
+     * @return A map of parameter names without the prefix to their values.
+     */
+    public Map<String, String> getParameters(String prefix) {
+        String startsWith = PREFIX_PARAMETER + prefix;
+
+        Map<String, String> parameters = new HashMap<String, String>();
+        for (Map.Entry<String, String> entry : getAll(startsWith).entrySet()) {
+            parameters.put(entry.getKey().substring(startsWith.length()), entry.getValue());
+        }
+        return parameters;
+    }
+
+    /**
+     * Gets the checkpoint of the segment.
+     *
+     * @param segment The name of the segment.
+     * @return The checkpoint or null if nothing has been committed in the segment yet.
+     */
+    public String getCheckpoint(String segment) {
+        return get(String.class, PREFIX_CHECKPOINT + segment);
+    }
+
+    /**
+     * Sets the checkpoint of the segment.
+     *
+     * @param segment    The name of the segment.
+     * @param checkpoint The position up to which the data of the segment has been committed.
+     */
+    public void setCheckpoint(String segment, String checkpoint) {
+        set(PREFIX_CHECKPOINT + segment, checkpoint);
+    }
+
+    /**
+     * Removes the journal file.
+     *
+     * @return True if the file has been removed or False otherwise.
+     */
+    public boolean delete() {
+        return fileRemove(FOLDER + '/' + this.id);
+    }
+    //endregion
+}
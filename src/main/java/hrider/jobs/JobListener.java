@@ -0,0 +1,32 @@
+package hrider.jobs;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This interface represents a listener to be notified when the state or the progress of a job changes. The listener is called on
+ *          the thread executing the job.
+ */
+public interface JobListener {
+
+    /**
+     * Called when the state or the progress of the job has changed.
+     *
+     * @param job The job that has changed.
+     */
+    void onJobChanged(Job job);
+}
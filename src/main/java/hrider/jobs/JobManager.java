@@ -0,0 +1,275 @@
+package hrider.jobs;
+
+import hrider.actions.NamedThreadFactory;
+import hrider.io.Log;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class keeps track of all jobs including the jobs stopped in the previous sessions of the application. The jobs found in
+ *          the journals are loaded when the manager is first accessed; the jobs that were running at that time are marked as interrupted
+ *          and can be resumed.
+ */
+public class JobManager {
+
+    //region Constants
+    private static final Log logger = Log.getLogger(JobManager.class);
+    //endregion
+
+    //region Variables
+    /**
+     * The single instance of the manager.
+     */
+    private static JobManager        instance;
+    /**
+     * The known jobs indexed by their identifiers.
+     */
+    private final Map<String, Job>   jobs;
+    /**
+     * The executor running the jobs started in the background.
+     */
+    private ExecutorService          executor;
+    /**
+     * The listeners to be notified about the changes of any job.
+     */
+    private List<JobListener>        listeners;
+    /**
+     * Forwards the notifications of the jobs to the listeners of the manager.
+     */
+    private JobListener              jobListener;
+    //endregion
+
+    //region Constructor
+    private JobManager() {
+        this.jobs = new LinkedHashMap<String, Job>();
+        this.executor = Executors.newCachedThreadPool(new NamedThreadFactory("job"));
+        this.listeners = new CopyOnWriteArrayList<JobListener>();
+        this.jobListener = new JobListener() {
+            @Override
+            public void onJobChanged(Job job) {
+                for (JobListener listener : listeners) {
+                    listener.onJobChanged(job);
+                }
+            }
+        };
+
+        for (JobJournal journal : JobJournal.loadAll()) {
+            if (journal.getJobClass() == null) {
+                // The journal of a job that is being created or that has never been started.
+                continue;
+            }
+
+            try {
+                add(load(journal));
+            }
+            catch (Exception e) {
+                logger.error(e, "Failed to load the job from the journal '%s'.", journal.getId());
+            }
+        }
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the single instance of the manager.
+     *
+     * @return The job manager.
+     */
+    public static synchronized JobManager instance() {
+        if (instance == null) {
+            instance = new JobManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Gets all known jobs.
+     *
+     * @return A list of jobs ordered by their creation.
+     */
+    public Collection<Job> getJobs() {
+        synchronized (this.jobs) {
+            return new ArrayList<Job>(this.jobs.values());
+        }
+    }
+
+    /**
+     * Gets the job by its identifier.
+     *
+     * @param id The identifier of the job.
+     * @return The job or null if there is no such job.
+     */
+    public Job getJob(String id) {
+        synchronized (this.jobs) {
+            return this.jobs.get(id);
+        }
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Adds a listener to be notified about the changes of any job.
+     *
+     * @param listener The listener to add.
+     */
+    public void addListener(JobListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Removes the listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeListener(JobListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Registers the job and executes it on the current thread.
+     *
+     * @param job The job to run.
+     * @throws Exception The job has failed.
+     */
+    public void run(Job job) throws Exception {
+        add(job);
+        job.run();
+    }
+
+    /**
+     * Registers the job and executes it in the background.
+     *
+     * @param job The job to start.
+     */
+    public void submit(final Job job) {
+        add(job);
+
+        this.executor.submit(
+            new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        job.run();
+                    }
+                    catch (Exception e) {
+                        logger.error(e, "Job '%s' has failed.", job.getDescription());
+                    }
+                }
+            });
+    }
+
+    /**
+     * Resumes the job. A paused job continues on its thread while a stopped job is started again in the background.
+     *
+     * @param id The identifier of the job.
+     */
+    public void resume(String id) {
+        Job job = getJob(id);
+        if (job != null) {
+            if (job.getState() == JobState.Paused) {
+                job.resume();
+            }
+            else if (job.getState().isResumable()) {
+                submit(job);
+            }
+        }
+    }
+
+    /**
+     * Pauses the job.
+     *
+     * @param id The identifier of the job.
+     */
+    public void pause(String id) {
+        Job job = getJob(id);
+        if (job != null) {
+            job.pause();
+        }
+    }
+
+    /**
+     * Cancels the job.
+     *
+     * @param id The identifier of the job.
+     */
+    public void cancel(String id) {
+        Job job = getJob(id);
+        if (job != null) {
+            job.cancel();
+        }
+    }
+
+    /**
+     * Removes the job that is not running together with its journal.
+     *
+     * @param id The identifier of the job.
+     */
+    public void remove(String id) {
+        Job job = getJob(id);
+        if (job != null) {
+            job.delete();
+
+            synchronized (this.jobs) {
+                this.jobs.remove(id);
+            }
+
+            job.removeListener(this.jobListener);
+            this.jobListener.onJobChanged(job);
+        }
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Registers the job.
+     *
+     * @param job The job to register.
+     */
+    private void add(Job job) {
+        synchronized (this.jobs) {
+            if (!this.jobs.containsKey(job.getId())) {
+                this.jobs.put(job.getId(), job);
+                job.addListener(this.jobListener);
+            }
+        }
+    }
+
+    /**
+     * Creates the job described by the journal. The class of the job must have a constructor accepting the journal.
+     *
+     * @param journal The journal of the job.
+     * @return A new job.
+     * @throws Exception The job could not be created.
+     */
+    private static Job load(JobJournal journal) throws Exception {
+        return (Job)Class.forName(journal.getJobClass()).getConstructor(JobJournal.class).newInstance(journal);
+    }
+    //endregion
+}
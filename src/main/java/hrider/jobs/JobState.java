@@ -0,0 +1,51 @@
+package hrider.jobs;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This enum represents the state of a job.
+ */
+public enum JobState {
+    Running,
+    Paused,
+    Interrupted,
+    Cancelled,
+    Failed,
+    Completed;
+
+    //region Public Methods
+
+    /**
+     * Indicates if the job is being executed by a thread.
+     *
+     * @return True if the job is running or paused or False otherwise.
+     */
+    public boolean isActive() {
+        return this == Running || this == Paused;
+    }
+
+    /**
+     * Indicates if the job can be resumed from its checkpoints.
+     *
+     * @return True if the job has been stopped before its completion or False otherwise.
+     */
+    public boolean isResumable() {
+        return this == Interrupted || this == Cancelled || this == Failed;
+    }
+    //endregion
+}
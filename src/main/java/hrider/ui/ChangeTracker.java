@@ -1,11 +1,11 @@
 package hrider.ui;
 
+import hrider.data.ColumnQualifier;
 import hrider.data.DataCell;
 import hrider.data.DataRow;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.*;
 
 /**
  * Copyright (C) 2012 NICE Systems ltd.
@@ -25,7 +25,9 @@ import java.util.Collection;
  * @author Igor Cher
  * @version %I%, %G%
  *          <p/>
- *          This class represents a tracker for all changes performed on cells.
+ *          This class represents a tracker for all changes performed on cells. The changes are indexed by the row key and the column, so
+ *          the repeated changes of a cell are merged into a single change which keeps the value the cell had before the first change. A
+ *          cell changed back to its original value is not considered as changed anymore.
  */
 public class ChangeTracker implements Serializable {
 
@@ -35,13 +37,13 @@ public class ChangeTracker implements Serializable {
 
     //region Variables
     /**
-     * Holds the changed rows.
+     * Holds the changed cells of each row in the order the rows were changed.
      */
-    private Collection<DataRow> changes;
+    private Map<RowKey, Map<ColumnQualifier, CellChange>> changes;
     /**
      * A list of components registered for change events.
      */
-    private Collection<ChangeTrackerListener> listeners;
+    private Collection<ChangeTrackerListener>             listeners;
     //endregion
 
     //region Constructor
@@ -50,7 +52,7 @@ public class ChangeTracker implements Serializable {
      * Initializes a new instance of the {@link ChangeTracker} class.
      */
     public ChangeTracker() {
-        this.changes = new ArrayList<DataRow>();
+        this.changes = new LinkedHashMap<RowKey, Map<ColumnQualifier, CellChange>>();
         this.listeners = new ArrayList<ChangeTrackerListener>();
     }
     //endregion
@@ -82,19 +84,36 @@ public class ChangeTracker implements Serializable {
     }
 
     /**
-     * Adds a new cell that was updated.
-     * @param cell A cell to add.
+     * Adds a new cell that was updated. If the cell has already been changed the changes are merged, if the cell has got its original
+     * value back the change is removed.
+     * @param cell          A cell to add. The cell must already hold the new value.
+     * @param originalValue The value the cell had before the change.
      */
-    public synchronized void addChange(DataCell cell) {
+    public synchronized void addChange(DataCell cell, byte[] originalValue) {
+        RowKey key = new RowKey(cell.getRow().getKey().getValue());
 
-        DataRow row = getRow(cell);
-        if (row == null) {
-            row = new DataRow(cell.getRow().getKey());
+        Map<ColumnQualifier, CellChange> row = this.changes.get(key);
 
-            this.changes.add(row);
+        CellChange change = row != null ? row.get(cell.getColumn()) : null;
+        if (change == null) {
+            if (Arrays.equals(originalValue, cell.getValueAsByteArray())) {
+                return;
+            }
+
+            if (row == null) {
+                row = new LinkedHashMap<ColumnQualifier, CellChange>();
+                this.changes.put(key, row);
+            }
+
+            row.put(cell.getColumn(), new CellChange(cell, originalValue));
         }
+        else {
+            change.cell = cell;
 
-        row.addCell(cell);
+            if (Arrays.equals(change.originalValue, cell.getValueAsByteArray())) {
+                removeChange(key, row, cell.getColumn());
+            }
+        }
 
         for (ChangeTrackerListener listener : this.listeners) {
             listener.onCellChanged(cell);
@@ -106,10 +125,10 @@ public class ChangeTracker implements Serializable {
      * @param cell The cell to remove.
      */
     public synchronized void removeChange(DataCell cell) {
-        DataRow row = removeCell(cell);
-        if (row != null && !row.hasCells()) {
-            this.changes.remove(row);
+        RowKey key = new RowKey(cell.getRow().getKey().getValue());
 
+        Map<ColumnQualifier, CellChange> row = this.changes.get(key);
+        if (row != null && removeChange(key, row, cell.getColumn())) {
             for (ChangeTrackerListener listener : this.listeners) {
                 listener.onCellChanged(cell);
             }
@@ -117,11 +136,56 @@ public class ChangeTracker implements Serializable {
     }
 
     /**
-     * Gets all updated rows. The rows contain only updated cells and not the full data.
+     * Gets the value the cell had before it was changed.
+     * @param cell The changed cell.
+     * @return The original value or null if the cell has not been changed.
+     */
+    public synchronized byte[] getOriginalValue(DataCell cell) {
+        Map<ColumnQualifier, CellChange> row = this.changes.get(new RowKey(cell.getRow().getKey().getValue()));
+        if (row != null) {
+            CellChange change = row.get(cell.getColumn());
+            if (change != null) {
+                return change.originalValue;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets all updated rows. The rows contain only updated cells and not the full data, so a row is written by a put of the changed cells
+     * only.
      * @return A list of rows that contain updated cells.
      */
     public synchronized Collection<DataRow> getChanges() {
-        return new ArrayList<DataRow>(this.changes);
+        Collection<DataRow> rows = new ArrayList<DataRow>(this.changes.size());
+
+        for (Map<ColumnQualifier, CellChange> cells : this.changes.values()) {
+            DataRow row = null;
+
+            for (CellChange change : cells.values()) {
+                if (row == null) {
+                    row = new DataRow(change.cell.getRow().getKey());
+                }
+                row.addCell(change.cell);
+            }
+
+            rows.add(row);
+        }
+
+        return rows;
+    }
+
+    /**
+     * Removes the changes of all the rows except the specified ones, for example after the other rows have been saved.
+     * @param rowKeys The keys of the rows which changes should be kept.
+     */
+    public synchronized void retainRows(Collection<byte[]> rowKeys) {
+        Set<RowKey> keys = new HashSet<RowKey>();
+        for (byte[] rowKey : rowKeys) {
+            keys.add(new RowKey(rowKey));
+        }
+
+        this.changes.keySet().retainAll(keys);
     }
 
     /**
@@ -135,32 +199,63 @@ public class ChangeTracker implements Serializable {
     //region Private Methods
 
     /**
-     * Gets a row by cell.
-     * @param cell The cell to look for a row.
-     * @return A row that contains the provided cell.
+     * Removes a change of a cell from the row and removes the row if it has no more changes.
+     * @param key    The key of the row.
+     * @param row    The changes of the row.
+     * @param column The column of the cell.
+     * @return True if the change has been removed or False if the cell has not been changed.
      */
-    private DataRow getRow(DataCell cell) {
-        for (DataRow row : this.changes) {
-            if (row.getKey().equals(cell.getRow().getKey())) {
-                return row;
-            }
+    private boolean removeChange(RowKey key, Map<ColumnQualifier, CellChange> row, ColumnQualifier column) {
+        if (row.remove(column) == null) {
+            return false;
         }
-        return null;
+
+        if (row.isEmpty()) {
+            this.changes.remove(key);
+        }
+        return true;
     }
+    //endregion
 
     /**
-     * Removes a cell from the row.
-     * @param cell A cell to remove.
-     * @return The row that contained the removed cell.
+     * The key of a row which compares the bytes of the key.
      */
-    private DataRow removeCell(DataCell cell) {
-        for (DataRow row : this.changes) {
-            if (row.getKey().equals(cell.getRow().getKey())) {
-                row.removeCell(cell);
-                return row;
-            }
+    private static class RowKey implements Serializable {
+
+        private static final long serialVersionUID = 5294734226843474961L;
+
+        private byte[] value;
+        private int    hash;
+
+        private RowKey(byte[] value) {
+            this.value = value;
+            this.hash = Arrays.hashCode(value);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof RowKey && ((RowKey)obj).hash == this.hash && Arrays.equals(((RowKey)obj).value, this.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * A changed cell with the value it had before the first change.
+     */
+    private static class CellChange implements Serializable {
+
+        private static final long serialVersionUID = -3360232357219452871L;
+
+        private DataCell cell;
+        private byte[]   originalValue;
+
+        private CellChange(DataCell cell, byte[] originalValue) {
+            this.cell = cell;
+            this.originalValue = originalValue;
         }
-        return null;
     }
-    //endregion
 }
@@ -0,0 +1,169 @@
+package hrider.ui;
+
+import hrider.actions.NamedThreadFactory;
+import hrider.io.Log;
+
+import javax.swing.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class loads the pages of a view on a background thread so that the event dispatch thread is never blocked by the cluster.
+ *          The requests are loaded one at a time in the order they are submitted. Each request gets an identifier and only the latest one
+ *          is current: a request superseded before it started is handed to its successor through {@link PageRequest#merge(PageRequest)}
+ *          and never loaded, a request superseded while loading stops at its next check of {@link PageRequest#checkCurrent()} and its
+ *          updates are dropped.
+ */
+public class PageLoader {
+
+    //region Constants
+    private static final Log  logger       = Log.getLogger(PageLoader.class);
+    private static final long IDLE_TIMEOUT = 60;
+    //endregion
+
+    //region Variables
+    /**
+     * The thread loading the requests.
+     */
+    private ExecutorService executor;
+    /**
+     * The identifier of the latest request.
+     */
+    private AtomicLong      lastId;
+    /**
+     * The request submitted but not started yet.
+     */
+    private PageRequest     pending;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link PageLoader} class.
+     *
+     * @param name The name of the loading thread.
+     */
+    public PageLoader(String name) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            1, 1, IDLE_TIMEOUT, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory(name));
+
+        // The views are not disposed explicitly, so the thread of an idle view is released.
+        pool.allowCoreThreadTimeOut(true);
+
+        this.executor = pool;
+        this.lastId = new AtomicLong();
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Submits a request. The request becomes current and supersedes all the previously submitted requests.
+     *
+     * @param request The request to load.
+     * @return The identifier of the request.
+     */
+    public synchronized long submit(PageRequest request) {
+        request.attach(this, this.lastId.incrementAndGet());
+
+        if (this.pending != null) {
+            request.merge(this.pending);
+        }
+
+        this.pending = request;
+
+        this.executor.execute(
+            new Runnable() {
+                @Override
+                public void run() {
+                    loadPending();
+                }
+            });
+
+        return request.getId();
+    }
+
+    /**
+     * Cancels all the submitted requests. The requests which have not started are never loaded and the loading request is stopped at its
+     * next check, its updates are dropped.
+     */
+    public synchronized void cancel() {
+        this.lastId.incrementAndGet();
+        this.pending = null;
+    }
+
+    /**
+     * Checks whether the request with the specified identifier is the latest submitted request.
+     *
+     * @param requestId The identifier of the request.
+     * @return True if the request is current or False otherwise.
+     */
+    public boolean isCurrent(long requestId) {
+        return this.lastId.get() == requestId;
+    }
+
+    /**
+     * Cancels all the requests and stops the loading thread.
+     */
+    public void shutdown() {
+        cancel();
+        this.executor.shutdownNow();
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Loads the pending request if any. A request merged into its successor has already been taken by the successor.
+     */
+    private void loadPending() {
+        final PageRequest request;
+
+        synchronized (this) {
+            request = this.pending;
+            this.pending = null;
+        }
+
+        if (request == null || !request.isCurrent()) {
+            return;
+        }
+
+        try {
+            request.load();
+        }
+        catch (final Exception e) {
+            if (request.isCurrent()) {
+                SwingUtilities.invokeLater(
+                    new Runnable() {
+                        @Override
+                        public void run() {
+                            if (request.isCurrent()) {
+                                request.onError(e);
+                            }
+                        }
+                    });
+            }
+            else {
+                logger.info("Superseded page request %d failed: %s", request.getId(), e.getMessage());
+            }
+        }
+    }
+    //endregion
+}
@@ -0,0 +1,164 @@
+package hrider.ui;
+
+import hrider.hbase.PageLoadCanceledException;
+
+import javax.swing.*;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a request submitted to the {@link PageLoader}. The request is loaded on the background thread of the
+ *          loader and publishes its results to the event dispatch thread. Only the latest submitted request is current, the updates
+ *          published by a superseded request are dropped.
+ */
+public abstract class PageRequest {
+
+    //region Variables
+    /**
+     * The loader the request has been submitted to.
+     */
+    private volatile PageLoader loader;
+    /**
+     * The identifier of the request assigned by the loader.
+     */
+    private volatile long       id;
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the identifier of the request.
+     *
+     * @return The request identifier or zero if the request has not been submitted yet.
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * Checks whether the request is the latest request submitted to the loader.
+     *
+     * @return True if the request is current or False if it has been superseded or cancelled.
+     */
+    public boolean isCurrent() {
+        PageLoader pageLoader = this.loader;
+        return pageLoader != null && pageLoader.isCurrent(this.id);
+    }
+    //endregion
+
+    //region Protected Methods
+
+    /**
+     * Loads the request. This method is called on the background thread of the loader.
+     *
+     * @throws Exception Error loading the request.
+     */
+    protected abstract void load() throws Exception;
+
+    /**
+     * This method is called on the event dispatch thread if the loading of the current request has failed.
+     *
+     * @param ex The error.
+     */
+    protected abstract void onError(Exception ex);
+
+    /**
+     * Takes over a request superseded before it started to load. The default implementation drops the superseded request.
+     *
+     * @param superseded The request which is not going to be loaded.
+     */
+    protected void merge(PageRequest superseded) {
+    }
+
+    /**
+     * Stops the loading of a request which has been superseded. The request calls this method between the steps of its loading.
+     *
+     * @throws PageLoadCanceledException The request is not current anymore.
+     */
+    protected void checkCurrent() throws PageLoadCanceledException {
+        if (!isCurrent()) {
+            throw new PageLoadCanceledException(String.format("The page request %d has been superseded.", this.id));
+        }
+    }
+
+    /**
+     * Publishes an update to the event dispatch thread. The update is dropped if the request is not current when it runs.
+     *
+     * @param update The update to run.
+     */
+    protected void publish(final Runnable update) {
+        SwingUtilities.invokeLater(
+            new Runnable() {
+                @Override
+                public void run() {
+                    if (isCurrent()) {
+                        update.run();
+                    }
+                }
+            });
+    }
+
+    /**
+     * Publishes an update to the event dispatch thread and waits until it is done. The update is dropped if the request is not current
+     * when it runs.
+     *
+     * @param update The update to run.
+     * @return True if the update has run or False if the request is not current anymore.
+     * @throws Exception The update has failed or the wait has been interrupted.
+     */
+    protected boolean publishAndWait(final Runnable update) throws Exception {
+        final boolean[] done = new boolean[1];
+
+        try {
+            SwingUtilities.invokeAndWait(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        if (isCurrent()) {
+                            update.run();
+                            done[0] = true;
+                        }
+                    }
+                });
+        }
+        catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception)cause;
+            }
+            throw e;
+        }
+        return done[0];
+    }
+    //endregion
+
+    //region Package Methods
+
+    /**
+     * Binds the request to the loader it has been submitted to.
+     *
+     * @param pageLoader The loader.
+     * @param requestId  The identifier of the request.
+     */
+    void attach(PageLoader pageLoader, long requestId) {
+        this.loader = pageLoader;
+        this.id = requestId;
+    }
+    //endregion
+}
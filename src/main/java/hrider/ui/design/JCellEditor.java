@@ -156,10 +156,12 @@ public class JCellEditor extends AbstractCellEditor implements TableCellEditor {
 
         if (cell != null) {
             if (!cell.hasValue(text)) {
+                byte[] originalValue = cell.getValueAsByteArray();
+
                 cell.setValue(text);
 
                 if (changeTracker != null) {
-                    changeTracker.addChange(cell);
+                    changeTracker.addChange(cell, originalValue);
                 }
             }
             return cell;
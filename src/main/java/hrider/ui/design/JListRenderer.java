@@ -1,11 +1,10 @@
 package hrider.ui.design;
 
-import hrider.hbase.Connection;
+import hrider.hbase.TableMetadataCache;
 import hrider.hbase.TableUtil;
 
 import javax.swing.*;
 import java.awt.*;
-import java.io.IOException;
 
 /**
  * Copyright (C) 2012 NICE Systems ltd.
@@ -29,10 +28,10 @@ public class JListRenderer extends DefaultListCellRenderer {
 
     private static final long serialVersionUID = 8219559461829225540L;
 
-    private Connection connection;
+    private TableMetadataCache metadataCache;
 
-    public JListRenderer(Connection connection) {
-        this.connection = connection;
+    public JListRenderer(TableMetadataCache metadataCache) {
+        this.metadataCache = metadataCache;
     }
 
     @Override
@@ -44,7 +43,7 @@ public class JListRenderer extends DefaultListCellRenderer {
                     if (TableUtil.isMetaTable((String)value)) {
                         setForeground(Color.darkGray);
                     }
-                    else if (!connection.tableEnabled((String)value)) {
+                    else if (!metadataCache.isTableEnabled((String)value)) {
                         setForeground(Color.gray);
                     }
                 }
@@ -0,0 +1,63 @@
+package hrider.ui.design;
+
+import hrider.data.ColumnQualifier;
+import hrider.data.ColumnType;
+import hrider.data.DataCell;
+import hrider.data.DataRow;
+import hrider.hbase.PageLoadListener;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This interface represents a source of the rows shown by the {@link RowsTableModel}. The rows are loaded by position so that
+ *          any page of the table can be loaded independently of the others.
+ */
+public interface RowSource {
+
+    /**
+     * Loads the rows of a page. This method is called on a background thread.
+     *
+     * @param offset     The zero based position of the first row to load.
+     * @param rowsNumber The number of rows to load.
+     * @param listener   The listener to be notified about the rows as they arrive. Can be null.
+     * @return The loaded rows. Less rows than requested are returned only if the end of the table has been reached.
+     * @throws IOException Error accessing hbase.
+     */
+    List<DataRow> load(long offset, int rowsNumber, PageLoadListener listener) throws IOException;
+
+    /**
+     * Loads the values of a column for the specified rows. This method is called on a background thread.
+     *
+     * @param rows   The loaded rows.
+     * @param column The column to load.
+     * @return The cells of the rows which have a value in the column. The cells are not added to the rows.
+     * @throws IOException Error accessing hbase.
+     */
+    List<DataCell> loadColumn(List<DataRow> rows, ColumnQualifier column) throws IOException;
+
+    /**
+     * Updates the type of the column of the rows held by the source. This method is called on a background thread.
+     *
+     * @param columnName The name of the column.
+     * @param columnType The new column type.
+     */
+    void updateColumnType(String columnName, ColumnType columnType);
+}
@@ -0,0 +1,839 @@
+package hrider.ui.design;
+
+import hrider.actions.NamedThreadFactory;
+import hrider.config.GlobalConfig;
+import hrider.converters.TypeConverter;
+import hrider.data.ColumnQualifier;
+import hrider.data.ColumnType;
+import hrider.data.ConvertibleObject;
+import hrider.data.DataCell;
+import hrider.data.DataRow;
+import hrider.hbase.PageLoadCanceledException;
+import hrider.hbase.PageLoadListener;
+import hrider.io.Log;
+import hrider.ui.MessageHandler;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents a model of the rows table which loads the rows on demand. The rows are split to pages of a fixed size,
+ *          a page is loaded on a background thread the first time one of its rows is shown and the next page in the direction of the
+ *          scroll is loaded ahead. The number of rows grows as the pages are loaded until the end of the source is reached. Only a
+ *          bounded number of the recently shown pages is kept in memory, the pages holding edited cells are kept until the model is cleared.
+ *          The cells are created when they are shown for the first time. The model should be accessed from the event dispatch thread only.
+ */
+public class RowsTableModel extends AbstractTableModel {
+
+    //region Constants
+    private static final Log  logger           = Log.getLogger(RowsTableModel.class);
+    private static final long serialVersionUID = 3866016327740517472L;
+    private static final int  MIN_CACHED_PAGES = 3;
+    private static final int  TYPE_CHECK_ROWS  = 10;
+    private static final long IDLE_TIMEOUT     = 60;
+    //endregion
+
+    //region Variables
+    /**
+     * The columns of the table.
+     */
+    private List<ColumnQualifier>     columns;
+    /**
+     * The types of the columns. Used to create the cells of the columns the rows do not have.
+     */
+    private List<ColumnType>          columnTypes;
+    /**
+     * The loaded pages in the order of their last access. The key is the index of the page.
+     */
+    private Map<Integer, RowsPage>    pages;
+    /**
+     * The indexes of the pages being loaded.
+     */
+    private Set<Integer>              loading;
+    /**
+     * The indexes of the pages failed to load. These pages are not requested again until the model is cleared.
+     */
+    private Set<Integer>              failed;
+    /**
+     * The pages waiting to be loaded. The latest request is loaded first.
+     */
+    private final Deque<PageFetch>    requests;
+    /**
+     * The thread loading the pages.
+     */
+    private ExecutorService           executor;
+    /**
+     * The source of the rows.
+     */
+    private RowSource                 source;
+    /**
+     * The number of rows in a page.
+     */
+    private int                       pageSize;
+    /**
+     * The maximum number of pages kept in memory.
+     */
+    private int                       maxPages;
+    /**
+     * The number of rows known to exist.
+     */
+    private int                       rowCount;
+    /**
+     * Indicates whether the end of the source has been reached.
+     */
+    private boolean                   complete;
+    /**
+     * Indicates whether the rows are scrolled forward.
+     */
+    private boolean                   forward;
+    /**
+     * The index of the page the rows were last shown from. The pages requested too far from this page are not loaded.
+     */
+    private volatile int              focusPage;
+    /**
+     * Incremented each time the model is cleared. The pages requested before are dropped.
+     */
+    private volatile long             generation;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link RowsTableModel} class.
+     *
+     * @param name The name of the thread loading the pages.
+     */
+    public RowsTableModel(String name) {
+        this.columns = new ArrayList<ColumnQualifier>();
+        this.columnTypes = new ArrayList<ColumnType>();
+        this.pages = new LinkedHashMap<Integer, RowsPage>(16, 0.75f, true);
+        this.loading = new HashSet<Integer>();
+        this.failed = new HashSet<Integer>();
+        this.requests = new ArrayDeque<PageFetch>();
+        this.pageSize = 1;
+        this.maxPages = MIN_CACHED_PAGES;
+        this.forward = true;
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+            1, 1, IDLE_TIMEOUT, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new NamedThreadFactory(name));
+
+        // The views are not disposed explicitly, so the thread of an idle view is released.
+        pool.allowCoreThreadTimeOut(true);
+
+        this.executor = pool;
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Gets the number of rows in a page.
+     *
+     * @return The size of the page.
+     */
+    public int getPageSize() {
+        return this.pageSize;
+    }
+
+    /**
+     * Gets a value indicating whether the end of the source has been reached and the number of rows is final.
+     *
+     * @return True if all the rows are known or False otherwise.
+     */
+    public boolean isComplete() {
+        return this.complete;
+    }
+
+    /**
+     * Gets a loaded row. The row is not requested if it has not been loaded.
+     *
+     * @param row The index of the row.
+     * @return The row or null if the row is not loaded.
+     */
+    public DataRow getRow(int row) {
+        RowsPage page = this.pages.get(row / this.pageSize);
+        if (page != null) {
+            int pageRow = row % this.pageSize;
+            if (pageRow < page.rows.size()) {
+                return page.rows.get(pageRow);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return this.rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return this.columns.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return this.columns.get(column).toString();
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return getRow(row) != null;
+    }
+    //endregion
+
+    //region Public Methods
+
+    /**
+     * Replaces the rows of the model with the rows of the source. The page holding the specified row is requested first.
+     *
+     * @param source   The source to load the rows from.
+     * @param pageSize The number of rows to load in a page.
+     * @param firstRow The index of the first row to be shown.
+     */
+    public void load(RowSource source, int pageSize, int firstRow) {
+        clear();
+
+        this.source = source;
+        this.pageSize = Math.max(1, pageSize);
+        this.maxPages = Math.max(MIN_CACHED_PAGES, GlobalConfig.instance().getRowsCacheSize() / this.pageSize);
+        this.focusPage = Math.max(0, firstRow) / this.pageSize;
+
+        fetch(this.focusPage);
+    }
+
+    /**
+     * Removes all the rows. The pages being loaded are dropped.
+     */
+    public void clear() {
+        this.generation++;
+
+        synchronized (this.requests) {
+            this.requests.clear();
+        }
+
+        this.source = null;
+        this.pages.clear();
+        this.loading.clear();
+        this.failed.clear();
+        this.rowCount = 0;
+        this.complete = false;
+        this.forward = true;
+        this.focusPage = 0;
+
+        fireTableDataChanged();
+    }
+
+    /**
+     * Adds a column.
+     *
+     * @param qualifier The column to add.
+     * @param type      The type of the column. Can be null.
+     */
+    public void addColumn(ColumnQualifier qualifier, ColumnType type) {
+        this.columns.add(qualifier);
+        this.columnTypes.add(type);
+
+        fireTableStructureChanged();
+    }
+
+    /**
+     * Removes all the columns.
+     */
+    public void clearColumns() {
+        this.columns.clear();
+        this.columnTypes.clear();
+
+        fireTableStructureChanged();
+    }
+
+    /**
+     * Validates whether the values of the column held by the loaded rows can be converted to the specified type. Only a few rows are checked.
+     *
+     * @param columnName The name of the column.
+     * @param columnType The type to check.
+     * @return True if the values can be converted to the specified type or False otherwise.
+     */
+    public boolean isColumnOfType(String columnName, ColumnType columnType) {
+        int counter = 0;
+
+        for (RowsPage page : this.pages.values()) {
+            for (DataRow row : page.rows) {
+                if (counter == TYPE_CHECK_ROWS) {
+                    return true;
+                }
+
+                if (!row.isCellOfType(columnName, columnType)) {
+                    return false;
+                }
+                counter++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Updates the type of the column including the values held by the loaded rows. The rows held by the source are updated on the loading
+     * thread after the page being loaded.
+     *
+     * @param columnName The name of the column.
+     * @param columnType The new column type.
+     */
+    public void updateColumnType(final String columnName, final ColumnType columnType) {
+        for (int i = 0 ; i < this.columns.size() ; i++) {
+            if (this.columns.get(i).getFullName().equals(columnName)) {
+                this.columnTypes.set(i, columnType);
+            }
+        }
+
+        for (RowsPage page : this.pages.values()) {
+            page.updateColumnType(columnName, columnType);
+        }
+
+        if (this.source != null) {
+            final RowSource requestSource = this.source;
+
+            this.executor.execute(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        requestSource.updateColumnType(columnName, columnType);
+                    }
+                });
+        }
+    }
+
+    /**
+     * Updates the converter of the column names of the loaded rows.
+     *
+     * @param converter The new column name converter.
+     */
+    public void updateColumnNameConverter(TypeConverter converter) {
+        for (RowsPage page : this.pages.values()) {
+            page.updateColumnNameConverter(converter);
+        }
+    }
+
+    /**
+     * Loads the values of the column for the loaded rows which have been loaded without it. The values are loaded on the loading thread
+     * and the rows are updated when the values arrive.
+     *
+     * @param column The column to load.
+     */
+    public void loadColumn(final ColumnQualifier column) {
+        if (this.source == null || column.isKey()) {
+            return;
+        }
+
+        final List<DataRow> rows = new ArrayList<DataRow>();
+        for (RowsPage page : this.pages.values()) {
+            for (int i = 0 ; i < page.rows.size() ; i++) {
+                // The rows which have been shown with the column have been loaded with it.
+                if (!page.hasCell(i, column)) {
+                    rows.add(page.rows.get(i));
+                }
+            }
+        }
+
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        final long requestGeneration = this.generation;
+        final RowSource requestSource = this.source;
+
+        this.executor.execute(
+            new Runnable() {
+                @Override
+                public void run() {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+
+                    try {
+                        final List<DataCell> cells = requestSource.loadColumn(rows, column);
+
+                        SwingUtilities.invokeLater(
+                            new Runnable() {
+                                @Override
+                                public void run() {
+                                    onColumnLoaded(requestGeneration, column, cells);
+                                }
+                            });
+                    }
+                    catch (final Exception e) {
+                        logger.error(e, "Failed to load the column '%s' of %d rows.", column.getFullName(), rows.size());
+
+                        SwingUtilities.invokeLater(
+                            new Runnable() {
+                                @Override
+                                public void run() {
+                                    MessageHandler.addError(String.format("Failed to load column '%s': ", column.getFullName()), e);
+                                }
+                            });
+                    }
+                }
+            });
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int index = row / this.pageSize;
+
+        focus(index);
+
+        RowsPage page = this.pages.get(index);
+        if (page == null) {
+            fetch(index);
+            return null;
+        }
+
+        int pageRow = row - index * this.pageSize;
+        if (pageRow >= page.rows.size()) {
+            // The rest of the page is still being loaded.
+            return null;
+        }
+
+        return page.getCell(pageRow, this.columns.get(column), this.columnTypes.get(column));
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        RowsPage page = this.pages.get(row / this.pageSize);
+        if (page != null && value instanceof DataCell) {
+            // The edited cell is referenced only by the page, so the page cannot be released.
+            page.pinned = true;
+
+            fireTableCellUpdated(row, column);
+        }
+    }
+    //endregion
+
+    //region Private Methods
+
+    /**
+     * Records the page the rows are shown from and requests the next page in the direction of the scroll.
+     *
+     * @param index The index of the page.
+     */
+    private void focus(int index) {
+        if (index != this.focusPage) {
+            this.forward = index > this.focusPage;
+            this.focusPage = index;
+        }
+
+        int next = this.forward ? index + 1 : index - 1;
+        if (next >= 0 && (!this.complete || next * this.pageSize < this.rowCount)) {
+            fetch(next);
+        }
+    }
+
+    /**
+     * Requests the page to be loaded unless it is already loaded or being loaded.
+     *
+     * @param index The index of the page.
+     */
+    private void fetch(int index) {
+        if (this.source == null || this.pages.containsKey(index) || this.failed.contains(index) || !this.loading.add(index)) {
+            return;
+        }
+
+        synchronized (this.requests) {
+            this.requests.addLast(new PageFetch(this.generation, this.source, index, this.pageSize, this.maxPages / 2));
+        }
+
+        this.executor.execute(
+            new Runnable() {
+                @Override
+                public void run() {
+                    loadNext();
+                }
+            });
+    }
+
+    /**
+     * Loads the latest requested page. This method is called on the loading thread.
+     */
+    private void loadNext() {
+        final PageFetch fetch;
+
+        synchronized (this.requests) {
+            fetch = this.requests.pollLast();
+        }
+
+        if (fetch == null || fetch.generation != this.generation) {
+            return;
+        }
+
+        if (!isWanted(fetch)) {
+            // The rows have been scrolled away before the page has been loaded.
+            publish(fetch, null, true, null);
+            return;
+        }
+
+        try {
+            List<DataRow> rows = fetch.source.load(
+                (long)fetch.page * fetch.pageSize, fetch.pageSize, new PageLoadListener() {
+                @Override
+                public void onRowsLoaded(List<DataRow> rows) throws IOException {
+                    if (!isWanted(fetch)) {
+                        // The rows have been replaced or scrolled away while the page is being loaded.
+                        throw new PageLoadCanceledException(String.format("The load of the page %d is not needed anymore.", fetch.page));
+                    }
+
+                    publish(fetch, rows, false, null);
+                }
+            });
+
+            publish(fetch, rows, true, null);
+        }
+        catch (PageLoadCanceledException e) {
+            logger.info("The load of the page %d of %d rows has been canceled.", fetch.page, fetch.pageSize);
+
+            publish(fetch, null, true, null);
+        }
+        catch (Exception e) {
+            logger.error(e, "Failed to load the page %d of %d rows.", fetch.page, fetch.pageSize);
+
+            publish(fetch, null, true, e);
+        }
+    }
+
+    /**
+     * Checks whether the requested page is still needed. The page is not needed once the rows have been cleared or scrolled away from it.
+     *
+     * @param fetch The request of the page.
+     * @return True if the page should be loaded or False otherwise.
+     */
+    private boolean isWanted(PageFetch fetch) {
+        return fetch.generation == this.generation && Math.abs(fetch.page - this.focusPage) <= fetch.distance;
+    }
+
+    /**
+     * Passes the result of the page load to the event dispatch thread.
+     *
+     * @param fetch The request of the page.
+     * @param rows  The loaded rows or null if the page has not been loaded.
+     * @param last  Indicates whether the rows are the whole page or a part of it.
+     * @param error The error occurred while loading the page. Can be null.
+     */
+    private void publish(final PageFetch fetch, final List<DataRow> rows, final boolean last, final Exception error) {
+        SwingUtilities.invokeLater(
+            new Runnable() {
+                @Override
+                public void run() {
+                    if (fetch.generation != generation) {
+                        return;
+                    }
+
+                    if (last) {
+                        loading.remove(fetch.page);
+                    }
+
+                    if (error != null) {
+                        failed.add(fetch.page);
+                        MessageHandler.addError("Failed to load rows: ", error);
+                    }
+                    else if (rows != null) {
+                        onRowsLoaded(fetch.page, rows, last);
+                    }
+                    else if (last) {
+                        onLoadCanceled(fetch.page);
+                    }
+                }
+            });
+    }
+
+    /**
+     * Adds the loaded rows to the page and updates the number of rows.
+     *
+     * @param index The index of the page.
+     * @param rows  The loaded rows.
+     * @param last  Indicates whether the rows are the whole page or a part of it.
+     */
+    private void onRowsLoaded(int index, List<DataRow> rows, boolean last) {
+        int start = index * this.pageSize;
+        int count = this.rowCount;
+
+        if (last && rows.isEmpty() && start > 0 && count == 0) {
+            // The first requested page is beyond the end of the rows, the end is looked for closer to the beginning.
+            this.pages.remove(index);
+            this.focusPage = index / 2;
+
+            fetch(this.focusPage);
+            return;
+        }
+
+        RowsPage page = this.pages.get(index);
+        if (page == null) {
+            page = new RowsPage();
+            this.pages.put(index, page);
+        }
+
+        if (last) {
+            page.rows = new ArrayList<DataRow>(rows);
+        }
+        else {
+            page.rows.addAll(rows);
+        }
+
+        int end = start + page.rows.size();
+
+        if (last && page.rows.size() < this.pageSize) {
+            // A page which is not full is the last one. An empty page only tells that there are no rows after its start.
+            this.complete = true;
+            this.rowCount = page.rows.isEmpty() ? Math.min(count, start) : end;
+        }
+        else if (end > count) {
+            this.rowCount = end;
+        }
+
+        if (this.rowCount > count) {
+            fireTableRowsInserted(count, this.rowCount - 1);
+        }
+        else if (this.rowCount < count) {
+            fireTableRowsDeleted(this.rowCount, count - 1);
+        }
+
+        int updated = Math.min(end, this.rowCount);
+        if (updated > start) {
+            fireTableRowsUpdated(start, updated - 1);
+        }
+
+        if (last) {
+            evict();
+        }
+    }
+
+    /**
+     * Releases the part of the page loaded before the load has been canceled, so the page is requested again once its rows are shown. A
+     * page holding edited cells is kept.
+     *
+     * @param index The index of the page.
+     */
+    private void onLoadCanceled(int index) {
+        RowsPage page = this.pages.get(index);
+        if (page != null && !page.pinned) {
+            this.pages.remove(index);
+        }
+    }
+
+    /**
+     * Adds the loaded cells of the column to their rows.
+     *
+     * @param requestGeneration The generation of the model the column has been requested in.
+     * @param column            The loaded column.
+     * @param cells             The loaded cells.
+     */
+    private void onColumnLoaded(long requestGeneration, ColumnQualifier column, List<DataCell> cells) {
+        if (requestGeneration != this.generation || cells.isEmpty()) {
+            return;
+        }
+
+        for (DataCell cell : cells) {
+            // The rows which have been loaded again in the meantime already have the column.
+            if (cell.getRow().getCell(column) == null) {
+                cell.getRow().addCell(cell);
+            }
+        }
+
+        if (this.rowCount > 0) {
+            fireTableRowsUpdated(0, this.rowCount - 1);
+        }
+    }
+
+    /**
+     * Releases the least recently shown pages exceeding the maximum number of pages. The pages being loaded and the pages holding edited
+     * cells are kept.
+     */
+    private void evict() {
+        int excess = this.pages.size() - this.maxPages;
+
+        Iterator<Map.Entry<Integer, RowsPage>> iterator = this.pages.entrySet().iterator();
+        while (excess > 0 && iterator.hasNext()) {
+            Map.Entry<Integer, RowsPage> entry = iterator.next();
+            if (!entry.getValue().pinned && !this.loading.contains(entry.getKey())) {
+                iterator.remove();
+                excess--;
+            }
+        }
+    }
+    //endregion
+
+    /**
+     * Represents the loaded rows of a page.
+     */
+    private static class RowsPage {
+
+        //region Variables
+        /**
+         * The rows of the page.
+         */
+        private List<DataRow>                       rows;
+        /**
+         * The cells created for the columns the rows do not have. The key is the index of the row within the page.
+         */
+        private Map<Integer, Map<String, DataCell>> emptyCells;
+        /**
+         * Indicates whether the page holds edited cells and should be kept in memory.
+         */
+        private boolean                             pinned;
+        //endregion
+
+        //region Constructor
+        private RowsPage() {
+            this.rows = new ArrayList<DataRow>();
+            this.emptyCells = new HashMap<Integer, Map<String, DataCell>>();
+        }
+        //endregion
+
+        //region Public Methods
+
+        /**
+         * Gets the cell of the row. A cell without a value is created if the row does not have the column, the same cell is returned
+         * on the following calls so that it can be edited.
+         *
+         * @param pageRow The index of the row within the page.
+         * @param column  The column of the cell.
+         * @param type    The type of the column.
+         * @return The cell.
+         */
+        public DataCell getCell(int pageRow, ColumnQualifier column, ColumnType type) {
+            DataRow row = this.rows.get(pageRow);
+
+            DataCell cell = row.getCell(column);
+            if (cell == null) {
+                Map<String, DataCell> cells = this.emptyCells.get(pageRow);
+                if (cells == null) {
+                    cells = new HashMap<String, DataCell>();
+                    this.emptyCells.put(pageRow, cells);
+                }
+
+                cell = cells.get(column.getFullName());
+                if (cell == null) {
+                    cell = new DataCell(row, column, new ConvertibleObject(type, null));
+                    cells.put(column.getFullName(), cell);
+                }
+            }
+            return cell;
+        }
+
+        /**
+         * Checks whether the row has the cell of the column or the cell has been created for the row to be shown.
+         *
+         * @param pageRow The index of the row within the page.
+         * @param column  The column of the cell.
+         * @return True if the row has the cell or False otherwise.
+         */
+        public boolean hasCell(int pageRow, ColumnQualifier column) {
+            if (this.rows.get(pageRow).getCell(column) != null) {
+                return true;
+            }
+
+            Map<String, DataCell> cells = this.emptyCells.get(pageRow);
+            return cells != null && cells.containsKey(column.getFullName());
+        }
+
+        /**
+         * Updates the type of the column.
+         *
+         * @param columnName The name of the column.
+         * @param columnType The new column type.
+         */
+        public void updateColumnType(String columnName, ColumnType columnType) {
+            for (DataRow row : this.rows) {
+                row.updateColumnType(columnName, columnType);
+            }
+
+            for (Map<String, DataCell> cells : this.emptyCells.values()) {
+                DataCell cell = cells.get(columnName);
+                if (cell != null) {
+                    cell.setType(columnType);
+                }
+            }
+        }
+
+        /**
+         * Updates the converter of the column names.
+         *
+         * @param converter The new column name converter.
+         */
+        public void updateColumnNameConverter(TypeConverter converter) {
+            for (DataRow row : this.rows) {
+                row.updateColumnNameConverter(converter);
+            }
+
+            // The cells are keyed by the names of the columns which depend on the converter.
+            for (Map.Entry<Integer, Map<String, DataCell>> entry : this.emptyCells.entrySet()) {
+                Map<String, DataCell> cells = new HashMap<String, DataCell>();
+                for (DataCell cell : entry.getValue().values()) {
+                    cells.put(cell.getColumn().getFullName(), cell);
+                }
+                entry.setValue(cells);
+            }
+        }
+        //endregion
+    }
+
+    /**
+     * Represents a request to load a page.
+     */
+    private static class PageFetch {
+
+        //region Variables
+        /**
+         * The generation of the model the page has been requested in.
+         */
+        private final long      generation;
+        /**
+         * The source to load the rows from.
+         */
+        private final RowSource source;
+        /**
+         * The index of the page.
+         */
+        private final int       page;
+        /**
+         * The number of rows in the page.
+         */
+        private final int       pageSize;
+        /**
+         * The maximum distance in pages from the shown page the page is still worth loading at.
+         */
+        private final int       distance;
+        //endregion
+
+        //region Constructor
+        private PageFetch(long generation, RowSource source, int page, int pageSize, int distance) {
+            this.generation = generation;
+            this.source = source;
+            this.page = page;
+            this.pageSize = pageSize;
+            this.distance = distance;
+        }
+        //endregion
+    }
+}
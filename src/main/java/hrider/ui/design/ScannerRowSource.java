@@ -0,0 +1,137 @@
+package hrider.ui.design;
+
+import hrider.data.ColumnQualifier;
+import hrider.data.ColumnType;
+import hrider.data.DataCell;
+import hrider.data.DataRow;
+import hrider.hbase.PageLoadListener;
+import hrider.hbase.Scanner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class loads the rows of the {@link RowsTableModel} with a {@link Scanner}. The scanner is not thread safe, so the rows are
+ *          loaded while holding the lock of the scanner. The code using the same scanner on other threads should lock it as well.
+ */
+public class ScannerRowSource implements RowSource {
+
+    //region Variables
+    /**
+     * The scanner to load the rows with.
+     */
+    private final Scanner                         scanner;
+    /**
+     * The types of the columns to load the rows with.
+     */
+    private volatile Map<String, ColumnType>      columnTypes;
+    /**
+     * The columns to load the rows with or null to load all the columns.
+     */
+    private volatile Collection<ColumnQualifier> projection;
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Initializes a new instance of the {@link ScannerRowSource} class.
+     *
+     * @param scanner     The scanner to load the rows with.
+     * @param columnTypes The types of the columns.
+     */
+    public ScannerRowSource(Scanner scanner, Map<String, ColumnType> columnTypes) {
+        this.scanner = scanner;
+        setColumnTypes(columnTypes);
+    }
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Sets the types of the columns to load the following pages with.
+     *
+     * @param columnTypes The types of the columns.
+     */
+    public void setColumnTypes(Map<String, ColumnType> columnTypes) {
+        this.columnTypes = new HashMap<String, ColumnType>(columnTypes);
+    }
+
+    /**
+     * Sets the columns to load the following pages with. The rest of the columns are not loaded.
+     *
+     * @param columns The columns to load or null to load all the columns.
+     */
+    public void setProjection(Collection<ColumnQualifier> columns) {
+        this.projection = columns != null ? new ArrayList<ColumnQualifier>(columns) : null;
+    }
+    //endregion
+
+    //region Public Methods
+    @Override
+    public List<DataRow> load(long offset, int rowsNumber, PageLoadListener listener) throws IOException {
+        synchronized (this.scanner) {
+            this.scanner.setColumnTypes(this.columnTypes);
+            this.scanner.setProjection(this.projection);
+            this.scanner.setLoadListener(listener);
+
+            try {
+                // The offset of the scanner starts from 1.
+                return new ArrayList<DataRow>(this.scanner.current(offset + 1, rowsNumber));
+            }
+            finally {
+                this.scanner.setLoadListener(null);
+            }
+        }
+    }
+
+    @Override
+    public List<DataCell> loadColumn(List<DataRow> rows, ColumnQualifier column) throws IOException {
+        synchronized (this.scanner) {
+            this.scanner.setColumnTypes(this.columnTypes);
+            return this.scanner.loadColumn(rows, column);
+        }
+    }
+
+    @Override
+    public void updateColumnType(String columnName, ColumnType columnType) {
+        synchronized (this.scanner) {
+            this.scanner.updateColumnType(columnName, columnType);
+        }
+    }
+
+    /**
+     * Loads all the columns of the specified rows regardless of the columns the rows have been loaded with.
+     *
+     * @param rows The rows to load.
+     * @return The loaded rows in the order of the specified rows. The rows which do not exist anymore are null.
+     * @throws IOException Error accessing hbase.
+     */
+    public List<DataRow> loadRows(List<DataRow> rows) throws IOException {
+        synchronized (this.scanner) {
+            this.scanner.setColumnTypes(this.columnTypes);
+            return this.scanner.loadRows(rows);
+        }
+    }
+    //endregion
+}
@@ -10,11 +10,17 @@ import hrider.data.ColumnQualifier;
 import hrider.data.ColumnType;
 import hrider.data.DataRow;
 import hrider.data.TypedColumn;
-import hrider.export.FileExporter;
+import hrider.export.ExportFormat;
+import hrider.export.ExportFormats;
+import hrider.export.ExportManifest;
 import hrider.hbase.Connection;
 import hrider.hbase.HbaseActionListener;
 import hrider.hbase.QueryScanner;
 import hrider.hbase.Scanner;
+import hrider.jobs.ExportFileJob;
+import hrider.jobs.Job;
+import hrider.jobs.JobListener;
+import hrider.jobs.JobManager;
 import hrider.io.Log;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
@@ -23,8 +29,6 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -54,21 +58,23 @@ public class ExportTableDialog extends JDialog {
     //endregion
 
     //region Variables
-    private JPanel     contentPane;
-    private JButton    btExport;
-    private JButton    btCancel;
-    private JTextField tfFilePath;
-    private JButton    btBrowse;
-    private JLabel     writtenRowsCount;
-    private JLabel     totalRowsCount;
-    private JComboBox  cmbDelimiter;
-    private JButton    btOpen;
-    private JButton    btClose;
-    private JButton    btExportWithQueryButton;
-    private JComboBox  cmbFileType;
-    private JLabel     labelDelimiter;
-    private String     filePath;
-    private boolean    canceled;
+    private JPanel            contentPane;
+    private JButton           btExport;
+    private JButton           btCancel;
+    private JTextField        tfFilePath;
+    private JButton           btBrowse;
+    private JLabel            writtenRowsCount;
+    private JLabel            totalRowsCount;
+    private JComboBox         cmbDelimiter;
+    private JButton           btOpen;
+    private JButton           btClose;
+    private JButton           btExportWithQueryButton;
+    private JComboBox<String> cmbFileType;
+    private JCheckBox         chbParallel;
+    private JCheckBox         chbMerge;
+    private JLabel            labelDelimiter;
+    private String            filePath;
+    private Job               job;
     //endregion
 
     //region Constructor
@@ -81,6 +87,13 @@ public class ExportTableDialog extends JDialog {
 
         this.tfFilePath.setText(String.format("%s.hfile", scanner.getTableName()));
 
+        DefaultComboBoxModel<String> fileTypes = (DefaultComboBoxModel<String>)this.cmbFileType.getModel();
+        for (ExportFormat format : ExportFormats.getFormats()) {
+            if (fileTypes.getIndexOf(format.getName()) == -1) {
+                fileTypes.addElement(format.getName());
+            }
+        }
+
         this.btExport.addActionListener(
             new ActionListener() {
                 @Override
@@ -126,7 +139,10 @@ public class ExportTableDialog extends JDialog {
             new ActionListener() {
                 @Override
                 public void actionPerformed(ActionEvent e) {
-                    canceled = true;
+                    Job exportJob = job;
+                    if (exportJob != null) {
+                        exportJob.cancel();
+                    }
                 }
             });
 
@@ -163,6 +179,14 @@ public class ExportTableDialog extends JDialog {
                 }
             });
 
+        this.chbParallel.addActionListener(
+            new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    chbMerge.setEnabled(chbParallel.isSelected());
+                }
+            });
+
         this.btClose.addActionListener(
             new ActionListener() {
                 @Override
@@ -175,14 +199,17 @@ public class ExportTableDialog extends JDialog {
             new ActionListener() {
                 @Override
                 public void actionPerformed(ActionEvent e) {
-                    boolean visible = "Delimited".equals(cmbFileType.getSelectedItem());
+                    ExportFormat format = getFormat();
+                    boolean visible = format != null && format.isDelimited();
 
                     cmbDelimiter.setVisible(visible);
                     labelDelimiter.setVisible(visible);
+                    chbParallel.setVisible(format != null);
+                    chbMerge.setVisible(format != null);
 
                     if (tfFilePath.getText().startsWith(scanner.getTableName())) {
-                        if (visible) {
-                            tfFilePath.setText(String.format("%s.csv", scanner.getTableName()));
+                        if (format != null) {
+                            tfFilePath.setText(String.format("%s.%s", scanner.getTableName(), format.getExtension()));
                         }
                         else {
                             tfFilePath.setText(String.format("%s.hfile", scanner.getTableName()));
@@ -218,7 +245,7 @@ public class ExportTableDialog extends JDialog {
             public Object run() throws IOException {
                 long totalNumberOfRows = scanner.getRowsCount(GlobalConfig.instance().getRowCountTimeout());
                 if (scanner.isRowsCountPartiallyCalculated()) {
-                    totalRowsCount.setText("more than " + totalNumberOfRows);
+                    totalRowsCount.setText(String.format("more than %d (~%d)", totalNumberOfRows, scanner.getEstimatedRowsCount()));
                 }
                 else {
                     totalRowsCount.setText(String.valueOf(totalNumberOfRows));
@@ -245,9 +272,13 @@ public class ExportTableDialog extends JDialog {
     //endregion
 
     //region Private Methods
-    private void onExport(final Scanner scanner) {
+    private void onExport(final QueryScanner scanner) {
         final File file = new File(this.tfFilePath.getText());
-        if (!file.exists()) {
+
+        // Without the merge the parallel export writes only the part files and the manifest.
+        final boolean partsOnly = getFormat() != null && this.chbParallel.isSelected() && !this.chbMerge.isSelected();
+
+        if (!file.exists() && !partsOnly) {
             try {
                 file.createNewFile();
             }
@@ -267,6 +298,8 @@ public class ExportTableDialog extends JDialog {
                     tfFilePath.setEnabled(false);
                     cmbFileType.setEnabled(false);
                     cmbDelimiter.setEnabled(false);
+                    chbParallel.setEnabled(false);
+                    chbMerge.setEnabled(false);
                     btExport.setEnabled(false);
                     btExportWithQueryButton.setEnabled(false);
                     btCancel.setEnabled(true);
@@ -274,17 +307,16 @@ public class ExportTableDialog extends JDialog {
                     btClose.setEnabled(false);
                     btBrowse.setEnabled(false);
 
-                    canceled = false;
-
                     try {
-                        if ("Delimited".equals(cmbFileType.getSelectedItem())) {
-                            exportDelimitedFile(file, scanner);
+                        ExportFormat format = getFormat();
+                        if (format != null) {
+                            exportDelimitedFile(file, scanner, format);
                         }
                         else {
                             exportHFile(file, scanner);
                         }
 
-                        filePath = file.getAbsolutePath();
+                        filePath = partsOnly ? ExportManifest.getManifestFile(file).getAbsolutePath() : file.getAbsolutePath();
                         btOpen.setEnabled(true);
                     }
                     catch (Exception e) {
@@ -295,7 +327,10 @@ public class ExportTableDialog extends JDialog {
                     finally {
                         tfFilePath.setEnabled(true);
                         cmbFileType.setEnabled(true);
-                        cmbDelimiter.setEnabled("Delimited".equals(cmbFileType.getSelectedItem()));
+                        ExportFormat format = getFormat();
+                        cmbDelimiter.setEnabled(format != null && format.isDelimited());
+                        chbParallel.setEnabled(true);
+                        chbMerge.setEnabled(chbParallel.isSelected());
                         btExport.setEnabled(true);
                         btExportWithQueryButton.setEnabled(true);
                         btCancel.setEnabled(false);
@@ -306,31 +341,32 @@ public class ExportTableDialog extends JDialog {
             }).start();
     }
 
-    private void exportDelimitedFile(File file, Scanner scanner) throws IOException, FileNotFoundException {
-        FileOutputStream stream = new FileOutputStream(file);
-        FileExporter exporter = new FileExporter(stream, getDelimiter());
-
-        try {
-            scanner.resetCurrent(null);
-
-            Collection<DataRow> rows = scanner.next(GlobalConfig.instance().getBatchSizeForRead());
-            Collection<ColumnQualifier> columns = scanner.getColumns(0);
-
-            int counter = 1;
+    private void exportDelimitedFile(File file, QueryScanner scanner, ExportFormat format) throws Exception {
+        Character delimiter = getDelimiter();
 
-            while (!rows.isEmpty() && !canceled) {
-                for (DataRow row : rows) {
-                    exporter.write(row, columns);
+        final ExportFileJob exportJob = new ExportFileJob(
+            scanner, file.getAbsolutePath(), format, delimiter != null ? delimiter : ',', this.chbParallel.isSelected(), this.chbMerge.isSelected());
 
-                    writtenRowsCount.setText(Long.toString(counter++));
-                    writtenRowsCount.paintImmediately(writtenRowsCount.getBounds());
+        exportJob.addListener(
+            new JobListener() {
+                @Override
+                public void onJobChanged(Job job) {
+                    SwingUtilities.invokeLater(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                writtenRowsCount.setText(Long.toString(exportJob.getProcessed()));
+                            }
+                        });
                 }
+            });
 
-                rows = scanner.next(GlobalConfig.instance().getBatchSizeForRead());
-            }
+        this.job = exportJob;
+        try {
+            JobManager.instance().run(exportJob);
         }
         finally {
-            stream.close();
+            this.job = null;
         }
     }
 
@@ -377,6 +413,11 @@ public class ExportTableDialog extends JDialog {
         }
     }
 
+    private ExportFormat getFormat() {
+        Object fileType = this.cmbFileType.getSelectedItem();
+        return fileType != null ? ExportFormats.get(fileType.toString()) : null;
+    }
+
     private Character getDelimiter() {
         String delimiter = this.cmbDelimiter.getSelectedItem().toString().trim();
         if (delimiter != null && delimiter.length() == 1) {
@@ -386,8 +427,10 @@ public class ExportTableDialog extends JDialog {
     }
 
     private boolean validateInput() {
+        ExportFormat format = getFormat();
+
         Character delimiter = getDelimiter();
-        if (delimiter == null) {
+        if (format != null && format.isDelimited() && delimiter == null) {
             JOptionPane.showMessageDialog(this.contentPane, "The delimiter field must contain exactly one character.", "Error", JOptionPane.ERROR_MESSAGE);
             return false;
         }
@@ -549,8 +592,8 @@ public class ExportTableDialog extends JDialog {
             label4, new GridConstraints(
             1, 0, 1, 1, GridConstraints.ANCHOR_EAST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_FIXED, GridConstraints.SIZEPOLICY_FIXED, null, null,
             null, 0, false));
-        cmbFileType = new JComboBox();
-        final DefaultComboBoxModel defaultComboBoxModel2 = new DefaultComboBoxModel();
+        cmbFileType = new JComboBox<String>();
+        final DefaultComboBoxModel<String> defaultComboBoxModel2 = new DefaultComboBoxModel<String>();
         defaultComboBoxModel2.addElement("HFile");
         defaultComboBoxModel2.addElement("Delimited");
         cmbFileType.setModel(defaultComboBoxModel2);
@@ -558,6 +601,23 @@ public class ExportTableDialog extends JDialog {
             cmbFileType, new GridConstraints(
             1, 1, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED,
             null, null, null, 0, false));
+        chbParallel = new JCheckBox();
+        chbParallel.setText("Parallel");
+        chbParallel.setToolTipText("Export the regions of the table in parallel to separate part files");
+        chbParallel.setVisible(false);
+        panel3.add(
+            chbParallel, new GridConstraints(
+            1, 2, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW,
+            GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+        chbMerge = new JCheckBox();
+        chbMerge.setEnabled(false);
+        chbMerge.setText("Merge parts");
+        chbMerge.setToolTipText("Merge the part files into a single file in the order of the keys");
+        chbMerge.setVisible(false);
+        panel3.add(
+            chbMerge, new GridConstraints(
+            2, 2, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW,
+            GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
         final JSeparator separator2 = new JSeparator();
         contentPane.add(
             separator2, new GridConstraints(
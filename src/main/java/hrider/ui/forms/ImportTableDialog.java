@@ -3,11 +3,14 @@ package hrider.ui.forms;
 import com.intellij.uiDesigner.core.GridConstraints;
 import com.intellij.uiDesigner.core.GridLayoutManager;
 import com.intellij.uiDesigner.core.Spacer;
-import hrider.config.GlobalConfig;
 import hrider.converters.TypeConverter;
 import hrider.data.*;
 import hrider.hbase.Connection;
 import hrider.hbase.HbaseActionListener;
+import hrider.jobs.ImportFileJob;
+import hrider.jobs.Job;
+import hrider.jobs.JobListener;
+import hrider.jobs.JobManager;
 import hrider.ui.controls.WideComboBox;
 import hrider.ui.design.JTableModel;
 import org.apache.hadoop.hbase.TableNotFoundException;
@@ -22,8 +25,6 @@ import java.awt.*;
 import java.awt.event.*;
 import java.io.*;
 import java.util.*;
-import java.util.List;
-import java.util.regex.Pattern;
 
 /**
  * Copyright (C) 2012 NICE Systems ltd.
@@ -65,7 +66,7 @@ public class ImportTableDialog extends JDialog {
     private JPanel            panelDelimited;
     private JLabel            labelDelimiter;
     private DefaultTableModel tableModel;
-    private boolean           canceled;
+    private Job               job;
     private TypeConverter     nameConverter;
     //endregion
 
@@ -209,7 +210,10 @@ public class ImportTableDialog extends JDialog {
             new ActionListener() {
                 @Override
                 public void actionPerformed(ActionEvent e) {
-                    canceled = true;
+                    Job importJob = job;
+                    if (importJob != null) {
+                        importJob.cancel();
+                    }
                 }
             });
 
@@ -283,8 +287,6 @@ public class ImportTableDialog extends JDialog {
                     btBrowse.setEnabled(false);
                     btImport.setEnabled(false);
 
-                    canceled = false;
-
                     try {
                         String tableName = tfTableName.getText().trim();
                         if (!connection.tableExists(tableName)) {
@@ -330,97 +332,30 @@ public class ImportTableDialog extends JDialog {
             }).start();
     }
 
-    private void importDelimitedFile(Connection connection, String table, String filePath) throws IOException, FileNotFoundException, TableNotFoundException {
-
-        BufferedReader reader = null;
-
-        try {
-            reader = new BufferedReader(new FileReader(filePath));
-            String header = reader.readLine();
-            if (header != null) {
-                Pattern p = Pattern.compile(Pattern.quote(Character.toString(getDelimiter())));
-
-                List<String> columns = Arrays.asList(p.split(header));
-                if (columns.isEmpty()) {
-                    throw new IllegalArgumentException("No columns information found in the file.");
-                }
-
-                if (!columns.contains(ColumnQualifier.KEY.getName())) {
-                    throw new IllegalArgumentException("Column 'key' is missing in the file.");
-                }
-
-                Map<String, ColumnType> columnTypes = getColumnTypes();
-                Map<String, ColumnQualifier> columnQualifiers = getColumnQualifiers();
-
-                long readCount = 1;
-                long writtenCount = 0;
-                int batch = GlobalConfig.instance().getBatchSizeForWrite();
-
-                Collection<DataRow> rows = new ArrayList<DataRow>();
-
-                String line = reader.readLine();
-                while (line != null && !canceled) {
-
-                    readRowsCount.setText(Long.toString(readCount++));
-                    DataRow row = new DataRow();
-
-                    String[] values = p.split(line);
-                    for (int i = 0 ; i < values.length && i < columns.size() ; i++) {
-                        String column = columns.get(i).trim();
-                        String value = values[i].trim();
-
-                        ColumnType type = columnTypes.get(column);
-                        if (type == null) {
-                            type = ColumnType.String;
-                        }
-
-                        if (ColumnQualifier.isKey(column)) {
-                            row.setKey(new ConvertibleObject(type, type.toBytes(value)));
-                        }
-
-                        ColumnQualifier qualifier = columnQualifiers.get(column);
-                        if (qualifier == null) {
-                            qualifier = new ColumnQualifier(column, nameConverter);
-                        }
-
-                        row.addCell(new DataCell(row, qualifier, new ConvertibleObject(type, type.toBytes(value))));
-                    }
+    private void importDelimitedFile(Connection connection, String table, String filePath) throws Exception {
+        final ImportFileJob importJob = new ImportFileJob(connection, table, filePath, getDelimiter(), this.nameConverter, getColumnTypes());
 
-                    if (row.getKey() != null) {
-                        rows.add(row);
-                    }
-
-                    if (readCount % batch == 0) {
-                        connection.setRows(table, rows);
-
-                        writtenCount += rows.size();
-                        rows.clear();
-
-                        writtenRowsCount.setText(Long.toString(writtenCount));
-                    }
-
-                    line = reader.readLine();
+        importJob.addListener(
+            new JobListener() {
+                @Override
+                public void onJobChanged(Job job) {
+                    SwingUtilities.invokeLater(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                readRowsCount.setText(Long.toString(importJob.getReadCount()));
+                                writtenRowsCount.setText(Long.toString(importJob.getProcessed()));
+                            }
+                        });
                 }
+            });
 
-                // Write last rows.
-                if (!rows.isEmpty()) {
-                    connection.setRows(table, rows);
-
-                    writtenCount += rows.size();
-                    rows.clear();
-
-                    writtenRowsCount.setText(Long.toString(writtenCount));
-                }
-            }
+        this.job = importJob;
+        try {
+            JobManager.instance().run(importJob);
         }
         finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                }
-                catch (IOException ignore) {
-                }
-            }
+            this.job = null;
         }
     }
 
@@ -479,15 +414,6 @@ public class ImportTableDialog extends JDialog {
         return columnTypes;
     }
 
-    private Map<String, ColumnQualifier> getColumnQualifiers() {
-        Map<String, ColumnQualifier> columnQualifiers = new HashMap<String, ColumnQualifier>();
-        for (int i = 0 ; i < this.rowsTable.getRowCount() ; i++) {
-            ColumnQualifier qualifier = (ColumnQualifier)this.rowsTable.getValueAt(i, 0);
-            columnQualifiers.put(qualifier.getFullName(), qualifier);
-        }
-        return columnQualifiers;
-    }
-
     private Character getDelimiter() {
         String delimiter = this.cmbDelimiter.getSelectedItem().toString().trim();
         if (delimiter != null && delimiter.length() == 1) {
@@ -0,0 +1,348 @@
+package hrider.ui.forms;
+
+import com.intellij.uiDesigner.core.GridConstraints;
+import com.intellij.uiDesigner.core.GridLayoutManager;
+import com.intellij.uiDesigner.core.Spacer;
+import hrider.jobs.Job;
+import hrider.jobs.JobListener;
+import hrider.jobs.JobManager;
+import hrider.jobs.JobState;
+
+import javax.swing.*;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ */
+public class JobsDialog extends JDialog {
+
+    //region Variables
+    private static final long serialVersionUID = -2316419564703214795L;
+
+    private JPanel            contentPane;
+    private JTable            jobsTable;
+    private JButton           btPause;
+    private JButton           btResume;
+    private JButton           btCancel;
+    private JButton           btRemove;
+    private JButton           btClose;
+    private DefaultTableModel tableModel;
+    private List<Job>         jobs;
+    private JobListener       listener;
+    private boolean           refreshPending;
+    //endregion
+
+    //region Constructor
+    public JobsDialog() {
+        setContentPane(this.contentPane);
+        setModal(false);
+        setTitle("Jobs");
+        getRootPane().setDefaultButton(this.btClose);
+
+        this.jobs = new ArrayList<Job>();
+
+        this.tableModel = new DefaultTableModel() {
+            private static final long serialVersionUID = 7382646512043385829L;
+
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+
+        this.jobsTable.setModel(this.tableModel);
+        this.jobsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        this.jobsTable.setRowHeight(this.jobsTable.getFont().getSize() + 8);
+        this.jobsTable.setAutoResizeMode(JTable.AUTO_RESIZE_SUBSEQUENT_COLUMNS);
+
+        this.tableModel.addColumn("Job");
+        this.tableModel.addColumn("State");
+        this.tableModel.addColumn("Rows");
+        this.tableModel.addColumn("Error");
+
+        this.jobsTable.getSelectionModel().addListSelectionListener(
+            new ListSelectionListener() {
+                @Override
+                public void valueChanged(ListSelectionEvent e) {
+                    updateButtons();
+                }
+            });
+
+        this.btPause.addActionListener(
+            new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    Job job = getSelectedJob();
+                    if (job != null) {
+                        JobManager.instance().pause(job.getId());
+                    }
+                }
+            });
+
+        this.btResume.addActionListener(
+            new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    Job job = getSelectedJob();
+                    if (job != null) {
+                        JobManager.instance().resume(job.getId());
+                    }
+                }
+            });
+
+        this.btCancel.addActionListener(
+            new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    Job job = getSelectedJob();
+                    if (job != null) {
+                        JobManager.instance().cancel(job.getId());
+                    }
+                }
+            });
+
+        this.btRemove.addActionListener(
+            new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    Job job = getSelectedJob();
+                    if (job != null) {
+                        int option = JOptionPane.showConfirmDialog(
+                            contentPane, String.format("The job '%s' will not be resumable anymore.\nDo you want to remove it?", job.getDescription()),
+                            "Remove job", JOptionPane.YES_NO_OPTION);
+
+                        if (option == JOptionPane.YES_OPTION) {
+                            JobManager.instance().remove(job.getId());
+                        }
+                    }
+                }
+            });
+
+        this.btClose.addActionListener(
+            new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    onClose();
+                }
+            });
+
+        this.listener = new JobListener() {
+            @Override
+            public void onJobChanged(Job job) {
+                scheduleRefresh();
+            }
+        };
+
+        JobManager.instance().addListener(this.listener);
+
+        // call onClose() when cross is clicked
+        setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+        addWindowListener(
+            new WindowAdapter() {
+                @Override
+                public void windowClosing(WindowEvent e) {
+                    onClose();
+                }
+            });
+
+        // call onClose() on ESCAPE
+        this.contentPane.registerKeyboardAction(
+            new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    onClose();
+                }
+            }, KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT);
+
+        refresh();
+    }
+    //endregion
+
+    //region Public Methods
+    public void showDialog(Component owner) {
+        this.setComponentOrientation(owner.getComponentOrientation());
+        this.pack();
+        this.setLocationRelativeTo(owner);
+        this.setVisible(true);
+    }
+    //endregion
+
+    //region Private Methods
+    private Job getSelectedJob() {
+        int selectedRow = this.jobsTable.getSelectedRow();
+        if (selectedRow != -1) {
+            return this.jobs.get(selectedRow);
+        }
+        return null;
+    }
+
+    /**
+     * Refreshes the table on the event dispatch thread. The jobs notify about every committed batch, so the refreshes are coalesced.
+     */
+    private synchronized void scheduleRefresh() {
+        if (!this.refreshPending) {
+            this.refreshPending = true;
+
+            SwingUtilities.invokeLater(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        synchronized (JobsDialog.this) {
+                            refreshPending = false;
+                        }
+                        refresh();
+                    }
+                });
+        }
+    }
+
+    private void refresh() {
+        Job selectedJob = getSelectedJob();
+
+        this.jobs.clear();
+        this.jobs.addAll(JobManager.instance().getJobs());
+
+        this.tableModel.setRowCount(0);
+
+        for (Job job : this.jobs) {
+            this.tableModel.addRow(new Object[]{job.getDescription(), job.getState(), job.getProcessed(), job.getError()});
+        }
+
+        if (selectedJob != null) {
+            int index = this.jobs.indexOf(selectedJob);
+            if (index != -1) {
+                this.jobsTable.setRowSelectionInterval(index, index);
+            }
+        }
+
+        updateButtons();
+    }
+
+    private void updateButtons() {
+        Job job = getSelectedJob();
+        JobState state = job != null ? job.getState() : null;
+
+        this.btPause.setEnabled(state == JobState.Running);
+        this.btResume.setEnabled(state == JobState.Paused || state != null && state.isResumable());
+        this.btCancel.setEnabled(state != null && state != JobState.Completed && state != JobState.Cancelled);
+        this.btRemove.setEnabled(state != null && !state.isActive());
+    }
+
+    private void onClose() {
+        JobManager.instance().removeListener(this.listener);
+        dispose();
+    }
+
+    //endregion
+
+    {
+        // GUI initializer generated by IntelliJ IDEA GUI Designer
+        // >>> IMPORTANT!! <<<
+        // DO NOT EDIT OR ADD ANY CODE HERE!
+        $$$setupUI$$$();
+    }
+
+    /**
+     * Method generated by IntelliJ IDEA GUI Designer
+     * >>> IMPORTANT!! <<<
+     * DO NOT edit this method OR call it in your code!
+     *
+     * @noinspection ALL
+     */
+    private void $$$setupUI$$$() {
+        contentPane = new JPanel();
+        contentPane.setLayout(new GridLayoutManager(3, 1, new Insets(10, 10, 10, 10), -1, -1));
+        final JPanel panel1 = new JPanel();
+        panel1.setLayout(new GridLayoutManager(1, 2, new Insets(0, 0, 0, 0), -1, -1));
+        contentPane.add(
+            panel1, new GridConstraints(
+            2, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_BOTH, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW,
+            1, null, null, null, 0, false));
+        final JPanel panel2 = new JPanel();
+        panel2.setLayout(new GridLayoutManager(1, 5, new Insets(0, 0, 0, 0), -1, -1, true, false));
+        panel1.add(
+            panel2, new GridConstraints(
+            0, 1, 1, 1, GridConstraints.ANCHOR_EAST, GridConstraints.FILL_VERTICAL, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW,
+            GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, null, null, null, 0, false));
+        btPause = new JButton();
+        btPause.setEnabled(false);
+        btPause.setText("Pause");
+        panel2.add(
+            btPause, new GridConstraints(
+            0, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_HORIZONTAL,
+            GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+        btResume = new JButton();
+        btResume.setEnabled(false);
+        btResume.setText("Resume");
+        panel2.add(
+            btResume, new GridConstraints(
+            0, 1, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_HORIZONTAL,
+            GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+        btCancel = new JButton();
+        btCancel.setEnabled(false);
+        btCancel.setText("Cancel");
+        panel2.add(
+            btCancel, new GridConstraints(
+            0, 2, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_HORIZONTAL,
+            GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+        btRemove = new JButton();
+        btRemove.setEnabled(false);
+        btRemove.setText("Remove");
+        panel2.add(
+            btRemove, new GridConstraints(
+            0, 3, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_HORIZONTAL,
+            GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+        btClose = new JButton();
+        btClose.setText("Close");
+        panel2.add(
+            btClose, new GridConstraints(
+            0, 4, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_HORIZONTAL,
+            GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+        final Spacer spacer1 = new Spacer();
+        panel1.add(
+            spacer1, new GridConstraints(
+            0, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_WANT_GROW, 1, null, null, null, 0,
+            false));
+        final JScrollPane scrollPane1 = new JScrollPane();
+        contentPane.add(
+            scrollPane1, new GridConstraints(
+            0, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_BOTH, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_WANT_GROW,
+            GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_WANT_GROW, null, null, null, 0, false));
+        jobsTable = new JTable();
+        jobsTable.setPreferredScrollableViewportSize(new Dimension(600, 200));
+        scrollPane1.setViewportView(jobsTable);
+        final JSeparator separator1 = new JSeparator();
+        contentPane.add(
+            separator1, new GridConstraints(
+            1, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_BOTH, GridConstraints.SIZEPOLICY_WANT_GROW, GridConstraints.SIZEPOLICY_WANT_GROW,
+            null, null, null, 0, false));
+    }
+
+    /**
+     * @noinspection ALL
+     */
+    public JComponent $$$getRootComponent$$$() {
+        return contentPane;
+    }
+}
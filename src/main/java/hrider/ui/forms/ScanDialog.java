@@ -5,17 +5,23 @@ import com.intellij.uiDesigner.core.GridLayoutManager;
 import com.michaelbaranov.microba.calendar.DatePicker;
 import hrider.data.ColumnQualifier;
 import hrider.data.ColumnType;
+import hrider.data.RowKeySchema;
 import hrider.data.TypedColumn;
 import hrider.format.DateUtils;
 import hrider.hbase.Operator;
+import hrider.hbase.Predicate;
+import hrider.hbase.PredicateParser;
 import hrider.hbase.Query;
 import hrider.ui.controls.BoundsPopupMenuListener;
+import org.apache.hadoop.hbase.client.Scan;
 
 import javax.swing.*;
 import javax.swing.event.PopupMenuListener;
 import java.awt.*;
 import java.awt.event.*;
 import java.beans.PropertyVetoException;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Copyright (C) 2012 NICE Systems ltd.
@@ -42,21 +48,24 @@ public class ScanDialog extends JDialog {
     //endregion
 
     //region Variables
-    private JPanel     contentPane;
-    private JButton    buttonRun;
-    private JButton    buttonCancel;
-    private JComboBox  comboBoxColumns;
-    private JComboBox  comboBoxOperator;
-    private JTextField textFieldWord;
-    private JTextField textFieldStartKey;
-    private JTextField textFieldEndKey;
-    private JComboBox  comboBoxStartKeyType;
-    private JComboBox  comboBoxEndKeyType;
-    private DatePicker startTimeDatePicker;
-    private DatePicker endTimeDatePicker;
-    private JCheckBox  checkBoxUseDates;
-    private JComboBox  comboBoxWordType;
-    private boolean    okPressed;
+    private JPanel                  contentPane;
+    private JButton                 buttonRun;
+    private JButton                 buttonCancel;
+    private JComboBox               comboBoxColumns;
+    private JComboBox               comboBoxOperator;
+    private JTextField              textFieldWord;
+    private JTextField              textFieldStartKey;
+    private JTextField              textFieldEndKey;
+    private JComboBox<ColumnType>   comboBoxStartKeyType;
+    private JComboBox<ColumnType>   comboBoxEndKeyType;
+    private DatePicker              startTimeDatePicker;
+    private DatePicker              endTimeDatePicker;
+    private JCheckBox               checkBoxUseDates;
+    private JComboBox<ColumnType>   comboBoxWordType;
+    private JTextField              textFieldFilter;
+    private boolean                 okPressed;
+    private Predicate               predicate;
+    private Map<String, ColumnType> columnTypes;
     //endregion
 
     //region Constructor
@@ -69,10 +78,14 @@ public class ScanDialog extends JDialog {
         this.startTimeDatePicker.setDateFormat(DateUtils.getDefaultDateFormat());
         this.endTimeDatePicker.setDateFormat(DateUtils.getDefaultDateFormat());
 
+        this.columnTypes = new HashMap<String, ColumnType>();
+
         for (TypedColumn column : columns) {
             if (!column.getColumn().isKey()) {
                 this.comboBoxColumns.addItem(column.getColumn());
             }
+
+            this.columnTypes.put(column.getColumn().getFullName(), column.getType());
         }
 
         PopupMenuListener listener = new BoundsPopupMenuListener(true, false);
@@ -91,6 +104,15 @@ public class ScanDialog extends JDialog {
 
         this.comboBoxStartKeyType.setSelectedItem(ColumnType.BinaryString);
         this.comboBoxEndKeyType.setSelectedItem(ColumnType.BinaryString);
+
+        // The keys shown by a schema are entered as the list of the named field values, the trailing fields can be omitted.
+        ColumnType keyType = this.columnTypes.get(ColumnQualifier.KEY.getName());
+        if (RowKeySchema.fromColumnType(keyType) != null) {
+            this.comboBoxStartKeyType.addItem(keyType);
+            this.comboBoxEndKeyType.addItem(keyType);
+            this.comboBoxStartKeyType.setSelectedItem(keyType);
+            this.comboBoxEndKeyType.setSelectedItem(keyType);
+        }
         this.comboBoxWordType.setSelectedItem(ColumnType.String);
 
         fillForm(query);
@@ -171,6 +193,10 @@ public class ScanDialog extends JDialog {
                 query.setWordType((ColumnType)this.comboBoxWordType.getSelectedItem());
             }
 
+            if (this.predicate != null) {
+                query.setPredicate(this.textFieldFilter.getText().trim(), this.predicate);
+            }
+
             return query;
         }
         return null;
@@ -209,10 +235,26 @@ public class ScanDialog extends JDialog {
                 this.comboBoxOperator.setSelectedItem(query.getOperator());
                 this.textFieldWord.setText(query.getWord());
             }
+
+            if (query.getFilter() != null) {
+                this.textFieldFilter.setText(query.getFilter());
+            }
         }
     }
 
     private void onOK() {
+        try {
+            this.predicate = new PredicateParser(this.columnTypes).parse(this.textFieldFilter.getText());
+            if (this.predicate != null) {
+                // Checks that the predicate can be evaluated on the region servers.
+                this.predicate.toFilter(new Scan());
+            }
+        }
+        catch (Exception e) {
+            JOptionPane.showMessageDialog(this.contentPane, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
         this.okPressed = true;
 
         dispose();
@@ -268,7 +310,7 @@ public class ScanDialog extends JDialog {
             0, 1, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_HORIZONTAL,
             GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
         final JPanel panel3 = new JPanel();
-        panel3.setLayout(new GridLayoutManager(6, 3, new Insets(5, 5, 5, 0), -1, -1));
+        panel3.setLayout(new GridLayoutManager(7, 3, new Insets(5, 5, 5, 0), -1, -1));
         contentPane.add(
             panel3, new GridConstraints(
             0, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_BOTH, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW,
@@ -334,12 +376,12 @@ public class ScanDialog extends JDialog {
             textFieldEndKey, new GridConstraints(
             1, 1, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_WANT_GROW, GridConstraints.SIZEPOLICY_FIXED,
             null, new Dimension(150, 26), null, 0, false));
-        comboBoxStartKeyType = new JComboBox();
+        comboBoxStartKeyType = new JComboBox<ColumnType>();
         panel3.add(
             comboBoxStartKeyType, new GridConstraints(
             0, 2, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED,
             null, null, null, 0, false));
-        comboBoxEndKeyType = new JComboBox();
+        comboBoxEndKeyType = new JComboBox<ColumnType>();
         panel3.add(
             comboBoxEndKeyType, new GridConstraints(
             1, 2, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED,
@@ -362,17 +404,30 @@ public class ScanDialog extends JDialog {
             checkBoxUseDates, new GridConstraints(
             2, 2, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW,
             GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
-        comboBoxWordType = new JComboBox();
+        comboBoxWordType = new JComboBox<ColumnType>();
         panel3.add(
             comboBoxWordType, new GridConstraints(
             5, 2, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED,
             null, null, null, 0, false));
+        textFieldFilter = new JTextField();
+        textFieldFilter.setToolTipText("For example: f:name startswith 'a' and (key >= 100 or not f:age < 30) or key.tenantId = 42");
+        panel3.add(
+            textFieldFilter, new GridConstraints(
+            6, 1, 1, 2, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_WANT_GROW, GridConstraints.SIZEPOLICY_FIXED,
+            null, new Dimension(150, 26), null, 0, false));
+        final JLabel label7 = new JLabel();
+        label7.setText("filter");
+        panel3.add(
+            label7, new GridConstraints(
+            6, 0, 1, 1, GridConstraints.ANCHOR_EAST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_FIXED, GridConstraints.SIZEPOLICY_FIXED, null, null,
+            null, 0, false));
         final JSeparator separator1 = new JSeparator();
         contentPane.add(
             separator1, new GridConstraints(
             1, 0, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_BOTH, GridConstraints.SIZEPOLICY_WANT_GROW, GridConstraints.SIZEPOLICY_WANT_GROW,
             null, null, null, 0, false));
         label2.setLabelFor(textFieldWord);
+        label7.setLabelFor(textFieldFilter);
     }
 
     /**
@@ -68,6 +68,7 @@ public class Window {
     private JPanel                          topPanel;
     private JTabbedPane                     tabbedPane;
     private JLinkButton                     connectToCluster;
+    private JLinkButton                     showJobs;
     private JPanel                          actionPanel;
     private JLabel                          actionLabel1;
     private JLinkButton                     actionLabel2;
@@ -187,6 +188,15 @@ public class Window {
                 }
             });
 
+        this.showJobs.addActionListener(
+            new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    JobsDialog dialog = new JobsDialog();
+                    dialog.showDialog(topPanel);
+                }
+            });
+
         this.actionLabel2.addActionListener(
             new ActionListener() {
                 @Override
@@ -605,6 +615,13 @@ public class Window {
         connectToCluster.setRequestFocusEnabled(false);
         connectToCluster.setText("Connect to a cluster...");
         panel2.add(connectToCluster);
+        showJobs = new JLinkButton();
+        showJobs.setFocusPainted(false);
+        showJobs.setFocusable(false);
+        showJobs.setHorizontalAlignment(0);
+        showJobs.setRequestFocusEnabled(false);
+        showJobs.setText("Jobs...");
+        panel2.add(showJobs);
         newVersionAvailable = new JLinkButton();
         newVersionAvailable.setFocusPainted(false);
         newVersionAvailable.setFocusable(false);
@@ -19,6 +19,8 @@ import hrider.filters.Filter;
 import hrider.filters.PatternFilter;
 import hrider.hbase.*;
 import hrider.io.PathHelper;
+import hrider.jobs.CopyTableJob;
+import hrider.jobs.JobManager;
 import hrider.system.ClipboardData;
 import hrider.system.ClipboardListener;
 import hrider.system.InMemoryClipboard;
@@ -27,6 +29,7 @@ import hrider.ui.controls.WideComboBox;
 import hrider.ui.design.*;
 import hrider.ui.forms.*;
 
+import org.apache.hadoop.hbase.client.Delete;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.util.Bytes;
@@ -106,6 +109,7 @@ public class DesignerView {
     private DefaultComboBoxModel              columnsFilterModel;
     private ItemListener                      columnsFilterListener;
     private JButton                           columnJump;
+    private JButton                           columnKeySchema;
     private JButton                           rowOpen;
     private JButton                           tableImport;
     private JButton                           tableExport;
@@ -118,7 +122,7 @@ public class DesignerView {
     private WideComboBox                      columnConverters;
     private JLabel                            rowsNumberIcon;
     private DefaultTableModel                 columnsTableModel;
-    private DefaultTableModel                 rowsTableModel;
+    private RowsTableModel                    rowsTableModel;
     private Query                             lastQuery;
     private QueryScanner                      scanner;
     private JPanel                            owner;
@@ -131,6 +135,12 @@ public class DesignerView {
     private JCellEditor                       readOnlyCellEditor;
     private JCellEditor                       editableCellEditor;
     private Map<String, ColumnType>           columnTypes;
+    private PageLoader                        pageLoader;
+    private Collection<ColumnQualifier>       loadedColumns;
+    private DataRow                           loadedColumnsRow;
+    private ScannerRowSource                  rowSource;
+    private int                               pendingRow;
+    private boolean                           updatingTables;
     //endregion
 
     //region Constructor
@@ -148,6 +158,7 @@ public class DesignerView {
         columnsFilterModel = new DefaultComboBoxModel();
         columnFilters.setModel(columnsFilterModel);
         columnTypes = new HashMap<String, ColumnType>();
+        pageLoader = new PageLoader(connection.getServerName() + "-pageLoader");
 
         readOnlyCellEditor = new JCellEditor(changeTracker, false);
         editableCellEditor = new JCellEditor(changeTracker, true);
@@ -190,6 +201,7 @@ public class DesignerView {
                         if (e.getStateChange() == ItemEvent.SELECTED) {
                             clusterConfig.setSelectedTableFilter((String)e.getItem());
 
+                            clearError();
                             loadTables();
                         }
                     }
@@ -317,6 +329,20 @@ public class DesignerView {
                     }
                 });
 
+        connection.getMetadataCache().addListener(
+                new TableMetadataListener() {
+                    @Override
+                    public void onMetadataChanged(TableMetadataCache cache) {
+                        SwingUtilities.invokeLater(
+                                new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        updateTables();
+                                    }
+                                });
+                    }
+                });
+
         columnJump.addActionListener(
                 new ActionListener() {
                     @Override
@@ -332,7 +358,7 @@ public class DesignerView {
 
                                 lastQuery = null;
 
-                                populateRowsTable(offset, Direction.Current);
+                                populateRowsTable(offset);
                             }
                             catch (NumberFormatException ignore) {
                                 JOptionPane.showMessageDialog(topPanel, "Row number must be a number.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -341,6 +367,45 @@ public class DesignerView {
                     }
                 });
 
+        columnKeySchema.addActionListener(
+                new ActionListener() {
+                    @Override
+                    public void actionPerformed(ActionEvent e) {
+                        clearError();
+
+                        String tableName = getSelectedTableName();
+                        if (tableName == null) {
+                            return;
+                        }
+
+                        Object definition = JOptionPane.showInputDialog(
+                                topPanel, "Row key fields (name:type:length separated by ';', the length of the last field can be omitted):",
+                                "Row key schema", JOptionPane.PLAIN_MESSAGE, null, null, clusterConfig.getRowKeySchema(tableName));
+
+                        if (definition != null) {
+                            RowKeySchema schema;
+                            try {
+                                schema = RowKeySchema.parse(definition.toString());
+                            }
+                            catch (IllegalArgumentException ex) {
+                                JOptionPane.showMessageDialog(topPanel, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                                return;
+                            }
+
+                            clusterConfig.setRowKeySchema(tableName, schema != null ? schema.toString() : null);
+
+                            ColumnType type = schema != null ? schema.getColumnType() : ColumnType.fromColumn(ColumnQualifier.KEY.getName());
+                            for (int row = 0 ; row < columnsTable.getRowCount() ; row++) {
+                                ColumnQualifier qualifier = (ColumnQualifier)columnsTable.getValueAt(row, 1);
+                                if (qualifier.isKey()) {
+                                    // The type of the keys is updated by the listener of the columns table.
+                                    columnsTable.setValueAt(type, row, 2);
+                                }
+                            }
+                        }
+                    }
+                });
+
         columnPopulate.addActionListener(
                 new ActionListener() {
                     @Override
@@ -349,7 +414,7 @@ public class DesignerView {
 
                         lastQuery = null;
 
-                        populateRowsTable(Direction.Current);
+                        populateRowsTable();
                     }
                 });
 
@@ -364,7 +429,7 @@ public class DesignerView {
 
                         lastQuery = dialog.getQuery();
                         if (lastQuery != null) {
-                            populateRowsTable(Direction.Current);
+                            populateRowsTable();
                         }
                     }
                 });
@@ -386,8 +451,12 @@ public class DesignerView {
 
                                 List<ColumnQualifier> columns = getShownColumns();
 
-                                for (int i = 0 ; i < rowsTable.getRowCount() ; i++) {
-                                    exporter.write(((DataCell)rowsTable.getValueAt(i, 0)).getRow(), columns);
+                                // Only the rows kept in memory are opened, the rest of the rows is not loaded for that.
+                                for (int i = 0 ; i < rowsTableModel.getRowCount() ; i++) {
+                                    DataRow row = rowsTableModel.getRow(i);
+                                    if (row != null) {
+                                        exporter.write(row, columns);
+                                    }
                                 }
                             }
                             finally {
@@ -443,9 +512,7 @@ public class DesignerView {
                                 try {
                                     connection.setRow(getSelectedTableName(), row);
 
-                                    if (scanner != null) {
-                                        scanner.resetCurrent(row.getKey());
-                                    }
+                                    resetScanner(row.getKey());
 
                                     // Update the column types according to the added row.
                                     for (DataCell cell : row.getCells()) {
@@ -454,7 +521,7 @@ public class DesignerView {
                                     }
 
                                     populateColumnsTable(true, row);
-                                    populateRowsTable(Direction.Current);
+                                    populateRowsTable();
                                 }
                                 catch (Exception ex) {
                                     setError("Failed to update rows in HBase: ", ex);
@@ -490,9 +557,7 @@ public class DesignerView {
                                 try {
                                     connection.setRow(getSelectedTableName(), row);
 
-                                    if (scanner != null) {
-                                        scanner.resetCurrent(row.getKey());
-                                    }
+                                    resetScanner(row.getKey());
                                     int[] selectedRows = rowsTable.getSelectedRows();
                                     for (int selectedRow : selectedRows) {
                                         try {
@@ -510,7 +575,7 @@ public class DesignerView {
                                     }
 
                                     populateColumnsTable(true, row);
-                                    populateRowsTable(Direction.Current);
+                                    populateRowsTable();
                                 }
                                 catch (Exception ex) {
                                     setError("Failed to update rows in HBase: ", ex);
@@ -540,23 +605,25 @@ public class DesignerView {
                         if (decision == JOptionPane.OK_OPTION) {
                             owner.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
                             try {
+                                List<DataRow> rows = new ArrayList<DataRow>();
+                                List<Delete> deletes = new ArrayList<Delete>();
+
                                 int[] selectedRows = rowsTable.getSelectedRows();
                                 for (int selectedRow : selectedRows) {
-                                    try {
-                                        DataCell key = (DataCell)rowsTable.getValueAt(selectedRow, 0);
-                                        connection.deleteRow(getSelectedTableName(), key.getRow());
-                                    }
-                                    catch (Exception ex) {
-                                        setError("Failed to delete row in HBase: ", ex);
+                                    DataRow row = rowsTableModel.getRow(selectedRow);
+                                    if (row != null) {
+                                        rows.add(row);
+                                        deletes.add(new Delete(row.getKey().getValue()));
                                     }
                                 }
 
-                                if (scanner != null) {
-                                    scanner.resetCurrent(null);
-                                }
+                                writeRows(
+                                        getSelectedTableName(), rows, new ArrayList<Put>(), deletes, "removed", "Failed to delete %d rows in HBase: ");
+
+                                resetScanner(null);
 
                                 populateColumnsTable(true);
-                                populateRowsTable(Direction.Current);
+                                populateRowsTable();
                             }
                             finally {
                                 owner.setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
@@ -606,16 +673,20 @@ public class DesignerView {
                         if (decision == JOptionPane.OK_OPTION) {
                             owner.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
                             try {
-                                for (DataRow row : changeTracker.getChanges()) {
-                                    try {
-                                        connection.setRow(getSelectedTableName(), row);
-                                    }
-                                    catch (Exception ex) {
-                                        setError("Failed to update rows in HBase: ", ex);
-                                    }
+                                try {
+                                    Collection<DataRow> changes = changeTracker.getChanges();
+
+                                    List<Put> puts = connection.toPuts(getSelectedTableName(), changes);
+                                    List<byte[]> failedRows = writeRows(
+                                            getSelectedTableName(), changes, puts, new ArrayList<Delete>(), "added", "Failed to update %d rows in HBase: ");
+
+                                    // The rows which could not be written stay modified, so they can be saved again.
+                                    changeTracker.retainRows(failedRows);
+                                }
+                                catch (Exception ex) {
+                                    setError("Failed to update rows in HBase: ", ex);
                                 }
 
-                                changeTracker.clear();
                                 rowSave.setEnabled(changeTracker.hasChanges());
                             }
                             finally {
@@ -714,7 +785,7 @@ public class DesignerView {
                                         }
                                     }
 
-                                    scanner = null;
+                                    closeScanner();
 
                                     populateColumnsTable(true);
                                 }
@@ -732,7 +803,7 @@ public class DesignerView {
                     public void actionPerformed(ActionEvent e) {
                         clearError();
 
-                        populateRowsTable(Direction.Backward);
+                        scrollRows(-getPageSize());
                     }
                 });
 
@@ -742,7 +813,7 @@ public class DesignerView {
                     public void actionPerformed(ActionEvent e) {
                         clearError();
 
-                        populateRowsTable(Direction.Forward);
+                        scrollRows(getPageSize());
                     }
                 });
 
@@ -816,6 +887,7 @@ public class DesignerView {
                     public void actionPerformed(ActionEvent e) {
                         clearError();
 
+                        connection.getMetadataCache().refresh();
                         populate();
                     }
                 });
@@ -936,7 +1008,9 @@ public class DesignerView {
                     public void actionPerformed(ActionEvent e) {
                         clearError();
 
-                        scanner = null;
+                        connection.reloadSchema(getSelectedTableName());
+
+                        closeScanner();
                         populateColumnsTable(true);
                     }
                 });
@@ -1081,6 +1155,7 @@ public class DesignerView {
      * Populates the view with the data.
      */
     public void populate() {
+        clearError();
         loadTables();
     }
 
@@ -1134,7 +1209,13 @@ public class DesignerView {
      * @param table The table to clear the rows from.
      */
     private static void clearRows(JTable table) {
-        ((DefaultTableModel)table.getModel()).setRowCount(0);
+        TableModel model = table.getModel();
+        if (model instanceof RowsTableModel) {
+            ((RowsTableModel)model).clear();
+        }
+        else {
+            ((DefaultTableModel)model).setRowCount(0);
+        }
     }
 
     /**
@@ -1143,7 +1224,13 @@ public class DesignerView {
      * @param table The table to clear the columns from.
      */
     private static void clearColumns(JTable table) {
-        ((DefaultTableModel)table.getModel()).setColumnCount(0);
+        TableModel model = table.getModel();
+        if (model instanceof RowsTableModel) {
+            ((RowsTableModel)model).clearColumns();
+        }
+        else {
+            ((DefaultTableModel)model).setColumnCount(0);
+        }
 
         TableColumnModel cm = table.getColumnModel();
         while (cm.getColumnCount() > 0) {
@@ -1233,60 +1320,99 @@ public class DesignerView {
     }
 
     /**
-     * Loads the table names.
+     * Loads the table names from the metadata cache. The selected table is selected again and populated.
      */
     private void loadTables() {
         Object selectedTable = tablesList.getSelectedValue();
 
-        clearError();
+        tablesListModel.clear();
 
-        owner.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        for (String table : getTables()) {
+            tablesListModel.addElement(table);
+        }
 
-        try {
-            tablesListModel.clear();
+        int tablesCount = connection.getMetadataCache().getTables().size();
+        if (getTableFilter().match(TableUtil.META_TABLE)) {
+            tablesCount++;
+        }
 
-            Filter filter;
+        toggleTableControls();
 
-            String value = (String)tableFilters.getSelectedItem();
-            if (value == null || value.isEmpty()) {
-                filter = new EmptyFilter();
-            }
-            else {
-                filter = new PatternFilter(value);
-            }
+        tablesNumber.setText(String.format("%s of %s", tablesListModel.getSize(), tablesCount));
+        tablesList.setSelectedValue(selectedTable, true);
+    }
 
-            int tablesCount = 0;
+    /**
+     * Updates the table names after the metadata cache has changed. Unlike {@link #loadTables()} the selected table is not populated again
+     * unless it has been removed.
+     */
+    private void updateTables() {
+        Object selectedTable = tablesList.getSelectedValue();
+
+        List<String> tables = getTables();
 
-//            if (filter.match(TableUtil.ROOT_TABLE)) {
-//                tablesCount++;
-//                tablesListModel.addElement(TableUtil.ROOT_TABLE);
-//            }
+        List<String> shownTables = new ArrayList<String>();
+        for (int i = 0 ; i < tablesListModel.getSize() ; i++) {
+            shownTables.add((String)tablesListModel.getElementAt(i));
+        }
 
-            if (filter.match(TableUtil.META_TABLE)) {
-                tablesCount++;
-                tablesListModel.addElement(TableUtil.META_TABLE);
+        if (!tables.equals(shownTables)) {
+            updatingTables = true;
+            try {
+                loadTables();
+            }
+            finally {
+                updatingTables = false;
             }
 
-            Collection<String> tables = connection.getTables();
-            for (String table : tables) {
-                if (filter.match(table)) {
-                    tablesListModel.addElement(table);
-                }
+            if (selectedTable != null && !selectedTable.equals(tablesList.getSelectedValue())) {
+                onTableSelected();
             }
+        }
+        else {
+            tablesList.repaint();
+            toggleTableControls();
+        }
+    }
+
+    /**
+     * Gets the names of the tables from the metadata cache which match the table filter.
+     *
+     * @return A list of table names.
+     */
+    private List<String> getTables() {
+        Filter filter = getTableFilter();
 
-            tablesCount += tables.size();
+        List<String> tables = new ArrayList<String>();
 
-            toggleTableControls();
+//        if (filter.match(TableUtil.ROOT_TABLE)) {
+//            tables.add(TableUtil.ROOT_TABLE);
+//        }
 
-            tablesNumber.setText(String.format("%s of %s", tablesListModel.getSize(), tablesCount));
-            tablesList.setSelectedValue(selectedTable, true);
+        if (filter.match(TableUtil.META_TABLE)) {
+            tables.add(TableUtil.META_TABLE);
         }
-        catch (Exception ex) {
-            setError("Failed to connect to hadoop: ", ex);
+
+        for (String table : connection.getMetadataCache().getTables()) {
+            if (filter.match(table)) {
+                tables.add(table);
+            }
         }
-        finally {
-            owner.setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
+
+        return tables;
+    }
+
+    /**
+     * Gets the filter of the table names.
+     *
+     * @return The selected filter.
+     */
+    private Filter getTableFilter() {
+        String value = (String)tableFilters.getSelectedItem();
+        if (value == null || value.isEmpty()) {
+            return new EmptyFilter();
         }
+        return new PatternFilter(value);
     }
 
     /**
@@ -1295,88 +1421,14 @@ public class DesignerView {
     private void initializeTablesList() {
         tablesListModel = new DefaultListModel();
         tablesList.setModel(tablesListModel);
-        tablesList.setCellRenderer(new JListRenderer(connection));
+        tablesList.setCellRenderer(new JListRenderer(connection.getMetadataCache()));
 
         tablesList.addListSelectionListener(
                 new ListSelectionListener() {
                     @Override
                     public void valueChanged(ListSelectionEvent e) {
-                        if (!e.getValueIsAdjusting()) {
-                            if (rowsCountAction != null) {
-                                rowsCountAction.abort();
-                            }
-
-                            toggleTableControls();
-
-                            boolean populate = false;
-                            int[] selectedIndices = tablesList.getSelectedIndices();
-
-                            if (selectedIndices.length == 1) {
-                                populate = tableEnabled(getSelectedTableName());
-                            }
-
-                            if (populate) {
-                                scanner = null;
-
-                                String currentFilter = clusterConfig.getSelectedColumnFilter(getSelectedTableName());
-
-                                fillComboBox(columnFilters, columnsFilterListener, clusterConfig.getColumnFilters(getSelectedTableName()));
-                                setFilter(columnFilters, columnsFilterListener, currentFilter);
-
-                                String converterType = clusterConfig.getTableConfig(String.class, getSelectedTableName(), "nameConverter");
-                                if (converterType != null) {
-                                    columnConverters.setSelectedItem(ColumnType.fromNameOrDefault(converterType, ColumnType.BinaryString));
-                                }
-                                else {
-                                    columnConverters.setSelectedItem(ColumnType.BinaryString);
-                                }
-
-                                populateColumnsTable(true);
-                            }
-                            else {
-                                clearRows(columnsTable);
-                                clearTable(rowsTable);
-                                changeTracker.clear();
-                                togglePagingControls();
-                                toggleColumnControls(false);
-                                toggleRowControls(false);
-
-                                rowsTotal.setText("?");
-                                rowsVisible.setText("?");
-
-                                if (selectedIndices.length == 1) {
-                                    setAction(
-                                            new UIAction() {
-                                                @Override
-                                                public void execute() {
-                                                    String tableName = getSelectedTableName();
-
-                                                    owner.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-                                                    try {
-                                                        connection.enableTable(tableName);
-
-                                                        tablesList.clearSelection();
-                                                        tablesList.setSelectedValue(tableName, true);
-
-                                                        setInfo(String.format("The '%s' table has been successfully enabled.", tableName));
-                                                    }
-                                                    catch (Exception ex) {
-                                                        setError(String.format("Failed to enable table '%s'", tableName), ex);
-                                                    }
-                                                    finally {
-                                                        owner.setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
-                                                    }
-                                                }
-
-                                                @Override
-                                                public String[] getFormattedMessage() {
-                                                    return new String[]{
-                                                            "The selected table is disabled, do you want to", "enable", "it?"
-                                                    };
-                                                }
-                                            });
-                                }
-                            }
+                        if (!e.getValueIsAdjusting() && !updatingTables) {
+                            onTableSelected();
                         }
                     }
                 });
@@ -1403,6 +1455,87 @@ public class DesignerView {
                 });
     }
 
+    /**
+     * Populates the selected table or clears the view if a single enabled table is not selected.
+     */
+    private void onTableSelected() {
+        if (rowsCountAction != null) {
+            rowsCountAction.abort();
+        }
+
+        toggleTableControls();
+
+        boolean populate = false;
+        int[] selectedIndices = tablesList.getSelectedIndices();
+
+        if (selectedIndices.length == 1) {
+            populate = tableEnabled(getSelectedTableName());
+        }
+
+        if (populate) {
+            closeScanner();
+
+            String currentFilter = clusterConfig.getSelectedColumnFilter(getSelectedTableName());
+
+            fillComboBox(columnFilters, columnsFilterListener, clusterConfig.getColumnFilters(getSelectedTableName()));
+            setFilter(columnFilters, columnsFilterListener, currentFilter);
+
+            String converterType = clusterConfig.getTableConfig(String.class, getSelectedTableName(), "nameConverter");
+            if (converterType != null) {
+                columnConverters.setSelectedItem(ColumnType.fromNameOrDefault(converterType, ColumnType.BinaryString));
+            }
+            else {
+                columnConverters.setSelectedItem(ColumnType.BinaryString);
+            }
+
+            populateColumnsTable(true);
+        }
+        else {
+            clearRows(columnsTable);
+            clearTable(rowsTable);
+            changeTracker.clear();
+            togglePagingControls();
+            toggleColumnControls(false);
+            toggleRowControls(false);
+
+            rowsTotal.setText("?");
+            rowsVisible.setText("?");
+
+            if (selectedIndices.length == 1) {
+                setAction(
+                        new UIAction() {
+                            @Override
+                            public void execute() {
+                                String tableName = getSelectedTableName();
+
+                                owner.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+                                try {
+                                    connection.enableTable(tableName);
+
+                                    tablesList.clearSelection();
+                                    tablesList.setSelectedValue(tableName, true);
+
+                                    setInfo(String.format("The '%s' table has been successfully enabled.", tableName));
+                                }
+                                catch (Exception ex) {
+                                    setError(String.format("Failed to enable table '%s'", tableName), ex);
+                                }
+                                finally {
+                                    owner.setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
+                                }
+                            }
+
+                            @Override
+                            public String[] getFormattedMessage() {
+                                return new String[]{
+                                        "The selected table is disabled, do you want to", "enable", "it?"
+                                };
+                            }
+                        });
+            }
+        }
+    }
+
     /**
      * Initializes a columns table used to present the columns of the selected table.
      */
@@ -1455,6 +1588,7 @@ public class DesignerView {
                                     clusterConfig.setTableConfig(getSelectedTableName(), qualifier.getFullName(), "isShown", Boolean.toString(isShown));
 
                                     setRowsTableColumnVisible(qualifier, isShown);
+                                    updateProjection();
                                 }
                                 else if (column == 2) {
                                     ColumnQualifier qualifier = (ColumnQualifier)model.getValueAt(e.getFirstRow(), 1);
@@ -1512,8 +1646,13 @@ public class DesignerView {
      * Initializes a rows table used to present the content of the selected table.
      */
     private void initializeRowsTable() {
-        rowsTableModel = new DefaultTableModel();
+        rowsTableModel = new RowsTableModel(connection.getServerName() + "-rowsLoader");
+        pendingRow = -1;
+
+        // Sorting would require all the rows of the table to be loaded.
+        rowsTable.setAutoCreateRowSorter(false);
         rowsTable.setModel(rowsTableModel);
+        rowsTable.setRowSorter(null);
         rowsTable.setTableHeader(new ResizeableTableHeader(rowsTable.getColumnModel()));
         rowsTable.setCellSelectionEnabled(false);
         rowsTable.setRowSelectionAllowed(true);
@@ -1527,6 +1666,37 @@ public class DesignerView {
                     }
                 });
 
+        rowsTableModel.addTableModelListener(
+                new TableModelListener() {
+                    @Override
+                    public void tableChanged(TableModelEvent e) {
+                        if (pendingRow != -1 && rowsTableModel.getRowCount() > 0) {
+                            // The row could be beyond the end of the table, the last loaded row is shown instead.
+                            final int row = Math.min(pendingRow, rowsTableModel.getRowCount() - 1);
+                            pendingRow = -1;
+
+                            // The table is resized after all the listeners are notified.
+                            SwingUtilities.invokeLater(
+                                    new Runnable() {
+                                        @Override
+                                        public void run() {
+                                            scrollToRow(row);
+                                        }
+                                    });
+                        }
+
+                        showVisibleRows();
+                    }
+                });
+
+        ((JViewport)rowsTable.getParent()).addChangeListener(
+                new ChangeListener() {
+                    @Override
+                    public void stateChanged(ChangeEvent e) {
+                        showVisibleRows();
+                    }
+                });
+
         rowsTable.addMouseMotionListener(
                 new MouseMotionAdapter() {
                     @Override
@@ -1633,209 +1803,321 @@ public class DesignerView {
      *                  to collect their keys. Each row can have different keys.
      */
     private void populateColumnsTable(boolean clearRows, DataRow row) {
-        owner.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-        try {
-            clearRows(columnsTable);
+        if (clearRows) {
+            clearTable(rowsTable);
+            changeTracker.clear();
+            rowsTotal.setText("?");
+            rowsVisible.setText("?");
+        }
 
-            if (clearRows) {
-                clearTable(rowsTable);
-                changeTracker.clear();
-                rowsTotal.setText("?");
-                rowsVisible.setText("?");
-                rowsNumber.setEnabled(true);
+        String tableName = getSelectedTableName();
+        if (tableName != null) {
+            if (!clearRows && loadedColumns != null) {
+                // The columns are already known, only the filter should be applied.
+                showColumns(tableName, loadedColumns, loadedColumnsRow);
+                toggleColumnControls(columnsTableModel.getRowCount() > 0);
             }
-
-            String tableName = getSelectedTableName();
-            if (tableName != null) {
-                loadColumns(tableName, row);
+            else {
+                if (clearRows) {
+                    clearRows(columnsTable);
+                }
+                submitPageRequest(new PageLoadRequest(tableName, getTableScanner(tableName), row));
             }
+        }
+        else {
+            clearRows(columnsTable);
 
             togglePagingControls();
-            toggleColumnControls(columnsTableModel.getRowCount() > 0);
+            toggleColumnControls(false);
             toggleRowControls(rowsTableModel.getRowCount() > 0);
         }
-        finally {
-            owner.setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
-        }
     }
 
     /**
-     * Populates a rows table. The method loads the table content. The number of loaded rows depends on the parameter defined by the user
-     * in the {@link hrider.ui.views.DesignerView#rowsNumber} control.
-     *
-     * @param direction Defines what rows should be presented to the user. {@link Direction#Current},
-     *                  {@link Direction#Forward} or {@link Direction#Backward}.
+     * Populates a rows table starting from the first row.
      */
-    private void populateRowsTable(Direction direction) {
+    private void populateRowsTable() {
         changeTracker.clear();
-        populateRowsTable(0, direction);
+        populateRowsTable(0);
     }
 
     /**
-     * Populates a rows table. The method loads the table content. The number of loaded rows depends on the parameter defined by the user
-     * in the {@link hrider.ui.views.DesignerView#rowsNumber} control.
+     * Populates a rows table. The columns are loaded on the background thread and the rows are loaded by the pages as they are scrolled
+     * into the view. The number of rows in a page depends on the parameter defined by the user in the
+     * {@link hrider.ui.views.DesignerView#rowsNumber} control.
      *
-     * @param offset    The first row to start loading from.
-     * @param direction Defines what rows should be presented to the user. {@link Direction#Current},
-     *                  {@link Direction#Forward} or {@link Direction#Backward}.
+     * @param offset The row to be shown first. The rows are numbered from 1.
      */
-    private void populateRowsTable(long offset, Direction direction) {
+    private void populateRowsTable(long offset) {
+        JTableModel.stopCellEditing(columnsTable);
+
+        String tableName = getSelectedTableName();
+        if (tableName != null) {
+            clearTable(rowsTable);
+            changeTracker.clear();
+            rowsVisible.setText("loading...");
 
+            submitPageRequest(new PageLoadRequest(tableName, getTableScanner(tableName), offset));
+        }
+
+        toggleRowControls(rowsTableModel.getRowCount() > 0);
+    }
+
+    /**
+     * Submits a request to the page loader.
+     *
+     * @param request The request to submit.
+     */
+    private void submitPageRequest(PageLoadRequest request) {
         owner.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-        try {
-            JTableModel.stopCellEditing(columnsTable);
+        pageLoader.submit(request);
+    }
 
-            String tableName = getSelectedTableName();
-            if (tableName != null) {
-                clearTable(rowsTable);
-                changeTracker.clear();
-                scanner.setColumnTypes(columnTypes);
-                scanner.setQuery(lastQuery);
+    /**
+     * Starts loading the rows of the table into the rows table and counting the rows of the table.
+     *
+     * @param pageScanner The scanner to load the rows with.
+     * @param tableName   The name of the table.
+     * @param offset      The row to be shown first. The rows are numbered from 1.
+     */
+    private void showRows(QueryScanner pageScanner, String tableName, long offset) {
+        int firstRow = (int)Math.min(Integer.MAX_VALUE, Math.max(0, offset - 1));
 
-                Collection<DataRow> rows;
+        rowSource = new ScannerRowSource(pageScanner, columnTypes);
+        rowSource.setProjection(getShownColumns());
 
-                if (direction == Direction.Current) {
-                    rows = scanner.current(offset, getPageSize());
-                }
-                else if (direction == Direction.Forward) {
-                    rows = scanner.next(getPageSize());
-                }
-                else {
-                    rows = scanner.prev();
-                }
+        pendingRow = firstRow > 0 ? firstRow : -1;
 
-                loadColumns(tableName, null);
-                loadRowsTableColumns(tableName);
-                loadRows(rows);
+        rowsTableModel.load(rowSource, getPageSize(), firstRow);
 
-                togglePagingControls();
+        togglePagingControls();
+        countRows(tableName);
+        toggleRowControls(rowsTableModel.getRowCount() > 0);
+    }
 
-                rowsVisible.setText(String.format("%s - %s", scanner.getLastRow() - rows.size() + 1, scanner.getLastRow()));
-                rowsNumber.setEnabled(scanner.getLastRow() <= getPageSize());
+    /**
+     * Shows the range of the rows visible in the rows table.
+     */
+    private void showVisibleRows() {
+        int[] rows = getVisibleRows();
+        if (rows != null) {
+            rowsVisible.setText(String.format("%s - %s", rows[0] + 1, rows[1] + 1));
+        }
+        else if (rowsTableModel.isComplete()) {
+            rowsVisible.setText("?");
+        }
 
-                rowsCountAction = RunnableAction.run(
-                        tableName + "-rowsCount", new Action<Boolean>() {
+        togglePagingControls();
+    }
 
-                            @Override
-                            public Boolean run() throws IOException {
-                                rowsNumberIcon.setVisible(true);
-                                rowsTotal.setVisible(false);
+    /**
+     * Scrolls the rows table by the specified number of rows.
+     *
+     * @param rowsNumber The number of rows to scroll by. A negative number scrolls backward.
+     */
+    private void scrollRows(int rowsNumber) {
+        int[] rows = getVisibleRows();
+        if (rows != null) {
+            scrollToRow(Math.max(0, Math.min(rowsTable.getRowCount() - 1, rows[0] + rowsNumber)));
+        }
+    }
 
-                                long totalNumberOfRows = scanner.getRowsCount(GlobalConfig.instance().getRowCountTimeout());
-                                if (scanner.isRowsCountPartiallyCalculated()) {
-                                    rowsTotal.setText("more than " + totalNumberOfRows);
-                                }
-                                else {
-                                    rowsTotal.setText(String.valueOf(totalNumberOfRows));
-                                }
+    /**
+     * Scrolls the rows table so that the specified row becomes the first visible row.
+     *
+     * @param row The index of the row.
+     */
+    private void scrollToRow(int row) {
+        Rectangle visible = rowsTable.getVisibleRect();
+        Rectangle cell = rowsTable.getCellRect(row, 0, true);
 
-                                rowsNumberIcon.setVisible(false);
-                                rowsTotal.setVisible(true);
+        rowsTable.scrollRectToVisible(new Rectangle(visible.x, cell.y, visible.width, visible.height));
+    }
 
-                                togglePagingControls();
+    /**
+     * Gets the range of the rows visible in the rows table.
+     *
+     * @return An array holding the indexes of the first and the last visible rows or null if no row is visible.
+     */
+    private int[] getVisibleRows() {
+        Rectangle visible = rowsTable.getVisibleRect();
 
-                                return true;
-                            }
+        int first = rowsTable.rowAtPoint(new Point(visible.x, visible.y));
+        if (first == -1) {
+            return null;
+        }
+
+        int last = rowsTable.rowAtPoint(new Point(visible.x, visible.y + visible.height - 1));
+        if (last == -1) {
+            last = rowsTable.getRowCount() - 1;
+        }
 
+        return new int[]{first, last};
+    }
+
+    /**
+     * Counts the rows of the table in the background.
+     *
+     * @param tableName The name of the table.
+     */
+    private void countRows(String tableName) {
+        rowsCountAction = RunnableAction.run(
+                tableName + "-rowsCount", new Action<Boolean>() {
+
+                    @Override
+                    public Boolean run() throws IOException {
+                        SwingUtilities.invokeLater(
+                            new Runnable() {
+                                @Override
+                                public void run() {
+                                    rowsNumberIcon.setVisible(true);
+                                    rowsTotal.setVisible(false);
+                                }
+                            });
+
+                        long totalNumberOfRows = scanner.getRowsCount(
+                            GlobalConfig.instance().getRowCountTimeout(), new RowsCountListener() {
                             @Override
-                            public void onError(Exception ex) {
-                                setError("Failed to get the number of rows in the table.", ex);
+                            public void onRegionCounted(RegionRowsCount region, final long totalCount) {
+                                SwingUtilities.invokeLater(
+                                    new Runnable() {
+                                        @Override
+                                        public void run() {
+                                            rowsTotal.setText("at least " + totalCount);
+                                            rowsTotal.setVisible(true);
+                                        }
+                                    });
                             }
                         });
-            }
 
-            toggleRowControls(rowsTableModel.getRowCount() > 0);
-        }
-        catch (Exception ex) {
-            setError("Failed to fill rows: ", ex);
-        }
-        finally {
-            owner.setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
-        }
+                        final String text;
+                        if (scanner.isRowsCountPartiallyCalculated()) {
+                            text = String.format("more than %d (~%d)", totalNumberOfRows, scanner.getEstimatedRowsCount());
+                        }
+                        else {
+                            text = String.valueOf(totalNumberOfRows);
+                        }
+
+                        // The runnables are executed in order, so the final count is not overwritten by the queued progress updates.
+                        SwingUtilities.invokeLater(
+                            new Runnable() {
+                                @Override
+                                public void run() {
+                                    rowsTotal.setText(text);
+                                    rowsNumberIcon.setVisible(false);
+                                    rowsTotal.setVisible(true);
+
+                                    togglePagingControls();
+                                }
+                            });
+
+                        return true;
+                    }
+
+                    @Override
+                    public void onError(Exception ex) {
+                        setError("Failed to get the number of rows in the table.", ex);
+                    }
+                });
     }
 
     /**
-     * Populates rows of the specified column. This method is used when the column which wasn't initially populated is checked.
-     *
-     * @param qualifier The name of the column which rows are need to be populated.
-     * @param rows      The data to populate.
+     * Releases the current scanner if any. The pages being loaded with the scanner are cancelled.
      */
-    private void populateColumnOnRowsTable(ColumnQualifier qualifier, Iterable<DataRow> rows) {
+    private void closeScanner() {
+        pageLoader.cancel();
+        owner.setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
 
-        owner.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-        try {
-            int rowIndex = 0;
-            int columnIndex = rowsTable.getColumnModel().getColumnIndex(qualifier);
+        loadedColumns = null;
+        loadedColumnsRow = null;
+        rowSource = null;
+        pendingRow = -1;
 
-            for (DataRow row : rows) {
-                DataCell cell = row.getCell(qualifier);
-                if (cell == null) {
-                    cell = new DataCell(row, qualifier, new ConvertibleObject(getColumnType(qualifier.getFullName()), null));
-                }
+        if (scanner != null) {
+            // The page being loaded with the scanner stops at its next batch once the rows are cleared.
+            rowsTableModel.clear();
 
-                if (rowIndex >= rowsTable.getRowCount()) {
-                    break;
-                }
+            synchronized (scanner) {
+                scanner.close();
+            }
+            scanner = null;
+        }
+    }
+
+    /**
+     * Moves the current scanner if any to the specified row. The rows are cleared first, so the page being loaded with the scanner stops at
+     * its next batch and releases the scanner.
+     *
+     * @param startKey The key of the row to start from or null to start from the beginning of the table.
+     */
+    private void resetScanner(ConvertibleObject startKey) {
+        if (scanner != null) {
+            rowsTableModel.clear();
 
-                rowsTableModel.setValueAt(cell, rowIndex++, columnIndex);
+            synchronized (scanner) {
+                scanner.resetCurrent(startKey);
             }
         }
-        finally {
-            owner.setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
+    }
+
+    /**
+     * Gets the scanner of the table. The scanner is created if it does not exist yet.
+     *
+     * @param tableName The name of the table.
+     * @return The scanner.
+     */
+    private QueryScanner getTableScanner(String tableName) {
+        if (scanner == null) {
+            scanner = connection.getScanner(tableName, null);
+            updateColumnNameConverter(getColumnNameConverter());
+
+            try {
+                scanner.setSalting(clusterConfig.getKeySaltBuckets(tableName), clusterConfig.getKeySaltWidth(tableName));
+            }
+            catch (IllegalArgumentException e) {
+                setError(String.format("The salting of the keys of the table '%s' is ignored: ", tableName), e);
+            }
         }
+        return scanner;
     }
 
     /**
-     * Loads columns into the columns table.
+     * Shows the columns loaded from the table in the columns table. Only the columns matching the selected filter are shown.
      *
      * @param tableName The name of the table which columns to be populated.
-     * @param row       The row to start the population from. This value can be null.
+     * @param columns   The columns of the table.
+     * @param row       The row used to guess the types of the columns. This value can be null.
      */
-    private void loadColumns(String tableName, DataRow row) {
+    private void showColumns(String tableName, Collection<ColumnQualifier> columns, DataRow row) {
         clearRows(columnsTable);
 
         columnTypes.clear();
 
-        try {
-            if (scanner == null) {
-                scanner = connection.getScanner(tableName, null);
-                updateColumnNameConverter(getColumnNameConverter());
-            }
+        loadedColumns = columns;
+        loadedColumnsRow = row;
 
-            Filter filter;
+        Filter filter;
 
-            String value = (String)columnFilters.getSelectedItem();
-            if (value == null || value.isEmpty()) {
-                filter = new EmptyFilter();
-            }
-            else {
-                filter = new PatternFilter(value);
-            }
-
-            if (row == null) {
-                scanner.setColumnTypes(
-                        new HashMap<String, ColumnType>() {{
-                            put(ColumnQualifier.KEY.getName(), ColumnType.String);
-                        }});
+        String value = (String)columnFilters.getSelectedItem();
+        if (value == null || value.isEmpty()) {
+            filter = new EmptyFilter();
+        }
+        else {
+            filter = new PatternFilter(value);
+        }
 
-                row = scanner.getFirstRow();
+        for (ColumnQualifier column : columns) {
+            boolean isColumnVisible = column.isKey() || filter.match(column.getFullName());
+            if (isColumnVisible) {
+                addColumnToColumnsTable(tableName, column, row);
             }
 
-            Collection<ColumnQualifier> columns = scanner.getColumns(getPageSize());
-            for (ColumnQualifier column : columns) {
-                boolean isColumnVisible = column.isKey() || filter.match(column.getFullName());
-                if (isColumnVisible) {
-                    addColumnToColumnsTable(tableName, column, row);
-                }
+            setRowsTableColumnVisible(column, isColumnVisible && isShown(tableName, column.getFullName()));
+        }
 
-                setRowsTableColumnVisible(column, isColumnVisible && isShown(tableName, column.getFullName()));
-            }
+        updateProjection();
 
-            columnsNumber.setText(String.format("%s of %s", columnsTableModel.getRowCount(), columns.size()));
-        }
-        catch (Exception ex) {
-            setError("Failed to fill tables list: ", ex);
-        }
+        columnsNumber.setText(String.format("%s of %s", columnsTableModel.getRowCount(), columns.size()));
     }
 
     /**
@@ -1900,16 +2182,17 @@ public class DesignerView {
                     rowsTableRemovedColumns.remove(qualifier);
 
                     rowsTable.moveColumn(rowsTable.getColumnCount() - 1, getColumnIndex(qualifier.getFullName()));
+
+                    // The rows loaded while the column has been hidden do not have its values.
+                    rowsTableModel.loadColumn(qualifier);
                 }
                 else {
                     if (getColumn(qualifier.getFullName(), rowsTable) == null) {
                         addColumnToRowsTable(getSelectedTableName(), qualifier, rowsTable.getColumnCount());
 
-                        if (scanner != null) {
-                            populateColumnOnRowsTable(qualifier, scanner.current());
-                        }
-
                         rowsTable.moveColumn(rowsTable.getColumnCount() - 1, getColumnIndex(qualifier.getFullName()));
+
+                        rowsTableModel.loadColumn(qualifier);
                     }
                 }
             }
@@ -1923,6 +2206,15 @@ public class DesignerView {
         }
     }
 
+    /**
+     * Sets the columns checked in the columns table as the only columns the following pages of the rows table are loaded with.
+     */
+    private void updateProjection() {
+        if (rowSource != null) {
+            rowSource.setProjection(getShownColumns());
+        }
+    }
+
     /**
      * Adds a single column to the rows table.
      *
@@ -1958,36 +2250,7 @@ public class DesignerView {
         }
 
         rowsTable.addColumn(tableColumn);
-        rowsTableModel.addColumn(qualifier);
-    }
-
-    /**
-     * Adds rows to the rows table.
-     *
-     * @param rows A list of rows to add.
-     */
-    private void loadRows(Iterable<DataRow> rows) {
-        clearRows(rowsTable);
-
-        TypeConverter nameConverter = getColumnNameConverter();
-
-        for (DataRow row : rows) {
-            Collection<Object> values = new ArrayList<Object>(rowsTable.getColumnCount());
-
-            Enumeration<TableColumn> columns = rowsTable.getColumnModel().getColumns();
-            while (columns.hasMoreElements()) {
-                TableColumn column = columns.nextElement();
-                String columnName = column.getHeaderValue().toString();
-
-                DataCell cell = row.getCell(columnName);
-                if (cell == null) {
-                    cell = new DataCell(row, new ColumnQualifier(columnName, nameConverter), new ConvertibleObject(getColumnType(columnName), null));
-                }
-                values.add(cell);
-            }
-
-            rowsTableModel.addRow(values.toArray());
-        }
+        rowsTableModel.addColumn(qualifier, getColumnType(qualifier.getFullName()));
     }
 
     /**
@@ -2013,10 +2276,30 @@ public class DesignerView {
         try {
             int[] selectedRows = rowsTable.getSelectedRows();
             if (selectedRows.length > 0) {
-                DataTable table = new DataTable(getSelectedTableName());
+                List<DataRow> rows = new ArrayList<DataRow>();
                 for (int selectedRow : selectedRows) {
-                    DataCell cell = (DataCell)rowsTable.getValueAt(selectedRow, 0);
-                    table.addRow(cell.getRow());
+                    DataRow row = rowsTableModel.getRow(selectedRow);
+                    if (row != null) {
+                        rows.add(row);
+                    }
+                }
+
+                DataTable table = new DataTable(getSelectedTableName());
+
+                // The rows hold only the shown columns, so the rest of the columns are loaded. The shown values are kept as they can be edited.
+                List<DataRow> loadedRows = rowSource != null ? rowSource.loadRows(rows) : rows;
+                for (int i = 0 ; i < rows.size() ; i++) {
+                    DataRow row = loadedRows.get(i);
+                    if (row == null) {
+                        row = rows.get(i);
+                    }
+                    else if (row != rows.get(i)) {
+                        for (DataCell cell : rows.get(i).getCells()) {
+                            row.addCell(new DataCell(row, cell.getColumn(), new ConvertibleObject(cell.getType(), cell.getValueAsByteArray())));
+                        }
+                    }
+
+                    table.addRow(row);
                 }
 
                 InMemoryClipboard.setData(new ClipboardData<DataTable>(table));
@@ -2025,6 +2308,9 @@ public class DesignerView {
                 InMemoryClipboard.setData(null);
             }
         }
+        catch (Exception ex) {
+            setError("Failed to copy rows: ", ex);
+        }
         finally {
             owner.setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
         }
@@ -2043,6 +2329,65 @@ public class DesignerView {
         }
     }
 
+    /**
+     * Writes the puts and the deletes to the table in batches and waits until all of them are written. The rows which could not be written
+     * are reported as a single error, the listeners of the connection are notified about the rest of the rows.
+     *
+     * @param tableName The name of the table.
+     * @param rows      The rows the puts or the deletes are created from.
+     * @param puts      The puts to write.
+     * @param deletes   The deletes to apply.
+     * @param operation The operation reported to the listeners of the connection, either 'added' or 'removed'.
+     * @param message   The format of the error message which takes the number of the failed rows.
+     * @return The keys of the rows which could not be written.
+     */
+    private List<byte[]> writeRows(
+            String tableName, Iterable<DataRow> rows, Iterable<Put> puts, Iterable<Delete> deletes, String operation, String message) {
+        final List<byte[]> failedRows = Collections.synchronizedList(new ArrayList<byte[]>());
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+
+        MutationBuffer buffer = new MutationBuffer(
+                connection, tableName, new MutationListener() {
+                    @Override
+                    public void onRowWritten(byte[] row) {
+                    }
+
+                    @Override
+                    public void onRowFailed(byte[] row, Throwable error) {
+                        failedRows.add(row);
+                        errors.add(error);
+                    }
+                });
+
+        try {
+            for (Put put : puts) {
+                buffer.put(put);
+            }
+
+            for (Delete delete : deletes) {
+                buffer.delete(delete);
+            }
+        }
+        finally {
+            buffer.close();
+        }
+
+        Collection<byte[]> failedKeys = new TreeSet<byte[]>(Bytes.BYTES_COMPARATOR);
+        failedKeys.addAll(failedRows);
+
+        for (DataRow row : rows) {
+            if (!failedKeys.contains(row.getKey().getValue())) {
+                connection.notifyRowOperation(tableName, row, operation);
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            Throwable cause = errors.get(0);
+            setError(String.format(message, errors.size()), cause instanceof Exception ? (Exception)cause : new Exception(cause));
+        }
+        return failedRows;
+    }
+
     /**
      * Pastes rows from the clipboard into the rows table and into the hbase table that the rows table represents.
      */
@@ -2057,21 +2402,25 @@ public class DesignerView {
                     PasteDialog dialog = new PasteDialog(table.getRows());
                     if (dialog.showDialog(topPanel)) {
                         Collection<DataRow> updatedRows = dialog.getRows();
-                        for (DataRow row : updatedRows) {
-                            try {
-                                connection.setRow(getSelectedTableName(), row);
+                        try {
+                            List<Put> puts = connection.toPuts(getSelectedTableName(), updatedRows);
+                            writeRows(
+                                    getSelectedTableName(), updatedRows, puts, new ArrayList<Delete>(), "added", "Failed to update %d rows in HBase: ");
 
+                            DataRow lastRow = null;
+                            for (DataRow row : updatedRows) {
                                 // Update the column types according to the added row.
                                 for (DataCell cell : row.getCells()) {
                                     clusterConfig.setTableConfig(
                                             getSelectedTableName(), cell.getColumn().getFullName(), cell.getType().toString());
                                 }
-
-                                populateColumnsTable(true, row);
-                            }
-                            catch (Exception ex) {
-                                setError("Failed to update rows in HBase: ", ex);
+                                lastRow = row;
                             }
+
+                            populateColumnsTable(true, lastRow);
+                        }
+                        catch (Exception ex) {
+                            setError("Failed to update rows in HBase: ", ex);
                         }
 
                         if (scanner != null) {
@@ -2096,10 +2445,10 @@ public class DesignerView {
                                         }
                                     });
 
-                            scanner.resetCurrent(sortedRows.get(0).getKey());
+                            resetScanner(sortedRows.get(0).getKey());
                         }
 
-                        populateRowsTable(Direction.Current);
+                        populateRowsTable();
                     }
                 }
                 catch (Exception ex) {
@@ -2131,7 +2480,11 @@ public class DesignerView {
                 AddTableDialog dialog = new AddTableDialog(sourceTable);
                 if (dialog.showDialog(topPanel)) {
                     TableDescriptor targetTable = dialog.getTableDescriptor();
-                    connection.copyTable(targetTable, sourceTable, table.getConnection());
+                    connection.createTableForCopy(targetTable, sourceTable.getName(), table.getConnection());
+
+                    // The copy runs in the background and can be paused, cancelled and resumed from the jobs dialog.
+                    JobManager.instance().submit(new CopyTableJob(table.getConnection(), sourceTable.getName(), connection, targetTable.getName()));
+                    MessageHandler.addInfo(String.format("Copying table '%s' to '%s' in the background.", sourceTable.getName(), targetTable.getName()));
 
                     Filter filter;
 
@@ -2255,11 +2608,33 @@ public class DesignerView {
     private ColumnType getSavedColumnType(String tableName, String columnName) {
         String columnType = clusterConfig.getTableConfig(String.class, tableName, columnName);
         if (columnType != null) {
+            if (ColumnQualifier.isKey(columnName) && RowKeySchema.getTypeName().equals(columnType)) {
+                return getRowKeySchemaType(tableName);
+            }
             return ColumnType.fromName(columnType);
         }
         return null;
     }
 
+    /**
+     * Gets the type showing the keys of the table by the schema saved in the configuration.
+     *
+     * @param tableName The name of the table.
+     * @return The column type or null if the table does not have a valid schema of the keys.
+     */
+    private ColumnType getRowKeySchemaType(String tableName) {
+        try {
+            RowKeySchema schema = RowKeySchema.parse(clusterConfig.getRowKeySchema(tableName));
+            if (schema != null) {
+                return schema.getColumnType();
+            }
+        }
+        catch (IllegalArgumentException ex) {
+            setError(String.format("The row key schema of the table %s is not valid: ", tableName), ex);
+        }
+        return null;
+    }
+
     /**
      * Gets the type of the column from the columns table.
      *
@@ -2356,10 +2731,15 @@ public class DesignerView {
 
         if (scanner != null) {
             try {
-                if (scanner.isColumnOfType(qualifier.getFullName(), type)) {
-                    scanner.updateColumnType(qualifier.getFullName(), type);
+                if (rowsTableModel.isColumnOfType(qualifier.getFullName(), type)) {
+                    // The rows held by the scanner are updated on the loading thread of the model.
+                    rowsTableModel.updateColumnType(qualifier.getFullName(), type);
                     columnTypes.put(qualifier.getFullName(), type);
 
+                    if (rowSource != null) {
+                        rowSource.setColumnTypes(columnTypes);
+                    }
+
                     rowsTable.updateUI();
                 }
                 else {
@@ -2400,6 +2780,8 @@ public class DesignerView {
             scanner.updateColumnNameConverter(converter);
         }
 
+        rowsTableModel.updateColumnNameConverter(converter);
+
         columnsTable.updateUI();
 
         if (!rowsTableRemovedColumns.isEmpty()) {
@@ -2418,8 +2800,10 @@ public class DesignerView {
      * Enables or disables the paging buttons.
      */
     private void togglePagingControls() {
-        rowsPrev.setEnabled(scanner != null && scanner.hasPrev());
-        rowsNext.setEnabled(scanner != null && scanner.hasNext());
+        int[] rows = getVisibleRows();
+
+        rowsPrev.setEnabled(rows != null && rows[0] > 0);
+        rowsNext.setEnabled(rows != null && (rows[1] < rowsTable.getRowCount() - 1 || !rowsTableModel.isComplete()));
     }
 
     private void toggleTableControls() {
@@ -2466,6 +2850,7 @@ public class DesignerView {
         columnFilters.setEnabled(enabled);
         columnScan.setEnabled(enabled);
         columnJump.setEnabled(enabled);
+        columnKeySchema.setEnabled(enabled);
         columnPopulate.setEnabled(enabled);
         columnCheck.setEnabled(enabled);
         columnUncheck.setEnabled(enabled);
@@ -2497,16 +2882,7 @@ public class DesignerView {
     }
 
     private boolean tableEnabled(String tableName) {
-        boolean enabled = true;
-
-        try {
-            enabled = connection.tableEnabled(tableName);
-        }
-        catch (Exception ex) {
-            setError(String.format("Failed to access table '%s' information.", tableName), ex);
-        }
-
-        return enabled;
+        return connection.getMetadataCache().isTableEnabled(tableName);
     }
 
     /**
@@ -2838,6 +3214,14 @@ public class DesignerView {
         columnJump.setText("");
         columnJump.setToolTipText("Jump to a specific row number");
         toolBar3.add(columnJump);
+        columnKeySchema = new JButton();
+        columnKeySchema.setEnabled(false);
+        columnKeySchema.setIcon(new ImageIcon(getClass().getResource("/images/db-metadata.png")));
+        columnKeySchema.setMinimumSize(new Dimension(24, 24));
+        columnKeySchema.setPreferredSize(new Dimension(24, 24));
+        columnKeySchema.setText("");
+        columnKeySchema.setToolTipText("Define the fields of the row keys...");
+        toolBar3.add(columnKeySchema);
         columnPopulate = new JButton();
         columnPopulate.setEnabled(false);
         columnPopulate.setIcon(new ImageIcon(getClass().getResource("/images/populate.png")));
@@ -3108,20 +3492,159 @@ public class DesignerView {
     //endregion
 
     /**
-     * Represents the direction of the loading operation.
+     * Represents a request loading the columns of the selected table on the background thread. If the rows are requested as well the
+     * rows table is switched to the rows of the scanner once the columns are shown, the rows are then loaded by the pages as they are
+     * scrolled into the view.
      */
-    private enum Direction {
+    private class PageLoadRequest extends PageRequest {
+
+        //region Variables
+        /**
+         * The scanner of the table.
+         */
+        private final QueryScanner pageScanner;
+        /**
+         * The name of the table.
+         */
+        private final String       tableName;
+        /**
+         * Indicates whether the rows should be loaded after the columns.
+         */
+        private final boolean      loadRows;
+        /**
+         * The row to be shown first. The rows are numbered from 1.
+         */
+        private final long         offset;
+        /**
+         * The number of rows used to discover the columns.
+         */
+        private final int          pageSize;
+        /**
+         * The query of the scanner.
+         */
+        private final Query        query;
         /**
-         * Reload current data.
+         * The row used to guess the types of the columns. This value can be null.
          */
-        Current,
+        private DataRow            row;
+        //endregion
+
+        //region Constructor
+
         /**
-         * Load next data.
+         * Initializes a new instance of the {@link PageLoadRequest} class loading only the columns.
+         *
+         * @param tableName   The name of the table.
+         * @param pageScanner The scanner of the table.
+         * @param row         The row used to guess the types of the columns. This value can be null.
          */
-        Forward,
+        private PageLoadRequest(String tableName, QueryScanner pageScanner, DataRow row) {
+            this(tableName, pageScanner, row, false, 0);
+        }
+
+        /**
+         * Initializes a new instance of the {@link PageLoadRequest} class loading the columns and the rows.
+         *
+         * @param tableName   The name of the table.
+         * @param pageScanner The scanner of the table.
+         * @param offset      The row to be shown first. The rows are numbered from 1.
+         */
+        private PageLoadRequest(String tableName, QueryScanner pageScanner, long offset) {
+            this(tableName, pageScanner, null, true, offset);
+        }
+
         /**
-         * Load previous data.
+         * Initializes a new instance of the {@link PageLoadRequest} class.
+         *
+         * @param tableName   The name of the table.
+         * @param pageScanner The scanner of the table.
+         * @param row         The row used to guess the types of the columns. This value can be null.
+         * @param loadRows    Indicates whether the rows should be loaded after the columns.
+         * @param offset      The row to be shown first. The rows are numbered from 1.
          */
-        Backward
+        private PageLoadRequest(String tableName, QueryScanner pageScanner, DataRow row, boolean loadRows, long offset) {
+            this.tableName = tableName;
+            this.pageScanner = pageScanner;
+            this.row = row;
+            this.loadRows = loadRows;
+            this.offset = offset;
+            this.pageSize = getPageSize();
+            this.query = lastQuery;
+        }
+        //endregion
+
+        //region Protected Methods
+        @Override
+        protected void merge(PageRequest superseded) {
+            PageLoadRequest previous = (PageLoadRequest)superseded;
+            if (previous.pageScanner == this.pageScanner && this.row == null) {
+                this.row = previous.row;
+            }
+        }
+
+        @Override
+        protected void load() throws Exception {
+            final Collection<ColumnQualifier> columns;
+            final DataRow columnsRow;
+
+            // The rows of the previously shown pages could still be loaded with the same scanner.
+            synchronized (this.pageScanner) {
+                checkCurrent();
+
+                if (this.loadRows) {
+                    this.pageScanner.setQuery(this.query);
+                }
+
+                DataRow firstRow = this.row;
+                if (firstRow == null) {
+                    Map<String, ColumnType> columnTypes = new HashMap<String, ColumnType>();
+                    columnTypes.put(ColumnQualifier.KEY.getName(), ColumnType.String);
+
+                    this.pageScanner.setColumnTypes(columnTypes);
+
+                    firstRow = this.pageScanner.getFirstRow();
+
+                    checkCurrent();
+                }
+
+                columns = this.pageScanner.getColumns(this.pageSize);
+                columnsRow = firstRow;
+            }
+
+            publish(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        showColumns(tableName, columns, columnsRow);
+
+                        if (loadRows) {
+                            loadRowsTableColumns(tableName);
+                            showRows(pageScanner, tableName, offset);
+                        }
+                        else {
+                            togglePagingControls();
+                            toggleRowControls(rowsTableModel.getRowCount() > 0);
+                        }
+
+                        toggleColumnControls(columnsTableModel.getRowCount() > 0);
+
+                        owner.setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
+                    }
+                });
+        }
+
+        @Override
+        protected void onError(Exception ex) {
+            setError(this.loadRows ? "Failed to fill rows: " : "Failed to fill tables list: ", ex);
+
+            rowsVisible.setText("?");
+
+            togglePagingControls();
+            toggleColumnControls(columnsTableModel.getRowCount() > 0);
+            toggleRowControls(rowsTableModel.getRowCount() > 0);
+
+            owner.setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
+        }
+        //endregion
     }
 }
@@ -0,0 +1,66 @@
+package hrider.hbase;
+
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class represents an in-memory storage which fails to open the scanners starting from the specified row, so that the errors
+ *          of a single region or bucket can be tested.
+ */
+class FailingStorageProvider extends MemoryStorageProvider {
+
+    //region Variables
+    /**
+     * The start row of the scans which fail or null if all the scans succeed.
+     */
+    private volatile byte[] failingRow;
+    //endregion
+
+    //region Public Properties
+
+    /**
+     * Sets the start row of the scans which fail.
+     *
+     * @param row The start row or null if all the scans should succeed.
+     */
+    public void setFailingRow(byte[] row) {
+        this.failingRow = row;
+    }
+    //endregion
+
+    //region Public Methods
+    @Override
+    public StorageTable openTable(String tableName) throws IOException {
+        return new MemoryStorageTable(this, tableName) {
+            @Override
+            public ResultScanner getScanner(Scan scan) throws IOException {
+                byte[] row = FailingStorageProvider.this.failingRow;
+                if (row != null && Bytes.equals(scan.getStartRow(), row)) {
+                    throw new IOException(String.format("The region starting at '%s' is not available.", Bytes.toStringBinary(row)));
+                }
+                return super.getScanner(scan);
+            }
+        };
+    }
+    //endregion
+}
@@ -0,0 +1,183 @@
+package hrider.hbase;
+
+import hrider.config.ConnectionDetails;
+import hrider.config.ServerDetails;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class tests the parallel scan of the regions over an in-memory table split at k100, k200 and k300. The region starting at
+ *          k200 is empty.
+ */
+public class ParallelResultScannerTest {
+
+    //region Constants
+    private static final String TABLE  = "parallel";
+    private static final byte[] FAMILY = Bytes.toBytes("f");
+    //endregion
+
+    //region Variables
+    private FailingStorageProvider provider;
+    private Connection             connection;
+    /**
+     * The keys of the table in the expected order.
+     */
+    private List<String>           expected;
+    //endregion
+
+    //region Public Methods
+    @Before
+    public void setUp() throws IOException {
+        this.provider = new FailingStorageProvider();
+
+        ConnectionDetails details = new ConnectionDetails();
+        details.setZookeeper(new ServerDetails("memory", "2181", "/hbase"));
+
+        this.connection = new Connection(details, this.provider);
+
+        HTableDescriptor descriptor = new HTableDescriptor(TableName.valueOf(TABLE));
+        descriptor.addFamily(new HColumnDescriptor(FAMILY));
+
+        this.provider.createTable(descriptor, new byte[][]{Bytes.toBytes("k100"), Bytes.toBytes("k200"), Bytes.toBytes("k300")});
+
+        this.expected = new ArrayList<String>();
+
+        StorageTable table = this.provider.openTable(TABLE);
+        try {
+            for (int i = 0 ; i < 400 ; i++) {
+                if (i >= 200 && i < 300) {
+                    continue;
+                }
+
+                String key = String.format("k%03d", i);
+
+                Put put = new Put(Bytes.toBytes(key));
+                put.add(FAMILY, Bytes.toBytes("q"), Bytes.toBytes("v"));
+                table.put(put);
+
+                this.expected.add(key);
+            }
+        }
+        finally {
+            table.close();
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        this.provider.close();
+    }
+
+    @Test
+    public void testReturnsRowsInKeyOrderAcrossEmptyRegion() throws IOException {
+        assertEquals(this.expected, scan(null, null, 2));
+    }
+
+    @Test
+    public void testReturnsRowsInKeyOrderWhenAllRegionsAreScanned() throws IOException {
+        assertEquals(this.expected, scan(null, null, 8));
+    }
+
+    @Test
+    public void testStartsFromKeyInsideRegion() throws IOException {
+        List<String> rows = scan(Bytes.toBytes("k150"), Bytes.toBytes("k350"), 2);
+
+        assertEquals(this.expected.subList(this.expected.indexOf("k150"), this.expected.indexOf("k350")), rows);
+    }
+
+    @Test
+    public void testThrowsErrorOfLaterRegionAfterPrecedingRows() throws IOException {
+        this.provider.setFailingRow(Bytes.toBytes("k300"));
+
+        List<String> rows = new ArrayList<String>();
+
+        ResultScanner scanner = createScanner(null, null, 4);
+        try {
+            for (Result result = scanner.next() ; result != null ; result = scanner.next()) {
+                rows.add(Bytes.toString(result.getRow()));
+            }
+            fail("The error of the region k300 is expected.");
+        }
+        catch (IOException ignore) {
+            // The rows of the preceding regions are returned before the error.
+            assertEquals(this.expected.subList(0, this.expected.indexOf("k300")), rows);
+        }
+        finally {
+            scanner.close();
+        }
+    }
+    //endregion
+
+    //region Private Methods
+    private ResultScanner createScanner(byte[] startKey, byte[] stopKey, int threads) throws IOException {
+        Scan scan = new Scan();
+        if (startKey != null) {
+            scan.setStartRow(startKey);
+        }
+        if (stopKey != null) {
+            scan.setStopRow(stopKey);
+        }
+        scan.setCaching(7);
+
+        List<KeyRange> ranges;
+
+        StorageTable table = this.provider.openTable(TABLE);
+        try {
+            ranges = KeyRange.split(table, scan.getStartRow(), scan.getStopRow());
+        }
+        finally {
+            table.close();
+        }
+
+        return new ParallelResultScanner(this.connection, TABLE, scan, ranges, threads);
+    }
+
+    private List<String> scan(byte[] startKey, byte[] stopKey, int threads) throws IOException {
+        List<String> rows = new ArrayList<String>();
+
+        ResultScanner scanner = createScanner(startKey, stopKey, threads);
+        try {
+            for (Result result = scanner.next() ; result != null ; result = scanner.next()) {
+                rows.add(Bytes.toString(result.getRow()));
+            }
+        }
+        finally {
+            scanner.close();
+        }
+        return rows;
+    }
+    //endregion
+}
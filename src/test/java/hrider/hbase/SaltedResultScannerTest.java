@@ -0,0 +1,224 @@
+package hrider.hbase;
+
+import hrider.config.ConnectionDetails;
+import hrider.config.ServerDetails;
+import hrider.data.ColumnType;
+import hrider.data.DataRow;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class tests the merge of the salted buckets over an in-memory table split on the salts. The rows are spread over the buckets
+ *          0, 1 and 3, so the bucket 2 is empty, and two unsalted keys are written to two buckets each.
+ */
+public class SaltedResultScannerTest {
+
+    //region Constants
+    private static final String TABLE   = "salted";
+    private static final byte[] FAMILY  = Bytes.toBytes("f");
+    private static final int    BUCKETS = 4;
+    private static final int    ROWS    = 30;
+    //endregion
+
+    //region Variables
+    private FailingStorageProvider provider;
+    private Connection             connection;
+    /**
+     * The rows of the table as "unsalted key/bucket" in the expected order.
+     */
+    private List<String>           expected;
+    //endregion
+
+    //region Public Methods
+    @Before
+    public void setUp() throws IOException {
+        this.provider = new FailingStorageProvider();
+
+        ConnectionDetails details = new ConnectionDetails();
+        details.setZookeeper(new ServerDetails("memory", "2181", "/hbase"));
+
+        this.connection = new Connection(details, this.provider);
+
+        HTableDescriptor descriptor = new HTableDescriptor(TableName.valueOf(TABLE));
+        descriptor.addFamily(new HColumnDescriptor(FAMILY));
+
+        byte[][] splitKeys = new byte[BUCKETS - 1][];
+        for (int i = 1 ; i < BUCKETS ; i++) {
+            splitKeys[i - 1] = SaltedResultScanner.getSalt(i, 1);
+        }
+
+        this.provider.createTable(descriptor, splitKeys);
+
+        int[] buckets = {0, 1, 3};
+
+        this.expected = new ArrayList<String>();
+
+        StorageTable table = this.provider.openTable(TABLE);
+        try {
+            for (int i = 0 ; i < ROWS ; i++) {
+                put(table, key(i), buckets[i % buckets.length]);
+            }
+
+            // The same unsalted keys in a second bucket.
+            put(table, key(4), 3);
+            put(table, key(9), 1);
+        }
+        finally {
+            table.close();
+        }
+
+        Collections.sort(this.expected);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        this.provider.close();
+    }
+
+    @Test
+    public void testMergesBucketsInUnsaltedKeyOrder() throws IOException {
+        assertEquals(this.expected, scan(null));
+    }
+
+    @Test
+    public void testReturnsDuplicateKeysInBucketOrder() throws IOException {
+        List<String> rows = scan(null);
+
+        assertEquals(Arrays.asList(key(4) + "/1", key(4) + "/3"), rows.subList(4, 6));
+        assertEquals(Arrays.asList(key(9) + "/0", key(9) + "/1"), rows.subList(10, 12));
+    }
+
+    @Test
+    public void testStartsEachBucketFromStartKey() throws IOException {
+        List<String> rows = scan(Bytes.toBytes(key(9)));
+
+        assertEquals(this.expected.subList(this.expected.indexOf(key(9) + "/0"), this.expected.size()), rows);
+    }
+
+    @Test
+    public void testResumesPagesFromKeyInsideBucket() throws IOException {
+        Map<String, ColumnType> columnTypes = new HashMap<String, ColumnType>();
+        columnTypes.put("key", ColumnType.BinaryString);
+        columnTypes.put("f:q", ColumnType.String);
+
+        Scanner scanner = new Scanner(this.connection, TABLE);
+        scanner.setColumnTypes(columnTypes);
+        scanner.setSalting(BUCKETS, 1);
+
+        try {
+            List<String> rows = new ArrayList<String>();
+
+            // The pages end between the duplicates of the unsalted keys, so the next page resumes inside the bucket of the last row.
+            Collection<DataRow> page = scanner.current(1, 5);
+            while (!page.isEmpty()) {
+                for (DataRow row : page) {
+                    rows.add(toString(row.getKey().getValue()));
+                }
+                page = scanner.next(5);
+            }
+
+            assertEquals(this.expected, rows);
+        }
+        finally {
+            scanner.close();
+        }
+    }
+
+    @Test
+    public void testThrowsErrorOfFailedBucket() throws IOException {
+        this.provider.setFailingRow(SaltedResultScanner.getSalt(3, 1));
+
+        ResultScanner scanner = new SaltedResultScanner(this.connection, TABLE, createScans(null), 1, 2);
+        try {
+            scanner.next();
+            fail("The error of the bucket 3 is expected.");
+        }
+        catch (IOException ignore) {
+            // The rows cannot be merged without the head of every bucket.
+        }
+        finally {
+            scanner.close();
+        }
+    }
+    //endregion
+
+    //region Private Methods
+    private static String key(int index) {
+        return String.format("k%02d", index);
+    }
+
+    private static String toString(byte[] row) {
+        return Bytes.toString(row, 1, row.length - 1) + '/' + row[0];
+    }
+
+    private void put(StorageTable table, String key, int bucket) throws IOException {
+        Put put = new Put(Bytes.add(SaltedResultScanner.getSalt(bucket, 1), Bytes.toBytes(key)));
+        put.add(FAMILY, Bytes.toBytes("q"), Bytes.toBytes("v"));
+        table.put(put);
+
+        this.expected.add(key + '/' + bucket);
+    }
+
+    private List<Scan> createScans(byte[] startKey) {
+        List<Scan> scans = new ArrayList<Scan>(BUCKETS);
+        for (int i = 0 ; i < BUCKETS ; i++) {
+            byte[] salt = SaltedResultScanner.getSalt(i, 1);
+
+            Scan scan = new Scan();
+            scan.setStartRow(startKey != null ? Bytes.add(salt, startKey) : salt);
+            scan.setStopRow(i < BUCKETS - 1 ? SaltedResultScanner.getSalt(i + 1, 1) : new byte[0]);
+            scan.setCaching(3);
+
+            scans.add(scan);
+        }
+        return scans;
+    }
+
+    private List<String> scan(byte[] startKey) throws IOException {
+        List<String> rows = new ArrayList<String>();
+
+        ResultScanner scanner = new SaltedResultScanner(this.connection, TABLE, createScans(startKey), 1, 2);
+        try {
+            for (Result result = scanner.next() ; result != null ; result = scanner.next()) {
+                rows.add(toString(result.getRow()));
+            }
+        }
+        finally {
+            scanner.close();
+        }
+        return rows;
+    }
+    //endregion
+}
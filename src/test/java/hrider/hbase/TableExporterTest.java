@@ -0,0 +1,202 @@
+package hrider.hbase;
+
+import hrider.config.ConnectionDetails;
+import hrider.config.ServerDetails;
+import hrider.data.ColumnType;
+import hrider.export.ExportFormats;
+import hrider.export.ExportPart;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class tests the export of a salted in-memory table split on the salts. The rows are spread over the buckets 0, 1 and 3 and
+ *          two unsalted keys are written to two buckets each. The query limits the rows by the unsalted keys k05 to k15.
+ */
+public class TableExporterTest {
+
+    //region Constants
+    private static final String TABLE   = "exported";
+    private static final byte[] FAMILY  = Bytes.toBytes("f");
+    private static final int    BUCKETS = 4;
+    private static final int    ROWS    = 20;
+    //endregion
+
+    //region Variables
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MemoryStorageProvider provider;
+    private Connection            connection;
+    private QueryScanner          scanner;
+    /**
+     * The rows matching the query as "unsalted key/bucket" in the expected order.
+     */
+    private List<String>          expected;
+    //endregion
+
+    //region Public Methods
+    @Before
+    public void setUp() throws IOException {
+        this.provider = new MemoryStorageProvider();
+
+        ConnectionDetails details = new ConnectionDetails();
+        details.setZookeeper(new ServerDetails("memory", "2181", "/hbase"));
+
+        this.connection = new Connection(details, this.provider);
+
+        HTableDescriptor descriptor = new HTableDescriptor(TableName.valueOf(TABLE));
+        descriptor.addFamily(new HColumnDescriptor(FAMILY));
+
+        byte[][] splitKeys = new byte[BUCKETS - 1][];
+        for (int i = 1 ; i < BUCKETS ; i++) {
+            splitKeys[i - 1] = SaltedResultScanner.getSalt(i, 1);
+        }
+
+        this.provider.createTable(descriptor, splitKeys);
+
+        int[] buckets = {0, 1, 3};
+
+        this.expected = new ArrayList<String>();
+
+        StorageTable table = this.provider.openTable(TABLE);
+        try {
+            for (int i = 0 ; i < ROWS ; i++) {
+                put(table, i, buckets[i % buckets.length]);
+            }
+
+            // The same unsalted keys in a second bucket.
+            put(table, 9, 1);
+            put(table, 12, 3);
+        }
+        finally {
+            table.close();
+        }
+
+        Collections.sort(this.expected);
+
+        Map<String, ColumnType> columnTypes = new HashMap<String, ColumnType>();
+        columnTypes.put("key", ColumnType.BinaryString);
+        columnTypes.put("f:q", ColumnType.String);
+
+        Query query = new Query();
+        query.setStartKey(Bytes.toBytes(key(5)));
+        query.setEndKey(Bytes.toBytes(key(15)));
+
+        this.scanner = new QueryScanner(this.connection, TABLE, query);
+        this.scanner.setColumnTypes(columnTypes);
+        this.scanner.setSalting(BUCKETS, 1);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        this.scanner.close();
+        this.provider.close();
+    }
+
+    @Test
+    public void testExportsRowsOfQueryInUnsaltedKeyOrder() throws IOException {
+        File file = this.folder.newFile("table.csv");
+
+        new TableExporter(this.scanner, ExportFormats.DELIMITED, ',').export(file, null, null);
+
+        assertEquals(this.expected, read(file));
+    }
+
+    @Test
+    public void testResumesAfterRowInsideBucket() throws IOException {
+        File file = this.folder.newFile("table.csv");
+
+        // The last exported row is followed by the same unsalted key in a later bucket.
+        byte[] lastRow = Bytes.add(SaltedResultScanner.getSalt(0, 1), Bytes.toBytes(key(9)));
+
+        new TableExporter(this.scanner, ExportFormats.DELIMITED, ',').export(file, 0, lastRow, null, null, null);
+
+        assertEquals(this.expected.subList(this.expected.indexOf(key(9) + "/0") + 1, this.expected.size()), read(file));
+    }
+
+    @Test
+    public void testExportsPartsOfEachBucket() throws IOException {
+        File file = new File(this.folder.getRoot(), "table.csv");
+
+        PartitionedTableExporter exporter = new PartitionedTableExporter(this.scanner, ExportFormats.DELIMITED, ',');
+
+        List<KeyRange> ranges = exporter.split();
+        assertEquals(BUCKETS, ranges.size());
+
+        List<ExportPart> parts = PartitionedTableExporter.createParts(file, ranges);
+        exporter.export(parts, exporter.sampleHeader(), null, null);
+
+        List<String> rows = new ArrayList<String>();
+        for (ExportPart part : parts) {
+            rows.addAll(read(part.getFile()));
+        }
+        Collections.sort(rows);
+
+        assertEquals(this.expected, rows);
+    }
+    //endregion
+
+    //region Private Methods
+    private static String key(int index) {
+        return String.format("k%02d", index);
+    }
+
+    private void put(StorageTable table, int index, int bucket) throws IOException {
+        Put put = new Put(Bytes.add(SaltedResultScanner.getSalt(bucket, 1), Bytes.toBytes(key(index))));
+        put.add(FAMILY, Bytes.toBytes("q"), Bytes.toBytes("v"));
+        table.put(put);
+
+        if (index >= 5 && index <= 15) {
+            this.expected.add(key(index) + '/' + bucket);
+        }
+    }
+
+    private static List<String> read(File file) throws IOException {
+        List<String> rows = new ArrayList<String>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            reader.readLine();
+
+            for (String line = reader.readLine() ; line != null ; line = reader.readLine()) {
+                byte[] row = Bytes.toBytesBinary(line.substring(0, line.indexOf(',')));
+                rows.add(Bytes.toString(row, 1, row.length - 1) + '/' + row[0]);
+            }
+        }
+        finally {
+            reader.close();
+        }
+        return rows;
+    }
+    //endregion
+}
@@ -0,0 +1,140 @@
+package hrider.hbase;
+
+import hrider.config.ConnectionDetails;
+import hrider.config.ServerDetails;
+import hrider.data.ColumnType;
+import hrider.data.DataRow;
+import org.apache.hadoop.hbase.HColumnDescriptor;
+import org.apache.hadoop.hbase.HTableDescriptor;
+import org.apache.hadoop.hbase.TableName;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Copyright (C) 2012 NICE Systems ltd.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * @author Igor Cher
+ * @version %I%, %G%
+ *          <p/>
+ *          This class tests the comparisons of the columns over an in-memory table. The row 'a' holds the compared column, the row 'b' does
+ *          not have it.
+ */
+public class ValuePredicateTest {
+
+    //region Constants
+    private static final String TABLE  = "predicates";
+    private static final byte[] FAMILY = Bytes.toBytes("f");
+    //endregion
+
+    //region Variables
+    private MemoryStorageProvider   provider;
+    private Connection              connection;
+    private Map<String, ColumnType> columnTypes;
+    //endregion
+
+    //region Public Methods
+    @Before
+    public void setUp() throws IOException {
+        this.provider = new MemoryStorageProvider();
+
+        ConnectionDetails details = new ConnectionDetails();
+        details.setZookeeper(new ServerDetails("memory", "2181", "/hbase"));
+
+        this.connection = new Connection(details, this.provider);
+
+        HTableDescriptor descriptor = new HTableDescriptor(TableName.valueOf(TABLE));
+        descriptor.addFamily(new HColumnDescriptor(FAMILY));
+
+        this.provider.createTable(descriptor, null);
+
+        StorageTable table = this.provider.openTable(TABLE);
+        try {
+            Put a = new Put(Bytes.toBytes("a"));
+            a.add(FAMILY, Bytes.toBytes("c"), Bytes.toBytes("x"));
+            a.add(FAMILY, Bytes.toBytes("d"), Bytes.toBytes("1"));
+            table.put(a);
+
+            Put b = new Put(Bytes.toBytes("b"));
+            b.add(FAMILY, Bytes.toBytes("d"), Bytes.toBytes("2"));
+            table.put(b);
+        }
+        finally {
+            table.close();
+        }
+
+        this.columnTypes = new HashMap<String, ColumnType>();
+        this.columnTypes.put("key", ColumnType.String);
+        this.columnTypes.put("f:c", ColumnType.String);
+        this.columnTypes.put("f:d", ColumnType.String);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        this.provider.close();
+    }
+
+    @Test
+    public void testIsNullMatchesRowsWithoutColumn() throws IOException, ParseException {
+        assertEquals(Arrays.asList("b"), query("f:c is null"));
+    }
+
+    @Test
+    public void testNegatedIsNotNullMatchesRowsWithoutColumn() throws IOException, ParseException {
+        assertEquals(Arrays.asList("b"), query("not f:c is not null"));
+    }
+
+    @Test
+    public void testIsNotNullMatchesRowsWithColumn() throws IOException, ParseException {
+        assertEquals(Arrays.asList("a"), query("f:c is not null"));
+        assertEquals(Arrays.asList("a"), query("not f:c is null"));
+    }
+
+    @Test
+    public void testComparisonSkipsRowsWithoutColumn() throws IOException, ParseException {
+        assertEquals(Arrays.asList("a"), query("f:c = 'x'"));
+        assertEquals(Collections.<String>emptyList(), query("not f:c = 'x'"));
+    }
+    //endregion
+
+    //region Private Methods
+    private List<String> query(String expression) throws IOException, ParseException {
+        Query query = new Query();
+        query.setPredicate(expression, new PredicateParser(this.columnTypes).parse(expression));
+
+        QueryScanner scanner = new QueryScanner(this.connection, TABLE, query);
+        scanner.setColumnTypes(this.columnTypes);
+
+        try {
+            List<String> keys = new ArrayList<String>();
+            for (DataRow row : scanner.current(1, 10)) {
+                keys.add(Bytes.toString(row.getKey().getValue()));
+            }
+            return keys;
+        }
+        finally {
+            scanner.close();
+        }
+    }
+    //endregion
+}